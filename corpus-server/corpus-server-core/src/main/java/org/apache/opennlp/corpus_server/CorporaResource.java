@@ -18,6 +18,7 @@
 package org.apache.opennlp.corpus_server;
 
 import java.io.IOException;
+import java.util.Locale;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
@@ -26,6 +27,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
+import org.apache.opennlp.corpus_server.store.CASCodec;
 import org.apache.opennlp.corpus_server.store.CorporaStore;
 import org.apache.opennlp.corpus_server.store.CorpusStore;
 
@@ -38,12 +40,14 @@ public class CorporaResource {
 	 * Note: Type system references are not supported currently!
 	 * 
 	 * @param corpusName
+	 * @param codec the optional name of the {@link CASCodec} to store the CASes with
 	 * @param resources
 	 */
 	@POST
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Path("_createCorpus")
-	public void createCorpus(@QueryParam("corpusName") String corpusName, byte[][] resources) throws IOException {
+	public void createCorpus(@QueryParam("corpusName") String corpusName,
+	    @QueryParam("codec") String codec, byte[][] resources) throws IOException {
 	  
 	  if (resources.length != 2) {
 	    // TODO: throw exception
@@ -53,7 +57,13 @@ public class CorporaResource {
 	  
 	  CorporaStore store = corpusServer.getStore();
 	  
-	  store.createCorpus(corpusName, resources[0], resources[1]);
+	  if (codec != null) {
+	    store.createCorpus(corpusName, resources[0], resources[1],
+	        CASCodec.valueOf(codec.toUpperCase(Locale.ROOT)));
+	  }
+	  else {
+	    store.createCorpus(corpusName, resources[0], resources[1]);
+	  }
 	}
 
   @Path("{corpus}")
@@ -18,24 +18,46 @@
 package org.apache.opennlp.corpus_server;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.opennlp.corpus_server.search.SearchService;
+import org.apache.opennlp.corpus_server.store.CASCodec;
 import org.apache.opennlp.corpus_server.store.CorpusStore;
 
 public class CorpusResource {
 
+  /**
+   * The number of CASes which are added to the store in one transaction
+   * by the bulk import.
+   */
+  private static final int BULK_CHUNK_SIZE = 500;
+
+  /**
+   * The name of the type system entry in an exported corpus package.
+   */
+  private static final String TYPE_SYSTEM_ENTRY = "TypeSystem.xml";
+
   private final CorpusStore corpus;
   private final SearchService service;
 	
@@ -57,6 +79,120 @@ public class CorpusResource {
     corpus.addCAS(casId, cas);
   }
 
+  /**
+   * Adds many CASes to the store at once. The request body is a zip
+   * package, the name of an entry is the id of the CAS and the content
+   * is the CAS in the XMI format.
+   * <p>
+   * The package is read as a stream and the CASes are added in chunks,
+   * a large package does not need to fit into memory.
+   * 
+   * @return the number of added CASes
+   */
+  @POST
+  @Consumes("application/zip")
+  @Produces(MediaType.TEXT_PLAIN)
+  @Path("_addCASes")
+  public String addCASes(InputStream casesIn) throws IOException {
+    return Integer.toString(addCASes(casesIn, false));
+  }
+  
+  /**
+   * Imports a corpus package which was created by {@link #exportCorpus(String)}.
+   * <p>
+   * The type system entry is ignored and CASes which already exist in the
+   * store are skipped, an interrupted import can be resumed by sending
+   * the same package again.
+   * 
+   * @return the number of added CASes
+   */
+  @POST
+  @Consumes("application/zip")
+  @Produces(MediaType.TEXT_PLAIN)
+  @Path("_import")
+  public String importCorpus(InputStream corpusIn) throws IOException {
+    return Integer.toString(addCASes(corpusIn, true));
+  }
+  
+  private int addCASes(InputStream casesIn, boolean resume) throws IOException {
+    
+    int casCount = 0;
+    
+    Map<String, byte[]> chunk = new LinkedHashMap<>();
+    
+    try (ZipInputStream zipIn = new ZipInputStream(casesIn)) {
+      ZipEntry entry;
+      while ((entry = zipIn.getNextEntry()) != null) {
+        String casId = entry.getName();
+        
+        boolean skip = entry.isDirectory() || (resume
+            && (TYPE_SYSTEM_ENTRY.equals(casId) || corpus.containsCAS(casId)));
+        
+        if (!skip) {
+          chunk.put(casId, zipIn.readAllBytes());
+          
+          if (chunk.size() >= BULK_CHUNK_SIZE) {
+            corpus.addCASes(chunk);
+            casCount += chunk.size();
+            chunk.clear();
+          }
+        }
+        
+        zipIn.closeEntry();
+      }
+    }
+    
+    if (!chunk.isEmpty()) {
+      corpus.addCASes(chunk);
+      casCount += chunk.size();
+    }
+    
+    return casCount;
+  }
+  
+  /**
+   * Exports the type system and the CASes of this corpus into a zip package.
+   * The package is streamed to the client while the CASes are read from
+   * the store.
+   * 
+   * @param q an optional query, if set only the matching CASes are exported
+   * 
+   * @return the zip package
+   */
+  @GET
+  @Produces("application/zip")
+  @Path("_export")
+  public StreamingOutput exportCorpus(@QueryParam("q") String q) {
+    return out -> {
+      ZipOutputStream zipPackageOut = new ZipOutputStream(out);
+      
+      zipPackageOut.putNextEntry(new ZipEntry(TYPE_SYSTEM_ENTRY));
+      zipPackageOut.write(corpus.getTypeSystem());
+      zipPackageOut.closeEntry();
+      
+      if (q == null) {
+        corpus.visitCASes((casId, content) -> {
+          zipPackageOut.putNextEntry(new ZipEntry(casId));
+          zipPackageOut.write(content);
+          zipPackageOut.closeEntry();
+        });
+      }
+      else {
+        for (String casId : service.search(corpus, q)) {
+          byte[] content = corpus.getCAS(casId);
+          
+          if (content != null) {
+            zipPackageOut.putNextEntry(new ZipEntry(casId));
+            zipPackageOut.write(content);
+            zipPackageOut.closeEntry();
+          }
+        }
+      }
+      
+      zipPackageOut.finish();
+    };
+  }
+
   /**
    * Updates an existing CAS in the store.
    */
@@ -77,15 +213,87 @@ public class CorpusResource {
 
   /**
    * Retrieves an existing CAS form the store.
+   * <p>
+   * When the corpus stores the CASes compressed and the client accepts
+   * the content encoding, the CAS is sent as stored without conversion.
+   * If the CAS does not exist the response has no content.
    * 
    * @param casId
+   * @param acceptEncoding
    * @return
    */
   @GET
   @Produces(MediaType.TEXT_XML)
   @Path("{casId}")
-  public byte[] getCAS(@PathParam("casId") String casId) throws IOException {
-    return corpus.getCAS(casId);
+  public Response getCAS(@PathParam("casId") String casId,
+      @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) throws IOException {
+    
+    CASCodec codec = corpus.getCodec();
+    
+    boolean encoded = codec.getContentEncoding() != null
+        && isEncodingAccepted(acceptEncoding, codec.getContentEncoding());
+    
+    byte[] cas = encoded ? corpus.getEncodedCAS(casId) : corpus.getCAS(casId);
+    
+    // The response depends on the accepted encodings, if the corpus is compressed
+    Response.ResponseBuilder response = cas != null ? Response.ok(cas) : Response.noContent();
+    
+    if (codec.getContentEncoding() != null) {
+      response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+    
+    if (encoded && cas != null) {
+      response.header(HttpHeaders.CONTENT_ENCODING, codec.getContentEncoding());
+    }
+    
+    return response.build();
+  }
+  
+  /**
+   * Checks if an Accept-Encoding header accepts the specified content encoding,
+   * either by name or by the wildcard, with a quality value above zero.
+   * 
+   * @param acceptEncoding the value of the Accept-Encoding header or null
+   * @param encoding the content encoding
+   * 
+   * @return true if the encoding is accepted
+   */
+  static boolean isEncodingAccepted(String acceptEncoding, String encoding) {
+    
+    if (acceptEncoding == null) {
+      return false;
+    }
+    
+    double wildcardQuality = 0;
+    
+    for (String coding : acceptEncoding.split(",")) {
+      String[] params = coding.split(";");
+      String name = params[0].trim();
+      double quality = 1;
+      
+      for (int i = 1; i < params.length; i++) {
+        String[] param = params[i].split("=", 2);
+        
+        if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+          try {
+            quality = Double.parseDouble(param[1].trim());
+          }
+          catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      
+      if (name.equalsIgnoreCase(encoding)) {
+        return quality > 0;
+      }
+      
+      if (name.equals("*")) {
+        wildcardQuality = quality;
+      }
+    }
+    
+    return wildcardQuality > 0;
   }
   
   /**
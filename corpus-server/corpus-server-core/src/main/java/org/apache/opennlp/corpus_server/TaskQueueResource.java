@@ -17,11 +17,17 @@
 
 package org.apache.opennlp.corpus_server;
 
+import java.util.List;
+
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
+import org.apache.opennlp.corpus_server.taskqueue.TaskLease;
 import org.apache.opennlp.corpus_server.taskqueue.TaskQueue;
 
 public class TaskQueueResource {
@@ -43,4 +49,23 @@ public class TaskQueueResource {
   public String getNextTask() {
     return queue.nextTask();
   }
+  
+  /**
+   * Leases up to count tasks, each must be acknowledged with {@link #ack(String, long)}
+   * before the timeout in milliseconds expires.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("_nextTasks")
+  public List<TaskLease> getNextTasks(@QueryParam("count") @DefaultValue("1") int count,
+      @QueryParam("timeout") @DefaultValue("600000") long timeout) {
+    return queue.nextTasks(count, timeout);
+  }
+  
+  @POST
+  @Produces(MediaType.TEXT_PLAIN)
+  @Path("_ack")
+  public String ack(@QueryParam("casId") String casId, @QueryParam("leaseId") long leaseId) {
+    return Boolean.toString(queue.ack(casId, leaseId));
+  }
 }
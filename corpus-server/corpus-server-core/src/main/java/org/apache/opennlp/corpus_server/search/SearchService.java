@@ -18,6 +18,7 @@
 package org.apache.opennlp.corpus_server.search;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.opennlp.corpus_server.store.CorporaStore;
@@ -52,6 +53,20 @@ public interface SearchService {
    */
   void index(CorpusStore store, String casId) throws IOException;
   
+  /**
+   * Indexes or re-indexes a batch of CASes. An implementation should
+   * commit the index changes once for the whole batch.
+   * 
+   * @param store
+   * @param casIds
+   * @throws IOException
+   */
+  default void index(CorpusStore store, Collection<String> casIds) throws IOException {
+    for (String casId : casIds) {
+      index(store, casId);
+    }
+  }
+  
   /**
    * Removes the CAS from the index.
    * 
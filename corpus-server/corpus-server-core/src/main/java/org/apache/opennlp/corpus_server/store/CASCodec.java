@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The format in which a corpus store holds its CASes. The codec is chosen
+ * when a corpus is created, the store always converts CASes to XMI
+ * when they are retrieved.
+ */
+public enum CASCodec {
+
+  /**
+   * The CASes are stored in the XMI format.
+   */
+  XMI(null) {
+    @Override
+    public byte[] encode(byte[] xmi) {
+      return xmi;
+    }
+
+    @Override
+    public byte[] decode(byte[] content) {
+      return content;
+    }
+  },
+
+  /**
+   * The CASes are stored in the XMI format compressed with Deflate in the
+   * zlib format, which is also used by the HTTP deflate content encoding.
+   */
+  DEFLATE("deflate") {
+    @Override
+    public byte[] encode(byte[] xmi) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(xmi.length / 4);
+
+      try (OutputStream out = new DeflaterOutputStream(bytes)) {
+        out.write(xmi);
+      }
+
+      return bytes.toByteArray();
+    }
+
+    @Override
+    public byte[] decode(byte[] content) throws IOException {
+      try (InflaterInputStream in = new InflaterInputStream(
+          new ByteArrayInputStream(content))) {
+        return in.readAllBytes();
+      }
+    }
+  };
+
+  private final String contentEncoding;
+
+  CASCodec(String contentEncoding) {
+    this.contentEncoding = contentEncoding;
+  }
+
+  /**
+   * Retrieves the HTTP content encoding of the stored format.
+   * 
+   * @return the content encoding or null if the CASes are stored as plain XMI
+   */
+  public String getContentEncoding() {
+    return contentEncoding;
+  }
+
+  /**
+   * Converts a CAS in the XMI format into the stored format.
+   * 
+   * @param xmi the CAS in the XMI format
+   * 
+   * @return the CAS in the stored format
+   * 
+   * @throws IOException if the CAS cannot be converted
+   */
+  public abstract byte[] encode(byte[] xmi) throws IOException;
+
+  /**
+   * Converts a CAS in the stored format back into the XMI format.
+   * 
+   * @param content the CAS in the stored format
+   * 
+   * @return the CAS in the XMI format
+   * 
+   * @throws IOException if the CAS cannot be converted
+   */
+  public abstract byte[] decode(byte[] content) throws IOException;
+}
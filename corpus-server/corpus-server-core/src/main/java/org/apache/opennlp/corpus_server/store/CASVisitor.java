@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.store;
+
+import java.io.IOException;
+
+/**
+ * Visitor which is called for every CAS when a corpus is traversed.
+ * 
+ * @see CorpusStore#visitCASes(CASVisitor)
+ */
+@FunctionalInterface
+public interface CASVisitor {
+
+  /**
+   * Called for a CAS of the corpus.
+   * 
+   * @param casId the id of the CAS
+   * @param content the CAS in the XMI format
+   * 
+   * @throws IOException if processing the CAS fails, the traversal is aborted
+   */
+  void visit(String casId, byte[] content) throws IOException;
+}
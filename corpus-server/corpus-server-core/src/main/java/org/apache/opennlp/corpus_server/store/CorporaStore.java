@@ -50,6 +50,20 @@ public interface CorporaStore {
    */
   void createCorpus(String corpusName, byte[] typeSystemBytes, byte[] indexMapping) throws IOException;
   
+  /**
+   * Creates a new corpus which stores its CASes with the given codec.
+   * A store which does not support codecs stores the CASes as XMI.
+   * 
+   * @param corpusName
+   * @param typeSystemBytes
+   * @param indexMapping
+   * @param codec
+   */
+  default void createCorpus(String corpusName, byte[] typeSystemBytes, byte[] indexMapping,
+      CASCodec codec) throws IOException {
+    createCorpus(corpusName, typeSystemBytes, indexMapping);
+  }
+  
   Set<String> getCorpusIds() throws IOException;
   
   /**
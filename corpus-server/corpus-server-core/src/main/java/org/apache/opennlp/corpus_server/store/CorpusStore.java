@@ -18,6 +18,7 @@
 package org.apache.opennlp.corpus_server.store;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * A Corpus Store contains a set of CASes and is responsible to host them
@@ -43,6 +44,58 @@ public interface CorpusStore {
    */
   byte[] getCAS(String casId) throws IOException;
   
+  /**
+   * Retrieves the format in which this corpus stores its CASes.
+   * 
+   * @return the codec of this corpus
+   * 
+   * @throws IOException if retrieving the codec is not possible
+   */
+  default CASCodec getCodec() throws IOException {
+    return CASCodec.XMI;
+  }
+  
+  /**
+   * Retrieves a CAS for a given id in the stored format, without
+   * converting it to XMI.
+   * 
+   * @param casId the id of the CAS to retrieve
+   * 
+   * @return the CAS encoded with the codec of this corpus
+   * 
+   * @throws IOException if retrieving the CAS is not possible
+   * 
+   * @see #getCodec()
+   */
+  default byte[] getEncodedCAS(String casId) throws IOException {
+    byte[] casBytes = getCAS(casId);
+    return casBytes != null ? getCodec().encode(casBytes) : null;
+  }
+  
+  /**
+   * Checks if the corpus contains a CAS with the given id.
+   * 
+   * @param casId the id of the CAS
+   * 
+   * @return true if the CAS exists, otherwise false
+   * 
+   * @throws IOException if the check is not possible
+   */
+  default boolean containsCAS(String casId) throws IOException {
+    return getCAS(casId) != null;
+  }
+  
+  /**
+   * Passes every CAS of the corpus in the order of the CAS ids to the visitor.
+   * The CASes are retrieved one after another, a store should not load
+   * all of them into memory.
+   * 
+   * @param visitor the visitor which is called for every CAS
+   * 
+   * @throws IOException if retrieving the CASes fails
+   */
+  void visitCASes(CASVisitor visitor) throws IOException;
+  
   /**
    * Adds a CAS to the corpus with the given id. 
    * 
@@ -53,6 +106,21 @@ public interface CorpusStore {
    */
   void addCAS(String casID, byte[] content) throws IOException;
   
+  /**
+   * Adds many CASes to the corpus at once. A store should use this
+   * to add the CASes more efficiently than with single
+   * {@link #addCAS(String, byte[])} calls, e.g. in one transaction.
+   * 
+   * @param cases maps the ids of the new CASes to their content in the XMI format
+   * 
+   * @throws IOException if storing the CASes is not possible
+   */
+  default void addCASes(Map<String, byte[]> cases) throws IOException {
+    for (Map.Entry<String, byte[]> cas : cases.entrySet()) {
+      addCAS(cas.getKey(), cas.getValue());
+    }
+  }
+  
   /**
    * Updates the XMI content of an existing CAS.
    * 
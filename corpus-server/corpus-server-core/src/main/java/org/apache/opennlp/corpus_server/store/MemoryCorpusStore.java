@@ -20,6 +20,7 @@ package org.apache.opennlp.corpus_server.store;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Dummy in memory corpus store.
@@ -48,6 +49,18 @@ public class MemoryCorpusStore implements CorpusStore {
     return casStore.get(casId);
   }
 
+  @Override
+  public boolean containsCAS(String casId) {
+    return casStore.containsKey(casId);
+  }
+  
+  @Override
+  public void visitCASes(CASVisitor visitor) throws IOException {
+    for (Map.Entry<String, byte[]> cas : new TreeMap<>(casStore).entrySet()) {
+      visitor.visit(cas.getKey(), cas.getValue());
+    }
+  }
+
   // TODO: Add exception declaration to propagte errors back to client ...
   public void addCAS(String casID, byte[] content) {
 
@@ -17,22 +17,109 @@
 
 package org.apache.opennlp.corpus_server.taskqueue;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-class MemoryTaskQueue implements TaskQueue {
+/**
+ * In memory task queue. It is safe to use by many threads at the same time,
+ * tasks are taken from the queue without locking.
+ * <p>
+ * Leases which expired are returned to the queue lazily
+ * by the next call which takes tasks from the queue.
+ */
+public class MemoryTaskQueue implements TaskQueue {
+
+  private static final long EXPIRY_CHECK_INTERVAL = 1000;
 
-  private final Iterator<String> casIdQueueIterator;
+  private final Queue<String> pendingTasks = new ConcurrentLinkedQueue<>();
+  
+  private final ConcurrentMap<String, TaskLease> leases = new ConcurrentHashMap<>();
+  
+  private final AtomicLong leaseIds = new AtomicLong();
   
-  MemoryTaskQueue(Collection<String> casIdQueue) {
-    casIdQueueIterator = casIdQueue.iterator();   
+  private final AtomicLong nextExpiryCheck = new AtomicLong();
+  
+  public MemoryTaskQueue(Collection<String> casIdQueue) {
+    pendingTasks.addAll(casIdQueue);
+  }
+  
+  /**
+   * Called when a task was acknowledged and is removed from the queue.
+   * 
+   * @param casId the id of the CAS
+   */
+  protected void completed(String casId) {
+  }
+  
+  private void requeueExpiredLeases() {
+    
+    long now = System.currentTimeMillis();
+    long check = nextExpiryCheck.get();
+    
+    // Only one thread checks the leases at a time
+    if (now < check || !nextExpiryCheck.compareAndSet(check, now + EXPIRY_CHECK_INTERVAL)) {
+      return;
+    }
+    
+    for (TaskLease lease : leases.values()) {
+      if (lease.getExpiry() <= now && leases.remove(lease.getCasId(), lease)) {
+        pendingTasks.offer(lease.getCasId());
+      }
+    }
   }
   
   @Override
   public String nextTask() {
-    if (casIdQueueIterator.hasNext())
-      return casIdQueueIterator.next();
-    else
-      return null;
+    requeueExpiredLeases();
+    
+    String casId = pendingTasks.poll();
+    
+    if (casId != null) {
+      completed(casId);
+    }
+    
+    return casId;
+  }
+  
+  @Override
+  public List<TaskLease> nextTasks(int count, long visibilityTimeout) {
+    requeueExpiredLeases();
+    
+    List<TaskLease> tasks = new ArrayList<>(count);
+    long expiry = System.currentTimeMillis() + visibilityTimeout;
+    
+    String casId;
+    while (tasks.size() < count && (casId = pendingTasks.poll()) != null) {
+      TaskLease lease = new TaskLease(casId, leaseIds.incrementAndGet(), expiry);
+      leases.put(casId, lease);
+      tasks.add(lease);
+    }
+    
+    return tasks;
+  }
+  
+  @Override
+  public boolean ack(String casId, long leaseId) {
+    TaskLease lease = leases.get(casId);
+    
+    // An expired lease is returned to the queue by the next expiry check,
+    // the task might already be handed out to someone else
+    if (lease == null || lease.getLeaseId() != leaseId
+        || lease.getExpiry() <= System.currentTimeMillis()) {
+      return false;
+    }
+    
+    if (leases.remove(casId, lease)) {
+      completed(casId);
+      return true;
+    }
+    
+    return false;
   }
 }
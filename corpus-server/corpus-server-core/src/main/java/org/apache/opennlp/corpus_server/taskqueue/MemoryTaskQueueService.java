@@ -18,9 +18,9 @@
 package org.apache.opennlp.corpus_server.taskqueue;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,7 +36,7 @@ public class MemoryTaskQueueService implements TaskQueueService {
 
   private final static Logger LOGGER = Logger.getLogger(MemoryTaskQueueService.class .getName());
 
-  private final Map<String, MemoryTaskQueue> queues = new HashMap<>();
+  private final Map<String, MemoryTaskQueue> queues = new ConcurrentHashMap<>();
 
   @Override
   public void createTaskQueue(String queueId, String corpusId, String query) {
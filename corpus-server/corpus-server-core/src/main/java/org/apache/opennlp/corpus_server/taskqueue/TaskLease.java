@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.taskqueue;
+
+/**
+ * A task which was handed out by a {@link TaskQueue} and must be
+ * acknowledged before its lease expires, otherwise it is handed out again.
+ */
+public class TaskLease {
+
+  private final String casId;
+  private final long leaseId;
+  private final long expiry;
+
+  TaskLease(String casId, long leaseId, long expiry) {
+    this.casId = casId;
+    this.leaseId = leaseId;
+    this.expiry = expiry;
+  }
+
+  /**
+   * @return the id of the CAS to work on
+   */
+  public String getCasId() {
+    return casId;
+  }
+
+  /**
+   * @return the id of the lease, must be passed to {@link TaskQueue#ack(String, long)}
+   */
+  public long getLeaseId() {
+    return leaseId;
+  }
+
+  /**
+   * @return the time in milliseconds since the epoch when the lease expires
+   */
+  public long getExpiry() {
+    return expiry;
+  }
+}
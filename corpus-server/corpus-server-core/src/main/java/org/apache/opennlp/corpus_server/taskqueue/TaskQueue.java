@@ -17,12 +17,43 @@
 
 package org.apache.opennlp.corpus_server.taskqueue;
 
+import java.util.List;
+
+/**
+ * A queue of CASes which should be worked on. The queue can be consumed
+ * by many clients at the same time, every task is handed out only once
+ * as long as its lease did not expire.
+ */
 public interface TaskQueue {
   
   /**
-   * Retrieves the next cas id from the task queue.
+   * Retrieves the next cas id from the task queue. The task is
+   * acknowledged immediately and will not be handed out again.
    * 
-   * @return the cas id to the next cas
+   * @return the cas id to the next cas or null if the queue is empty
    */
   String nextTask();
+  
+  /**
+   * Leases up to count tasks from the queue. Every task must be acknowledged
+   * with {@link #ack(String, long)} within the visibility timeout, otherwise it
+   * is handed out again.
+   * 
+   * @param count the maximum number of tasks to lease
+   * @param visibilityTimeout the time in milliseconds the tasks are leased
+   * 
+   * @return the leased tasks, an empty list if there are no tasks available
+   */
+  List<TaskLease> nextTasks(int count, long visibilityTimeout);
+  
+  /**
+   * Acknowledges that a leased task is done and removes it from the queue.
+   * 
+   * @param casId the id of the CAS
+   * @param leaseId the id of the lease
+   * 
+   * @return true if the task was acknowledged, false if the lease
+   *     expired or is unknown
+   */
+  boolean ack(String casId, long leaseId);
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CorpusResourceTest {
+
+  @Test
+  void testEncodingAccepted() {
+    assertTrue(CorpusResource.isEncodingAccepted("deflate", "deflate"));
+    assertTrue(CorpusResource.isEncodingAccepted("gzip, DEFLATE", "deflate"));
+    assertTrue(CorpusResource.isEncodingAccepted("gzip;q=1.0, deflate;q=0.5", "deflate"));
+    assertTrue(CorpusResource.isEncodingAccepted("gzip, *", "deflate"));
+  }
+
+  @Test
+  void testEncodingNotAccepted() {
+    assertFalse(CorpusResource.isEncodingAccepted(null, "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("gzip", "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("deflate;q=0", "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("gzip, deflate; q=0.0", "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("*, deflate;q=0", "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("*;q=0", "deflate"));
+    assertFalse(CorpusResource.isEncodingAccepted("x-deflate", "deflate"));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.taskqueue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryTaskQueueTest {
+
+  @Test
+  void testAck() {
+    MemoryTaskQueue queue = new MemoryTaskQueue(Arrays.asList("a", "b"));
+
+    List<TaskLease> leases = queue.nextTasks(2, 60000);
+    assertEquals(2, leases.size());
+    assertEquals("a", leases.get(0).getCasId());
+    assertEquals("b", leases.get(1).getCasId());
+
+    assertFalse(queue.ack("a", leases.get(1).getLeaseId()));
+    assertTrue(queue.ack("a", leases.get(0).getLeaseId()));
+    assertFalse(queue.ack("a", leases.get(0).getLeaseId()));
+    assertTrue(queue.ack("b", leases.get(1).getLeaseId()));
+
+    assertNull(queue.nextTask());
+  }
+
+  @Test
+  void testAckExpiredLease() {
+    MemoryTaskQueue queue = new MemoryTaskQueue(Arrays.asList("a"));
+
+    List<TaskLease> leases = queue.nextTasks(1, 0);
+    assertEquals(1, leases.size());
+
+    assertFalse(queue.ack("a", leases.get(0).getLeaseId()));
+  }
+}
@@ -18,15 +18,18 @@
 package org.apache.opennlp.corpus_server.impl;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 import org.apache.opennlp.corpus_server.CorpusServer;
 import org.apache.opennlp.corpus_server.search.SearchService;
 import org.apache.opennlp.corpus_server.store.CorporaChangeListener;
 import org.apache.opennlp.corpus_server.store.CorporaStore;
 import org.apache.opennlp.corpus_server.store.CorpusStore;
-import org.apache.opennlp.corpus_server.taskqueue.MemoryTaskQueueService;
 import org.apache.opennlp.corpus_server.taskqueue.TaskQueueService;
 
 public class CorpusServerImpl implements CorpusServer {
@@ -34,18 +37,22 @@ public class CorpusServerImpl implements CorpusServer {
   static class IndexListener implements CorporaChangeListener {
 
     private final SearchService searchService;
+    
+    private final IndexingQueue indexingQueue;
 
-    IndexListener(SearchService searchService) {
+    IndexListener(SearchService searchService, IndexingQueue indexingQueue) {
       this.searchService = searchService;
+      this.indexingQueue = indexingQueue;
     }
 
     @Override
     public void addedCAS(CorpusStore store, String casId) {
       try {
-        searchService.index(store, casId);
-      } catch (IOException e) {
-        // TODO: Also log store name!
-        LOGGER.log(Level.WARNING, "Failed to index cas: " + casId, e);
+        indexingQueue.enqueue(store, casId);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOGGER.log(Level.WARNING, "Failed to queue cas " + casId
+            + " for indexing in " + store.getCorpusId(), e);
       }
     }
 
@@ -88,12 +95,29 @@ public class CorpusServerImpl implements CorpusServer {
   private final static Logger LOGGER = Logger.getLogger(CorpusServerImpl.class
       .getName());
   
+  static final String INDEXING_QUEUE_CAPACITY_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.indexingQueueCapacity";
+  
+  static final String INDEXING_BATCH_SIZE_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.indexingBatchSize";
+  
+  static final String INDEXING_BATCH_DELAY_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.indexingBatchDelay";
+  
+  static final String INDEXING_WORKERS_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.indexingWorkers";
+  
+  private static final String INDEXING_QUEUE_MBEAN_NAME =
+      "org.apache.opennlp.corpus_server:type=IndexingQueue";
+  
   private CorporaStore store;
 
   private SearchService searchService;
 
-  private MemoryTaskQueueService taskQueueService;
+  private DerbyTaskQueueService taskQueueService;
 
+  private IndexingQueue indexingQueue;
+  
   private IndexListener indexListener;
 
   public void start() {
@@ -118,13 +142,44 @@ public class CorpusServerImpl implements CorpusServer {
 
     LOGGER.info("Successfully started search service.");
 
-    indexListener = new IndexListener(searchService);
+    indexingQueue = new IndexingQueue(searchService,
+        Integer.getInteger(INDEXING_QUEUE_CAPACITY_PROPERTY, 10000),
+        Integer.getInteger(INDEXING_BATCH_SIZE_PROPERTY, 100),
+        Long.getLong(INDEXING_BATCH_DELAY_PROPERTY, 50),
+        Integer.getInteger(INDEXING_WORKERS_PROPERTY, 2));
+    
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(indexingQueue,
+          new ObjectName(INDEXING_QUEUE_MBEAN_NAME));
+    } catch (JMException e) {
+      LOGGER.log(Level.WARNING, "Failed to register indexing queue metrics!", e);
+    }
+    
+    indexListener = new IndexListener(searchService, indexingQueue);
     store.addCorpusChangeListener(indexListener);
     
-    taskQueueService = new MemoryTaskQueueService();
+    taskQueueService = new DerbyTaskQueueService(store, searchService);
+    
+    try {
+      taskQueueService.initialize(null);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Failed to start task queue service!", e);
+      taskQueueService = null;
+      return;
+    }
+    
+    LOGGER.info("Successfully started task queue service.");
   }
   
   public void stop() {
+    if (taskQueueService != null) {
+      try {
+        taskQueueService.shutdown();
+      } catch (IOException e) {
+        LOGGER.log(Level.SEVERE, "Failed to shutdown task queue service!", e);
+      }
+    }
+    
     taskQueueService = null;
     
   // Note: 
@@ -137,6 +192,17 @@ public class CorpusServerImpl implements CorpusServer {
     store.removeCorpusChangeListener(indexListener);
   }
   
+  if (indexingQueue != null) {
+    indexingQueue.shutdown(60000);
+    
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+          new ObjectName(INDEXING_QUEUE_MBEAN_NAME));
+    } catch (JMException e) {
+      LOGGER.log(Level.WARNING, "Failed to unregister indexing queue metrics!", e);
+    }
+  }
+  
   if (searchService != null) {
     try {
       searchService.shutdown();
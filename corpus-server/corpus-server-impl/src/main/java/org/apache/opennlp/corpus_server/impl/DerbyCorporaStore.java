@@ -18,6 +18,7 @@
 package org.apache.opennlp.corpus_server.impl;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -37,6 +38,7 @@ import javax.sql.DataSource;
 import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
 import org.apache.derby.jdbc.EmbeddedDataSource;
 import org.apache.opennlp.corpus_server.store.AbstractCorporaStore;
+import org.apache.opennlp.corpus_server.store.CASCodec;
 import org.apache.opennlp.corpus_server.store.CorporaChangeListener;
 import org.apache.opennlp.corpus_server.store.CorpusStore;
 
@@ -81,6 +83,12 @@ public class DerbyCorporaStore extends AbstractCorporaStore {
   @Override
   public void createCorpus(String corpusName, byte[] typeSystemBytes, byte[] indexMapping)
       throws IOException {
+    createCorpus(corpusName, typeSystemBytes, indexMapping, CASCodec.XMI);
+  }
+  
+  @Override
+  public void createCorpus(String corpusName, byte[] typeSystemBytes, byte[] indexMapping,
+      CASCodec codec) throws IOException {
     
     try (Connection conn = dataSource.getConnection()) {
       Set<String> existingTables = getAllTables(conn);
@@ -111,10 +119,22 @@ public class DerbyCorporaStore extends AbstractCorporaStore {
 
         indexMappingPS.executeUpdate();
 
+        PreparedStatement codecPS = conn.prepareStatement("insert into " + corpusName
+                + " values (?, ?)");
+
+        codecPS.setString(1, "_codec");
+
+        Blob codecBlob = conn.createBlob();
+        codecBlob.setBytes(1, codec.name().getBytes(StandardCharsets.UTF_8));
+        codecPS.setBlob(2, codecBlob);
+
+        codecPS.executeUpdate();
+
         conn.commit();
 
         typeSystemPS.close();
         indexMappingPS.close();
+        codecPS.close();
       }
 
     } catch (SQLException e) {
@@ -124,7 +144,7 @@ public class DerbyCorporaStore extends AbstractCorporaStore {
       throw new IOException(e);
     }
     
-    LOGGER.info("Created new corpus: " + corpusName);
+    LOGGER.info("Created new corpus: " + corpusName + " (" + codec + ")");
 
     for (CorporaChangeListener listener : getListeners()) {
       // TODO: Maybe optimize this, or just pass the corpus id
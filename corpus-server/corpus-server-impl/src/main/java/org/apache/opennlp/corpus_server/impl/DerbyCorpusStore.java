@@ -18,16 +18,20 @@
 package org.apache.opennlp.corpus_server.impl;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import org.apache.opennlp.corpus_server.store.CASCodec;
+import org.apache.opennlp.corpus_server.store.CASVisitor;
 import org.apache.opennlp.corpus_server.store.CorporaChangeListener;
 import org.apache.opennlp.corpus_server.store.CorpusStore;
 
@@ -39,6 +43,8 @@ public class DerbyCorpusStore implements CorpusStore {
   private final DerbyCorporaStore store;
   private final String corpusName;
   
+  private volatile CASCodec codec;
+  
   DerbyCorpusStore(DataSource dataSource, DerbyCorporaStore store, String corpusName) {
     this.dataSource = dataSource;
     this.store = store;
@@ -50,9 +56,45 @@ public class DerbyCorpusStore implements CorpusStore {
     return corpusName;
   }
   
+  @Override
+  public CASCodec getCodec() throws IOException {
+    
+    if (codec == null) {
+      // Corpora which were created without a codec store XMI
+      CASCodec corpusCodec = CASCodec.XMI;
+      
+      try (Connection conn = dataSource.getConnection();
+           ResultSet codecResult = conn.createStatement().executeQuery(
+               "select * FROM " + corpusName + " WHERE name='_codec'")) {
+        
+        if (codecResult.next()) {
+          corpusCodec = CASCodec.valueOf(
+              new String(codecResult.getBytes(2), StandardCharsets.UTF_8));
+        }
+      } catch (SQLException e) {
+        if (LOGGER.isLoggable(Level.SEVERE)) {
+          LOGGER.log(Level.SEVERE, "Failed to retrieve codec", e);
+        }
+        throw new IOException(e);
+      }
+      
+      codec = corpusCodec;
+    }
+    
+    return codec;
+  }
+  
   @Override
   public byte[] getCAS(String casId) throws IOException {
     
+    byte[] casBytes = getEncodedCAS(casId);
+    
+    return casBytes != null ? getCodec().decode(casBytes) : null;
+  }
+  
+  @Override
+  public byte[] getEncodedCAS(String casId) throws IOException {
+    
     byte[] casBytes  = null;
     
     try (Connection conn = dataSource.getConnection();
@@ -77,15 +119,63 @@ public class DerbyCorpusStore implements CorpusStore {
     return casBytes;
   }
 
+  @Override
+  public boolean containsCAS(String casId) throws IOException {
+    
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement("select name from " + corpusName + " where name=?")) {
+      
+      ps.setString(1, casId);
+      
+      try (ResultSet casResult = ps.executeQuery()) {
+        return casResult.next();
+      }
+    } catch (SQLException e) {
+      if (LOGGER.isLoggable(Level.SEVERE)) {
+        LOGGER.log(Level.SEVERE, "Failed to check CAS: " + casId, e);
+      }
+      throw new IOException(e);
+    }
+  }
+  
+  @Override
+  public void visitCASes(CASVisitor visitor) throws IOException {
+    
+    // The result set is used as a cursor, only the current CAS
+    // is held in memory
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement("select name, cas from " + corpusName
+             + " where name <> '_typesystem' and name <> '_indexMapping'"
+             + " and name <> '_codec' order by name")) {
+      
+      ps.setFetchSize(1);
+      
+      CASCodec casCodec = getCodec();
+      
+      try (ResultSet casResult = ps.executeQuery()) {
+        while (casResult.next()) {
+          visitor.visit(casResult.getString(1), casCodec.decode(casResult.getBytes(2)));
+        }
+      }
+    } catch (SQLException e) {
+      if (LOGGER.isLoggable(Level.SEVERE)) {
+        LOGGER.log(Level.SEVERE, "Failed to retrieve the CASes of " + corpusName, e);
+      }
+      throw new IOException(e);
+    }
+  }
+
   @Override
   public void addCAS(String casID, byte[] content) throws IOException {
     
+    byte[] encodedContent = getCodec().encode(content);
+    
     try (Connection conn = dataSource.getConnection();
          PreparedStatement ps = conn.prepareStatement("insert into " + corpusName + " values (?, ?)")) {
       ps.setString(1, casID);
       
       Blob b = conn.createBlob();
-      b.setBytes(1, content);
+      b.setBytes(1, encodedContent);
       ps.setBlob(2, b);
       ps.executeUpdate();
 
@@ -102,15 +192,62 @@ public class DerbyCorpusStore implements CorpusStore {
     }
   }
 
+  @Override
+  public void addCASes(Map<String, byte[]> cases) throws IOException {
+    
+    if (cases.isEmpty()) {
+      return;
+    }
+    
+    CASCodec casCodec = getCodec();
+    
+    // All CASes are inserted with one batch statement in one transaction,
+    // if one CAS cannot be added none of them is added
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      
+      try (PreparedStatement ps = conn.prepareStatement("insert into " + corpusName + " values (?, ?)")) {
+        for (Map.Entry<String, byte[]> cas : cases.entrySet()) {
+          ps.setString(1, cas.getKey());
+          
+          Blob b = conn.createBlob();
+          b.setBytes(1, casCodec.encode(cas.getValue()));
+          ps.setBlob(2, b);
+          ps.addBatch();
+        }
+        
+        ps.executeBatch();
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
+      }
+    } catch (SQLException e) {
+      if (LOGGER.isLoggable(Level.SEVERE)) {
+        LOGGER.log(Level.SEVERE, "Failed to add " + cases.size() + " CASes!", e);
+      }
+      throw new IOException(e);
+    }
+    
+    for (CorporaChangeListener listener : store.getListeners()) {
+      for (String casID : cases.keySet()) {
+        listener.addedCAS(this, casID);
+      }
+    }
+  }
+
   @Override
   public void updateCAS(String casID, byte[] content) throws IOException {
+    
+    byte[] encodedContent = getCodec().encode(content);
+    
     try (Connection conn = dataSource.getConnection();
          PreparedStatement ps = conn.prepareStatement("update " + corpusName + " set cas = ? where name = ?")) {
 
       ps.setString(2, casID);
       
       Blob b = conn.createBlob();
-      b.setBytes(1, content);
+      b.setBytes(1, encodedContent);
       ps.setBlob(1, b);
       ps.executeUpdate();
       
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.impl;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.apache.opennlp.corpus_server.search.SearchService;
+import org.apache.opennlp.corpus_server.store.CorporaStore;
+import org.apache.opennlp.corpus_server.store.CorpusStore;
+import org.apache.opennlp.corpus_server.taskqueue.MemoryTaskQueue;
+import org.apache.opennlp.corpus_server.taskqueue.TaskQueue;
+import org.apache.opennlp.corpus_server.taskqueue.TaskQueueService;
+
+/**
+ * Task queue service which persists the queues in a Derby database.
+ * <p>
+ * The tasks are handed out from memory, a task is only deleted from the
+ * database when it was acknowledged. When the server restarts every task
+ * which was not acknowledged is in the queue again.
+ */
+public class DerbyTaskQueueService implements TaskQueueService {
+
+  private final static Logger LOGGER = Logger.getLogger(DerbyTaskQueueService.class .getName());
+  public static final String DB_NAME = "TaskQueueDB";
+
+  private class DerbyTaskQueue extends MemoryTaskQueue {
+
+    private final String queueId;
+
+    DerbyTaskQueue(String queueId, List<String> casIds) {
+      super(casIds);
+      this.queueId = queueId;
+    }
+
+    @Override
+    protected void completed(String casId) {
+      try (Connection conn = dataSource.getConnection();
+           PreparedStatement ps = conn.prepareStatement(
+               "delete from tasks where queue_id = ? and cas_id = ?")) {
+        ps.setString(1, queueId);
+        ps.setString(2, casId);
+        ps.executeUpdate();
+
+        conn.commit();
+      } catch (SQLException e) {
+        if (LOGGER.isLoggable(Level.SEVERE)) {
+          LOGGER.log(Level.SEVERE, "Failed to remove task " + casId + " from queue " + queueId, e);
+        }
+      }
+    }
+  }
+
+  private final CorporaStore store;
+  private final SearchService searchService;
+
+  private final ConcurrentMap<String, TaskQueue> queues = new ConcurrentHashMap<>();
+
+  private DataSource dataSource;
+
+  private String dbName;
+
+  DerbyTaskQueueService(CorporaStore store, SearchService searchService) {
+    this.store = store;
+    this.searchService = searchService;
+  }
+
+  /**
+   * Opens the database and loads the persisted queues.
+   *
+   * @param basePath The directory path to initialize the database in. If {@code null},
+   *                 the database files are created in the current working directory.
+   */
+  void initialize(String basePath) throws IOException {
+
+    EmbeddedDataSource ds = new EmbeddedConnectionPoolDataSource();
+    dbName = DB_NAME;
+    if (basePath != null) {
+      dbName = basePath + DB_NAME;
+    }
+    ds.setDatabaseName(dbName);
+    ds.setCreateDatabase("create");
+
+    dataSource = ds;
+
+    try (Connection conn = dataSource.getConnection()) {
+
+      Set<String> tables = new HashSet<>();
+      try (ResultSet rs = conn.getMetaData().getTables(null, null, null, new String[] {"TABLE"})) {
+        while (rs.next()) {
+          tables.add(rs.getString("TABLE_NAME").toLowerCase());
+        }
+      }
+
+      try (Statement s = conn.createStatement()) {
+        if (!tables.contains("queues")) {
+          s.execute("create table queues (queue_id varchar(128), corpus_id varchar(128), "
+              + "primary key (queue_id))");
+        }
+
+        if (!tables.contains("tasks")) {
+          s.execute("create table tasks (queue_id varchar(128), cas_id varchar(1024), "
+              + "seq bigint, primary key (queue_id, cas_id))");
+        }
+      }
+
+      conn.commit();
+
+      Map<String, List<String>> queueTasks = new LinkedHashMap<>();
+
+      try (Statement s = conn.createStatement()) {
+        try (ResultSet rs = s.executeQuery("select queue_id from queues")) {
+          while (rs.next()) {
+            queueTasks.put(rs.getString(1), new ArrayList<>());
+          }
+        }
+
+        try (ResultSet rs = s.executeQuery("select queue_id, cas_id from tasks order by queue_id, seq")) {
+          while (rs.next()) {
+            List<String> casIds = queueTasks.get(rs.getString(1));
+
+            if (casIds != null) {
+              casIds.add(rs.getString(2));
+            }
+          }
+        }
+      }
+
+      for (Map.Entry<String, List<String>> queue : queueTasks.entrySet()) {
+        queues.put(queue.getKey(), new DerbyTaskQueue(queue.getKey(), queue.getValue()));
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+          LOGGER.log(Level.INFO, "Loaded queue " + queue.getKey() +
+              " with " + queue.getValue().size() + " CASes.");
+        }
+      }
+    } catch (SQLException e) {
+      if (LOGGER.isLoggable(Level.SEVERE)) {
+        LOGGER.log(Level.SEVERE, "Failed to load task queues!", e);
+      }
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void createTaskQueue(String queueId, String corpusId, String query) {
+
+    try {
+      CorpusStore corpus = store.getCorpus(corpusId);
+      List<String> hits = searchService.search(corpus, query);
+
+      // An existing queue with the same id is replaced
+      try (Connection conn = dataSource.getConnection()) {
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement deleteQueuePS = conn.prepareStatement(
+                 "delete from queues where queue_id = ?");
+             PreparedStatement deleteTasksPS = conn.prepareStatement(
+                 "delete from tasks where queue_id = ?");
+             PreparedStatement queuePS = conn.prepareStatement(
+                 "insert into queues values (?, ?)");
+             PreparedStatement taskPS = conn.prepareStatement(
+                 "insert into tasks values (?, ?, ?)")) {
+
+          deleteQueuePS.setString(1, queueId);
+          deleteQueuePS.executeUpdate();
+
+          deleteTasksPS.setString(1, queueId);
+          deleteTasksPS.executeUpdate();
+
+          queuePS.setString(1, queueId);
+          queuePS.setString(2, corpusId);
+          queuePS.executeUpdate();
+
+          long seq = 0;
+          for (String casId : hits) {
+            taskPS.setString(1, queueId);
+            taskPS.setString(2, casId);
+            taskPS.setLong(3, seq++);
+            taskPS.addBatch();
+          }
+
+          taskPS.executeBatch();
+          conn.commit();
+        } catch (SQLException e) {
+          conn.rollback();
+          throw e;
+        }
+      }
+
+      queues.put(queueId, new DerbyTaskQueue(queueId, hits));
+
+      if (LOGGER.isLoggable(Level.INFO)) {
+        LOGGER.log(Level.INFO, "Created queue " + queueId +
+            " with " + hits.size() + " CASes.");
+      }
+    } catch (IOException | SQLException e) {
+      LOGGER.log(Level.SEVERE, "Failed to create task queue: " + queueId, e);
+    }
+  }
+
+  @Override
+  public TaskQueue getTaskQueue(String queueId) {
+    return queues.get(queueId);
+  }
+
+  /**
+   * Shuts down the task queue database, the other databases
+   * of the Derby engine stay open.
+   */
+  void shutdown() throws IOException {
+    if (dbName == null) {
+      return;
+    }
+
+    queues.clear();
+
+    try {
+      DriverManager.getConnection("jdbc:derby:" + dbName + ";shutdown=true");
+    } catch (SQLException e) {
+      if (((e.getErrorCode() == 45000) && ("08006".equals(e.getSQLState())))) {
+        // We got the expected exception for a single database shutdown
+      } else {
+        throw new IOException(e);
+      }
+    }
+  }
+}
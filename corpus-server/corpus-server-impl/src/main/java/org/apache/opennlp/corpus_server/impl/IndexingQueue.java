@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.opennlp.corpus_server.search.SearchService;
+import org.apache.opennlp.corpus_server.store.CorpusStore;
+
+/**
+ * A bounded queue of CASes which should be indexed. Worker threads take
+ * the CASes in batches from the queue and pass them to the
+ * {@link SearchService}, adding a CAS to the store does not need to
+ * wait until it is indexed.
+ * <p>
+ * When the queue is full, {@link #enqueue(CorpusStore, String)} blocks
+ * until the workers caught up.
+ */
+class IndexingQueue implements IndexingQueueMBean {
+
+  private static class IndexTask {
+    private final CorpusStore store;
+    private final String casId;
+
+    IndexTask(CorpusStore store, String casId) {
+      this.store = store;
+      this.casId = casId;
+    }
+  }
+
+  private final static Logger LOGGER = Logger.getLogger(
+      IndexingQueue.class.getName());
+
+  private final SearchService searchService;
+
+  private final BlockingQueue<IndexTask> queue;
+
+  private final int batchSize;
+
+  private final long maxBatchDelay;
+
+  private final ExecutorService workers;
+
+  private volatile boolean stopped;
+
+  private final long startTime = System.nanoTime();
+
+  private final AtomicLong indexedCasCount = new AtomicLong();
+
+  private final AtomicLong batchCount = new AtomicLong();
+
+  private final AtomicLong totalBatchLatency = new AtomicLong();
+
+  private volatile long lastBatchLatency;
+
+  /**
+   * Initializes the queue and starts the worker threads.
+   *
+   * @param searchService the search service which indexes the CASes
+   * @param capacity the maximum number of CASes which can wait to be indexed
+   * @param batchSize the maximum number of CASes indexed in one batch
+   * @param maxBatchDelay the time in milliseconds a worker waits for more
+   *                      CASes before an incomplete batch is indexed
+   * @param workerCount the number of worker threads
+   */
+  IndexingQueue(SearchService searchService, int capacity, int batchSize,
+      long maxBatchDelay, int workerCount) {
+    this.searchService = searchService;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.maxBatchDelay = maxBatchDelay;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    workers = Executors.newFixedThreadPool(workerCount, r -> {
+      Thread thread = new Thread(r, "corpus-server-indexer-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    for (int i = 0; i < workerCount; i++) {
+      workers.execute(this::processBatches);
+    }
+  }
+
+  /**
+   * Adds a CAS to the queue, blocks if the queue is full.
+   *
+   * @param store
+   * @param casId
+   * @throws InterruptedException
+   */
+  void enqueue(CorpusStore store, String casId) throws InterruptedException {
+    if (stopped) {
+      throw new IllegalStateException("Indexing queue is already shut down!");
+    }
+
+    queue.put(new IndexTask(store, casId));
+  }
+
+  private void processBatches() {
+
+    List<IndexTask> batch = new ArrayList<>(batchSize);
+
+    while (!stopped || !queue.isEmpty()) {
+      try {
+        IndexTask task = queue.poll(100, TimeUnit.MILLISECONDS);
+
+        if (task == null) {
+          continue;
+        }
+
+        batch.add(task);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelay);
+
+        while (batch.size() < batchSize) {
+          queue.drainTo(batch, batchSize - batch.size());
+
+          long remaining = deadline - System.nanoTime();
+
+          if (batch.size() >= batchSize || remaining <= 0) {
+            break;
+          }
+
+          task = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+          if (task == null) {
+            break;
+          }
+
+          batch.add(task);
+        }
+      }
+      catch (InterruptedException e) {
+        // Index what was already taken from the queue and exit
+        indexBatch(batch);
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      indexBatch(batch);
+      batch.clear();
+    }
+  }
+
+  private void indexBatch(List<IndexTask> batch) {
+
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    long batchStartTime = System.nanoTime();
+
+    // Group the batch by corpus, a CAS which was changed
+    // multiple times only needs to be indexed once
+    Map<String, CorpusStore> stores = new HashMap<>();
+    Map<String, Collection<String>> casIds = new HashMap<>();
+
+    for (IndexTask task : batch) {
+      String corpusId = task.store.getCorpusId();
+      stores.putIfAbsent(corpusId, task.store);
+      casIds.computeIfAbsent(corpusId, id -> new LinkedHashSet<>()).add(task.casId);
+    }
+
+    for (Map.Entry<String, Collection<String>> entry : casIds.entrySet()) {
+      try {
+        searchService.index(stores.get(entry.getKey()), entry.getValue());
+        indexedCasCount.addAndGet(entry.getValue().size());
+      } catch (IOException | RuntimeException e) {
+        LOGGER.log(Level.WARNING, "Failed to index " + entry.getValue().size()
+            + " CASes of " + entry.getKey() + " corpus!", e);
+      }
+    }
+
+    long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStartTime);
+    lastBatchLatency = latency;
+    totalBatchLatency.addAndGet(latency);
+    batchCount.incrementAndGet();
+  }
+
+  /**
+   * Stops accepting new CASes and waits until the queued CASes are indexed.
+   *
+   * @param timeout the maximum time in milliseconds to wait
+   */
+  void shutdown(long timeout) {
+    stopped = true;
+    workers.shutdown();
+
+    try {
+      if (!workers.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+        LOGGER.warning("Indexing queue did not finish in time, "
+            + queue.size() + " CASes are not indexed!");
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  @Override
+  public long getIndexedCasCount() {
+    return indexedCasCount.get();
+  }
+
+  @Override
+  public long getBatchCount() {
+    return batchCount.get();
+  }
+
+  @Override
+  public long getLastBatchLatency() {
+    return lastBatchLatency;
+  }
+
+  @Override
+  public double getAverageBatchLatency() {
+    long batches = batchCount.get();
+    return batches > 0 ? (double) totalBatchLatency.get() / batches : 0;
+  }
+
+  @Override
+  public double getDocumentsPerSecond() {
+    double seconds = (System.nanoTime() - startTime) / 1e9;
+    return seconds > 0 ? indexedCasCount.get() / seconds : 0;
+  }
+}
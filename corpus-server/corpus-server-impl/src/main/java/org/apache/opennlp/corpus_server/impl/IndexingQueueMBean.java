@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.impl;
+
+/**
+ * Management interface of the {@link IndexingQueue}, the attributes
+ * can be monitored via JMX.
+ */
+public interface IndexingQueueMBean {
+
+  /**
+   * @return the number of CASes which are waiting to be indexed
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the number of CASes which were indexed since startup
+   */
+  long getIndexedCasCount();
+
+  /**
+   * @return the number of batches which were indexed since startup
+   */
+  long getBatchCount();
+
+  /**
+   * @return the time in milliseconds it took to index the last batch
+   */
+  long getLastBatchLatency();
+
+  /**
+   * @return the average time in milliseconds it took to index a batch
+   */
+  double getAverageBatchLatency();
+
+  /**
+   * @return the number of indexed CASes per second since startup
+   */
+  double getDocumentsPerSecond();
+}
@@ -105,8 +105,19 @@ public class LuceneIndexer extends LuceneDocumentAE {
         
         indexWriter.addDocument(doc);
       }
-      
-      // TODO: Commit handling might need to be changed
+    } catch (IOException e) {
+      throw new AnalysisEngineProcessException(e);
+    }
+  }
+  
+  /**
+   * Commits the changes of all CASes which were processed since the last call.
+   */
+  @Override
+  public void batchProcessComplete() throws AnalysisEngineProcessException {
+    super.batchProcessComplete();
+    
+    try {
       indexWriter.commit();
     } catch (IOException e) {
       throw new AnalysisEngineProcessException(e);
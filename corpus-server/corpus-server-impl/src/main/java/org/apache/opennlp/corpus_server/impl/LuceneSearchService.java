@@ -23,11 +23,22 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,8 +51,6 @@ import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorer;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.Version;
 import org.apache.opennlp.corpus_server.search.SearchService;
 import org.apache.opennlp.corpus_server.store.CorporaStore;
@@ -68,6 +77,21 @@ public class LuceneSearchService implements SearchService {
 
   final static String LUCENE_ID_FIELD = "id";
   
+  /**
+   * System property which defines the interval in milliseconds in which
+   * the searchers are refreshed in the background. A value of zero or less
+   * disables the periodic refresh.
+   */
+  static final String SEARCHER_REFRESH_INTERVAL_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.searcherRefreshInterval";
+  
+  /**
+   * System property which defines after how many indexed CASes the searcher
+   * of a corpus is refreshed. A value of zero or less disables it.
+   */
+  static final String SEARCHER_REFRESH_CAS_COUNT_PROPERTY =
+      "org.apache.opennlp.corpus_server.impl.searcherRefreshCasCount";
+  
   private final static Logger LOGGER = Logger.getLogger(
       LuceneSearchService.class .getName());
 
@@ -76,13 +100,30 @@ public class LuceneSearchService implements SearchService {
   /**
    * Maps the corpus id to the Lucas Indexer Analysis Engine.
    */
-  private final Map<String, AnalysisEngine> corpusIndexerMap = new HashMap<>();
+  private final Map<String, AnalysisEngine> corpusIndexerMap = new ConcurrentHashMap<>();
   
   /**
-   * Maps the corpus id to the Index Server instance, if one exists, otherwise
+   * Maps the type system hash to CASes which can be reused for indexing,
+   * creating a new CAS for every indexed document is expensive.
+   */
+  private final ConcurrentMap<String, Queue<CAS>> casPool = new ConcurrentHashMap<>();
+  
+  private TypeSystemDescription indexTypeDesc;
+  
+  /**
+   * Maps the corpus id to the Searcher Manager instance, if one exists, otherwise
    * it will be created on first access.
    */
-  private final Map<String, IndexSearcher> corpusSearcherMap = new HashMap<>();
+  private final ConcurrentMap<String, LuceneSearcherManager> corpusSearcherMap =
+      new ConcurrentHashMap<>();
+  
+  private final long refreshInterval =
+      Long.getLong(SEARCHER_REFRESH_INTERVAL_PROPERTY, 1000);
+  
+  private final int refreshCasCount =
+      Integer.getInteger(SEARCHER_REFRESH_CAS_COUNT_PROPERTY, 100);
+  
+  private ScheduledExecutorService searcherRefresher;
   
   private static File getIndexDirectory(String corpusId) {
     return new File("index" + File.separator + corpusId);
@@ -160,11 +201,97 @@ public class LuceneSearchService implements SearchService {
     }
   }
   
+  private LuceneSearcherManager getSearcherManager(String corpusId) throws IOException {
+    
+    LuceneSearcherManager manager = corpusSearcherMap.get(corpusId);
+    
+    // Opening an index might fail, in this case every search request
+    // tries to open it again
+    if (manager == null) {
+      LuceneSearcherManager newManager =
+          new LuceneSearcherManager(getIndexDirectory(corpusId));
+      
+      manager = corpusSearcherMap.putIfAbsent(corpusId, newManager);
+      
+      if (manager == null) {
+        manager = newManager;
+      }
+      else {
+        newManager.close();
+      }
+    }
+    
+    return manager;
+  }
+  
+  private void refreshSearchers() {
+    for (Map.Entry<String, LuceneSearcherManager> entry : corpusSearcherMap.entrySet()) {
+      try {
+        entry.getValue().maybeRefresh();
+      }
+      catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Failed to refresh searcher for "
+            + entry.getKey() + " corpus!", e);
+      }
+    }
+  }
+  
+  private static String typeSystemHash(byte[] typeSystem) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return new BigInteger(1, digest.digest(typeSystem)).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 must be supported!", e);
+    }
+  }
+  
+  private CAS checkoutCas(String typeSystemHash, byte[] typeSystem) throws IOException {
+    
+    CAS cas = casPool.computeIfAbsent(typeSystemHash,
+        hash -> new ConcurrentLinkedQueue<>()).poll();
+    
+    if (cas == null) {
+      List<MetaDataObject> specs = new ArrayList<>();
+      specs.add(indexTypeDesc);
+      specs.add(UimaUtil.createTypeSystemDescription(
+          new ByteArrayInputStream(typeSystem)));
+      
+      try {
+        cas = CasCreationUtils.createCas(specs);
+      } catch (ResourceInitializationException e) {
+        throw new IOException(e);
+      }
+    }
+    
+    return cas;
+  }
+  
+  private void returnCas(String typeSystemHash, CAS cas) {
+    cas.reset();
+    casPool.get(typeSystemHash).offer(cas);
+  }
+  
   @Override
   public synchronized void initialize(CorporaStore store) throws IOException {
     
     this.store = store;
     
+    try (InputStream indexTsIn = LuceneSearchService.class.getResourceAsStream(
+        "/org/apache/opennlp/corpus_server/impl/TypeSystem.xml")) {
+      indexTypeDesc = UimaUtil.createTypeSystemDescription(indexTsIn);
+    }
+    
+    if (refreshInterval > 0) {
+      searcherRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "corpus-server-searcher-refresh");
+        thread.setDaemon(true);
+        return thread;
+      });
+      
+      searcherRefresher.scheduleWithFixedDelay(this::refreshSearchers,
+          refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+    
     for (String corpusId : store.getCorpusIds()) {
       try {
         createIndexWriter(corpusId, false);
@@ -184,58 +311,85 @@ public class LuceneSearchService implements SearchService {
   
   public synchronized void dropIndex(CorpusStore store) throws IOException {
     
+    LuceneSearcherManager manager = corpusSearcherMap.remove(store.getCorpusId());
+    
+    if (manager != null) {
+      manager.close();
+    }
   }
   
   @Override
-  public synchronized void index(CorpusStore store, String casId) throws IOException {
-    
-    // TODO: Need to take care for thread safety ..
+  public void index(CorpusStore store, String casId) throws IOException {
+    index(store, Collections.singletonList(casId));
+  }
+  
+  @Override
+  public void index(CorpusStore store, Collection<String> casIds) throws IOException {
     
     String corpusId = store.getCorpusId();
     
     AnalysisEngine indexer = corpusIndexerMap.get(corpusId);
-
-    TypeSystemDescription indexTypeDesc;
-    try (InputStream indexTsIn = LuceneSearchService.class.getResourceAsStream(
-        "/org/apache/opennlp/corpus_server/impl/TypeSystem.xml")) {
-      indexTypeDesc = UimaUtil.createTypeSystemDescription(indexTsIn);
-    }
-
-    List<MetaDataObject> specs = new ArrayList<>();
-    specs.add(indexTypeDesc);
-    TypeSystemDescription tsDescription = UimaUtil.createTypeSystemDescription(
-          new ByteArrayInputStream(store.getTypeSystem()));
-    specs.add(tsDescription);
-
-    // Note: This might be a performance problem
-    CAS cas;
-    try {
-      cas = CasCreationUtils.createCas(specs);
-    } catch (ResourceInitializationException e) {
-      throw new IOException(e);
+    
+    if (indexer == null) {
+      LOGGER.warning("There is no Index Writer for " + corpusId + " corpus!");
+      return;
     }
     
-    byte[] casBytes = store.getCAS(casId);
+    byte[] typeSystem = store.getTypeSystem();
+    String typeSystemHash = typeSystemHash(typeSystem);
     
-    if (casBytes != null) {
-      UimaUtil.deserializeXmiCAS(cas, new ByteArrayInputStream(casBytes));
+    CAS cas = checkoutCas(typeSystemHash, typeSystem);
+    
+    try {
+      // The indexer of a corpus can only be used by one thread at a time,
+      // different corpora can be indexed concurrently
+      synchronized (indexer) {
+        for (String casId : casIds) {
+          cas.reset();
+          
+          byte[] casBytes = store.getCAS(casId);
+          
+          if (casBytes != null) {
+            UimaUtil.deserializeXmiCAS(cas, new ByteArrayInputStream(casBytes));
+          }
+          else {
+            cas.setDocumentText(null);
+          }
+          
+          // Inject id feature structure into the CAS
+          Type casIdType = cas.getTypeSystem().getType(LuceneIndexer.CAS_ID_TYPE);
+          Feature casIdFeature =  casIdType.getFeatureByBaseName(LuceneIndexer.CAS_ID_FEATURE);
+          
+          FeatureStructure casIdFS = cas.createFS(casIdType);
+          casIdFS.setStringValue(casIdFeature, casId);
+          cas.addFsToIndexes(casIdFS);
+          
+          try {
+            indexer.process(cas);
+          } catch (AnalysisEngineProcessException e) {
+            LOGGER.log(Level.SEVERE, "Failed to index CAS: " + casId, e);
+          }
+        }
+        
+        // Commits the index changes of the whole batch
+        try {
+          indexer.batchProcessComplete();
+        } catch (AnalysisEngineProcessException e) {
+          throw new IOException(e);
+        }
+      }
     }
-    else {
-      cas.setDocumentText(null);
+    finally {
+      returnCas(typeSystemHash, cas);
     }
     
-    // Inject id feature structure into the CAS
-    Type casIdType = cas.getTypeSystem().getType(LuceneIndexer.CAS_ID_TYPE);
-    Feature casIdFeature =  casIdType.getFeatureByBaseName(LuceneIndexer.CAS_ID_FEATURE);
-
-    FeatureStructure casIdFS = cas.createFS(casIdType);
-    casIdFS.setStringValue(casIdFeature, casId);
-    cas.addFsToIndexes(casIdFS);
+    // Searchers are only created on first search,
+    // if there is none the refresh is not necessary
+    LuceneSearcherManager manager = corpusSearcherMap.get(corpusId);
     
-    try {
-      indexer.process(cas);
-    } catch (AnalysisEngineProcessException e) {
-      LOGGER.log(Level.SEVERE, "Failed to index CAS: " + casId, e);
+    if (manager != null && refreshCasCount > 0
+        && manager.indexChanged(casIds.size()) >= refreshCasCount) {
+      manager.maybeRefresh();
     }
   }
 
@@ -246,40 +400,13 @@ public class LuceneSearchService implements SearchService {
   }
   
   @Override
-  public synchronized List<String> search(CorpusStore store, String q)
+  public List<String> search(CorpusStore store, String q)
       throws IOException {
     
-    // PERFORMANCE: This method can only be executed by one thread at a time
-    //              when there are concurrent search requests this will result
-    //              in longer than necessary delays to answer them.
+    // Note: Searches are not synchronized, the searcher is shared between
+    //       all threads and refreshed in the background
     
-    IndexSearcher searcher = corpusSearcherMap.get(store.getCorpusId());
-    
-    // Opening or reopening an index might fail,
-    // in this case every search request fails as well.
-    if (searcher == null) { 
-      File indexLocation = getIndexDirectory(store.getCorpusId());
-      
-      Directory indexDirectory = FSDirectory.open(indexLocation);
-      
-      IndexReader indexReader = IndexReader.open(indexDirectory, false);
-      
-      // Note: Reopening index for every request is slow,
-      // modify code again to keep indexes open!
-      
-      searcher = new IndexSearcher(indexReader);
-      
-      corpusSearcherMap.put(store.getCorpusId(), searcher);
-    }
-    
-    if (!searcher.getIndexReader().isCurrent()) {
-      IndexReader freshIndexReader = searcher.getIndexReader().reopen();
-      
-      searcher.close();
-      
-      searcher = new IndexSearcher(freshIndexReader);
-      corpusSearcherMap.put(store.getCorpusId(), searcher);
-    }
+    LuceneSearcherManager manager = getSearcherManager(store.getCorpusId());
     
     QueryParser parser = new QueryParser(Version.LUCENE_29, "text", new StandardAnalyzer(Version.LUCENE_29));
     
@@ -292,37 +419,39 @@ public class LuceneSearchService implements SearchService {
     
     final List<String> results = new ArrayList<>();
     
+    final IndexSearcher searcher = manager.acquire();
     
-    final IndexSearcher finalSearcher = searcher;
-    
-    // query index ...
-    searcher.search(query, new Collector() {
+    try {
+      // query index ...
+      searcher.search(query, new Collector() {
       
-      int docBase = Integer.MIN_VALUE;
+        int docBase = Integer.MIN_VALUE;
       
-      @Override
-      public void setScorer(Scorer scorer) throws IOException {
-      }
-      
-      @Override
-      public void setNextReader(IndexReader reader, int docBase) throws IOException {
-        this.docBase = docBase;
-      }
+        @Override
+        public void setScorer(Scorer scorer) throws IOException {
+        }
       
-      @Override
-      public void collect(int id) throws IOException {
-        Document doc = finalSearcher.doc(docBase + id);
-        String idString = doc.get(LUCENE_ID_FIELD);
-        results.add(idString);
-      }
+        @Override
+        public void setNextReader(IndexReader reader, int docBase) throws IOException {
+          this.docBase = docBase;
+        }
       
-      @Override
-      public boolean acceptsDocsOutOfOrder() {
-        return false;
-      }
-    });
+        @Override
+        public void collect(int id) throws IOException {
+          Document doc = searcher.doc(docBase + id);
+          String idString = doc.get(LUCENE_ID_FIELD);
+          results.add(idString);
+        }
       
-    searcher.close();
+        @Override
+        public boolean acceptsDocsOutOfOrder() {
+          return false;
+        }
+      });
+    }
+    finally {
+      manager.release(searcher);
+    }
     
     return results;
   }
@@ -330,6 +459,10 @@ public class LuceneSearchService implements SearchService {
   @Override
   public void shutdown() throws IOException {
     
+    if (searcherRefresher != null) {
+      searcherRefresher.shutdownNow();
+    }
+    
     for (String corpusId : corpusIndexerMap.keySet()) {
       AnalysisEngine indexer = corpusIndexerMap.get(corpusId);
       
@@ -339,11 +472,11 @@ public class LuceneSearchService implements SearchService {
     }
     
     for (String corpusId : corpusSearcherMap.keySet()) {
-      IndexSearcher searcher = corpusSearcherMap.get(corpusId);
+      LuceneSearcherManager manager = corpusSearcherMap.get(corpusId);
       
-      if (searcher != null) {
+      if (manager != null) {
         try {
-          searcher.close();
+          manager.close();
         }
         catch (IOException e) {
           LOGGER.log(Level.SEVERE, "Failed to shutdown searcher for "
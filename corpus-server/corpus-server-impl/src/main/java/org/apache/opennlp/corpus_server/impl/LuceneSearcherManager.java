@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Manages the {@link IndexSearcher} of one corpus index.
+ * <p>
+ * The searcher is opened on a read-only {@link IndexReader} and shared
+ * between all threads which search the corpus. Every search must
+ * {@link #acquire()} the current searcher and {@link #release(IndexSearcher)}
+ * it afterwards, the underlying reader is reference counted and only closed
+ * after the last search which uses it has finished.
+ * <p>
+ * Changes to the index become visible after {@link #maybeRefresh()} was called,
+ * either periodically or after a number of CASes were indexed.
+ */
+class LuceneSearcherManager {
+
+  private final Object swapLock = new Object();
+
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  private final AtomicInteger pendingChanges = new AtomicInteger();
+
+  private volatile IndexSearcher current;
+
+  private boolean closed;
+
+  LuceneSearcherManager(File indexLocation) throws IOException {
+    IndexReader reader = IndexReader.open(FSDirectory.open(indexLocation), true);
+    current = new IndexSearcher(reader);
+  }
+
+  /**
+   * Retrieves the current searcher, the caller must pass it to
+   * {@link #release(IndexSearcher)} when done.
+   *
+   * @return the current searcher
+   *
+   * @throws IOException if the manager was already closed
+   */
+  IndexSearcher acquire() throws IOException {
+    synchronized (swapLock) {
+      if (closed) {
+        throw new IOException("Searcher manager is already closed!");
+      }
+
+      IndexSearcher searcher = current;
+      searcher.getIndexReader().incRef();
+      return searcher;
+    }
+  }
+
+  /**
+   * Releases a searcher which was obtained from {@link #acquire()}.
+   *
+   * @param searcher
+   * @throws IOException
+   */
+  void release(IndexSearcher searcher) throws IOException {
+    searcher.getIndexReader().decRef();
+  }
+
+  /**
+   * Records that the index was changed, and returns the number of changes
+   * since the last refresh.
+   *
+   * @param count the number of changed CASes
+   */
+  int indexChanged(int count) {
+    return pendingChanges.addAndGet(count);
+  }
+
+  /**
+   * Reopens the index reader if the index changed since the last refresh.
+   * When another thread is already refreshing this call returns immediately.
+   *
+   * @throws IOException
+   */
+  void maybeRefresh() throws IOException {
+
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      pendingChanges.set(0);
+
+      // Hold a reference while the reader is reopened, otherwise
+      // close() could close it concurrently
+      IndexSearcher searcher;
+
+      synchronized (swapLock) {
+        if (closed) {
+          return;
+        }
+
+        searcher = current;
+        searcher.getIndexReader().incRef();
+      }
+
+      try {
+        IndexReader reader = searcher.getIndexReader();
+
+        if (reader.isCurrent()) {
+          return;
+        }
+
+        IndexReader freshReader = reader.reopen();
+
+        if (freshReader != reader) {
+          IndexSearcher oldSearcher;
+
+          synchronized (swapLock) {
+            if (closed) {
+              freshReader.close();
+              return;
+            }
+
+            oldSearcher = current;
+            current = new IndexSearcher(freshReader);
+          }
+
+          // Drop the reference held by the manager, the old reader
+          // is closed when the last search released it
+          oldSearcher.getIndexReader().decRef();
+        }
+      }
+      finally {
+        release(searcher);
+      }
+    }
+    finally {
+      refreshing.set(false);
+    }
+  }
+
+  void close() throws IOException {
+    IndexSearcher searcher;
+
+    synchronized (swapLock) {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      searcher = current;
+    }
+
+    searcher.getIndexReader().decRef();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.impl;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LuceneSearcherManagerTest {
+
+  @TempDir
+  File indexLocation;
+
+  private void addDocument(String text, boolean create) throws IOException {
+    IndexWriter writer = new IndexWriter(FSDirectory.open(indexLocation),
+        new StandardAnalyzer(Version.LUCENE_29), create, IndexWriter.MaxFieldLength.UNLIMITED);
+    try {
+      Document doc = new Document();
+      doc.add(new Field("text", text, Field.Store.YES, Field.Index.ANALYZED));
+      writer.addDocument(doc);
+    }
+    finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  void testAcquireRelease() throws IOException {
+    addDocument("first", true);
+    LuceneSearcherManager manager = new LuceneSearcherManager(indexLocation);
+
+    IndexSearcher searcher = manager.acquire();
+    assertEquals(1, searcher.getIndexReader().numDocs());
+    // one reference of the manager and one of the search
+    assertEquals(2, searcher.getIndexReader().getRefCount());
+    manager.release(searcher);
+    assertEquals(1, searcher.getIndexReader().getRefCount());
+
+    manager.close();
+    assertEquals(0, searcher.getIndexReader().getRefCount());
+  }
+
+  @Test
+  void testRefresh() throws IOException {
+    addDocument("first", true);
+    LuceneSearcherManager manager = new LuceneSearcherManager(indexLocation);
+
+    IndexSearcher oldSearcher = manager.acquire();
+
+    // nothing changed, the searcher stays the same
+    manager.maybeRefresh();
+    IndexSearcher searcher = manager.acquire();
+    assertSame(oldSearcher, searcher);
+    manager.release(searcher);
+
+    addDocument("second", false);
+    assertEquals(1, manager.indexChanged(1));
+    manager.maybeRefresh();
+    assertEquals(0, manager.indexChanged(0));
+
+    searcher = manager.acquire();
+    assertNotSame(oldSearcher, searcher);
+    assertEquals(2, searcher.getIndexReader().numDocs());
+
+    // the old reader stays open until the search which uses it is done
+    IndexReader oldReader = oldSearcher.getIndexReader();
+    assertEquals(1, oldReader.numDocs());
+    assertEquals(1, oldReader.getRefCount());
+    manager.release(oldSearcher);
+    assertEquals(0, oldReader.getRefCount());
+
+    manager.release(searcher);
+    manager.close();
+  }
+
+  @Test
+  void testClose() throws IOException {
+    addDocument("first", true);
+    LuceneSearcherManager manager = new LuceneSearcherManager(indexLocation);
+    IndexSearcher searcher = manager.acquire();
+
+    manager.close();
+    assertThrows(IOException.class, manager::acquire);
+
+    // a refresh after close must neither fail nor touch the reader
+    addDocument("second", false);
+    manager.maybeRefresh();
+    assertEquals(1, searcher.getIndexReader().getRefCount());
+
+    manager.release(searcher);
+    assertEquals(0, searcher.getIndexReader().getRefCount());
+  }
+}
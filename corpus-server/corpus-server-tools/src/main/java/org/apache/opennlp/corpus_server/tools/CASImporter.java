@@ -18,6 +18,9 @@
 package org.apache.opennlp.corpus_server.tools;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
@@ -25,7 +28,15 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+
+/**
+ * Imports XMI files into a corpus. All files are sent in one zip package
+ * which is streamed to the server and added there in bulk.
+ */
 public class CASImporter {
 
   public static void main(String[] args) throws Exception {
@@ -36,6 +47,7 @@ public class CASImporter {
     }
 
     Client c = ClientBuilder.newClient();
+    c.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
     WebTarget r = c.target(args[0]);
 
     File xmiFileOrFolder = new File(args[1]);
@@ -48,17 +60,24 @@ public class CASImporter {
       xmiFiles = xmiFileOrFolder.listFiles((dir, name) -> name.toLowerCase().endsWith(".xmi"));
     }
 
-    for (File xmiFile : xmiFiles) {
-      byte[] xmiBytes = FileUtil.fileToBytes(xmiFile);
-
-      try (Response response = r.path(xmiFile.getName())
-              .request(MediaType.TEXT_XML)
-              .header("Content-Type", MediaType.TEXT_XML)
-              .header("Content-Length", xmiBytes.length)
-              .put(Entity.entity(xmiBytes, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
+    final File[] importFiles = xmiFiles;
 
-        System.out.println(xmiFile.getName() + " " + response.getStatus());
+    StreamingOutput zipPackage = out -> {
+      ZipOutputStream zipPackageOut = new ZipOutputStream(out);
+      for (File xmiFile : importFiles) {
+        zipPackageOut.putNextEntry(new ZipEntry(xmiFile.getName()));
+        Files.copy(xmiFile.toPath(), zipPackageOut);
+        zipPackageOut.closeEntry();
       }
+      zipPackageOut.finish();
+    };
+
+    try (Response response = r.path("_addCASes")
+            .request(MediaType.TEXT_PLAIN)
+            .post(Entity.entity(zipPackage, "application/zip"))) {
+
+      System.out.println("Imported " + response.readEntity(String.class)
+          + " CASes " + response.getStatus());
     }
   }
 }
@@ -18,124 +18,58 @@
 package org.apache.opennlp.corpus_server.tools;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
-import org.glassfish.jersey.client.ClientResponse;
-
 /** 
  * Tools to back up a corpus from the corpus server into a zip package.
+ * The server streams the package in one request.
  * <p>
  * Sample server address:
  * <a href="http://localhost:8080/corpus-server/rest">http://localhost:8080/corpus-server/rest</a>.
+ * <p>
+ * The optional query restricts the backup to the matching CASes.
  */
 public class CorpusBackup {
 
-  private static void copyStream(InputStream in, OutputStream out) throws IOException {
-    
-    byte[] buffer = new byte[1024];
-    int len;
-    while ((len = in.read(buffer)) > 0) {
-      out.write(buffer, 0, len);
-    }
-  }
-  
-  // TODO: Make query configurable, maybe user just wants to pull out
-  //       some CAses into the zip package ...
-  
   public static void main(String[] args) {
 
-    if (args.length != 3) {
-      System.out.println("CorpusBackup address corpusName backupFile");
+    if (args.length < 3 || args.length > 4) {
+      System.out.println("CorpusBackup address corpusName backupFile [query]");
       System.exit(-1);
     }
 
     Client c = ClientBuilder.newClient();
-    WebTarget r = c.target(args[0] + "/queues");
+    WebTarget exportWebResource = c.target(args[0] + "/corpora/" + args[1]).path("_export");
 
-    String corpusId = args[1];
-    String backupQueueId = args[1] + "BackupQueue";
-    
-    try (Response createQueueResponse = r.path("_createTaskQueue")
-        .queryParam("corpusId", args[1])
-        .queryParam("queueId", backupQueueId)
-        .queryParam("q", "*:*")
-        .request(MediaType.TEXT_XML)
-        .header("Content-Type", MediaType.TEXT_XML)
-        // as this is an query-param driven POST request,
-        // we just set an empty string to the body.
-        .post(Entity.entity("", MediaType.TEXT_PLAIN_TYPE))) {
-      
-      System.out.println("Result (_createTaskQueue): " + createQueueResponse.getStatus());
+    if (args.length == 4) {
+      exportWebResource = exportWebResource.queryParam("q", args[3]);
     }
-    
+
     // zip file name ...
     File backupFile = new File(args[2]);
 
-    // create zip file
+    try (Response response = exportWebResource
+        .request("application/zip")
+        .get()) {
 
-    try (OutputStream backupOut = new FileOutputStream(backupFile);
-         ZipOutputStream zipPackageOut = new ZipOutputStream(backupOut)){
-
-      WebTarget corpusWebResource = c.target(args[0] + "/corpora/" + corpusId);
-
-      // fetch ts
-      ClientResponse tsResponse = corpusWebResource.path("_typesystem")
-          .request(MediaType.TEXT_XML)
-          .header("Content-Type", MediaType.TEXT_XML)
-          .get(ClientResponse.class);
-
-      zipPackageOut.putNextEntry(new ZipEntry("TypeSystem.xml"));
-      try (InputStream tsIn = tsResponse.getEntityStream()) {
-        copyStream(tsIn, zipPackageOut);
+      if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+        System.out.println("Failed to export corpus: " + response.getStatus());
+        System.exit(-1);
       }
-      zipPackageOut.closeEntry();
-
-      // consume task queue
-      WebTarget r2 = c.target(args[0] + "/queues/" + backupQueueId);
 
-      while (true) {
-        // TODO: Make query configurable ...
-        ClientResponse response2 = r2.path("_nextTask")
-                .queryParam("q", args[1])
-                .request(MediaType.APPLICATION_JSON)
-                .header("Content-Type", MediaType.TEXT_XML)
-                .get(ClientResponse.class);
-
-        if (response2.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
-          System.out.println("##### FINISHED #####");
-          break;
-        }
-
-        // check if response was ok ...
-        String casId = response2.readEntity(String.class);
-
-        ClientResponse casResponse = corpusWebResource.path(casId)
-            .request(MediaType.TEXT_XML)
-            .header("Content-Type", MediaType.TEXT_XML)
-            .get(ClientResponse.class);
-
-        zipPackageOut.putNextEntry(new ZipEntry(casId));
-
-        try (InputStream casIn = casResponse.getEntityStream()) {
-          copyStream(casIn, zipPackageOut);
-        }
-
-        zipPackageOut.closeEntry();
-
-        System.out.println(casId);
+      try (InputStream backupIn = response.readEntity(InputStream.class)) {
+        Files.copy(backupIn, backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
       }
+
+      System.out.println("##### FINISHED #####");
     }
     catch (IOException e) {
       e.printStackTrace();
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.corpus_server.tools;
+
+import java.io.File;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+
+/**
+ * Tool to restore a corpus from a zip package which was created by {@link CorpusBackup}.
+ * The corpus must already exist on the server.
+ * <p>
+ * CASes which already exist in the corpus are skipped by the server, an
+ * interrupted restore can be resumed by running the tool again.
+ */
+public class CorpusRestore {
+
+  public static void main(String[] args) throws Exception {
+
+    if (args.length != 3) {
+      System.out.println("CorpusRestore address corpusName backupFile");
+      System.exit(-1);
+    }
+
+    Client c = ClientBuilder.newClient();
+    c.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
+    WebTarget r = c.target(args[0] + "/corpora/" + args[1]);
+
+    File backupFile = new File(args[2]);
+
+    try (Response response = r.path("_import")
+        .request(MediaType.TEXT_PLAIN)
+        .post(Entity.entity(backupFile, "application/zip"))) {
+
+      System.out.println("Restored " + response.readEntity(String.class)
+          + " CASes " + response.getStatus());
+    }
+  }
+}
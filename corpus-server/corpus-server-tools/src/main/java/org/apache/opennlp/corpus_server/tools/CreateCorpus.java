@@ -37,14 +37,17 @@ import org.apache.uima.util.XMLParser;
 
 /**
  * Command Line Tool to create a new corpus in the corpus server.
+ * <p>
+ * The optional codec defines how the server stores the CASes,
+ * e.g. DEFLATE to store them compressed.
  */
 public class CreateCorpus {
 
   public static void main(String[] args) throws Exception {
 
-    if (args.length != 4) {
+    if (args.length < 4 || args.length > 5) {
       System.out
-          .println("CreateCorpus address corpusName typeSystemFile mappingFile");
+          .println("CreateCorpus address corpusName typeSystemFile mappingFile [codec]");
       System.exit(-1);
     }
 
@@ -73,8 +76,14 @@ public class CreateCorpus {
       byte[] indexMappingBytes = FileUtil.fileToBytes(new File(args[3]));
       resources[1] = indexMappingBytes;
 
-      try (Response response = r.path("_createCorpus")
-              .queryParam("corpusName", corpusName)
+      WebTarget createCorpusTarget = r.path("_createCorpus")
+              .queryParam("corpusName", corpusName);
+
+      if (args.length == 5) {
+        createCorpusTarget = createCorpusTarget.queryParam("codec", args[4]);
+      }
+
+      try (Response response = createCorpusTarget
               .request(MediaType.APPLICATION_JSON)
               .header("Content-Type", MediaType.APPLICATION_JSON_TYPE)
               .post(Entity.entity(resources, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
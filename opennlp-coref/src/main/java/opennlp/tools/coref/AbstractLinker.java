@@ -18,6 +18,11 @@
 package opennlp.tools.coref;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import opennlp.tools.coref.mention.HeadFinder;
 import opennlp.tools.coref.mention.Mention;
@@ -31,6 +36,11 @@ import opennlp.tools.coref.sim.Number;
 /**
  * Provides a default implementation of many of the methods in {@link Linker} that
  * most implementations of {@link Linker} will want to extend.
+ * <p>
+ * The linker only holds the resolvers and their models, all state which belongs
+ * to a document is kept in the {@link DiscourseModel} and the mention contexts
+ * created for it. In {@link LinkerMode#TEST} one instance can therefore resolve
+ * several documents concurrently.
  */
 public abstract class AbstractLinker implements Linker {
 
@@ -43,7 +53,12 @@ public abstract class AbstractLinker implements Linker {
   /** The mode in which this linker is running. */
   protected final LinkerMode mode;
 
-  /** Instance used for returning the same linker for subsequent getInstance requests. */
+  /**
+   * Instance used for returning the same linker for subsequent getInstance requests.
+   *
+   * @deprecated Not used by the linkers of this package.
+   */
+  @Deprecated
   protected static Linker linker;
 
   /** The resolvers used by this Linker. */
@@ -51,7 +66,13 @@ public abstract class AbstractLinker implements Linker {
   /** The names of the resolvers used by this Linker. */
   protected String[] resolverNames;
 
-  /** Array used to store the results of each call made to the linker. */
+  /**
+   * Array used to store the results of each call made to the linker.
+   *
+   * @deprecated The results are kept per call to {@link #resolve(MentionContext, DiscourseModel)},
+   *             so that documents can be resolved concurrently, this array no longer holds them.
+   */
+  @Deprecated
   protected DiscourseEntity[] entities;
 
   /** The index of resolver which is used for singular pronouns. */
@@ -107,6 +128,7 @@ public abstract class AbstractLinker implements Linker {
     //System.err.println("AbstractLinker.resolve: "+mode+"("+econtext.id+") "+econtext.toText());
     boolean validEntity = true; // true if we should add this entity to the dm
     boolean canResolve = false;
+    DiscourseEntity[] entities = new DiscourseEntity[resolvers.length];
 
     for (int ri = 0; ri < resolvers.length; ri++) {
       if (resolvers[ri].canResolve(mention)) {
@@ -132,9 +154,6 @@ public abstract class AbstractLinker implements Linker {
           validEntity = false;
         }
       }
-      else {
-        entities[ri] = null;
-      }
     }
     if (!canResolve && removeUnresolvedMentions) {
       //System.err.println("No resolver for: "+econtext.toText()
@@ -227,6 +246,38 @@ public abstract class AbstractLinker implements Linker {
     return (dm.getEntities());
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * In {@link LinkerMode#TEST} the documents are resolved concurrently with the
+   * specified executor. In the other modes the resolvers collect training events
+   * and the documents are processed one after another on the calling thread.
+   */
+  public List<DiscourseEntity[]> getEntities(List<Mention[]> documents, ExecutorService executor) {
+    if (mode != LinkerMode.TEST) {
+      return Linker.super.getEntities(documents, executor);
+    }
+
+    List<DiscourseEntity[]> documentEntities = new ArrayList<>(documents.size());
+    List<CompletableFuture<DiscourseEntity[]>> futures = new ArrayList<>(documents.size());
+    for (Mention[] mentions : documents) {
+      futures.add(CompletableFuture.supplyAsync(() -> getEntities(mentions), executor));
+    }
+    try {
+      for (CompletableFuture<DiscourseEntity[]> future : futures) {
+        documentEntities.add(future.join());
+      }
+    }
+    catch (CompletionException e) {
+      futures.forEach(future -> future.cancel(false));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    return documentEntities;
+  }
+
   public void setEntities(Mention[] mentions) {
     getEntities(mentions);
   }
@@ -31,6 +31,12 @@ public class DiscourseEntity extends DiscourseElement {
   private double genderProb;
   private NumberEnum number;
   private double numberProb;
+  private MentionContext properNounExtent;
+
+  /** The discourse model which contains this entity and its neighbours in the recency order of it. */
+  DiscourseModel model;
+  DiscourseEntity newer;
+  DiscourseEntity older;
 
   /**
    * Creates a new entity based on the specified mention and its specified gender and number properties.
@@ -44,6 +50,7 @@ public class DiscourseEntity extends DiscourseElement {
   public DiscourseEntity(MentionContext mention, GenderEnum gender, double genderProb,
                          NumberEnum number, double numberProb) {
     super(mention);
+    updateProperNounExtent(mention);
     this.gender = gender;
     this.genderProb = genderProb;
     this.number = number;
@@ -57,6 +64,7 @@ public class DiscourseEntity extends DiscourseElement {
    */
   public DiscourseEntity(MentionContext mention) {
     super(mention);
+    updateProperNounExtent(mention);
     gender = GenderEnum.UNKNOWN;
     number = NumberEnum.UNKNOWN;
   }
@@ -151,4 +159,25 @@ public class DiscourseEntity extends DiscourseElement {
   public void setNumberProbability(double p) {
     numberProb = p;
   }
+
+  @Override
+  public void addMention(MentionContext mention) {
+    super.addMention(mention);
+    updateProperNounExtent(mention);
+  }
+
+  /**
+   * Returns the first mention of this entity which is a proper noun.
+   *
+   * @return the first proper noun mention, or {@code null} if there is none.
+   */
+  public MentionContext getProperNounExtent() {
+    return properNounExtent;
+  }
+
+  private void updateProperNounExtent(MentionContext mention) {
+    if (properNounExtent == null && mention.getMentionFeatures().isProperNoun()) {
+      properNounExtent = mention;
+    }
+  }
 }
@@ -17,18 +17,33 @@
 
 package opennlp.tools.coref;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 
 import opennlp.tools.coref.mention.MentionContext;
 
 /**
  * Represents the elements which are part of a discourse.
+ * <p>
+ * The entities are kept in a doubly linked list ordered by recency, the most
+ * recently mentioned entity first. Adding, mentioning and merging entities only
+ * relinks them and takes constant time regardless of the length of the document.
+ * The model remembers the position of the last entity returned by
+ * {@link #getEntity(int)}, so the resolvers which scan the most recent entities
+ * by increasing index advance one link per call.
  */
 public class DiscourseModel {
 
-  private final List<DiscourseEntity> entities;
+  /** The most recently mentioned entity. */
+  private DiscourseEntity first;
+
+  /** The least recently mentioned entity. */
+  private DiscourseEntity last;
+
+  private int numEntities;
+
+  /** The entity which was last returned by getEntity, null if the model changed since. */
+  private DiscourseEntity cursor;
+  private int cursorIndex;
 
   int nextEntityId = 1;
 
@@ -36,7 +51,6 @@ public class DiscourseModel {
    * Creates a new discourse model.
    */
   public DiscourseModel() {
-    entities = new ArrayList<>();
   }
 
   /**
@@ -45,8 +59,11 @@ public class DiscourseModel {
    * @param e The entity which has been mentioned.
    */
   public void mentionEntity(DiscourseEntity e) {
-    if (entities.remove(e)) {
-      entities.add(0,e);
+    if (e.model == this) {
+      if (e != first) {
+        unlink(e);
+        linkFirst(e);
+      }
     }
     else {
       System.err.println("DiscourseModel.mentionEntity: failed to remove " + e);
@@ -59,7 +76,7 @@ public class DiscourseModel {
    * @return the number of entities in this discourse model.
    */
   public int getNumEntities() {
-    return entities.size();
+    return numEntities;
   }
 
   /**
@@ -69,7 +86,35 @@ public class DiscourseModel {
    * @return the entity at the specified index.
    */
   public DiscourseEntity getEntity(int i) {
-    return entities.get(i);
+    if (i < 0 || i >= numEntities) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + numEntities);
+    }
+
+    // walk from the closest of the first entity, the cursor and the last entity
+    DiscourseEntity e;
+    int ei;
+    if (cursor != null && Math.abs(i - cursorIndex) < Math.min(i, numEntities - 1 - i)) {
+      e = cursor;
+      ei = cursorIndex;
+    }
+    else if (i <= numEntities - 1 - i) {
+      e = first;
+      ei = 0;
+    }
+    else {
+      e = last;
+      ei = numEntities - 1;
+    }
+    for (; ei < i; ei++) {
+      e = e.older;
+    }
+    for (; ei > i; ei--) {
+      e = e.newer;
+    }
+
+    cursor = e;
+    cursorIndex = i;
+    return e;
   }
 
   /**
@@ -80,7 +125,10 @@ public class DiscourseModel {
   public void addEntity(DiscourseEntity e) {
     e.setId(nextEntityId);
     nextEntityId++;
-    entities.add(0,e);
+    if (e.model == this) {
+      unlink(e);
+    }
+    linkFirst(e);
   }
 
   /**
@@ -95,7 +143,9 @@ public class DiscourseModel {
       e1.addMention(ei.next());
     }
     //System.err.println("DiscourseModel.mergeEntities: removing "+e2);
-    entities.remove(e2);
+    if (e2.model == this) {
+      unlink(e2);
+    }
   }
 
   /**
@@ -104,8 +154,11 @@ public class DiscourseModel {
    * @return the entities in the discourse model.
    */
   public DiscourseEntity[] getEntities() {
-    DiscourseEntity[] des = new DiscourseEntity[entities.size()];
-    entities.toArray(des);
+    DiscourseEntity[] des = new DiscourseEntity[numEntities];
+    int ei = 0;
+    for (DiscourseEntity e = first; e != null; e = e.older) {
+      des[ei++] = e;
+    }
     return des;
   }
 
@@ -113,6 +166,52 @@ public class DiscourseModel {
    * Removes all elements from this discourse model.
    */
   public void clear() {
-    entities.clear();
+    DiscourseEntity e = first;
+    while (e != null) {
+      DiscourseEntity older = e.older;
+      e.model = null;
+      e.newer = null;
+      e.older = null;
+      e = older;
+    }
+    first = null;
+    last = null;
+    numEntities = 0;
+    cursor = null;
+  }
+
+  private void linkFirst(DiscourseEntity e) {
+    e.model = this;
+    e.newer = null;
+    e.older = first;
+    if (first != null) {
+      first.newer = e;
+    }
+    else {
+      last = e;
+    }
+    first = e;
+    numEntities++;
+    cursor = null;
+  }
+
+  private void unlink(DiscourseEntity e) {
+    if (e.newer != null) {
+      e.newer.older = e.older;
+    }
+    else {
+      first = e.older;
+    }
+    if (e.older != null) {
+      e.older.newer = e.newer;
+    }
+    else {
+      last = e.newer;
+    }
+    e.model = null;
+    e.newer = null;
+    e.older = null;
+    numEntities--;
+    cursor = null;
   }
 }
@@ -18,6 +18,9 @@
 package opennlp.tools.coref;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import opennlp.tools.coref.mention.HeadFinder;
 import opennlp.tools.coref.mention.Mention;
@@ -83,6 +86,28 @@ public interface Linker {
    */
   DiscourseEntity[] getEntities(Mention[] mentions);
 
+  /**
+   * Returns the entities of several documents, each document is resolved
+   * independently of the others.
+   * <p>
+   * The default implementation resolves the documents one after another on the
+   * calling thread, implementations which can resolve documents concurrently
+   * use the executor.
+   *
+   * @param documents The mentions of each document.
+   * @param executor The executor which can be used to resolve the documents.
+   *
+   * @return A list which contains the discourse entities of each document,
+   *         in the same order as the specified documents.
+   */
+  default List<DiscourseEntity[]> getEntities(List<Mention[]> documents, ExecutorService executor) {
+    List<DiscourseEntity[]> documentEntities = new ArrayList<>(documents.size());
+    for (Mention[] mentions : documents) {
+      documentEntities.add(getEntities(mentions));
+    }
+    return documentEntities;
+  }
+
   /**
    * Creates mention contexts for the specified mention exents.
    * These are used to compute coreference features over.
@@ -26,7 +26,7 @@ import net.didion.jwnl.JWNLException;
  * */
 public class DictionaryFactory {
 
-  private static Dictionary dictionary;
+  private static volatile Dictionary dictionary;
 
   /**
    * Returns the default implementation of the Dictionary interface.
@@ -34,11 +34,15 @@ public class DictionaryFactory {
    */
   public static Dictionary getDictionary() {
     if (dictionary == null) {
-      try {
-        dictionary = new JWNLDictionary(System.getProperty("WNSEARCHDIR"));
-      }
-      catch (IOException | JWNLException e) {
-        System.err.println(e);
+      synchronized (DictionaryFactory.class) {
+        if (dictionary == null) {
+          try {
+            dictionary = new JWNLDictionary(System.getProperty("WNSEARCHDIR"));
+          }
+          catch (IOException | JWNLException e) {
+            System.err.println(e);
+          }
+        }
       }
     }
     return dictionary;
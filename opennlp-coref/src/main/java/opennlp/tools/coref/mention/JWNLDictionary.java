@@ -48,6 +48,9 @@ import net.didion.jwnl.princeton.file.PrincetonRandomAccessDictionaryFile;
 
 /**
  * An implementation of the Dictionary interface using the JWNL library.
+ * <p>
+ * The JWNL dictionary files and the morphological processor are not thread safe,
+ * the lookups of this class are therefore synchronized.
  */
 public class JWNLDictionary implements Dictionary {
 
@@ -85,7 +88,7 @@ public class JWNLDictionary implements Dictionary {
   }
 
   @SuppressWarnings("unchecked")
-  public String[] getLemmas(String word, String tag) {
+  public synchronized String[] getLemmas(String word, String tag) {
     try {
       POS pos;
       if (tag.startsWith("N") || tag.startsWith("n")) {
@@ -112,7 +115,7 @@ public class JWNLDictionary implements Dictionary {
     }
   }
 
-  public String getSenseKey(String lemma, String pos,int sense) {
+  public synchronized String getSenseKey(String lemma, String pos,int sense) {
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
       if (iw == null) {
@@ -127,7 +130,7 @@ public class JWNLDictionary implements Dictionary {
 
   }
 
-  public int getNumSenses(String lemma, String pos) {
+  public synchronized int getNumSenses(String lemma, String pos) {
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
       if (iw == null) {
@@ -151,7 +154,7 @@ public class JWNLDictionary implements Dictionary {
     }
   }
 
-  public String[] getParentSenseKeys(String lemma, String pos, int sense) {
+  public synchronized String[] getParentSenseKeys(String lemma, String pos, int sense) {
     //System.err.println("JWNLDictionary.getParentSenseKeys: lemma="+lemma);
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
@@ -19,6 +19,7 @@ package opennlp.tools.coref.mention;
 
 import java.util.List;
 
+import opennlp.tools.coref.resolver.MentionFeatures;
 import opennlp.tools.coref.sim.Context;
 import opennlp.tools.coref.sim.GenderEnum;
 import opennlp.tools.coref.sim.NumberEnum;
@@ -120,6 +121,11 @@ public class MentionContext extends Context {
    */
   private double numberProb;
 
+  /**
+   * The features of this mention cached by the resolvers, created on first use.
+   */
+  private MentionFeatures mentionFeatures;
+
   public MentionContext(Span span, Span headSpan, int entityId, Parse parse, String extentType,
                         String nameType, int mentionIndex, int mentionsInSentence,
                         int mentionIndexInDocument, int sentenceIndex, HeadFinder headFinder) {
@@ -422,4 +428,16 @@ public class MentionContext extends Context {
   public double getNumberProb() {
     return numberProb;
   }
+
+  /**
+   * Returns the cache of features which only depend on this mention.
+   *
+   * @return the cached features of this mention.
+   */
+  public MentionFeatures getMentionFeatures() {
+    if (mentionFeatures == null) {
+      mentionFeatures = new MentionFeatures(this);
+    }
+    return mentionFeatures;
+  }
 }
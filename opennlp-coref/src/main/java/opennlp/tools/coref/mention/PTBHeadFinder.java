@@ -45,7 +45,7 @@ public final class PTBHeadFinder implements HeadFinder {
    * Returns an instance of this head finder.
    * @return an instance of this head finder.
    */
-  public static HeadFinder getInstance() {
+  public static synchronized HeadFinder getInstance() {
     if (instance == null) {
       instance = new PTBHeadFinder();
     }
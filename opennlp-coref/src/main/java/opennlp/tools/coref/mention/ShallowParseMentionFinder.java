@@ -36,7 +36,7 @@ public class ShallowParseMentionFinder extends AbstractMentionFinder {
    * @param hf
    * @return one and only existing instance
    */
-  public static ShallowParseMentionFinder getInstance(HeadFinder hf) {
+  public static synchronized ShallowParseMentionFinder getInstance(HeadFinder hf) {
     if (instance == null) {
       instance = new ShallowParseMentionFinder(hf);
     }
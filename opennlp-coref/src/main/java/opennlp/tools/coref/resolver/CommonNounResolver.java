@@ -18,7 +18,6 @@
 package opennlp.tools.coref.resolver;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import opennlp.tools.coref.DiscourseEntity;
@@ -44,9 +43,9 @@ public class CommonNounResolver extends MaxentResolver {
 
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     if (entity != null) {
-      features.addAll(ResolverUtils.getContextFeatures(mention));
+      features.addAll(mention.getMentionFeatures().getContextFeatures());
       features.addAll(ResolverUtils.getStringMatchFeatures(mention,entity));
     }
     return features;
@@ -122,7 +122,7 @@ public class DefaultNonReferentialResolver implements NonReferentialResolver {
         features.add("nr" + wf);
       }
     }
-    features.addAll(ResolverUtils.getContextFeatures(mention));
+    features.addAll(mention.getMentionFeatures().getContextFeatures());
     return features;
   }
 
@@ -18,7 +18,6 @@
 package opennlp.tools.coref.resolver;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -98,14 +97,14 @@ public class IsAResolver extends MaxentResolver {
 
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     if (entity != null) {
       MentionContext ant = entity.getLastExtent();
-      List<String> leftContexts = ResolverUtils.getContextFeatures(ant);
+      List<String> leftContexts = ant.getMentionFeatures().getContextFeatures();
       for (String leftContext : leftContexts) {
         features.add("l" + leftContext);
       }
-      List<String> rightContexts = ResolverUtils.getContextFeatures(mention);
+      List<String> rightContexts = mention.getMentionFeatures().getContextFeatures();
       for (String rightContext : rightContexts) {
         features.add("r" + rightContext);
       }
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref.resolver;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import opennlp.tools.coref.mention.MentionContext;
+import opennlp.tools.coref.sim.TestSimilarityModel;
+
+/**
+ * Caches the features of a single mention which do not depend on the entity
+ * it is compared with.
+ * <p>
+ * A mention is compared with every candidate entity by every resolver, and it
+ * is compared again as part of an entity with every later mention. The strings,
+ * modifier sets and context features derived from it are therefore computed once,
+ * on first use, and shared. The similarity of the mention with earlier mentions
+ * is cached as well, since every resolver asks the same similarity model.
+ * <p>
+ * Instances are obtained via {@link MentionContext#getMentionFeatures()} and, like
+ * the mention contexts of a document, must not be shared between threads.
+ */
+public final class MentionFeatures {
+
+  private final MentionContext mention;
+
+  private String mentionString;
+  private String excludedHonorificMentionString;
+  private String excludedTheMentionString;
+  private String excludedDeterminerMentionString;
+  private String strippedNp;
+  private boolean strippedNpComputed;
+  private String headTokenTextLowerCase;
+  private Set<String> modifierSet;
+  private Set<String> descriptorModifierSet;
+  private Map<String, String> pronounFeatureMap;
+  private List<String> contextFeatures;
+
+  private TestSimilarityModel simModel;
+  private Map<MentionContext, Double> compatibility;
+
+  public MentionFeatures(MentionContext mention) {
+    this.mention = mention;
+  }
+
+  /**
+   * @return the space-delimited tokens of the mention.
+   * @see ResolverUtils#mentionString(MentionContext)
+   */
+  public String getMentionString() {
+    if (mentionString == null) {
+      mentionString = ResolverUtils.mentionString(mention);
+    }
+    return mentionString;
+  }
+
+  /**
+   * @return the mention string without honorifics.
+   * @see ResolverUtils#excludedHonorificMentionString(MentionContext)
+   */
+  public String getExcludedHonorificMentionString() {
+    if (excludedHonorificMentionString == null) {
+      excludedHonorificMentionString = ResolverUtils.excludedHonorificMentionString(mention);
+    }
+    return excludedHonorificMentionString;
+  }
+
+  /**
+   * @return the mention string without the article "the".
+   * @see ResolverUtils#excludedTheMentionString(MentionContext)
+   */
+  public String getExcludedTheMentionString() {
+    if (excludedTheMentionString == null) {
+      excludedTheMentionString = ResolverUtils.excludedTheMentionString(mention);
+    }
+    return excludedTheMentionString;
+  }
+
+  /**
+   * @return the mention string without determiners.
+   * @see ResolverUtils#excludedDeterminerMentionString(MentionContext)
+   */
+  public String getExcludedDeterminerMentionString() {
+    if (excludedDeterminerMentionString == null) {
+      excludedDeterminerMentionString = ResolverUtils.excludedDeterminerMentionString(mention);
+    }
+    return excludedDeterminerMentionString;
+  }
+
+  /**
+   * @return the normalized mention string, or {@code null} if nothing is left after normalization.
+   * @see ResolverUtils#stripNp(MentionContext)
+   */
+  public String getStrippedNp() {
+    if (!strippedNpComputed) {
+      strippedNp = ResolverUtils.stripNp(mention);
+      strippedNpComputed = true;
+    }
+    return strippedNp;
+  }
+
+  /**
+   * @return the lower-cased text of the head token.
+   */
+  public String getHeadTokenTextLowerCase() {
+    if (headTokenTextLowerCase == null) {
+      headTokenTextLowerCase = mention.getHeadTokenText().toLowerCase();
+    }
+    return headTokenTextLowerCase;
+  }
+
+  /**
+   * @return true if the head of the mention is a proper noun or capitalized.
+   */
+  public boolean isProperNoun() {
+    return ResolverUtils.isProperNoun(mention);
+  }
+
+  /**
+   * @return the lower-cased tokens preceding the head token.
+   */
+  public Set<String> getModifierSet() {
+    if (modifierSet == null) {
+      modifierSet = Collections.unmodifiableSet(
+          ResolverUtils.constructModifierSet(mention.getTokenParses(), mention.getHeadTokenIndex()));
+    }
+    return modifierSet;
+  }
+
+  /**
+   * @return the lower-cased tokens of the descriptor of the mention.
+   */
+  public Set<String> getDescriptorModifierSet() {
+    if (descriptorModifierSet == null) {
+      descriptorModifierSet = Collections.unmodifiableSet(
+          ResolverUtils.constructModifierSet(mention.getTokenParses(), mention.getNonDescriptorStart()));
+    }
+    return descriptorModifierSet;
+  }
+
+  /**
+   * @return the gender and number of the head token if it is a pronoun.
+   */
+  Map<String, String> getPronounFeatureMap() {
+    if (pronounFeatureMap == null) {
+      pronounFeatureMap = Collections.unmodifiableMap(
+          ResolverUtils.getPronounFeatureMap(mention.getHeadTokenText()));
+    }
+    return pronounFeatureMap;
+  }
+
+  /**
+   * @return the features of the tokens surrounding the mention.
+   * @see ResolverUtils#getContextFeatures(MentionContext)
+   */
+  public List<String> getContextFeatures() {
+    if (contextFeatures == null) {
+      contextFeatures = Collections.unmodifiableList(ResolverUtils.getContextFeatures(mention));
+    }
+    return contextFeatures;
+  }
+
+  /**
+   * Returns the probability that the mention is semantically compatible with
+   * the specified mention, as computed by the specified model.
+   *
+   * @param other The other mention.
+   * @param model The similarity model.
+   * @return the probability of compatibility.
+   */
+  double getCompatibility(MentionContext other, TestSimilarityModel model) {
+    if (simModel != model) {
+      simModel = model;
+      compatibility = new IdentityHashMap<>();
+    }
+    Double sim = compatibility.get(other);
+    if (sim == null) {
+      sim = model.compatible(mention, other);
+      compatibility.put(other, sim);
+    }
+    return sim;
+  }
+}
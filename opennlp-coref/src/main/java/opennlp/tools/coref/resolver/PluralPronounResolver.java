@@ -18,7 +18,6 @@
 package opennlp.tools.coref.resolver;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import opennlp.tools.coref.DiscourseEntity;
@@ -42,13 +41,13 @@ public class PluralPronounResolver extends MaxentResolver {
 
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     //features.add("eid="+pc.id);
     if (entity != null) { //generate pronoun w/ referent features
       features.addAll(ResolverUtils.getPronounMatchFeatures(mention,entity));
       MentionContext cec = entity.getLastExtent();
       features.addAll(ResolverUtils.getDistanceFeatures(mention,entity));
-      features.addAll(ResolverUtils.getContextFeatures(cec));
+      features.addAll(cec.getMentionFeatures().getContextFeatures());
       features.add(ResolverUtils.getMentionCountFeature(entity));
       /*
       //lexical features
@@ -38,25 +38,18 @@ import opennlp.tools.coref.mention.MentionContext;
  */
 public class ProperNounResolver extends MaxentResolver {
 
-  private static Map<String, Set<String>> acroMap;
-  private static boolean acroMapLoaded = false;
+  private static volatile Map<String, Set<String>> acroMap;
 
   public ProperNounResolver(String projectName, ResolverMode m) throws IOException {
     super(projectName,"pnmodel", m, 500);
-    if (!acroMapLoaded) {
-      initAcronyms(projectName + "/acronyms");
-      acroMapLoaded = true;
-    }
+    initAcronyms(projectName + "/acronyms");
     showExclusions = false;
   }
 
   public ProperNounResolver(String projectName, ResolverMode m,NonReferentialResolver nonRefResolver)
       throws IOException {
     super(projectName,"pnmodel", m, 500,nonRefResolver);
-    if (!acroMapLoaded) {
-      initAcronyms(projectName + "/acronyms");
-      acroMapLoaded = true;
-    }
+    initAcronyms(projectName + "/acronyms");
     showExclusions = false;
   }
 
@@ -64,11 +57,12 @@ public class ProperNounResolver extends MaxentResolver {
     return (mention.getHeadTokenTag().startsWith("NNP") || mention.getHeadTokenTag().startsWith("CD"));
   }
 
-  private void initAcronyms(String name) {
-    acroMap = new HashMap<>(15000);
-    try {
-      BufferedReader str;
-      str = new BufferedReader(new FileReader(name));
+  private static synchronized void initAcronyms(String name) {
+    if (acroMap != null) {
+      return;
+    }
+    Map<String, Set<String>> acroMap = new HashMap<>(15000);
+    try (BufferedReader str = new BufferedReader(new FileReader(name))) {
       //System.err.println("Reading acronyms database: " + file + " ");
       String line;
       while (null != (line = str.readLine())) {
@@ -92,6 +86,8 @@ public class ProperNounResolver extends MaxentResolver {
     catch (IOException e) {
       System.err.println("ProperNounResolver.initAcronyms: Acronym Database not found: " + e);
     }
+    // only published once completely read, the map is not modified afterwards
+    ProperNounResolver.acroMap = acroMap;
   }
 
   private boolean isAcronym(String ecStrip, String xecStrip) {
@@ -104,8 +100,8 @@ public class ProperNounResolver extends MaxentResolver {
 
   protected List<String> getAcronymFeatures(MentionContext mention, DiscourseEntity entity) {
     MentionContext xec = ResolverUtils.getProperNounExtent(entity);
-    String ecStrip = ResolverUtils.stripNp(mention);
-    String xecStrip = ResolverUtils.stripNp(xec);
+    String ecStrip = mention.getMentionFeatures().getStrippedNp();
+    String xecStrip = xec.getMentionFeatures().getStrippedNp();
     if (ecStrip != null && xecStrip != null) {
       if (isAcronym(ecStrip, xecStrip)) {
         List<String> features = new ArrayList<>(1);
@@ -119,7 +115,7 @@ public class ProperNounResolver extends MaxentResolver {
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
     //System.err.println("ProperNounResolver.getFeatures: "+mention.toText()+" -> "+entity);
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     if (entity != null) {
       features.addAll(ResolverUtils.getStringMatchFeatures(mention, entity));
       features.addAll(getAcronymFeatures(mention, entity));
@@ -215,16 +215,19 @@ public class ResolverUtils {
 
   public static String getExactMatchFeature(MentionContext ec, MentionContext xec) {
     //System.err.println("getExactMatchFeature: ec="+mentionString(ec)+" mc="+mentionString(xec));
-    if (mentionString(ec).equals(mentionString(xec))) {
+    MentionFeatures ecf = ec.getMentionFeatures();
+    MentionFeatures xecf = xec.getMentionFeatures();
+    if (ecf.getMentionString().equals(xecf.getMentionString())) {
       return "exactMatch";
     }
-    else if (excludedHonorificMentionString(ec).equals(excludedHonorificMentionString(xec))) {
+    else if (ecf.getExcludedHonorificMentionString().equals(xecf.getExcludedHonorificMentionString())) {
       return "exactMatchNoHonor";
     }
-    else if (excludedTheMentionString(ec).equals(excludedTheMentionString(xec))) {
+    else if (ecf.getExcludedTheMentionString().equals(xecf.getExcludedTheMentionString())) {
       return "exactMatchNoThe";
     }
-    else if (excludedDeterminerMentionString(ec).equals(excludedDeterminerMentionString(xec))) {
+    else if (ecf.getExcludedDeterminerMentionString().equals(
+        xecf.getExcludedDeterminerMentionString())) {
       return "exactMatchNoDT";
     }
     return null;
@@ -242,12 +245,13 @@ public class ResolverUtils {
     boolean titleMatch = false;
     boolean nonTheModsMatch = false;
     List<String> features = new ArrayList<>();
-    Parse[] mtokens = mention.getTokenParses();
-    Set<String> ecModSet = constructModifierSet(mtokens, mention.getHeadTokenIndex());
-    String mentionHeadString = mention.getHeadTokenText().toLowerCase();
+    MentionFeatures mentionFeatures = mention.getMentionFeatures();
+    Set<String> ecModSet = mentionFeatures.getModifierSet();
+    String mentionHeadString = mentionFeatures.getHeadTokenTextLowerCase();
     Set<String> featureSet = new HashSet<>();
     for (Iterator<MentionContext> ei = entity.getMentions(); ei.hasNext();) {
       MentionContext entityMention = ei.next();
+      MentionFeatures entityMentionFeatures = entityMention.getMentionFeatures();
       String exactMatchFeature = getExactMatchFeature(entityMention, mention);
       if (exactMatchFeature != null) {
         featureSet.add(exactMatchFeature);
@@ -257,22 +261,20 @@ public class ResolverUtils {
         featureSet.add("cmix");
       }
       else {
-        String mentionStrip = stripNp(mention);
-        String entityMentionStrip = stripNp(entityMention);
+        String mentionStrip = mentionFeatures.getStrippedNp();
+        String entityMentionStrip = entityMentionFeatures.getStrippedNp();
         if (mentionStrip != null && entityMentionStrip != null) {
           if (isSubstring(mentionStrip, entityMentionStrip)) {
             featureSet.add("substring");
           }
         }
       }
-      Parse[] xtoks = entityMention.getTokenParses();
-      int headIndex = entityMention.getHeadTokenIndex();
       //if (!mention.getHeadTokenTag().equals(entityMention.getHeadTokenTag())) {
       //  //System.err.println("skipping "+mention.headTokenText+" with "+xec.headTokenText
       // +" because "+mention.headTokenTag+" != "+xec.headTokenTag);
       //  continue;
       //}  want to match NN NNP
-      String entityMentionHeadString = entityMention.getHeadTokenText().toLowerCase();
+      String entityMentionHeadString = entityMentionFeatures.getHeadTokenTextLowerCase();
       // model lexical similarity
       if (mentionHeadString.equals(entityMentionHeadString)) {
         sameHead = true;
@@ -280,7 +282,7 @@ public class ResolverUtils {
         if (!modsMatch || !nonTheModsMatch) { //only check if we haven't already found one which is the same
           modsMatch = true;
           nonTheModsMatch = true;
-          Set<String> entityMentionModifierSet = constructModifierSet(xtoks, headIndex);
+          Set<String> entityMentionModifierSet = entityMentionFeatures.getModifierSet();
           for (String mw : ecModSet) {
             if (!entityMentionModifierSet.contains(mw)) {
               modsMatch = false;
@@ -292,7 +294,7 @@ public class ResolverUtils {
           }
         }
       }
-      Set<String> descModSet = constructModifierSet(xtoks, entityMention.getNonDescriptorStart());
+      Set<String> descModSet = entityMentionFeatures.getDescriptorModifierSet();
       if (descModSet.contains(mentionHeadString)) {
         titleMatch = true;
       }
@@ -412,17 +414,15 @@ public class ResolverUtils {
 
   public static MentionContext getProperNounExtent(DiscourseEntity de) {
     //use first extent which is proper name
-    for (Iterator<MentionContext> ei = de.getMentions(); ei.hasNext();) {
-      MentionContext xec = ei.next();
-      String xecHeadTag = xec.getHeadTokenTag();
-      if (xecHeadTag.startsWith("NNP") || INITIAL_CAPS.matcher(xec.getHeadTokenText()).find()) {
-        return xec;
-      }
-    }
-    return null;
+    return de.getProperNounExtent();
+  }
+
+  static boolean isProperNoun(MentionContext mention) {
+    return mention.getHeadTokenTag().startsWith("NNP")
+        || INITIAL_CAPS.matcher(mention.getHeadTokenText()).find();
   }
 
-  private static Map<String, String> getPronounFeatureMap(String pronoun) {
+  static Map<String, String> getPronounFeatureMap(String pronoun) {
     Map<String, String> pronounMap = new HashMap<>();
     if (MALE_PRONOUN_PATTERN.matcher(pronoun).matches()) {
       pronounMap.put("gender","male");
@@ -465,7 +465,7 @@ public class ResolverUtils {
     boolean foundCompatiblePronoun = false;
     boolean foundIncompatiblePronoun = false;
     if (mention.getHeadTokenTag().startsWith("PRP")) {
-      Map<String, String> pronounMap = getPronounFeatureMap(mention.getHeadTokenText());
+      Map<String, String> pronounMap = mention.getMentionFeatures().getPronounFeatureMap();
       //System.err.println("getPronounMatchFeatures.pronounMap:"+pronounMap);
       for (Iterator<MentionContext> mi = entity.getMentions();mi.hasNext();) {
         MentionContext candidateMention = mi.next();
@@ -476,7 +476,7 @@ public class ResolverUtils {
           }
           else {
             Map<String, String> candidatePronounMap =
-                getPronounFeatureMap(candidateMention.getHeadTokenText());
+                candidateMention.getMentionFeatures().getPronounFeatureMap();
             //System.err.println("getPronounMatchFeatures.candidatePronounMap:"+candidatePronounMap);
             boolean allKeysMatch = true;
             for (String key : pronounMap.keySet()) {
@@ -574,7 +574,7 @@ public class ResolverUtils {
    */
   public static List<String> getCompatibilityFeatures(MentionContext mention,
                                                       DiscourseEntity entity, TestSimilarityModel simModel) {
-    List<String> compatFeatures = new ArrayList<>();
+    List<String> compatFeatures = new ArrayList<>(4);
     String semCompatible = getSemanticCompatibilityFeature(mention, entity, simModel);
     compatFeatures.add(semCompatible);
     String genCompatible = getGenderCompatibilityFeature(mention, entity);
@@ -610,9 +610,10 @@ public class ResolverUtils {
                                                        TestSimilarityModel simModel) {
     if (simModel != null) {
       double best = 0;
+      MentionFeatures ecf = ec.getMentionFeatures();
       for (Iterator<MentionContext> xi = de.getMentions(); xi.hasNext();) {
         MentionContext ec2 = xi.next();
-        double sim = simModel.compatible(ec, ec2);
+        double sim = ecf.getCompatibility(ec2, simModel);
         if (sim > best) {
           best = sim;
         }
@@ -33,7 +33,7 @@ public class SingletonNonReferentialResolver extends DefaultNonReferentialResolv
     super(projectName, "nonref", mode);
   }
 
-  public static SingletonNonReferentialResolver getInstance(String modelName, ResolverMode mode)
+  public static synchronized SingletonNonReferentialResolver getInstance(String modelName, ResolverMode mode)
       throws IOException {
     if (resolver == null) {
       resolver = new SingletonNonReferentialResolver(modelName, mode);
@@ -18,7 +18,6 @@
 package opennlp.tools.coref.resolver;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -55,12 +54,12 @@ public class SingularPronounResolver extends MaxentResolver {
 
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     if (entity != null) { //generate pronoun w/ referent features
       MentionContext cec = entity.getLastExtent();
       //String gen = getPronounGender(pronoun);
       features.addAll(ResolverUtils.getPronounMatchFeatures(mention,entity));
-      features.addAll(ResolverUtils.getContextFeatures(cec));
+      features.addAll(cec.getMentionFeatures().getContextFeatures());
       features.addAll(ResolverUtils.getDistanceFeatures(mention,entity));
       features.add(ResolverUtils.getMentionCountFeature(entity));
       /*
@@ -18,7 +18,6 @@
 package opennlp.tools.coref.resolver;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import opennlp.tools.coref.DiscourseEntity;
@@ -46,10 +45,10 @@ public class SpeechPronounResolver extends MaxentResolver {
 
   @Override
   protected List<String> getFeatures(MentionContext mention, DiscourseEntity entity) {
-    List<String> features = new ArrayList<>(super.getFeatures(mention, entity));
+    List<String> features = super.getFeatures(mention, entity);
     if (entity != null) {
       features.addAll(ResolverUtils.getPronounMatchFeatures(mention,entity));
-      List<String> contexts = ResolverUtils.getContextFeatures(mention);
+      List<String> contexts = mention.getMentionFeatures().getContextFeatures();
       MentionContext cec = entity.getLastExtent();
       if (mention.getHeadTokenTag().startsWith("PRP") && cec.getHeadTokenTag().startsWith("PRP")) {
         features.add(mention.getHeadTokenText() + "," + cec.getHeadTokenText());
@@ -59,7 +58,7 @@ public class SpeechPronounResolver extends MaxentResolver {
         features.add(mention.getNameType() + "," + cec.getHeadTokenText());
       }
       else {
-        List<String> ccontexts = ResolverUtils.getContextFeatures(cec);
+        List<String> ccontexts = cec.getMentionFeatures().getContextFeatures();
         features.addAll(ccontexts);
         features.add(cec.getNameType() + "," + mention.getHeadTokenText());
       }
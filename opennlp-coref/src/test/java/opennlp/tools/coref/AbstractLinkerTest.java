@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.coref;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.coref.mention.DefaultParse;
+import opennlp.tools.coref.mention.Mention;
+import opennlp.tools.coref.mention.MentionContext;
+import opennlp.tools.coref.mention.PTBHeadFinder;
+import opennlp.tools.coref.mention.PTBMentionFinder;
+import opennlp.tools.coref.resolver.AbstractResolver;
+import opennlp.tools.coref.sim.Gender;
+import opennlp.tools.coref.sim.GenderEnum;
+import opennlp.tools.coref.sim.Number;
+import opennlp.tools.coref.sim.NumberEnum;
+import opennlp.tools.parser.Parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that documents resolved concurrently by one {@link AbstractLinker} get the
+ * same entities as documents resolved one after another.
+ */
+class AbstractLinkerTest {
+
+  private static final String[] NAMES = {"John", "Mary", "Paris", "London", "Smith", "Berlin"};
+
+  /**
+   * Resolves a mention to the most recent entity with the same head word.
+   */
+  private static class HeadMatchResolver extends AbstractResolver {
+
+    HeadMatchResolver() {
+      super(20);
+    }
+
+    @Override
+    public boolean canResolve(MentionContext mention) {
+      return true;
+    }
+
+    @Override
+    public DiscourseEntity resolve(MentionContext mention, DiscourseModel dm) {
+      String head = getHeadString(mention);
+      for (int ei = 0, en = getNumEntities(dm); ei < en; ei++) {
+        DiscourseEntity entity = dm.getEntity(ei);
+        if (!excluded(mention, entity) && head.equals(getHeadString(entity.getLastExtent()))) {
+          return entity;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static class HeadMatchLinker extends AbstractLinker {
+
+    HeadMatchLinker() {
+      super("", LinkerMode.TEST);
+      headFinder = PTBHeadFinder.getInstance();
+      mentionFinder = PTBMentionFinder.getInstance(headFinder);
+      resolvers = new AbstractResolver[] {new HeadMatchResolver()};
+    }
+
+    @Override
+    protected Gender computeGender(MentionContext mention) {
+      return new Gender(GenderEnum.UNKNOWN, 0.5);
+    }
+
+    @Override
+    protected Number computeNumber(MentionContext mention) {
+      return new Number(NumberEnum.SINGULAR, 0.5);
+    }
+  }
+
+  private static Mention[] createDocument(Linker linker, long seed) {
+    Random random = new Random(seed);
+    List<Mention> document = new ArrayList<>();
+    for (int si = 0, sn = 5 + random.nextInt(20); si < sn; si++) {
+      Parse p = Parse.parseParse("(TOP (S (NP (NNP " + NAMES[random.nextInt(NAMES.length)]
+          + ")) (VP (VBD met) (NP (NNP " + NAMES[random.nextInt(NAMES.length)] + "))) (. .)))");
+      Mention[] extents = linker.getMentionFinder().getMentions(new DefaultParse(p, si));
+      for (Mention extent : extents) {
+        if (extent.getParse() == null) {
+          Parse snp = new Parse(p.getText(), extent.getSpan(), "NML", 1.0, 0);
+          p.insert(snp);
+          extent.setParse(new DefaultParse(snp, si));
+        }
+      }
+      document.addAll(Arrays.asList(extents));
+    }
+    return document.toArray(new Mention[0]);
+  }
+
+  /**
+   * Describes the entities by the positions and text of their mentions.
+   */
+  private static List<String> describe(DiscourseEntity[] entities) {
+    List<String> description = new ArrayList<>(entities.length);
+    for (DiscourseEntity entity : entities) {
+      StringBuilder mentions = new StringBuilder();
+      for (Iterator<MentionContext> mi = entity.getMentions(); mi.hasNext();) {
+        MentionContext mention = mi.next();
+        mentions.append(mention.getSentenceNumber()).append(':')
+            .append(mention.getIndexSpan()).append(':').append(mention.toText()).append(' ');
+      }
+      description.add(mentions.toString());
+    }
+    return description;
+  }
+
+  @Test
+  void testConcurrentDocuments() {
+    Linker linker = new HeadMatchLinker();
+    List<Mention[]> documents = new ArrayList<>();
+    for (int di = 0; di < 32; di++) {
+      documents.add(createDocument(linker, di));
+    }
+
+    List<List<String>> expected = new ArrayList<>();
+    for (Mention[] document : documents) {
+      expected.add(describe(linker.getEntities(document)));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<DiscourseEntity[]> entities = linker.getEntities(documents, executor);
+      assertEquals(documents.size(), entities.size());
+      for (int di = 0; di < documents.size(); di++) {
+        assertEquals(expected.get(di), describe(entities.get(di)));
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
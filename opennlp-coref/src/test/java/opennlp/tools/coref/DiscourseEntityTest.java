@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.coref;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.coref.mention.DefaultParse;
+import opennlp.tools.coref.mention.HeadFinder;
+import opennlp.tools.coref.mention.Mention;
+import opennlp.tools.coref.mention.MentionContext;
+import opennlp.tools.coref.mention.PTBHeadFinder;
+import opennlp.tools.coref.mention.PTBMentionFinder;
+import opennlp.tools.parser.Parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that the proper noun extent which {@link DiscourseEntity} keeps up to date
+ * is the first proper noun mention of the entity.
+ */
+class DiscourseEntityTest {
+
+  private static MentionContext john;
+  private static MentionContext him;
+  private static MentionContext mary;
+  private static MentionContext it;
+
+  @BeforeAll
+  static void setUp() {
+    HeadFinder headFinder = PTBHeadFinder.getInstance();
+    Parse p = Parse.parseParse("(TOP (S (NP (NNP John)) (VP (VBD told) (NP (PRP him)) "
+        + "(PP (IN about) (NP (NNP Mary))) (PP (IN before) (NP (PRP it)))) (. .)))");
+    Mention[] mentions = PTBMentionFinder.getInstance(headFinder).getMentions(new DefaultParse(p, 0));
+    assertEquals(4, mentions.length);
+
+    MentionContext[] contexts = new MentionContext[mentions.length];
+    for (int mi = 0; mi < mentions.length; mi++) {
+      contexts[mi] = new MentionContext(mentions[mi], mi, mentions.length, mi, 0, headFinder);
+    }
+    john = contexts[0];
+    him = contexts[1];
+    mary = contexts[2];
+    it = contexts[3];
+  }
+
+  /**
+   * Finds the proper noun extent like the resolvers did before it was kept by the entity.
+   */
+  private static MentionContext scanProperNounExtent(DiscourseEntity entity) {
+    for (Iterator<MentionContext> ei = entity.getMentions(); ei.hasNext();) {
+      MentionContext mention = ei.next();
+      if (mention.getHeadTokenTag().startsWith("NNP")
+          || Character.isUpperCase(mention.getHeadTokenText().charAt(0))) {
+        return mention;
+      }
+    }
+    return null;
+  }
+
+  @Test
+  void testAddMention() {
+    DiscourseEntity entity = new DiscourseEntity(him);
+    assertNull(entity.getProperNounExtent());
+
+    entity.addMention(it);
+    assertNull(entity.getProperNounExtent());
+
+    entity.addMention(john);
+    assertSame(john, entity.getProperNounExtent());
+
+    entity.addMention(mary);
+    assertSame(john, entity.getProperNounExtent());
+    assertSame(scanProperNounExtent(entity), entity.getProperNounExtent());
+  }
+
+  @Test
+  void testFirstMention() {
+    DiscourseEntity entity = new DiscourseEntity(mary);
+    assertSame(mary, entity.getProperNounExtent());
+
+    entity.addMention(john);
+    entity.addMention(him);
+    assertSame(mary, entity.getProperNounExtent());
+    assertSame(scanProperNounExtent(entity), entity.getProperNounExtent());
+  }
+
+  @Test
+  void testMergeEntities() {
+    DiscourseModel dm = new DiscourseModel();
+    DiscourseEntity e1 = new DiscourseEntity(him);
+    DiscourseEntity e2 = new DiscourseEntity(mary);
+    e2.addMention(it);
+    dm.addEntity(e1);
+    dm.addEntity(e2);
+
+    dm.mergeEntities(e1, e2, 1);
+    assertSame(mary, e1.getProperNounExtent());
+    assertSame(scanProperNounExtent(e1), e1.getProperNounExtent());
+  }
+}
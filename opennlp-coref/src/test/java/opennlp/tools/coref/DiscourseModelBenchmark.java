@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref;
+
+import java.util.Random;
+
+import opennlp.tools.coref.mention.DefaultParse;
+import opennlp.tools.coref.mention.MentionContext;
+import opennlp.tools.coref.mention.PTBHeadFinder;
+import opennlp.tools.parser.Parse;
+
+/**
+ * Measures the cost of the {@link DiscourseModel} operations of the linker on long documents.
+ * <p>
+ * The benchmark replays a synthetic document: every mention scans the most
+ * recent entities by index like the resolvers do, and then either starts a new
+ * entity, mentions an existing one, or merges two entities. The time per mention
+ * should stay flat as the number of entities in the document grows.
+ * <p>
+ * Usage: DiscourseModelBenchmark [mentions ...]
+ */
+public class DiscourseModelBenchmark {
+
+  /** The number of recent entities scanned per mention, the range of the pronoun resolvers. */
+  private static final int SCAN_WINDOW = 50;
+
+  private static final int ITERATIONS = 5;
+
+  static MentionContext createMention() {
+    Parse sentence = Parse.parseParse("(TOP (S (NP (NNP John) (NNP Smith)) (VP (VBD left)) (. .)))");
+    Parse np = findNounPhrase(sentence);
+    DefaultParse mentionParse = new DefaultParse(np, 0);
+    return new MentionContext(mentionParse.getSpan(), mentionParse.getSpan(), -1, mentionParse,
+        Linker.NP, null, 0, 1, 0, 0, PTBHeadFinder.getInstance());
+  }
+
+  private static Parse findNounPhrase(Parse parse) {
+    if ("NP".equals(parse.getType())) {
+      return parse;
+    }
+    for (Parse child : parse.getChildren()) {
+      Parse np = findNounPhrase(child);
+      if (np != null) {
+        return np;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Replays a document with the specified number of mentions.
+   *
+   * @return a checksum of the scanned entities, so the scans can't be eliminated.
+   */
+  private static long replay(MentionContext mention, int numMentions, long seed) {
+    Random random = new Random(seed);
+    DiscourseModel dm = new DiscourseModel();
+    long checksum = 0;
+    for (int mi = 0; mi < numMentions; mi++) {
+      int numEntities = dm.getNumEntities();
+      for (int ei = 0, en = Math.min(numEntities, SCAN_WINDOW); ei < en; ei++) {
+        checksum += dm.getEntity(ei).getId();
+      }
+
+      int action = random.nextInt(100);
+      if (numEntities < 2 || action < 30) {
+        dm.addEntity(new DiscourseEntity(mention));
+      }
+      else if (action < 99) {
+        // most references are to recent entities, some reach far back into the document
+        int ei = action < 90 ? random.nextInt(Math.min(numEntities, SCAN_WINDOW))
+            : random.nextInt(numEntities);
+        DiscourseEntity entity = dm.getEntity(ei);
+        entity.addMention(mention);
+        dm.mentionEntity(entity);
+      }
+      else {
+        DiscourseEntity e1 = dm.getEntity(random.nextInt(Math.min(numEntities, SCAN_WINDOW)));
+        DiscourseEntity e2 = dm.getEntity(random.nextInt(numEntities));
+        if (e1 != e2) {
+          dm.mergeEntities(e1, e2, 1);
+        }
+      }
+    }
+    return checksum + dm.getNumEntities();
+  }
+
+  public static void main(String[] args) {
+    int[] documentSizes = {1000, 10000, 100000, 1000000};
+    if (args.length > 0) {
+      documentSizes = new int[args.length];
+      for (int ai = 0; ai < args.length; ai++) {
+        documentSizes[ai] = Integer.parseInt(args[ai]);
+      }
+    }
+
+    MentionContext mention = createMention();
+
+    // warm up
+    replay(mention, documentSizes[0], 0);
+
+    for (int numMentions : documentSizes) {
+      long best = Long.MAX_VALUE;
+      long checksum = 0;
+      for (int it = 0; it < ITERATIONS; it++) {
+        long start = System.nanoTime();
+        checksum += replay(mention, numMentions, it);
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      System.out.printf("%,10d mentions: %,8.1f ms, %,8.1f ns/mention (checksum %d)%n",
+          numMentions, best / 1e6, (double) best / numMentions, checksum);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.coref.mention.MentionContext;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link DiscourseModel} against the list based model it replaced.
+ */
+class DiscourseModelTest {
+
+  private static MentionContext mention;
+
+  /**
+   * The list based model, the most recently mentioned entity first.
+   */
+  private static class ListModel {
+    private final List<DiscourseEntity> entities = new ArrayList<>();
+
+    void addEntity(DiscourseEntity e) {
+      entities.add(0, e);
+    }
+
+    void mentionEntity(DiscourseEntity e) {
+      if (entities.remove(e)) {
+        entities.add(0, e);
+      }
+    }
+
+    void mergeEntities(DiscourseEntity e1, DiscourseEntity e2) {
+      entities.remove(e2);
+    }
+  }
+
+  @BeforeAll
+  static void setUp() {
+    mention = DiscourseModelBenchmark.createMention();
+  }
+
+  private static void assertSameOrder(ListModel expected, DiscourseModel dm) {
+    assertEquals(expected.entities.size(), dm.getNumEntities());
+    assertArrayEquals(expected.entities.toArray(), dm.getEntities());
+  }
+
+  @Test
+  void testOrder() {
+    DiscourseModel dm = new DiscourseModel();
+
+    DiscourseEntity e1 = new DiscourseEntity(mention);
+    DiscourseEntity e2 = new DiscourseEntity(mention);
+    DiscourseEntity e3 = new DiscourseEntity(mention);
+
+    dm.addEntity(e1);
+    dm.addEntity(e2);
+    dm.addEntity(e3);
+    assertArrayEquals(new DiscourseEntity[] {e3, e2, e1}, dm.getEntities());
+    assertEquals(1, e1.getId());
+    assertEquals(3, e3.getId());
+
+    // move the cursor to the end, then jump back
+    assertSame(e1, dm.getEntity(2));
+    assertSame(e3, dm.getEntity(0));
+    assertSame(e2, dm.getEntity(1));
+
+    dm.mentionEntity(e1);
+    assertArrayEquals(new DiscourseEntity[] {e1, e3, e2}, dm.getEntities());
+    assertSame(e2, dm.getEntity(2));
+
+    dm.mergeEntities(e1, e3, 1);
+    assertArrayEquals(new DiscourseEntity[] {e1, e2}, dm.getEntities());
+    assertSame(e2, dm.getEntity(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> dm.getEntity(2));
+
+    // a merged entity is not in the model anymore
+    dm.mentionEntity(e3);
+    assertArrayEquals(new DiscourseEntity[] {e1, e2}, dm.getEntities());
+
+    dm.clear();
+    assertEquals(0, dm.getNumEntities());
+    assertThrows(IndexOutOfBoundsException.class, () -> dm.getEntity(0));
+
+    dm.addEntity(e2);
+    assertSame(e2, dm.getEntity(0));
+    assertEquals(4, e2.getId());
+  }
+
+  @Test
+  void testRandomOperations() {
+    Random random = new Random(42);
+
+    DiscourseModel dm = new DiscourseModel();
+    ListModel expected = new ListModel();
+    List<DiscourseEntity> merged = new ArrayList<>();
+
+    for (int oi = 0; oi < 20000; oi++) {
+      int numEntities = expected.entities.size();
+      int action = random.nextInt(100);
+
+      if (numEntities < 2 || action < 25) {
+        DiscourseEntity e = new DiscourseEntity(mention);
+        dm.addEntity(e);
+        expected.addEntity(e);
+      }
+      else if (action < 60) {
+        // scan forward from the start like the resolvers, then jump back
+        int end = random.nextInt(numEntities);
+        for (int ei = 0; ei <= end; ei++) {
+          assertSame(expected.entities.get(ei), dm.getEntity(ei));
+        }
+        int back = random.nextInt(end + 1);
+        assertSame(expected.entities.get(back), dm.getEntity(back));
+      }
+      else if (action < 80) {
+        int ei = random.nextInt(numEntities);
+        DiscourseEntity e = dm.getEntity(ei);
+        assertSame(expected.entities.get(ei), e);
+        dm.mentionEntity(e);
+        expected.mentionEntity(e);
+      }
+      else if (action < 90) {
+        DiscourseEntity e1 = dm.getEntity(random.nextInt(numEntities));
+        DiscourseEntity e2 = dm.getEntity(random.nextInt(numEntities));
+        if (e1 != e2) {
+          dm.mergeEntities(e1, e2, 1);
+          expected.mergeEntities(e1, e2);
+          merged.add(e2);
+        }
+      }
+      else if (action < 98) {
+        int ei = random.nextInt(numEntities);
+        assertSame(expected.entities.get(ei), dm.getEntity(ei));
+      }
+      else if (action < 99) {
+        // the model ignores entities which were merged into others
+        if (!merged.isEmpty()) {
+          DiscourseEntity e = merged.get(random.nextInt(merged.size()));
+          dm.mentionEntity(e);
+          expected.mentionEntity(e);
+        }
+      }
+      else {
+        dm.clear();
+        expected.entities.clear();
+        merged.clear();
+      }
+
+      assertEquals(expected.entities.size(), dm.getNumEntities());
+    }
+
+    assertSameOrder(expected, dm);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.coref.resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.coref.mention.DefaultParse;
+import opennlp.tools.coref.mention.HeadFinder;
+import opennlp.tools.coref.mention.Mention;
+import opennlp.tools.coref.mention.MentionContext;
+import opennlp.tools.coref.mention.PTBHeadFinder;
+import opennlp.tools.coref.mention.PTBMentionFinder;
+import opennlp.tools.parser.Parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that the cached {@link MentionFeatures} equal the features computed by
+ * {@link ResolverUtils} for each call.
+ */
+class MentionFeaturesTest {
+
+  private static final String[] SENTENCES = {
+      "(TOP (S (NP (NNP Mr.) (NNP John) (NNP Smith)) (VP (VBD told) (NP (PRP her)) "
+          + "(PP (IN about) (NP (DT the) (JJ old) (NNPS Smiths)))) (. .)))",
+      "(TOP (S (NP (PRP She)) (VP (VBD met) (NP (NP (NNP Mary) (POS 's)) (NNP Paris))) (. .)))"
+  };
+
+  private static List<MentionContext> createMentions(String sentence) {
+    HeadFinder headFinder = PTBHeadFinder.getInstance();
+    Parse p = Parse.parseParse(sentence);
+    Mention[] mentions = PTBMentionFinder.getInstance(headFinder).getMentions(new DefaultParse(p, 0));
+    List<MentionContext> contexts = new ArrayList<>(mentions.length);
+    for (int mi = 0; mi < mentions.length; mi++) {
+      if (mentions[mi].getParse() != null) {
+        contexts.add(new MentionContext(mentions[mi], mi, mentions.length, mi, 0, headFinder));
+      }
+    }
+    return contexts;
+  }
+
+  @Test
+  void testCachedFeatures() {
+    for (String sentence : SENTENCES) {
+      List<MentionContext> mentions = createMentions(sentence);
+      assertFalse(mentions.isEmpty());
+
+      for (MentionContext mention : mentions) {
+        MentionFeatures features = mention.getMentionFeatures();
+        // the features are compared twice, the second time they come from the cache
+        for (int i = 0; i < 2; i++) {
+          assertEquals(ResolverUtils.mentionString(mention), features.getMentionString());
+          assertEquals(ResolverUtils.excludedHonorificMentionString(mention),
+              features.getExcludedHonorificMentionString());
+          assertEquals(ResolverUtils.excludedTheMentionString(mention),
+              features.getExcludedTheMentionString());
+          assertEquals(ResolverUtils.excludedDeterminerMentionString(mention),
+              features.getExcludedDeterminerMentionString());
+          assertEquals(ResolverUtils.stripNp(mention), features.getStrippedNp());
+          assertEquals(mention.getHeadTokenText().toLowerCase(), features.getHeadTokenTextLowerCase());
+          assertEquals(ResolverUtils.isProperNoun(mention), features.isProperNoun());
+          assertEquals(ResolverUtils.constructModifierSet(mention.getTokenParses(),
+              mention.getHeadTokenIndex()), features.getModifierSet());
+          assertEquals(ResolverUtils.constructModifierSet(mention.getTokenParses(),
+              mention.getNonDescriptorStart()), features.getDescriptorModifierSet());
+          assertEquals(ResolverUtils.getPronounFeatureMap(mention.getHeadTokenText()),
+              features.getPronounFeatureMap());
+          assertEquals(ResolverUtils.getContextFeatures(mention), features.getContextFeatures());
+        }
+        assertSame(features, mention.getMentionFeatures());
+        assertSame(features.getModifierSet(), features.getModifierSet());
+        assertSame(features.getContextFeatures(), features.getContextFeatures());
+      }
+    }
+  }
+}
@@ -17,34 +17,108 @@
 package opennlp.tools.similarity.apps.solr;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import opennlp.tools.similarity.apps.HitBase;
 import opennlp.tools.textsimilarity.ParseTreeChunk;
 import opennlp.tools.textsimilarity.ParseTreeChunkListScorer;
-import opennlp.tools.textsimilarity.SentencePairMatchResult;
+import opennlp.tools.textsimilarity.ParseTreeMatcherDeterministic;
 import opennlp.tools.textsimilarity.chunker2matcher.ParserChunker2MatcherProcessor;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.SolrParams;
 import org.apache.solr.common.util.NamedList;
 import org.apache.solr.handler.component.SearchHandler;
 import org.apache.solr.request.SolrQueryRequest;
 import org.apache.solr.response.SolrQueryResponse;
 
+/**
+ * Re-ranks the hits given in the request by the generalization of their
+ * snippets with the query.
+ * <p>
+ * The query is parsed once per request and the hits are scored concurrently on
+ * a bounded pool, each hit parses its snippet on its scoring thread. Hits which
+ * are not scored within the time allowed for the request, fail to be scored or
+ * are rejected because the queue of the pool is full, are ranked like hits
+ * without a match, in their original order. If the query can't be parsed no hit
+ * is scored. The
+ * parsed snippets are cached across requests. With {@code debugQuery=true} the
+ * time of each stage is added to the debug section of the response.
+ */
 public class SearchResultsReRankerRequestHandler extends SearchHandler {
 	private static final Logger LOG =
 					Logger.getLogger("com.become.search.requestHandlers.SearchResultsReRankerRequestHandler");
 	private final static int MAX_SEARCH_RESULTS = 100;
+	// in milliseconds, used if the request has no timeAllowed parameter
+	private final static long DEFAULT_TIME_ALLOWED = 5000;
+	private final static int SNIPPET_CACHE_SIZE = 10000;
+	private final static int SCORING_THREADS = Runtime.getRuntime().availableProcessors();
+	private final static int SCORING_QUEUE_SIZE = 4 * MAX_SEARCH_RESULTS;
+	// a hit which doesn't fit into the queue is cancelled, and ranked as unscored
+	private final static RejectedExecutionHandler REJECT_AS_UNSCORED = (r, executor) -> {
+		if (r instanceof Future)
+			((Future<?>) r).cancel(false);
+	};
 	private final ParseTreeChunkListScorer parseTreeChunkListScorer = new ParseTreeChunkListScorer();
-	private ParserChunker2MatcherProcessor sm = null;
+	private volatile ParserChunker2MatcherProcessor sm = null;
 	private static final String RESOURCE_DIR = "/home/solr/solr-4.4.0/example/src/test/resources";
 	//"C:/workspace/TestSolr/src/test/resources";
 	//"/data1/solr/example/src/test/resources";
 
+	private final ThreadPoolExecutor executor;
+
+	// parsed snippets of the hits, in the order of their last use
+	private final Map<String, List<List<ParseTreeChunk>>> snippetCache =
+					Collections.synchronizedMap(new LinkedHashMap<String, List<List<ParseTreeChunk>>>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, List<List<ParseTreeChunk>>> eldest) {
+			return size() > SNIPPET_CACHE_SIZE;
+		}
+	});
+
+	/**
+	 * Scores a hit against the parsed query.
+	 */
+	interface HitScorer {
+		double score(HitBase hit, List<List<ParseTreeChunk>> queryPhrases);
+	}
+
+	public SearchResultsReRankerRequestHandler() {
+		this(SCORING_THREADS, SCORING_QUEUE_SIZE);
+	}
+
+	SearchResultsReRankerRequestHandler(int scoringThreads, int queueSize) {
+		executor = createExecutor(scoringThreads, queueSize);
+	}
+
+	private static ThreadPoolExecutor createExecutor(int scoringThreads, int queueSize) {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(scoringThreads, scoringThreads,
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+					Thread thread = new Thread(r, "reranker-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, REJECT_AS_UNSCORED);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	public void handleRequestBody(SolrQueryRequest req, SolrQueryResponse rsp){
 		// get query string
 		String requestExpression = req.getParamString();
@@ -56,13 +130,11 @@ public class SearchResultsReRankerRequestHandler extends SearchHandler {
 		String query = StringUtils.substringAfter(requestExpression, ":");
 		LOG.info(requestExpression);
 
-
-		SolrParams ps = req.getOriginalParams();
-		Iterator<String> iter =  ps.getParameterNamesIterator();
-		List<String> keys = new ArrayList<>();
-		while(iter.hasNext()){
-			keys.add(iter.next());
-		}
+		SolrParams params = req.getParams();
+		boolean debug = params.getBool(CommonParams.DEBUG_QUERY, false)
+				|| params.get(CommonParams.DEBUG) != null;
+		long timeAllowed = params.getLong(CommonParams.TIME_ALLOWED, DEFAULT_TIME_ALLOWED);
+		NamedList<Object> timings = new NamedList<>();
 
 		List<HitBase> searchResults = new ArrayList<>();
 
@@ -114,40 +186,37 @@ public class SearchResultsReRankerRequestHandler extends SearchHandler {
 			LOG.info("No re-ranking for "+query);
 		}
 		else 
-			reRankedResults = calculateMatchScoreResortHits(searchResults, query);
-		/*
-		 * <scores>
-					<score index="2">3.0005</score>
-					<score index="1">2.101</score>
-					<score index="3">2.1003333333333334</score>
-					<score index="4">2.00025</score>
-					<score index="5">1.1002</score>
-			 </scores>
-		 */
-		StringBuilder buf = new StringBuilder();
-		buf.append("<scores>");
-		for(HitBase hit: reRankedResults){
-			buf.append("<score index=\"").append(hit.getSource()).append("\">").append(hit.getGenerWithQueryScore()).append("</score>");
-		}
-		buf.append("</scores>");
+			reRankedResults = calculateMatchScoreResortHits(searchResults, query, timeAllowed, timings);
 
 		NamedList<Object> scoreNum = new NamedList<>();
 		for(HitBase hit: reRankedResults){
 			scoreNum.add(hit.getSource(), hit.getGenerWithQueryScore());				
 		}
 		
-		StringBuilder bufNums = new StringBuilder();
-		bufNums.append("order>");
-		for(HitBase hit: reRankedResults){
-			bufNums.append(hit.getSource()).append("_");
+		if (LOG.isLoggable(Level.INFO)) {
+			/*
+			 * <scores>
+						<score index="2">3.0005</score>
+						<score index="1">2.101</score>
+						<score index="3">2.1003333333333334</score>
+				 </scores>
+			 */
+			StringBuilder buf = new StringBuilder();
+			buf.append("<scores>");
+			for(HitBase hit: reRankedResults){
+				buf.append("<score index=\"").append(hit.getSource()).append("\">").append(hit.getGenerWithQueryScore()).append("</score>");
+			}
+			buf.append("</scores>");
+			LOG.info("re-ranking results: "+ buf);
 		}
-		bufNums.append("/order>");
-		
-		LOG.info("re-ranking results: "+ buf);
 		NamedList<Object> values = rsp.getValues();
 		values.remove("response");
 		values.add("response", scoreNum); 
-		//values.add("new_order", bufNums.toString().trim());
+		if (debug) {
+			NamedList<Object> debugInfo = new NamedList<>();
+			debugInfo.add("reranker", timings);
+			values.add("debug", debugInfo);
+		}
 		rsp.setAllValues(values);
 		
 	}
@@ -165,40 +234,130 @@ public class SearchResultsReRankerRequestHandler extends SearchHandler {
 		return false;
 	}
 
+	private static double millisSince(long start) {
+		return (System.nanoTime() - start) / 1e6;
+	}
+
 	private List<HitBase> calculateMatchScoreResortHits(List<HitBase> hits,
-			String searchQuery) {
+			String searchQuery, long timeAllowed, NamedList<Object> timings) {
+		long start = System.nanoTime();
 		try {
 			sm =  ParserChunker2MatcherProcessor.getInstance(RESOURCE_DIR);
 		} catch (Exception e){
 			LOG.severe(e.getMessage());
 		}
-		List<HitBase> newHitList = new ArrayList<>();
 
+		// the query is parsed once for all hits
+		long stageStart = System.nanoTime();
+		List<List<ParseTreeChunk>> queryPhrases = null;
+		try {
+			queryPhrases = sm.formGroupedPhrasesFromChunksForPara(searchQuery, Runnable::run);
+		} catch (Exception e) {
+			// the hits can't be matched and keep their order
+			LOG.log(Level.INFO, e.getMessage(), e);
+		}
+		timings.add("parseQuery", millisSince(stageStart));
+
+		// the hits get the time which is left
+		long timeLeft = timeAllowed > 0
+				? Math.max(1, timeAllowed - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+				: timeAllowed;
+		AtomicInteger cacheHits = new AtomicInteger();
+		List<HitBase> newHitList = rankHits(hits, queryPhrases,
+				(hit, phrases) -> score(hit, phrases, cacheHits), timeLeft, timings);
+		timings.add("snippetCacheHits", cacheHits.get());
+		timings.add("total", millisSince(start));
+		if (LOG.isLoggable(Level.FINE))
+			LOG.fine(newHitList.toString());
+
+		return newHitList;
+	}
+
+	/**
+	 * Scores the hits concurrently and sorts them by their score, hits with the
+	 * same score keep their original order.
+	 *
+	 * @param queryPhrases the parsed query, if null no hit is scored
+	 * @param timeAllowed the time in milliseconds to score all hits, or 0 to wait
+	 *          until all hits are scored
+	 */
+	List<HitBase> rankHits(List<HitBase> hits, List<List<ParseTreeChunk>> queryPhrases,
+			HitScorer scorer, long timeAllowed, NamedList<Object> timings) {
+		long stageStart = System.nanoTime();
+		long deadline = stageStart + TimeUnit.MILLISECONDS.toNanos(timeAllowed);
+		List<Future<Double>> scores = new ArrayList<>(hits.size());
+		if (queryPhrases != null) {
+			for (HitBase hit : hits) {
+				scores.add(executor.submit(() -> scorer.score(hit, queryPhrases)));
+			}
+		}
+
+		List<HitBase> newHitList = new ArrayList<>();
+		int timedOut = 0;
+		int rejected = 0;
 		int count=1;
-		for (HitBase hit : hits) {
-			String snapshot = hit.getAbstractText();
-			snapshot += " . " + hit.getTitle();
-			double score = 0.0;
-			try {
-				SentencePairMatchResult matchRes = sm.assessRelevance(snapshot,
-						searchQuery);
-				List<List<ParseTreeChunk>> match = matchRes.getMatchResult(); // we need the second member
-				// so that when scores are the same, original order is maintained
-				score = parseTreeChunkListScorer.getParseTreeChunkListScore(match)+0.001/(double)count;
-			} catch (Exception e) {
-				LOG.info(e.getMessage());
-				e.printStackTrace();
+		for (int i = 0; i < hits.size(); i++) {
+			HitBase hit = hits.get(i);
+			// so that when scores are the same, original order is maintained,
+			// a hit which can't be scored only keeps its place
+			double score = 0.001/(double)count;
+			if (queryPhrases != null) {
+				Future<Double> future = scores.get(i);
+				try {
+					score += timeAllowed > 0
+							? future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+							: future.get();
+				} catch (TimeoutException e) {
+					future.cancel(true);
+					timedOut++;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					future.cancel(true);
+					timedOut++;
+				} catch (CancellationException e) {
+					rejected++;
+				} catch (ExecutionException e) {
+					LOG.log(Level.INFO, e.getCause().getMessage(), e.getCause());
+				}
 			}
 			hit.setGenerWithQueryScore(score);
 			newHitList.add(hit);
 			count++;
 		}
+		timings.add("scoreHits", millisSince(stageStart));
+		timings.add("hits", hits.size());
+		timings.add("timedOut", timedOut);
+		timings.add("rejected", rejected);
+
+		stageStart = System.nanoTime();
 		newHitList.sort(new HitBaseComparable());
-		LOG.info(newHitList.toString());
+		timings.add("sort", millisSince(stageStart));
 
 		return newHitList;
 	}
 
+	/**
+	 * Scores the generalization of the snippet of the hit with the query, the
+	 * same as assessRelevance(snippet, query) does.
+	 */
+	private double score(HitBase hit, List<List<ParseTreeChunk>> queryPhrases,
+			AtomicInteger cacheHits) {
+		String snapshot = hit.getAbstractText();
+		snapshot += " . " + hit.getTitle();
+		List<List<ParseTreeChunk>> hitPhrases = snippetCache.get(snapshot);
+		if (hitPhrases != null) {
+			cacheHits.incrementAndGet();
+		} else {
+			// the sentences are parsed on this thread, to keep the pool bounded
+			hitPhrases = sm.formGroupedPhrasesFromChunksForPara(snapshot, Runnable::run);
+			if (hitPhrases != null)
+				snippetCache.put(snapshot, hitPhrases);
+		}
+		List<List<ParseTreeChunk>> match = new ParseTreeMatcherDeterministic()
+				.matchTwoSentencesGroupedChunksDeterministic(hitPhrases, queryPhrases);
+		return parseTreeChunkListScorer.getParseTreeChunkListScore(match);
+	}
+
 
 	public static class HitBaseComparable implements Comparator<HitBase> {
 
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import opennlp.tools.stemmer.PorterStemmer;
+import opennlp.tools.stemmer.Stemmer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The lemmas, POS tags and stems of a {@link ParseTreeChunk} as arrays, with
+ * the ids of the POS tags, lower case lemmas and stems in the
+ * {@link SymbolTable}. It is computed once per chunk and word table, so that
+ * {@link ParseTreeMatcherDeterministic} does not stem and compare the words
+ * again for every pair of chunks.
+ */
+final class InternedChunk {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final List<String> lemmaList;
+  private final List<String> posList;
+
+  final SymbolTable words;
+
+  final String[] pos;
+  final int[] posIds;
+
+  // lower case lemmas
+  final String[] lemmas;
+  final int[] lemmaIds;
+
+  // stems of the lower case lemmas, the id is -1 if the lemma can't be stemmed
+  final String[] stems;
+  final int[] stemIds;
+
+  // the stems which are aligned when the chunk is the first or the second one
+  // of a pair, the failed stems are skipped in the first and end the second
+  final int[] firstStemIds;
+  final int[] secondStemIds;
+
+  InternedChunk(List<String> lemmaList, List<String> posList, SymbolTable words) {
+    this.lemmaList = lemmaList;
+    this.posList = posList;
+    this.words = words;
+
+    pos = posList.toArray(new String[0]);
+    posIds = new int[pos.length];
+    for (int i = 0; i < pos.length; i++) {
+      posIds[i] = SymbolTable.POS_TAGS.id(pos[i]);
+    }
+
+    Stemmer stemmer = new PorterStemmer();
+    lemmas = new String[lemmaList.size()];
+    lemmaIds = new int[lemmas.length];
+    stems = new String[lemmas.length];
+    stemIds = new int[lemmas.length];
+    int stemmed = 0;
+    int stemmedPrefix = -1;
+    for (int i = 0; i < lemmas.length; i++) {
+      lemmas[i] = lemmaList.get(i).toLowerCase();
+      lemmaIds[i] = words.id(lemmas[i]);
+      try {
+        stems[i] = stemmer.stem(lemmas[i]).toString();
+        stemIds[i] = words.id(stems[i]);
+        stemmed++;
+      } catch (Exception e) {
+        stemIds[i] = -1;
+        if (stemmedPrefix < 0)
+          stemmedPrefix = i;
+        if (lemmas[i].length() > 2)
+          LOG.debug("Unable to stem: {}", lemmaList.get(i));
+      }
+    }
+
+    if (stemmed == lemmas.length) {
+      firstStemIds = stemIds;
+      secondStemIds = stemIds;
+    } else {
+      firstStemIds = new int[stemmed];
+      for (int i = 0, j = 0; i < stemIds.length; i++) {
+        if (stemIds[i] >= 0)
+          firstStemIds[j++] = stemIds[i];
+      }
+      secondStemIds = new int[stemmedPrefix];
+      System.arraycopy(stemIds, 0, secondStemIds, 0, stemmedPrefix);
+    }
+  }
+
+  /**
+   * @return true if the chunk still has the lemmas and POS tags this was
+   * computed from, and the ids are from the word table
+   */
+  boolean isCurrent(List<String> lemmaList, List<String> posList, SymbolTable words) {
+    return this.lemmaList == lemmaList && this.posList == posList && this.words == words
+        && lemmas.length == lemmaList.size() && pos.length == posList.size();
+  }
+}
@@ -81,6 +81,51 @@ public class LemmaFormManager {
     return null;
   }
 
+  /**
+   * Same as {@link #matchLemmas(Stemmer, String, String, String)} for the lemmas
+   * at the given positions of two chunks, compares the lemmas and stems which
+   * were computed for the chunks instead of stemming the lemmas again.
+   */
+  String matchLemmas(InternedChunk chunk1, int i1, InternedChunk chunk2, int i2, String POS) {
+    if (POS == null) {
+      return null;
+    }
+    String lemma1 = chunk1.lemmas[i1];
+    String lemma2 = chunk2.lemmas[i2];
+    boolean equal = chunk1.lemmaIds[i1] == chunk2.lemmaIds[i2];
+    // numbers have to be exact
+    if (POS.equals("CD")) {
+      return equal ? lemma1 : null;
+    }
+
+    // 'must' occurrence of word
+    if (lemma1.endsWith("_xyz") || lemma2.endsWith("_xyz")) {
+      return matchLemmas(null, lemma1, lemma2, POS);
+    }
+
+    if (equal) {
+      return lemma1;
+    }
+
+    // a lemma equal to the other one plus 's' also starts with it
+    if (POS.equals("NN") || POS.equals("NP")) {
+      if (lemma1.endsWith(lemma2) || lemma2.endsWith(lemma1)
+          || lemma1.startsWith(lemma2) || lemma2.startsWith(lemma1)) {
+        return lemma1;
+      }
+    }
+
+    int stem1 = chunk1.stemIds[i1];
+    int stem2 = chunk2.stemIds[i2];
+    if (stem1 < 0 || stem2 < 0) {
+      return null;
+    }
+    if (stem1 == stem2 || chunk1.stems[i1].equalsIgnoreCase(chunk2.stems[i2])) {
+      return lemma1;
+    }
+    return null;
+  }
+
   public boolean acceptableLemmaAndPOS(String sim, String lemmaMatch) {
     if (sim == null) {
       return false;
@@ -17,11 +17,42 @@
 
 package opennlp.tools.textsimilarity;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 public class POSManager {
+
+  // results of similarPOS for pairs of tag ids below this bound are cached
+  private static final int CACHED_TAGS = 128;
+
+  private static final String NOT_SIMILAR = "not similar";
+
+  private static final AtomicReferenceArray<String> SIMILAR_POS =
+      new AtomicReferenceArray<>(CACHED_TAGS * CACHED_TAGS);
+
   public POSManager() {
 
   }
 
+  /**
+   * Same as {@link #similarPOS(String, String)} for the tags at the given
+   * positions of two chunks, the result is looked up by the ids of the tags.
+   */
+  String similarPOS(InternedChunk chunk1, int i1, InternedChunk chunk2, int i2) {
+    int id1 = chunk1.posIds[i1];
+    int id2 = chunk2.posIds[i2];
+    if (id1 >= CACHED_TAGS || id2 >= CACHED_TAGS) {
+      return similarPOS(chunk1.pos[i1], chunk2.pos[i2]);
+    }
+    int key = id1 * CACHED_TAGS + id2;
+    String sim = SIMILAR_POS.get(key);
+    if (sim == null) {
+      sim = similarPOS(chunk1.pos[i1], chunk2.pos[i2]);
+      SIMILAR_POS.set(key, sim != null ? sim : NOT_SIMILAR);
+      return sim;
+    }
+    return sim != NOT_SIMILAR ? sim : null;
+  }
+
   public String similarPOS(String pos1, String pos2) {
     if ((pos1.startsWith("NN") && pos2.equals("NP") || pos2.startsWith("NN")
         && pos1.equals("NP"))) {
@@ -52,6 +52,8 @@ public class ParseTreeChunk implements Serializable {
 
 	private List<ParseTreeNode> parseTreeNodes;
 
+	private transient volatile InternedChunk interned;
+
 
 	public List<ParseTreeNode> getParseTreeNodes() {
 		return parseTreeNodes;
@@ -552,6 +554,7 @@ public class ParseTreeChunk implements Serializable {
 
 	public void setLemmas(List<String> lemmas) {
 		this.lemmas = lemmas;
+		this.interned = null;
 	}
 
 	public List<String> getPOSs() {
@@ -560,6 +563,21 @@ public class ParseTreeChunk implements Serializable {
 
 	public void setPOSs(List<String> pOSs) {
 		POSs = pOSs;
+		this.interned = null;
+	}
+
+	/**
+	 * @param words the table of the lemma and stem ids
+	 * @return the interned lemmas, POS tags and stems of this chunk, which are
+	 * computed on first use of the table
+	 */
+	InternedChunk getInterned(SymbolTable words) {
+		InternedChunk form = interned;
+		if (form == null || !form.isCurrent(lemmas, POSs, words)) {
+			form = new InternedChunk(lemmas, POSs, words);
+			interned = form;
+		}
+		return form;
 	}
 
 	public ParseTreeMatcher getParseTreeMatcher() {
@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import opennlp.tools.textsimilarity.chunker2matcher.ParserChunker2MatcherProcessor;
+
+/**
+ * Finds the candidate texts which generalize best with a query.
+ * <p>
+ * The candidates are parsed into grouped phrases once, when they are added. A
+ * candidate can only have a non-empty generalization with a query if one of its
+ * noun or verb phrases shares a stem with a query phrase of the same type, so
+ * the index keeps an inverted list of candidates for each phrase type and stem.
+ * A query is only generalized with the candidates found in the lists of its
+ * stems, and these are scored in parallel on the executor of the index. The
+ * stem ids are kept in a table of the index, so they stay valid as long as the
+ * index is used, while the table shared by the matchers is bounded. The
+ * scores are the ones of
+ * {@link ParseTreeChunkListScorer#getParseTreeChunkListScore(List)} for the
+ * generalization of the candidate with the query.
+ * <p>
+ * Candidates can be added while the index is searched.
+ */
+public class SimilarityIndex {
+
+  // only noun and verb phrases are generalized
+  private static final int PHRASE_TYPES = 2;
+
+  private final ParserChunker2MatcherProcessor processor;
+
+  private final ParseTreeChunkListScorer scorer = new ParseTreeChunkListScorer();
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final SymbolTable words = new SymbolTable();
+
+  // the matcher keeps no state of a match and is shared by the scoring tasks
+  private final ParseTreeMatcherDeterministic matcher = new ParseTreeMatcherDeterministic(words);
+
+  // guarded by lock
+  private final List<String> texts = new ArrayList<>();
+  private final List<List<List<ParseTreeChunk>>> phrases = new ArrayList<>();
+  private final Map<Long, Postings> postings = new HashMap<>();
+
+  private volatile Executor executor = ForkJoinPool.commonPool();
+
+  private volatile int maxCandidates = Integer.MAX_VALUE;
+
+  /**
+   * A candidate which matched a query.
+   */
+  public static class Hit {
+
+    private final int id;
+    private final String text;
+    private final double score;
+    private final List<List<ParseTreeChunk>> matchResult;
+
+    Hit(int id, String text, double score, List<List<ParseTreeChunk>> matchResult) {
+      this.id = id;
+      this.text = text;
+      this.score = score;
+      this.matchResult = matchResult;
+    }
+
+    /**
+     * @return the id which was returned when the candidate was added
+     */
+    public int getId() {
+      return id;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public double getScore() {
+      return score;
+    }
+
+    /**
+     * @return the generalization of the candidate with the query
+     */
+    public List<List<ParseTreeChunk>> getMatchResult() {
+      return matchResult;
+    }
+
+    @Override
+    public String toString() {
+      return id + ": " + score + " " + matchResult;
+    }
+  }
+
+  // the ids of the candidates which contain a stem, in ascending order
+  private static class Postings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+      if (size > 0 && ids[size - 1] == id)
+        return;
+      if (size == ids.length)
+        ids = Arrays.copyOf(ids, size * 2);
+      ids[size++] = id;
+    }
+  }
+
+  private static final Comparator<Hit> BY_SCORE =
+      Comparator.comparingDouble(Hit::getScore).thenComparing(Hit::getId, Comparator.reverseOrder());
+
+  /**
+   * @param processor the processor which parses the candidates and queries
+   */
+  public SimilarityIndex(ParserChunker2MatcherProcessor processor) {
+    this.processor = processor;
+  }
+
+  /**
+   * Sets the executor which scores the candidates and parses the texts of
+   * {@link #addAll(List)} and {@link #searchAll(List, int)}, the default is
+   * the common fork join pool. A task of the index does not wait for other
+   * tasks of the index, so a bounded executor can be used, but it must not be
+   * the executor of the processor.
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Limits the number of candidates which are scored for a query to the ones
+   * which share the most stems with it, by default all candidates which share
+   * a stem are scored and the results are exact.
+   */
+  public void setMaxCandidates(int maxCandidates) {
+    if (maxCandidates < 1)
+      throw new IllegalArgumentException("maxCandidates must be positive: " + maxCandidates);
+    this.maxCandidates = maxCandidates;
+  }
+
+  private static long key(int phraseType, int stemId) {
+    return ((long) phraseType << 32) | (stemId & 0xffffffffL);
+  }
+
+  /**
+   * Parses and adds a candidate text.
+   *
+   * @return the id of the candidate
+   */
+  public int add(String text) {
+    return add(text, processor.formGroupedPhrasesFromChunksForPara(text));
+  }
+
+  /**
+   * Adds a candidate text which was already parsed, e.g. with
+   * {@link ParserChunker2MatcherProcessor#formGroupedPhrasesFromChunksForPara(String)}.
+   *
+   * @return the id of the candidate
+   */
+  public int add(String text, List<List<ParseTreeChunk>> groupedPhrases) {
+    if (groupedPhrases == null)
+      groupedPhrases = Collections.emptyList();
+    // compute the stems before the index is locked
+    List<long[]> keys = new ArrayList<>();
+    for (int type = 0; type < PHRASE_TYPES && type < groupedPhrases.size(); type++) {
+      for (ParseTreeChunk chunk : groupedPhrases.get(type)) {
+        int[] stemIds = chunk.getInterned(words).firstStemIds;
+        long[] chunkKeys = new long[stemIds.length];
+        for (int i = 0; i < stemIds.length; i++) {
+          chunkKeys[i] = key(type, stemIds[i]);
+        }
+        keys.add(chunkKeys);
+      }
+    }
+
+    lock.writeLock().lock();
+    try {
+      int id = texts.size();
+      texts.add(text);
+      phrases.add(groupedPhrases);
+      for (long[] chunkKeys : keys) {
+        for (long key : chunkKeys) {
+          postings.computeIfAbsent(key, k -> new Postings()).add(id);
+        }
+      }
+      return id;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Parses the texts in parallel and adds them in their order.
+   *
+   * @return the id of the first text, the others have the following ids
+   */
+  public int addAll(List<String> texts) {
+    List<List<List<ParseTreeChunk>>> parsed = join(forEach(texts,
+        processor::formGroupedPhrasesFromChunksForPara));
+    lock.writeLock().lock();
+    try {
+      int first = size();
+      for (int i = 0; i < texts.size(); i++) {
+        add(texts.get(i), parsed.get(i));
+      }
+      return first;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of candidates
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return texts.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public String getText(int id) {
+    lock.readLock().lock();
+    try {
+      return texts.get(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the grouped phrases of the candidate
+   */
+  public List<List<ParseTreeChunk>> getGroupedPhrases(int id) {
+    lock.readLock().lock();
+    try {
+      return phrases.get(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Parses the query and finds the candidates which generalize best with it.
+   *
+   * @param query the query text
+   * @param k the maximum number of hits
+   * @return up to k hits with a positive score, the best first
+   */
+  public List<Hit> search(String query, int k) {
+    return search(processor.formGroupedPhrasesFromChunksForPara(query), k);
+  }
+
+  /**
+   * Finds the candidates which generalize best with an already parsed query.
+   *
+   * @param queryPhrases the grouped phrases of the query
+   * @param k the maximum number of hits
+   * @return up to k hits with a positive score, the best first
+   */
+  public List<Hit> search(List<List<ParseTreeChunk>> queryPhrases, int k) {
+    return search(queryPhrases, k, true);
+  }
+
+  /**
+   * @param parallel true to score the candidates on the executor, false to
+   *                 score them on the calling thread
+   */
+  private List<Hit> search(List<List<ParseTreeChunk>> queryPhrases, int k, boolean parallel) {
+    if (queryPhrases == null || k < 1)
+      return Collections.emptyList();
+
+    List<Integer> candidates = candidates(queryPhrases);
+    List<Hit> scored;
+    if (parallel) {
+      scored = join(forEach(candidates, id -> score(id, queryPhrases)));
+    } else {
+      scored = new ArrayList<>(candidates.size());
+      for (int id : candidates) {
+        scored.add(score(id, queryPhrases));
+      }
+    }
+
+    // keep the k best hits, the earlier candidate wins a tie
+    PriorityQueue<Hit> best = new PriorityQueue<>(BY_SCORE);
+    for (Hit hit : scored) {
+      if (hit.getScore() <= 0)
+        continue;
+      best.add(hit);
+      if (best.size() > k)
+        best.poll();
+    }
+    List<Hit> hits = new ArrayList<>(best);
+    hits.sort(BY_SCORE.reversed());
+    return hits;
+  }
+
+  /**
+   * Answers several queries in parallel. Every query is parsed and scored by
+   * one task of the executor, the task scores the candidates of its query
+   * itself instead of waiting for tasks of the same executor.
+   *
+   * @return the hits of each query, see {@link #search(String, int)}
+   */
+  public List<List<Hit>> searchAll(List<String> queries, int k) {
+    return join(forEach(queries,
+        query -> search(processor.formGroupedPhrasesFromChunksForPara(query), k, false)));
+  }
+
+  /**
+   * Finds the candidates which share a stem with the query in a phrase of the
+   * same type, ordered by their ids, or by the number of shared stems if there
+   * are more than maxCandidates.
+   */
+  private List<Integer> candidates(List<List<ParseTreeChunk>> queryPhrases) {
+    Set<Long> keys = new HashSet<>();
+    for (int type = 0; type < PHRASE_TYPES && type < queryPhrases.size(); type++) {
+      for (ParseTreeChunk chunk : queryPhrases.get(type)) {
+        for (int stemId : chunk.getInterned(words).secondStemIds) {
+          keys.add(key(type, stemId));
+        }
+      }
+    }
+
+    int[] counts;
+    lock.readLock().lock();
+    try {
+      counts = new int[texts.size()];
+      for (long key : keys) {
+        Postings list = postings.get(key);
+        if (list != null) {
+          for (int i = 0; i < list.size; i++) {
+            counts[list.ids[i]]++;
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<Integer> candidates = new ArrayList<>();
+    for (int id = 0; id < counts.length; id++) {
+      if (counts[id] > 0)
+        candidates.add(id);
+    }
+    if (candidates.size() > maxCandidates) {
+      candidates.sort(Comparator.comparingInt((Integer id) -> counts[id]).reversed()
+          .thenComparing(Comparator.naturalOrder()));
+      candidates = new ArrayList<>(candidates.subList(0, maxCandidates));
+      Collections.sort(candidates);
+    }
+    return candidates;
+  }
+
+  private Hit score(int id, List<List<ParseTreeChunk>> queryPhrases) {
+    String text;
+    List<List<ParseTreeChunk>> candidatePhrases;
+    lock.readLock().lock();
+    try {
+      text = texts.get(id);
+      candidatePhrases = phrases.get(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+    List<List<ParseTreeChunk>> matchResult =
+        matcher.matchTwoSentencesGroupedChunksDeterministic(candidatePhrases, queryPhrases);
+    return new Hit(id, text, scorer.getParseTreeChunkListScore(matchResult), matchResult);
+  }
+
+  private <T, R> List<CompletableFuture<R>> forEach(List<T> items,
+      Function<T, R> function) {
+    Executor exec = executor;
+    List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+    for (T item : items) {
+      futures.add(CompletableFuture.supplyAsync(() -> function.apply(item), exec));
+    }
+    return futures;
+  }
+
+  private static <R> List<R> join(List<CompletableFuture<R>> futures) {
+    List<R> results = new ArrayList<>(futures.size());
+    try {
+      for (CompletableFuture<R> future : futures) {
+        results.add(future.join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw e;
+    }
+    return results;
+  }
+}
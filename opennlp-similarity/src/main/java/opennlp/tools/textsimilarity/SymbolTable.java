@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Assigns consecutive int ids to strings, equal strings get the same id.
+ * <p>
+ * A table can be used by several threads and never shrinks. The POS tags are a
+ * small closed set and share a single table. The lemmas and stems of the
+ * matchers share the current word table, which is bounded to {@link #MAX_WORDS}
+ * words, when it is full a new table is started. A {@link SimilarityIndex}
+ * keeps a word table of its own. Only ids of the same table can be compared.
+ */
+final class SymbolTable {
+
+  static final int MAX_WORDS = 1 << 20;
+
+  static final SymbolTable POS_TAGS = new SymbolTable();
+
+  private static final Words WORDS = new Words(MAX_WORDS);
+
+  private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextId = new AtomicInteger();
+
+  /**
+   * Supplies the current word table, and starts a new one when it is full.
+   */
+  static final class Words implements Supplier<SymbolTable> {
+
+    private final int maxWords;
+
+    private final AtomicReference<SymbolTable> current = new AtomicReference<>(new SymbolTable());
+
+    Words(int maxWords) {
+      this.maxWords = maxWords;
+    }
+
+    @Override
+    public SymbolTable get() {
+      SymbolTable table = current.get();
+      if (table.size() >= maxWords && current.compareAndSet(table, new SymbolTable())) {
+        return current.get();
+      }
+      return table;
+    }
+  }
+
+  /**
+   * @return the current table of the lemmas and stems
+   */
+  static SymbolTable words() {
+    return WORDS.get();
+  }
+
+  int id(String symbol) {
+    Integer id = ids.get(symbol);
+    if (id == null) {
+      id = ids.computeIfAbsent(symbol, s -> nextId.getAndIncrement());
+    }
+    return id;
+  }
+
+  int size() {
+    return nextId.get();
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity.chunker2matcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent {@link ParseCache} which appends the sentences to a file.
+ * <p>
+ * Every record starts with its length and the 64 bit hash of its sentence,
+ * followed by the sentence and its chunk tags, POS tags and tokens. The file is
+ * opened lazily on first use, then the record headers are scanned to build an
+ * index from sentence hash to record offset, the records themselves are only
+ * read on lookup. The file is mapped read-only in chunks of fixed size, a chunk
+ * is mapped once it was completely written and stays mapped until the cache is
+ * closed, the records in the incomplete last chunk are read from the file. New
+ * sentences are appended as they are added, a record which was cut off by a
+ * crash is truncated on the next open.
+ * <p>
+ * The file is locked while it is open. If it is locked by another instance or
+ * process, this instance does not use it, every lookup misses and the
+ * sentences are not written.
+ */
+public class DiskParseCache implements ParseCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  // record length and sentence hash
+  private static final int HEADER_SIZE = 4 + 8;
+
+  static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+  private static final MappedByteBuffer[] NO_CHUNKS = new MappedByteBuffer[0];
+
+  private final File file;
+  private final int chunkSize;
+
+  // guarded by this
+  private FileChannel channel;
+  private long end;
+
+  private volatile ConcurrentMap<Long, Long> index;
+  private volatile MappedByteBuffer[] chunks = NO_CHUNKS;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public DiskParseCache(File file) {
+    this(file, DEFAULT_CHUNK_SIZE);
+  }
+
+  DiskParseCache(File file, int chunkSize) {
+    if (chunkSize <= 0)
+      throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+    this.file = file;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * @return the file of the cache
+   */
+  public File getFile() {
+    return file;
+  }
+
+  static long hash(String sentence) {
+    // 64 bit FNV-1a
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < sentence.length(); i++) {
+      hash ^= sentence.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private ConcurrentMap<Long, Long> index() {
+    ConcurrentMap<Long, Long> idx = index;
+    if (idx == null) {
+      synchronized (this) {
+        idx = index;
+        if (idx == null) {
+          idx = open();
+          index = idx;
+        }
+      }
+    }
+    return idx;
+  }
+
+  private ConcurrentMap<Long, Long> open() {
+    ConcurrentMap<Long, Long> idx = new ConcurrentHashMap<>();
+    try {
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      // the lock is released when the channel is closed
+      FileLock lock;
+      try {
+        lock = channel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        lock = null;
+      }
+      if (lock == null) {
+        LOG.warn("Parse cache {} is used by another instance, it is not used", file);
+        closeChannel();
+        return idx;
+      }
+      long size = channel.size();
+      long pos = 0;
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      while (pos + HEADER_SIZE <= size) {
+        read(pos, header);
+        int length = header.getInt(0);
+        if (length < 0 || pos + HEADER_SIZE + length > size)
+          break;
+        idx.put(header.getLong(4), pos);
+        pos += HEADER_SIZE + length;
+      }
+      if (pos < size) {
+        LOG.warn("Truncating incomplete record at {} of parse cache {}", pos, file);
+        channel.truncate(pos);
+        chunks = NO_CHUNKS;
+      }
+      end = pos;
+    } catch (IOException e) {
+      LOG.warn("Failed to open parse cache {}: {}", file, e.getLocalizedMessage());
+      closeChannel();
+    }
+    return idx;
+  }
+
+  private void read(long pos, ByteBuffer dst) throws IOException {
+    dst.clear();
+    while (dst.hasRemaining()) {
+      long chunkPos = pos + dst.position();
+      MappedByteBuffer buffer = chunk(chunkPos / chunkSize);
+      if (buffer != null) {
+        int offset = (int) (chunkPos % chunkSize);
+        int length = Math.min(dst.remaining(), chunkSize - offset);
+        buffer.get(offset, dst.array(), dst.position(), length);
+        dst.position(dst.position() + length);
+      } else {
+        // the rest is in the incomplete last chunk
+        FileChannel ch = channel;
+        if (ch == null)
+          throw new IOException("Parse cache is closed");
+        if (ch.read(dst, pos + dst.position()) < 0)
+          throw new IOException("Unexpected end of parse cache " + file);
+      }
+    }
+  }
+
+  /**
+   * @return the mapping of a chunk, or null if the chunk is not completely written yet
+   */
+  private MappedByteBuffer chunk(long index) throws IOException {
+    MappedByteBuffer[] mapped = chunks;
+    if (index < mapped.length)
+      return mapped[(int) index];
+    return mapChunks(index);
+  }
+
+  /**
+   * Maps the chunks which were completed since the last mapping, the chunks
+   * which are mapped already are kept.
+   */
+  private synchronized MappedByteBuffer mapChunks(long index) throws IOException {
+    MappedByteBuffer[] mapped = chunks;
+    if (index < mapped.length)
+      return mapped[(int) index];
+    if (channel == null || index >= channel.size() / chunkSize)
+      return null;
+    MappedByteBuffer[] grown = Arrays.copyOf(mapped, (int) index + 1);
+    for (int i = mapped.length; i < grown.length; i++) {
+      grown[i] = channel.map(FileChannel.MapMode.READ_ONLY, (long) i * chunkSize, chunkSize);
+    }
+    chunks = grown;
+    return grown[(int) index];
+  }
+
+  private String[][] read(long pos, String sentence) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    read(pos, header);
+    ByteBuffer record = ByteBuffer.allocate(header.getInt(0));
+    read(pos + HEADER_SIZE, record);
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+    if (!sentence.equals(in.readUTF()))
+      return null;
+    String[][] chunkTagsToks = new String[in.readInt()][];
+    for (int i = 0; i < chunkTagsToks.length; i++) {
+      chunkTagsToks[i] = new String[in.readInt()];
+      for (int j = 0; j < chunkTagsToks[i].length; j++) {
+        chunkTagsToks[i][j] = in.readUTF();
+      }
+    }
+    return chunkTagsToks;
+  }
+
+  @Override
+  public String[][] get(String sentence) {
+    String[][] chunkTagsToks = null;
+    Long pos = index().get(hash(sentence));
+    if (pos != null) {
+      try {
+        chunkTagsToks = read(pos, sentence);
+      } catch (IOException e) {
+        LOG.debug("Failed to read from parse cache {}: {}", file, e.getLocalizedMessage());
+      }
+    }
+    if (chunkTagsToks != null)
+      hits.increment();
+    else
+      misses.increment();
+    return chunkTagsToks;
+  }
+
+  @Override
+  public void put(String sentence, String[][] chunkTagsToks) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(0);
+      out.writeLong(hash(sentence));
+      out.writeUTF(sentence);
+      out.writeInt(chunkTagsToks.length);
+      for (String[] strings : chunkTagsToks) {
+        out.writeInt(strings.length);
+        for (String s : strings) {
+          out.writeUTF(s);
+        }
+      }
+    } catch (IOException e) {
+      // strings longer than 64k can't be written
+      LOG.debug("Sentence can't be cached: {}", e.getLocalizedMessage());
+      return;
+    }
+    ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+    record.putInt(0, record.capacity() - HEADER_SIZE);
+
+    ConcurrentMap<Long, Long> idx = index();
+    long hash = hash(sentence);
+    synchronized (this) {
+      if (channel == null || idx != index)
+        return;
+      try {
+        Long existing = idx.get(hash);
+        if (existing != null && read(existing, sentence) != null)
+          return;
+
+        long pos = end;
+        while (record.hasRemaining()) {
+          channel.write(record, pos + record.position());
+        }
+        end = pos + record.capacity();
+        idx.put(hash, pos);
+      } catch (IOException e) {
+        LOG.warn("Failed to write to parse cache {}: {}", file, e.getLocalizedMessage());
+      }
+    }
+  }
+
+  @Override
+  public long size() {
+    return index().size();
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  private void closeChannel() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.debug(e.getLocalizedMessage(), e);
+      }
+      channel = null;
+    }
+    chunks = NO_CHUNKS;
+  }
+
+  /**
+   * Forces the appended records to disk and closes the file, it is opened
+   * again on the next access.
+   */
+  @Override
+  public synchronized void close() {
+    if (channel != null) {
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        LOG.warn("Failed to write parse cache {}: {}", file, e.getLocalizedMessage());
+      }
+    }
+    closeChannel();
+    index = null;
+  }
+}
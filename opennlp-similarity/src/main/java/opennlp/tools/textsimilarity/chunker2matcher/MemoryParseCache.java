@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity.chunker2matcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-memory {@link ParseCache} which holds a bounded number of sentences and
+ * evicts the least recently used ones.
+ * <p>
+ * The sentences are distributed over several segments by their hash, each
+ * segment is an LRU map with its own lock, so concurrent lookups of different
+ * sentences rarely contend. The capacity is split over the segments, a
+ * sentence is evicted when its segment is full, even if other segments still
+ * have room. Sentences which are not in memory are looked up in
+ * the optional backing cache, typically a {@link DiskParseCache}, and new
+ * sentences are written through to it.
+ */
+public class MemoryParseCache implements ParseCache {
+
+  public static final int DEFAULT_CAPACITY = 100000;
+
+  private static final int SEGMENTS = 16;
+
+  private final Segment[] segments;
+  private final ParseCache backingCache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private static class Segment extends LinkedHashMap<String, String[][]> {
+
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String[][]> eldest) {
+      return size() > capacity;
+    }
+  }
+
+  /**
+   * @param capacity the maximum number of sentences held in memory
+   * @param backingCache the cache which is consulted on a miss, or {@code null}
+   */
+  public MemoryParseCache(int capacity, ParseCache backingCache) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    // the capacities of the segments add up to the capacity
+    segments = new Segment[Math.min(SEGMENTS, capacity)];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment(capacity / segments.length + (i < capacity % segments.length ? 1 : 0));
+    }
+    this.backingCache = backingCache;
+  }
+
+  public MemoryParseCache(int capacity) {
+    this(capacity, null);
+  }
+
+  private Segment segment(String sentence) {
+    int h = sentence.hashCode();
+    h ^= h >>> 16;
+    return segments[Math.floorMod(h, segments.length)];
+  }
+
+  @Override
+  public String[][] get(String sentence) {
+    Segment segment = segment(sentence);
+    String[][] chunkTagsToks;
+    synchronized (segment) {
+      chunkTagsToks = segment.get(sentence);
+    }
+    if (chunkTagsToks == null && backingCache != null) {
+      chunkTagsToks = backingCache.get(sentence);
+      if (chunkTagsToks != null) {
+        synchronized (segment) {
+          segment.put(sentence, chunkTagsToks);
+        }
+      }
+    }
+    if (chunkTagsToks != null)
+      hits.increment();
+    else
+      misses.increment();
+    return chunkTagsToks;
+  }
+
+  @Override
+  public void put(String sentence, String[][] chunkTagsToks) {
+    Segment segment = segment(sentence);
+    synchronized (segment) {
+      segment.put(sentence, chunkTagsToks);
+    }
+    if (backingCache != null)
+      backingCache.put(sentence, chunkTagsToks);
+  }
+
+  /**
+   * @return the number of sentences held in memory
+   */
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the backing cache, or {@code null}
+   */
+  public ParseCache getBackingCache() {
+    return backingCache;
+  }
+
+  @Override
+  public void close() {
+    if (backingCache != null)
+      backingCache.close();
+  }
+}
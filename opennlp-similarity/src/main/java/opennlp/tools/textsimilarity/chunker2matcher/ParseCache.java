@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.textsimilarity.chunker2matcher;
+
+/**
+ * A cache of the chunking results of sentences, each value holds the chunk
+ * tags, the POS tags and the tokens of a sentence.
+ * <p>
+ * Implementations must be thread safe.
+ */
+public interface ParseCache extends AutoCloseable {
+
+  /**
+   * @param sentence the sentence
+   * @return the cached chunk tags, POS tags and tokens, or {@code null}
+   */
+  String[][] get(String sentence);
+
+  /**
+   * Caches the chunking result of the specified sentence.
+   *
+   * @param sentence the sentence
+   * @param chunkTagsToks the chunk tags, POS tags and tokens
+   */
+  void put(String sentence, String[][] chunkTagsToks);
+
+  /**
+   * @return the number of cached sentences
+   */
+  long size();
+
+  /**
+   * @return the number of lookups which found a sentence
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of lookups which did not find a sentence
+   */
+  long getMissCount();
+
+  /**
+   * @return the ratio of the lookups which found a sentence, 0 if there was no lookup
+   */
+  default double getHitRatio() {
+    long hits = getHitCount();
+    long lookups = hits + getMissCount();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Releases the resources of the cache, the cache can still be used afterwards.
+   */
+  @Override
+  void close();
+}
@@ -55,6 +55,11 @@ import java.util.logging.Logger;
 import au.com.bytecode.opencsv.CSVReader;
 import au.com.bytecode.opencsv.CSVWriter;
 
+/**
+ * Reads and writes the parse cache of older versions, which was stored as a
+ * CSV file. It is only imported when the {@link DiskParseCache} of the
+ * {@link ParserChunker2MatcherProcessor} does not exist yet.
+ */
 public class ParserCacheSerializer {
   private static final Logger LOG = Logger
       .getLogger("opennlp.tools.textsimilarity.chunker2matcher.ParserCacheSerializer");
@@ -25,9 +25,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
@@ -55,61 +60,161 @@ import opennlp.tools.util.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Parses and chunks text and matches the resulting phrases.
+ * <p>
+ * The processor is shared by all threads. The models are loaded once and
+ * shared, while the {@link Parser}, {@link ChunkerME} and the other tools,
+ * which keep state while processing a sentence, are created per thread from
+ * these models. The sentences of a paragraph are parsed in parallel on the
+ * executor of the processor, see {@link #setExecutor(Executor)}.
+ * <p>
+ * The chunked sentences are kept in a {@link ParseCache}, by default a bounded
+ * {@link MemoryParseCache}. If the system property {@code nlp.parse.cache.file}
+ * is set, it is backed by a {@link DiskParseCache} stored in that file.
+ */
 public class ParserChunker2MatcherProcessor {
 
   private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   static final int MIN_SENTENCE_LENGTH = 10;
   private static final String MODEL_DIR_KEY = "nlp.models.dir";
+  private static final String PARSE_CACHE_FILE_KEY = "nlp.parse.cache.file";
   // TODO config
   // this is where resources should live
   private static String MODEL_DIR=null;
   private static final String MODEL_DIR_REL = "src/test/resources/models";
-  protected static ParserChunker2MatcherProcessor instance;
-
-  private SentenceDetector sentenceDetector;
-  private Tokenizer tokenizer;
-  private POSTagger posTagger;
-  private Parser parser;
-  private ChunkerME chunker;
+  protected static volatile ParserChunker2MatcherProcessor instance;
+
+  // the tools of each thread, a null value means the model is not available
+  private volatile ThreadLocal<SentenceDetector> sentenceDetector = ThreadLocal.withInitial(() -> null);
+  private volatile ThreadLocal<Tokenizer> tokenizer = ThreadLocal.withInitial(() -> null);
+  private volatile ThreadLocal<POSTagger> posTagger = ThreadLocal.withInitial(() -> null);
+  private volatile ThreadLocal<Parser> parser = ThreadLocal.withInitial(() -> null);
+  private volatile ThreadLocal<ChunkerME> chunker = ThreadLocal.withInitial(() -> null);
+  private volatile Executor executor = ForkJoinPool.commonPool();
   private static final int NUMBER_OF_SECTIONS_IN_SENTENCE_CHUNKS = 5;
-  private Map<String, String[][]> sentence_parseObject;
+  private volatile ParseCache parseCache;
 
+  /**
+   * @return the sentence detector of the calling thread
+   */
   public SentenceDetector getSentenceDetector() {
-    return sentenceDetector;
+    return sentenceDetector.get();
   }
 
+  /**
+   * Replaces the sentence detectors, every thread gets its own instance from the supplier.
+   */
+  public void setSentenceDetector(Supplier<? extends SentenceDetector> sentenceDetector) {
+    this.sentenceDetector = ThreadLocal.withInitial(sentenceDetector);
+  }
+
+  /**
+   * Replaces the sentence detectors with one instance for all threads.
+   *
+   * @deprecated the instance is shared by all threads, use
+   *             {@link #setSentenceDetector(Supplier)} instead
+   */
+  @Deprecated
   public void setSentenceDetector(SentenceDetector sentenceDetector) {
-    this.sentenceDetector = sentenceDetector;
+    setSentenceDetector(() -> sentenceDetector);
   }
 
+  /**
+   * @return the tokenizer of the calling thread
+   */
   public Tokenizer getTokenizer() {
-    return tokenizer;
+    return tokenizer.get();
   }
 
+  /**
+   * Replaces the tokenizers, every thread gets its own instance from the supplier.
+   */
+  public void setTokenizer(Supplier<? extends Tokenizer> tokenizer) {
+    this.tokenizer = ThreadLocal.withInitial(tokenizer);
+  }
+
+  /**
+   * Replaces the tokenizers with one instance for all threads.
+   *
+   * @deprecated the instance is shared by all threads, use
+   *             {@link #setTokenizer(Supplier)} instead
+   */
+  @Deprecated
   public void setTokenizer(Tokenizer tokenizer) {
-    this.tokenizer = tokenizer;
+    setTokenizer(() -> tokenizer);
   }
 
+  /**
+   * @return the chunker of the calling thread
+   */
   public ChunkerME getChunker() {
-    return chunker;
+    return chunker.get();
   }
 
+  /**
+   * Replaces the chunkers, every thread gets its own instance from the supplier.
+   */
+  public void setChunker(Supplier<? extends ChunkerME> chunker) {
+    this.chunker = ThreadLocal.withInitial(chunker);
+  }
+
+  /**
+   * Replaces the chunkers with one instance for all threads.
+   *
+   * @deprecated a {@link ChunkerME} must not be used concurrently, use
+   *             {@link #setChunker(Supplier)} instead
+   */
+  @Deprecated
   public void setChunker(ChunkerME chunker) {
-    this.chunker = chunker;
+    setChunker(() -> chunker);
+  }
+
+  /**
+   * Sets the executor which parses the sentences of a paragraph in parallel,
+   * the default is the common fork join pool.
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * @return the cache of the chunked sentences
+   */
+  public ParseCache getParseCache() {
+    return parseCache;
+  }
+
+  /**
+   * Replaces the cache of the chunked sentences, the specified cache must be thread safe.
+   */
+  public void setParseCache(ParseCache parseCache) {
+    this.parseCache = parseCache;
   }
 
   @SuppressWarnings("unchecked")
-  protected ParserChunker2MatcherProcessor() {
-    try {
-      sentence_parseObject = (Map<String, String[][]>) ParserCacheSerializer.readObject();
-    } catch (Exception e) {
-      // this file might not exist initially
-      LOG.warn("parsing cache file does not exist (but should be created)");
-      sentence_parseObject = new HashMap<>();
+  private static ParseCache createParseCache() {
+    String fileName = System.getProperty(PARSE_CACHE_FILE_KEY);
+    File file = fileName != null ? new File(fileName) : null;
+    ParseCache cache = new MemoryParseCache(MemoryParseCache.DEFAULT_CAPACITY,
+        file != null ? new DiskParseCache(file) : null);
+    if (file == null || !file.exists()) {
+      // import the cache of older versions, only once into a new file
+      Map<String, String[][]> sentence_parseObject = null;
+      try {
+        sentence_parseObject = (Map<String, String[][]>) ParserCacheSerializer.readObject();
+      } catch (Exception e) {
+        LOG.warn("parsing cache file does not exist (but should be created)");
+      }
+      if (sentence_parseObject != null)
+        sentence_parseObject.forEach(cache::put);
     }
-    if (sentence_parseObject == null)
-      sentence_parseObject = new HashMap<>();
+    return cache;
+  }
+
+  protected ParserChunker2MatcherProcessor() {
+    parseCache = createParseCache();
 
     try {
     	if (MODEL_DIR==null || MODEL_DIR.equals("/models")) {
@@ -130,10 +235,10 @@ public class ParserChunker2MatcherProcessor {
     }
   }
 
-  // closing the processor, clearing loaded ling models and serializing parsing cache
+  // closing the processor, clearing loaded ling models and writing the parsing cache
   public void close() {
     instance = null;
-    ParserCacheSerializer.writeObject(sentence_parseObject);
+    parseCache.close();
   }
 
   /**
@@ -141,14 +246,19 @@ public class ParserChunker2MatcherProcessor {
    * 
    * @return the instance
    */
-  public synchronized static ParserChunker2MatcherProcessor getInstance() {
-    if (instance == null)
-      instance = new ParserChunker2MatcherProcessor();
-
-    return instance;
+  public static ParserChunker2MatcherProcessor getInstance() {
+    ParserChunker2MatcherProcessor processor = instance;
+    if (processor == null) {
+      synchronized (ParserChunker2MatcherProcessor.class) {
+        processor = instance;
+        if (processor == null)
+          instance = processor = new ParserChunker2MatcherProcessor();
+      }
+    }
+    return processor;
   }
   
-  public synchronized static ParserChunker2MatcherProcessor getInstance(String fullPathToResources) {
+  public static synchronized ParserChunker2MatcherProcessor getInstance(String fullPathToResources) {
 	    MODEL_DIR = fullPathToResources+"/models";
 	    if (instance == null)
 	      instance = new ParserChunker2MatcherProcessor();
@@ -195,12 +305,12 @@ public class ParserChunker2MatcherProcessor {
     // parse sentence by sentence
     String[] sentences = splitSentences(paragraph);
     List<Parse> parseList = new ArrayList<>(sentences.length);
-    for (String sentence : sentences) {
+    for (Parse sentenceParse : forEachSentence(sentences, executor, sentence -> {
       sentence = sentence.trim();
       if (sentence.length() == 0)
-        continue;
-
-      Parse sentenceParse = parseSentenceNlp(sentence, false);
+        return null;
+      return parseSentenceNlp(sentence, false);
+    })) {
       if (sentenceParse != null)
         parseList.add(sentenceParse);
     }
@@ -208,13 +318,45 @@ public class ParserChunker2MatcherProcessor {
     return parseList;
   }
 
+  /**
+   * Applies the specified function to each sentence, the sentences are
+   * processed in parallel on the specified executor.
+   *
+   * @return the results in the order of the sentences
+   */
+  private <T> List<T> forEachSentence(String[] sentences, Executor executor,
+      Function<String, T> function) {
+    List<T> results = new ArrayList<>(sentences.length);
+    if (sentences.length < 2) {
+      for (String sentence : sentences) {
+        results.add(function.apply(sentence));
+      }
+      return results;
+    }
+
+    List<CompletableFuture<T>> futures = new ArrayList<>(sentences.length);
+    for (String sentence : sentences) {
+      futures.add(CompletableFuture.supplyAsync(() -> function.apply(sentence), executor));
+    }
+    try {
+      for (CompletableFuture<T> future : futures) {
+        results.add(future.join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw e;
+    }
+    return results;
+  }
+
   public Parse parseSentenceNlp(String sentence) {
     // if we parse an individual sentence, we want to normalize the text
     // before parsing
     return parseSentenceNlp(sentence, true);
   }
 
-  public synchronized Parse parseSentenceNlp(String sentence, boolean normalizeText) {
+  public Parse parseSentenceNlp(String sentence, boolean normalizeText) {
     // don't try to parse very short sentence, not much info in it anyway,
     // most likely a heading
     if (sentence == null || sentence.trim().length() < MIN_SENTENCE_LENGTH)
@@ -222,7 +364,7 @@ public class ParserChunker2MatcherProcessor {
 
     Parse[] parseArray;
     try {
-      parseArray = ParserTool.parseLine(sentence, parser, 1);
+      parseArray = ParserTool.parseLine(sentence, parser.get(), 1);
     } catch (Throwable t) {
       LOG.warn("failed to parse the sentence : '{}'", sentence);
       return null;
@@ -243,11 +385,22 @@ public class ParserChunker2MatcherProcessor {
    *         (noun, verb etc.)
    */
 
-  public synchronized List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForPara(String para) {
+  public List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForPara(String para) {
+    return formGroupedPhrasesFromChunksForPara(para, executor);
+  }
+
+  /**
+   * Forms the grouped phrases of a paragraph like
+   * {@link #formGroupedPhrasesFromChunksForPara(String)}, but parses the
+   * sentences on the specified executor instead of the executor of this
+   * processor, e.g. {@code Runnable::run} parses them on the calling thread.
+   */
+  public List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForPara(String para,
+      Executor executor) {
     List<List<ParseTreeChunk>> listOfChunksAccum = new ArrayList<>();
     String[] sentences = splitSentences(para);
-    for (String sent : sentences) {
-      List<List<ParseTreeChunk>> singleSentChunks = formGroupedPhrasesFromChunksForSentence(sent);
+    for (List<List<ParseTreeChunk>> singleSentChunks : forEachSentence(sentences, executor,
+        this::formGroupedPhrasesFromChunksForSentence)) {
       if (singleSentChunks == null)
         continue;
       if (listOfChunksAccum.size() < 1) {
@@ -269,9 +422,10 @@ public class ParserChunker2MatcherProcessor {
   }
 
   String[][] parseChunkSentence(String sentenceInp) {
-    String[][] resToksTags = sentence_parseObject.get(sentenceInp);
+    String[][] resToksTags = parseCache.get(sentenceInp);
     if (resToksTags != null)
       return resToksTags;
+    Tokenizer tokenizer = getTokenizer();
     if (tokenizer == null)
       return null;
 
@@ -311,9 +465,9 @@ public class ParserChunker2MatcherProcessor {
       }
     }
 
-    String[] res = chunker.chunk(toks, tags);
+    String[] res = getChunker().chunk(toks, tags);
     String[][] resTagToks = new String[][] { res, tags, toks };
-    sentence_parseObject.put(sentenceInp, resTagToks);
+    parseCache.put(sentenceInp, resTagToks);
     return resTagToks;
   }
 
@@ -322,7 +476,7 @@ public class ParserChunker2MatcherProcessor {
    * @return a list of lists of phrases with their POS tags for each phrase type
    *         (noun, verb etc.)
    */
-  public synchronized List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForSentence(
+  public List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForSentence(
       String sentence) {
     if (sentence == null || sentence.trim().length() < MIN_SENTENCE_LENGTH)
       return null;
@@ -542,7 +696,7 @@ public class ParserChunker2MatcherProcessor {
     return parseSentenceNode(sentence, true);
   }
 
-  public synchronized SentenceNode parseSentenceNode(String sentence,
+  public SentenceNode parseSentenceNode(String sentence,
       boolean normalizeText) {
     Parse sentenceParse = parseSentenceNlp(sentence, normalizeText);
     return sentenceToSentenceNode(sentenceParse);
@@ -572,13 +726,13 @@ public class ParserChunker2MatcherProcessor {
     if (sentence == null)
       return null;
 
-    return tokenizer.tokenize(sentence);
+    return getTokenizer().tokenize(sentence);
   }
 
   protected void initializeSentenceDetector() {
     try (InputStream is = new BufferedInputStream(new FileInputStream(MODEL_DIR + "/en-sent.bin"))) {
       SentenceModel model = new SentenceModel(is);
-      sentenceDetector = new SentenceDetectorME(model);
+      sentenceDetector = ThreadLocal.withInitial(() -> new SentenceDetectorME(model));
     } catch (IOException e) {
       // we swallow exception to support the cached run
       LOG.debug(e.getLocalizedMessage(), e);
@@ -588,7 +742,7 @@ public class ParserChunker2MatcherProcessor {
   protected void initializeTokenizer() {
     try (InputStream is = new BufferedInputStream(new FileInputStream(MODEL_DIR + "/en-token.bin"))) {
       TokenizerModel model = new TokenizerModel(is);
-      tokenizer = new TokenizerME(model);
+      tokenizer = ThreadLocal.withInitial(() -> new TokenizerME(model));
     } catch (IOException e) {
       // we swallow exception to support the cached run
       LOG.debug(e.getLocalizedMessage(), e);
@@ -598,7 +752,7 @@ public class ParserChunker2MatcherProcessor {
   protected void initializePosTagger() {
     try (InputStream is = new BufferedInputStream(new FileInputStream(MODEL_DIR + "/en-pos-maxent.bin"))) {
       POSModel model = new POSModel(is);
-      posTagger = new POSTaggerME(model);
+      posTagger = ThreadLocal.withInitial(() -> new POSTaggerME(model));
     } catch (IOException e) {
       // we swallow exception to support the cached run
       LOG.debug(e.getLocalizedMessage(), e);
@@ -608,7 +762,7 @@ public class ParserChunker2MatcherProcessor {
   protected void initializeParser() {
     try (InputStream is = new BufferedInputStream(new FileInputStream(MODEL_DIR + "/en-parser-chunking.bin"))) {
       ParserModel model = new ParserModel(is);
-      parser = ParserFactory.create(model);
+      parser = ThreadLocal.withInitial(() -> ParserFactory.create(model));
     } catch (IOException e) {
       // we swallow exception to support the cached run
       LOG.debug(e.getLocalizedMessage(), e);
@@ -618,7 +772,7 @@ public class ParserChunker2MatcherProcessor {
   private void initializeChunker() {
     try (InputStream is = new BufferedInputStream(new FileInputStream(MODEL_DIR + "/en-chunker.bin"))) {
       ChunkerModel model = new ChunkerModel(is);
-      chunker = new ChunkerME(model);
+      chunker = ThreadLocal.withInitial(() -> new ChunkerME(model));
     } catch (IOException e) {
       // we swallow exception to support the cached run
       LOG.debug(e.getLocalizedMessage(), e);
@@ -62,7 +62,7 @@ public class ParserPure2MatcherProcessor extends ParserChunker2MatcherProcessor
     initializeParser();
   }
 
-  public synchronized List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForSentence(
+  public List<List<ParseTreeChunk>> formGroupedPhrasesFromChunksForSentence(
       String sentence) {
     if (sentence == null || sentence.trim().length() < MIN_SENTENCE_LENGTH)
       return null;
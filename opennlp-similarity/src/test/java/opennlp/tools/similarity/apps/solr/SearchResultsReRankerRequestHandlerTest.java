@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.similarity.apps.solr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import opennlp.tools.similarity.apps.HitBase;
+import opennlp.tools.textsimilarity.ParseTreeChunk;
+
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResultsReRankerRequestHandlerTest {
+
+  private static final List<List<ParseTreeChunk>> QUERY = Collections.emptyList();
+
+  private static List<HitBase> hits(String... titles) {
+    List<HitBase> hits = new ArrayList<>();
+    for (int i = 0; i < titles.length; i++) {
+      HitBase hit = new HitBase();
+      hit.setTitle(titles[i]);
+      hit.setAbstractText("");
+      hit.setSource(Integer.toString(i));
+      hits.add(hit);
+    }
+    return hits;
+  }
+
+  private static String sources(List<HitBase> hits) {
+    StringBuilder sources = new StringBuilder();
+    for (HitBase hit : hits) {
+      sources.append(hit.getSource());
+    }
+    return sources.toString();
+  }
+
+  // the score of a hit is the number in its title
+  private static double scoreOfTitle(HitBase hit) {
+    return Double.parseDouble(hit.getTitle());
+  }
+
+  @Test
+  void testRankByScore() {
+    SearchResultsReRankerRequestHandler handler = new SearchResultsReRankerRequestHandler(2, 10);
+    List<HitBase> ranked = handler.rankHits(hits("1", "3", "0", "2", "3"), QUERY,
+        (hit, query) -> scoreOfTitle(hit), 0, new NamedList<>());
+    assertEquals("14302", sources(ranked));
+  }
+
+  @Test
+  void testUnparsableQuery() {
+    SearchResultsReRankerRequestHandler handler = new SearchResultsReRankerRequestHandler(2, 10);
+    AtomicInteger scored = new AtomicInteger();
+    List<HitBase> ranked = handler.rankHits(hits("1", "3", "2"), null,
+        (hit, query) -> scored.incrementAndGet(), 0, new NamedList<>());
+    assertEquals("012", sources(ranked));
+    assertEquals(0, scored.get());
+  }
+
+  @Test
+  void testException() {
+    SearchResultsReRankerRequestHandler handler = new SearchResultsReRankerRequestHandler(2, 10);
+    List<HitBase> ranked = handler.rankHits(hits("0", "fails", "2", "fails", "1"), QUERY,
+        (hit, query) -> scoreOfTitle(hit), 0, new NamedList<>());
+    // the failed hits are ranked like hits without a match, in their original order
+    assertEquals("24013", sources(ranked));
+  }
+
+  @Test
+  void testTimeout() {
+    SearchResultsReRankerRequestHandler handler = new SearchResultsReRankerRequestHandler(2, 10);
+    CountDownLatch never = new CountDownLatch(1);
+    NamedList<Object> timings = new NamedList<>();
+    List<HitBase> ranked = handler.rankHits(hits("1", "slow", "2"), QUERY, (hit, query) -> {
+      if ("slow".equals(hit.getTitle())) {
+        try {
+          never.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return 10;
+      }
+      return scoreOfTitle(hit);
+    }, 200, timings);
+    assertEquals("201", sources(ranked));
+    assertEquals(1, timings.get("timedOut"));
+  }
+
+  @Test
+  void testRejected() throws InterruptedException {
+    // one scoring thread which is busy with the first hit, and a queue for one more hit
+    SearchResultsReRankerRequestHandler handler = new SearchResultsReRankerRequestHandler(1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread releaser = new Thread(() -> {
+      try {
+        started.await();
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      release.countDown();
+    });
+    releaser.start();
+
+    NamedList<Object> timings = new NamedList<>();
+    List<HitBase> ranked = handler.rankHits(hits("1", "2", "3", "4"), QUERY, (hit, query) -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return scoreOfTitle(hit);
+    }, 0, timings);
+    releaser.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertEquals("1023", sources(ranked));
+    assertEquals(2, timings.get("rejected"));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.textsimilarity;
+
+import java.util.List;
+
+import opennlp.tools.textsimilarity.chunker2matcher.ParserChunker2MatcherProcessor;
+
+/**
+ * Measures the time to match all pairs of the sentences in the parse cache with
+ * {@link ParseTreeMatcherDeterministic} and with the version which stems the
+ * chunks for every pair.
+ * <p>
+ * Usage: ParseTreeMatcherBenchmark [sentences] [rounds]
+ */
+public class ParseTreeMatcherBenchmark {
+
+  private static long matchAll(List<List<List<ParseTreeChunk>>> sentences,
+      ParseTreeMatcherDeterministic matcher) {
+    long results = 0;
+    for (List<List<ParseTreeChunk>> sent1 : sentences) {
+      for (List<List<ParseTreeChunk>> sent2 : sentences) {
+        results += matcher.matchTwoSentencesGroupedChunksDeterministic(sent1, sent2).size();
+      }
+    }
+    return results;
+  }
+
+  private static long matchAll(List<List<List<ParseTreeChunk>>> sentences,
+      LegacyParseTreeMatcherDeterministic matcher) {
+    long results = 0;
+    for (List<List<ParseTreeChunk>> sent1 : sentences) {
+      for (List<List<ParseTreeChunk>> sent2 : sentences) {
+        results += matcher.matchTwoSentencesGroupedChunksDeterministic(sent1, sent2).size();
+      }
+    }
+    return results;
+  }
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    ParserChunker2MatcherProcessor processor = ParserChunker2MatcherProcessor.getInstance();
+    List<List<List<ParseTreeChunk>>> sentences =
+        ParseTreeMatcherDeterministicTest.groupedPhrasesOfCachedSentences(processor, count);
+    processor.close();
+
+    ParseTreeMatcherDeterministic matcher = new ParseTreeMatcherDeterministic();
+    LegacyParseTreeMatcherDeterministic legacyMatcher = new LegacyParseTreeMatcherDeterministic();
+    long pairs = (long) sentences.size() * sentences.size();
+    System.out.println("Matching " + pairs + " sentence pairs");
+
+    // the first rounds warm up the JIT
+    for (int round = 0; round < rounds; round++) {
+      long start = System.nanoTime();
+      matchAll(sentences, legacyMatcher);
+      long legacyTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      matchAll(sentences, matcher);
+      long time = System.nanoTime() - start;
+
+      System.out.printf("round %d: legacy %.2f us/pair, interned %.2f us/pair, speedup %.2fx%n",
+          round, legacyTime / 1000.0 / pairs, time / 1000.0 / pairs, (double) legacyTime / time);
+    }
+  }
+}
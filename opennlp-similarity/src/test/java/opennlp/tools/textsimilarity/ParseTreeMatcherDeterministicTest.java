@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.textsimilarity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.textsimilarity.chunker2matcher.ParserCacheSerializer;
+import opennlp.tools.textsimilarity.chunker2matcher.ParserChunker2MatcherProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ParseTreeMatcherDeterministicTest {
+
+  private static final int SENTENCES = 60;
+
+  private static ParserChunker2MatcherProcessor processor;
+
+  private static List<List<List<ParseTreeChunk>>> sentences;
+
+  private final ParseTreeMatcherDeterministic matcher = new ParseTreeMatcherDeterministic();
+
+  private final LegacyParseTreeMatcherDeterministic legacyMatcher =
+      new LegacyParseTreeMatcherDeterministic();
+
+  @BeforeAll
+  static void setup() {
+    processor = ParserChunker2MatcherProcessor.getInstance();
+    sentences = groupedPhrasesOfCachedSentences(processor, SENTENCES);
+  }
+
+  @AfterAll
+  static void cleanUp() {
+    if (processor != null) {
+      processor.close();
+    }
+  }
+
+  /**
+   * Chunks the sentences of the parse cache, which does not require the models.
+   */
+  @SuppressWarnings("unchecked")
+  static List<List<List<ParseTreeChunk>>> groupedPhrasesOfCachedSentences(
+      ParserChunker2MatcherProcessor processor, int count) {
+    Map<String, String[][]> cache = (Map<String, String[][]>) ParserCacheSerializer.readObject();
+    List<List<List<ParseTreeChunk>>> sentences = new ArrayList<>();
+    for (String sentence : cache.keySet()) {
+      List<List<ParseTreeChunk>> phrases = processor.formGroupedPhrasesFromChunksForSentence(sentence);
+      if (phrases != null && sentences.size() < count) {
+        sentences.add(phrases);
+      }
+    }
+    return sentences;
+  }
+
+  @Test
+  void testGeneralizationEqualsLegacy() {
+    assertFalse(sentences.isEmpty());
+    for (List<List<ParseTreeChunk>> sent1 : sentences) {
+      for (List<List<ParseTreeChunk>> sent2 : sentences) {
+        for (int comp = 0; comp < sent1.size() && comp < sent2.size(); comp++) {
+          for (ParseTreeChunk ch1 : sent1.get(comp)) {
+            for (ParseTreeChunk ch2 : sent2.get(comp)) {
+              assertEquals(
+                  String.valueOf(legacyMatcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2)),
+                  String.valueOf(matcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2)),
+                  ch1 + " | " + ch2);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testSentenceMatchEqualsLegacy() {
+    for (List<List<ParseTreeChunk>> sent1 : sentences) {
+      for (List<List<ParseTreeChunk>> sent2 : sentences) {
+        assertEquals(
+            legacyMatcher.matchTwoSentencesGroupedChunksDeterministic(sent1, sent2).toString(),
+            matcher.matchTwoSentencesGroupedChunksDeterministic(sent1, sent2).toString());
+      }
+    }
+  }
+
+  @Test
+  void testChangedLemmas() {
+    ParseTreeChunk ch1 = new ParseTreeChunk("NP", new String[] {"great", "pizza", "deals"},
+        new String[] {"JJ", "NN", "NNS"});
+    ParseTreeChunk ch2 = new ParseTreeChunk("NP", new String[] {"great", "loan", "deals"},
+        new String[] {"JJ", "NN", "NNS"});
+    assertEquals("[ [JJ-great NN-* NNS-deals ]]",
+        matcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2).toString());
+
+    ch2.setLemmas(new ArrayList<>(List.of("great", "pizza", "deals")));
+    assertEquals("[ [JJ-great NN-pizza NNS-deals ]]",
+        matcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2).toString());
+  }
+
+  @Test
+  void testNewWordTable() {
+    ParseTreeChunk ch1 = new ParseTreeChunk("NP", new String[] {"great", "pizza", "deals"},
+        new String[] {"JJ", "NN", "NNS"});
+    ParseTreeChunk ch2 = new ParseTreeChunk("NP", new String[] {"great", "loan", "deals"},
+        new String[] {"JJ", "NN", "NNS"});
+    // a table of its own, which is full after the first pair of chunks
+    SymbolTable.Words tables = new SymbolTable.Words(3);
+    ParseTreeMatcherDeterministic tableMatcher = new ParseTreeMatcherDeterministic(tables);
+    SymbolTable previous = tables.get();
+    assertEquals("[ [JJ-great NN-* NNS-deals ]]",
+        tableMatcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2).toString());
+
+    // the chunks are interned again with the new table
+    SymbolTable words = tables.get();
+    assertNotSame(previous, words);
+    assertSame(words, tables.get());
+    assertEquals("[ [JJ-great NN-* NNS-deals ]]",
+        tableMatcher.generalizeTwoGroupedPhrasesDeterministic(ch1, ch2).toString());
+    InternedChunk form = ch1.getInterned(words);
+    assertSame(words, form.words);
+    assertSame(form, ch1.getInterned(words));
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.textsimilarity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import opennlp.tools.textsimilarity.chunker2matcher.ParserCacheSerializer;
+import opennlp.tools.textsimilarity.chunker2matcher.ParserChunker2MatcherProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityIndexTest {
+
+  private static final int K = 5;
+
+  private static ParserChunker2MatcherProcessor processor;
+
+  private static List<List<List<ParseTreeChunk>>> sentences;
+
+  private static SimilarityIndex index;
+
+  private final ParseTreeChunkListScorer scorer = new ParseTreeChunkListScorer();
+
+  @BeforeAll
+  static void setup() {
+    processor = ParserChunker2MatcherProcessor.getInstance();
+    sentences = ParseTreeMatcherDeterministicTest.groupedPhrasesOfCachedSentences(processor, 100);
+    index = new SimilarityIndex(processor);
+    for (int i = 0; i < sentences.size(); i++) {
+      assertEquals(i, index.add("sentence " + i, sentences.get(i)));
+    }
+  }
+
+  @AfterAll
+  static void cleanUp() {
+    if (processor != null) {
+      processor.close();
+    }
+  }
+
+  // scores all candidates like the index does, the earlier candidate wins a tie
+  private List<Integer> bruteForceTopK(List<List<ParseTreeChunk>> query, List<Double> scores) {
+    List<Integer> ids = new ArrayList<>();
+    for (List<List<ParseTreeChunk>> candidate : sentences) {
+      scores.add(scorer.getParseTreeChunkListScore(new ParseTreeMatcherDeterministic()
+          .matchTwoSentencesGroupedChunksDeterministic(candidate, query)));
+      if (scores.get(scores.size() - 1) > 0)
+        ids.add(scores.size() - 1);
+    }
+    ids.sort((id1, id2) -> scores.get(id1).equals(scores.get(id2))
+        ? Integer.compare(id1, id2) : Double.compare(scores.get(id2), scores.get(id1)));
+    return ids.subList(0, Math.min(K, ids.size()));
+  }
+
+  // counts the stems of the query which the candidate has in a phrase of the same type
+  private static int sharedStems(List<List<ParseTreeChunk>> query,
+                                 List<List<ParseTreeChunk>> candidate, SymbolTable words) {
+    Set<String> queryStems = new HashSet<>();
+    for (int type = 0; type < 2 && type < query.size(); type++) {
+      for (ParseTreeChunk chunk : query.get(type)) {
+        for (int stemId : chunk.getInterned(words).secondStemIds) {
+          queryStems.add(type + ":" + stemId);
+        }
+      }
+    }
+    Set<String> shared = new HashSet<>();
+    for (int type = 0; type < 2 && type < candidate.size(); type++) {
+      for (ParseTreeChunk chunk : candidate.get(type)) {
+        for (int stemId : chunk.getInterned(words).firstStemIds) {
+          if (queryStems.contains(type + ":" + stemId))
+            shared.add(type + ":" + stemId);
+        }
+      }
+    }
+    return shared.size();
+  }
+
+  @Test
+  void testSearchEqualsBruteForce() {
+    assertFalse(sentences.isEmpty());
+    for (List<List<ParseTreeChunk>> query : sentences.subList(0, 20)) {
+      List<Double> scores = new ArrayList<>();
+      List<Integer> expected = bruteForceTopK(query, scores);
+      List<SimilarityIndex.Hit> hits = index.search(query, K);
+
+      assertEquals(expected.size(), hits.size());
+      for (int i = 0; i < hits.size(); i++) {
+        assertEquals(expected.get(i).intValue(), hits.get(i).getId());
+        assertEquals(scores.get(expected.get(i)).doubleValue(), hits.get(i).getScore());
+        assertEquals("sentence " + expected.get(i), hits.get(i).getText());
+      }
+    }
+  }
+
+  @Test
+  void testQueryFindsItself() {
+    for (List<List<ParseTreeChunk>> query : sentences) {
+      if (!query.get(0).isEmpty()) {
+        List<SimilarityIndex.Hit> hits = index.search(query, 1);
+        assertEquals(1, hits.size());
+        assertTrue(hits.get(0).getScore() > 0);
+      }
+    }
+  }
+
+  @Test
+  @Timeout(60)
+  @SuppressWarnings("unchecked")
+  void testSearchAllOnFixedPool() throws InterruptedException {
+    List<String> queries = new ArrayList<>(
+        ((Map<String, String[][]>) ParserCacheSerializer.readObject()).keySet()).subList(0, 20);
+
+    // more queries than threads, the queries must not wait for the scoring tasks
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      SimilarityIndex pooled = new SimilarityIndex(processor);
+      pooled.setExecutor(pool);
+      for (List<List<ParseTreeChunk>> sentence : sentences) {
+        pooled.add(null, sentence);
+      }
+
+      List<List<SimilarityIndex.Hit>> results = pooled.searchAll(queries, K);
+      assertEquals(queries.size(), results.size());
+      for (int i = 0; i < queries.size(); i++) {
+        assertEquals(index.search(queries.get(i), K).toString(), results.get(i).toString());
+      }
+    } finally {
+      pool.shutdown();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void testMaxCandidates() {
+    SimilarityIndex limited = new SimilarityIndex(processor);
+    for (List<List<ParseTreeChunk>> sentence : sentences) {
+      limited.add(null, sentence);
+    }
+    limited.setMaxCandidates(3);
+
+    SymbolTable words = new SymbolTable();
+    boolean limitedAny = false;
+    for (List<List<ParseTreeChunk>> query : sentences.subList(0, 20)) {
+      // the candidates sharing the most stems, the earlier candidate wins a tie
+      int[] counts = new int[sentences.size()];
+      List<Integer> candidates = new ArrayList<>();
+      for (int id = 0; id < sentences.size(); id++) {
+        counts[id] = sharedStems(query, sentences.get(id), words);
+        if (counts[id] > 0)
+          candidates.add(id);
+      }
+      limitedAny |= candidates.size() > 3;
+      candidates.sort((id1, id2) -> counts[id1] == counts[id2]
+          ? Integer.compare(id1, id2) : Integer.compare(counts[id2], counts[id1]));
+
+      List<Double> scores = new ArrayList<>();
+      bruteForceTopK(query, scores);
+      List<Integer> expected = new ArrayList<>();
+      for (int id : candidates.subList(0, Math.min(3, candidates.size()))) {
+        if (scores.get(id) > 0)
+          expected.add(id);
+      }
+      expected.sort((id1, id2) -> scores.get(id1).equals(scores.get(id2))
+          ? Integer.compare(id1, id2) : Double.compare(scores.get(id2), scores.get(id1)));
+
+      List<SimilarityIndex.Hit> hits = limited.search(query, K);
+      assertEquals(expected.size(), hits.size());
+      for (int i = 0; i < hits.size(); i++) {
+        assertEquals(expected.get(i).intValue(), hits.get(i).getId());
+        assertEquals(scores.get(expected.get(i)).doubleValue(), hits.get(i).getScore());
+      }
+    }
+    assertTrue(limitedAny);
+  }
+}
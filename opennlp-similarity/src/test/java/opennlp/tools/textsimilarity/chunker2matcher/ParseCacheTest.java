@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.textsimilarity.chunker2matcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParseCacheTest {
+
+  @TempDir
+  File tempDir;
+
+  private static String[][] chunkTagsToks(int i) {
+    return new String[][] { { "B-NP", "I-NP" }, { "DT", "NN" }, { "the", "word" + i } };
+  }
+
+  @Test
+  void testMemoryEviction() {
+    MemoryParseCache cache = new MemoryParseCache(16);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("sentence " + i, chunkTagsToks(i));
+    }
+    assertEquals(16, cache.size());
+    assertArrayEquals(chunkTagsToks(999), cache.get("sentence 999"));
+    assertNull(cache.get("unknown sentence"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRatio());
+  }
+
+  @Test
+  void testMemoryCapacity() {
+    MemoryParseCache cache = new MemoryParseCache(20);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("sentence " + i, chunkTagsToks(i));
+    }
+    assertEquals(20, cache.size());
+
+    cache = new MemoryParseCache(3);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("sentence " + i, chunkTagsToks(i));
+    }
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  void testDiskRoundTrip() {
+    File file = new File(tempDir, "parse.cache");
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      for (int i = 0; i < 100; i++) {
+        cache.put("sentence " + i, chunkTagsToks(i));
+      }
+      cache.put("sentence 0", chunkTagsToks(0));
+      assertEquals(100, cache.size());
+    }
+
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      assertEquals(100, cache.size());
+      assertArrayEquals(chunkTagsToks(42), cache.get("sentence 42"));
+      assertNull(cache.get("sentence 100"));
+    }
+  }
+
+  @Test
+  void testDiskTruncatedRecord() throws IOException {
+    File file = new File(tempDir, "parse.cache");
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      cache.put("sentence 1", chunkTagsToks(1));
+      cache.put("sentence 2", chunkTagsToks(2));
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 3);
+    }
+
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      assertEquals(1, cache.size());
+      assertNull(cache.get("sentence 2"));
+      cache.put("sentence 2", chunkTagsToks(2));
+      assertArrayEquals(chunkTagsToks(2), cache.get("sentence 2"));
+    }
+  }
+
+  @Test
+  void testDiskLocked() {
+    File file = new File(tempDir, "parse.cache");
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      cache.put("sentence 1", chunkTagsToks(1));
+
+      // a second instance must not append to the same file
+      try (DiskParseCache locked = new DiskParseCache(file)) {
+        assertEquals(0, locked.size());
+        assertNull(locked.get("sentence 1"));
+        locked.put("sentence 2", chunkTagsToks(2));
+      }
+
+      cache.put("sentence 3", chunkTagsToks(3));
+    }
+
+    try (DiskParseCache cache = new DiskParseCache(file)) {
+      assertEquals(2, cache.size());
+      assertArrayEquals(chunkTagsToks(1), cache.get("sentence 1"));
+      assertNull(cache.get("sentence 2"));
+      assertArrayEquals(chunkTagsToks(3), cache.get("sentence 3"));
+    }
+  }
+
+  @Test
+  void testDiskChunks() {
+    File file = new File(tempDir, "parse.cache");
+    // the records span the chunks, the last records are in the incomplete chunk
+    try (DiskParseCache cache = new DiskParseCache(file, 50)) {
+      for (int i = 0; i < 100; i++) {
+        cache.put("sentence " + i, chunkTagsToks(i));
+        assertArrayEquals(chunkTagsToks(i), cache.get("sentence " + i));
+      }
+      for (int i = 0; i < 100; i++) {
+        assertArrayEquals(chunkTagsToks(i), cache.get("sentence " + i));
+      }
+    }
+
+    try (DiskParseCache cache = new DiskParseCache(file, 64)) {
+      assertEquals(100, cache.size());
+      assertArrayEquals(chunkTagsToks(99), cache.get("sentence 99"));
+    }
+  }
+
+  @Test
+  void testMemoryBackedByDisk() {
+    File file = new File(tempDir, "parse.cache");
+    try (ParseCache cache = new MemoryParseCache(8, new DiskParseCache(file))) {
+      for (int i = 0; i < 100; i++) {
+        cache.put("sentence " + i, chunkTagsToks(i));
+      }
+      // evicted from memory, read from disk
+      assertArrayEquals(chunkTagsToks(0), cache.get("sentence 0"));
+    }
+
+    try (MemoryParseCache cache = new MemoryParseCache(8, new DiskParseCache(file))) {
+      assertEquals(0, cache.size());
+      assertArrayEquals(chunkTagsToks(7), cache.get("sentence 7"));
+      assertEquals(1, cache.size());
+      assertEquals(100, cache.getBackingCache().size());
+    }
+  }
+}
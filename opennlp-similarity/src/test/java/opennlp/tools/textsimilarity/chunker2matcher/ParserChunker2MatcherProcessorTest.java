@@ -18,7 +18,12 @@
 package opennlp.tools.textsimilarity.chunker2matcher;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -84,6 +89,83 @@ class ParserChunker2MatcherProcessorTest {
         res.toString());
   }
 
+  @Test
+  void testConcurrentGroupedPhrases() throws Exception {
+    String[] sentences = {
+        "How can I get short focus zoom lens for digital camera",
+        "Its classy design and the Mercedes name make it a very cool vehicle to drive. ",
+        "Sounds too good to be true but it actually is, the world's first flying car is finally here. ",
+        "How to deduct rental expense from income ",
+        "Way to minimize medical expense for my daughter"
+    };
+
+    // every call runs the tokenizer and the chunker of its thread
+    ParseCache parseCache = parser.getParseCache();
+    parser.setParseCache(new NoParseCache());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<String> expected = new ArrayList<>();
+      for (String sentence : sentences) {
+        expected.add(String.valueOf(parser.formGroupedPhrasesFromChunksForSentence(sentence)));
+      }
+
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        String sentence = sentences[i % sentences.length];
+        futures.add(executor.submit(() ->
+            String.valueOf(parser.formGroupedPhrasesFromChunksForSentence(sentence))));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(expected.get(i % sentences.length), futures.get(i).get());
+      }
+
+      // the sentences of a paragraph are processed in parallel but keep their order
+      String para = String.join(" ", sentences);
+      parser.setExecutor(Runnable::run);
+      String sequential = parser.formGroupedPhrasesFromChunksForPara(para).toString();
+      parser.setExecutor(ForkJoinPool.commonPool());
+      assertEquals(sequential, parser.formGroupedPhrasesFromChunksForPara(para).toString());
+    } finally {
+      executor.shutdown();
+      parser.setExecutor(ForkJoinPool.commonPool());
+      parser.setParseCache(parseCache);
+    }
+  }
+
+  /**
+   * A cache which holds nothing.
+   */
+  private static class NoParseCache implements ParseCache {
+
+    @Override
+    public String[][] get(String sentence) {
+      return null;
+    }
+
+    @Override
+    public void put(String sentence, String[][] chunkTagsToks) {
+    }
+
+    @Override
+    public long size() {
+      return 0;
+    }
+
+    @Override
+    public long getHitCount() {
+      return 0;
+    }
+
+    @Override
+    public long getMissCount() {
+      return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
   @Test
   void testPrintParseTree() {
     try {
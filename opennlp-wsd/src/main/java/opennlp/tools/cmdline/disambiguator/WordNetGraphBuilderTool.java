@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.disambiguator;
+
+import java.io.IOException;
+
+import net.sf.extjwnl.JWNLException;
+
+import opennlp.tools.cmdline.ArgumentParser;
+import opennlp.tools.cmdline.CLI;
+import opennlp.tools.cmdline.CmdLineTool;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.disambiguator.WSDHelper;
+import opennlp.tools.disambiguator.WordNetGraphBuilder;
+
+/**
+ * Command line tool which compiles WordNet into a graph file for Lesk.
+ */
+public class WordNetGraphBuilderTool extends CmdLineTool {
+
+  @Override
+  public String getName() {
+    return "WordNetGraphBuilder";
+  }
+
+  @Override
+  public String getShortDescription() {
+    return "Compiles WordNet into a memory mappable graph for Lesk";
+  }
+
+  @Override
+  public String getHelp() {
+    return "Usage: " + CLI.CMD + " " + getName() + " "
+        + ArgumentParser.createUsage(WordNetGraphBuilderToolParams.class);
+  }
+
+  public void run(String[] args) {
+
+    if (!ArgumentParser.validateArguments(args, WordNetGraphBuilderToolParams.class)) {
+      System.err.println(getHelp());
+      throw new TerminateToolException(1);
+    }
+
+    WordNetGraphBuilderToolParams params = ArgumentParser.parse(args,
+        WordNetGraphBuilderToolParams.class);
+
+    CmdLineUtil.checkInputFile("Tokenizer model", params.getTokenizerModel());
+    CmdLineUtil.checkInputFile("POS model", params.getPosModel());
+    CmdLineUtil.checkOutputFile("WordNet graph", params.getGraph());
+
+    WSDHelper.loadTokenizer(params.getTokenizerModel().getPath());
+    WSDHelper.loadTagger(params.getPosModel().getPath());
+
+    System.err.print("Building WordNet graph ...");
+
+    try {
+      new WordNetGraphBuilder().build(params.getGraph());
+    } catch (IOException | JWNLException e) {
+      throw new TerminateToolException(-1, "Failed to build the WordNet graph: " + e.getMessage(), e);
+    }
+
+    System.err.println("done");
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.disambiguator;
+
+import java.io.File;
+
+import opennlp.tools.cmdline.ArgumentParser.ParameterDescription;
+
+/**
+ * Parameters for WordNetGraphBuilderTool.
+ * <p>
+ * Note: Do not use this class, internal use only!
+ */
+interface WordNetGraphBuilderToolParams {
+
+  @ParameterDescription(valueName = "tokenizerModel", description = "the tokenizer model to tokenize the glosses")
+  File getTokenizerModel();
+
+  @ParameterDescription(valueName = "posModel", description = "the POS model to tag the glosses")
+  File getPosModel();
+
+  @ParameterDescription(valueName = "graphFile", description = "the WordNet graph file to write")
+  File getGraph();
+
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 public class IMSWSDContextGenerator implements WSDContextGenerator {
@@ -113,12 +114,35 @@ public class IMSWSDContextGenerator implements WSDContextGenerator {
   public String[] getContext(int index, String[] tokens,
     String[] tags, String[] lemmas, int ngram, int windowSize, List<String> model) {
 
-    String[] posOfSurroundingWords = extractPosOfSurroundingWords(index, tokens,
-      windowSize);
-
     HashSet<String> surroundingWords = new HashSet<>(Arrays
             .asList(extractSurroundingContext(index, tokens, lemmas, windowSize)));
 
+    return getContext(index, tokens, ngram, windowSize, model, surroundingWords::contains);
+  }
+
+  /**
+   * Get Context of a word To disambiguate, the surrounding words
+   * are taken from the shared context of the sentence.
+   *
+   * @param sentence   The sentence of the word to disambiguate
+   * @param index      The index of the word to disambiguate
+   * @param ngram      The ngram to consider for context
+   * @param windowSize The context window
+   * @param model      The list of unigrams
+   * @return The IMS context of the word to disambiguate
+   */
+  public String[] getContext(WSDSentence sentence, int index, int ngram,
+    int windowSize, List<String> model) {
+    return getContext(index, sentence.getTokens(), ngram, windowSize, model,
+      word -> sentence.isSurroundingWord(index, word));
+  }
+
+  private String[] getContext(int index, String[] tokens, int ngram, int windowSize,
+    List<String> model, Predicate<String> isSurroundingWord) {
+
+    String[] posOfSurroundingWords = extractPosOfSurroundingWords(index, tokens,
+      windowSize);
+
     String[] localCollocations = extractLocalCollocations(index, tokens, ngram);
 
     String[] serializedFeatures = new String[posOfSurroundingWords.length
@@ -136,7 +160,7 @@ public class IMSWSDContextGenerator implements WSDContextGenerator {
       i++;
     }
     for (String word : model) {
-      if (surroundingWords.contains(word)) {
+      if (isSurroundingWord.test(word)) {
         serializedFeatures[i] = "F" + i + "=1";
       } else {
         serializedFeatures[i] = "F" + i + "=0";
@@ -46,6 +46,10 @@ public class Lesk extends WSDisambiguator {
    * List of filtered context words
    */
   final ArrayList<WordPOS> contextWords = new ArrayList<>();
+  /**
+   * The precomputed WordNet graph, if set the relations are not looked up with JWNL
+   */
+  private WordNetGraph wordNetGraph;
 
   public Lesk() {
     this(null);
@@ -81,6 +85,20 @@ public class Lesk extends WSDisambiguator {
     }
   }
 
+  public WordNetGraph getWordNetGraph() {
+    return wordNetGraph;
+  }
+
+  /**
+   * Sets the precomputed WordNet graph which the extended variants use to walk the
+   * relations of the senses, instead of looking them up with JWNL.
+   *
+   * @param wordNetGraph the graph or {@code null} to use JWNL
+   */
+  public void setWordNetGraph(WordNetGraph wordNetGraph) {
+    this.wordNetGraph = wordNetGraph;
+  }
+
   /**
    * @return Retrieves the parameter {@link LeskParameters settings}.
    */
@@ -100,7 +118,6 @@ public class Lesk extends WSDisambiguator {
     WordPOS word = new WordPOS(sample.getTargetWord(), sample.getTargetTag());
 
     List<Synset> synsets = word.getSynsets();
-    ArrayList<SynNode> nodes = new ArrayList<>();
 
     for (int i = 0; i < sample.getSentence().length; i++) {
       if (!WSDHelper.getStopCache().containsKey(sample.getSentence()[i])) {
@@ -110,27 +127,8 @@ public class Lesk extends WSDisambiguator {
         }
       }
     }
-    for (Synset synset : synsets) {
-      SynNode node = new SynNode(synset, contextWords);
-      nodes.add(node);
-    }
-
-    ArrayList<WordSense> scoredSenses = SynNode.updateSenses(nodes);
-
-    for (WordSense wordSense : scoredSenses) {
-      wordSense.setWSDSample(sample);
-      int count = 0;
-      for (WordPOS senseWordPOS : wordSense.getNode().getSenseRelevantWords()) {
-        for (WordPOS sentenceWordPOS : contextWords) {
-          if (sentenceWordPOS.isStemEquivalent(senseWordPOS)) {
-            count = count + 1;
-          }
-        }
-      }
-      wordSense.setScore(count);
-    }
 
-    return scoredSenses;
+    return scoreSenses(sample, synsets, contextWords);
   }
 
   /**
@@ -162,6 +160,20 @@ public class Lesk extends WSDisambiguator {
       }
     }
 
+    return scoreSenses(sample, synsets, contextWords);
+  }
+
+  /**
+   * Scores the senses by the overlaps of their relevant words with the context words.
+   *
+   * @param sample the word sample to disambiguate
+   * @param synsets the senses of the word
+   * @param contextWords the relevant words of the context
+   * @return The array of WordSenses with their scores
+   */
+  private ArrayList<WordSense> scoreSenses(WSDSample sample, List<Synset> synsets,
+      ArrayList<WordPOS> contextWords) {
+
     ArrayList<SynNode> nodes = new ArrayList<>();
     for (Synset synset : synsets) {
       SynNode node = new SynNode(synset, contextWords);
@@ -170,21 +182,20 @@ public class Lesk extends WSDisambiguator {
 
     ArrayList<WordSense> scoredSenses = SynNode.updateSenses(nodes);
 
-    for (WordSense wordSense : scoredSenses) {
-      wordSense.setWSDSample(sample);
+    OverlapScorer scorer = new OverlapScorer(contextWords);
 
-      int count = 0;
-      for (WordPOS senseWordPOS : wordSense.getNode().getSenseRelevantWords()) {
+    List<int[][]> senseBags = new ArrayList<>(scoredSenses.size());
+    for (WordSense wordSense : scoredSenses) {
+      senseBags.add(scorer.getStemIds(wordSense.getNode().getSenseRelevantWords()));
+    }
 
-        for (WordPOS sentenceWordPOS : contextWords) {
-          // TODO change to lemma check
-          if (sentenceWordPOS.isStemEquivalent(senseWordPOS)) {
-            count = count + 1;
-          }
-        }
-      }
-      wordSense.setScore(count);
+    // TODO change to lemma check
+    int[] counts = scorer.score(senseBags);
 
+    for (int i = 0; i < counts.length; i++) {
+      WordSense wordSense = scoredSenses.get(i);
+      wordSense.setWSDSample(sample);
+      wordSense.setScore(counts[i]);
     }
     return scoredSenses;
   }
@@ -221,6 +232,25 @@ public class Lesk extends WSDisambiguator {
     } else {
       scoredSenses = basicContextual(sample);
     }
+
+    extend(scoredSenses, contextWords);
+
+    return scoredSenses;
+
+  }
+
+  /**
+   * Adds the linearly weighted overlaps of the related synsets to the scores.
+   *
+   * @param scoredSenses the senses scored by their own overlaps
+   * @param contextWords the relevant words of the context
+   */
+  private void extend(List<WordSense> scoredSenses, ArrayList<WordPOS> contextWords) {
+    if (wordNetGraph != null) {
+      extendWithGraph(scoredSenses, contextWords, false);
+      return;
+    }
+
     for (WordSense wordSense : scoredSenses) {
 
       if (getParams().getFeatures()[0]) {
@@ -277,9 +307,6 @@ public class Lesk extends WSDisambiguator {
       }
 
     }
-
-    return scoredSenses;
-
   }
 
   /*
@@ -315,6 +342,24 @@ public class Lesk extends WSDisambiguator {
       scoredSenses = basicContextual(sample);
     }
 
+    extendExponential(scoredSenses, contextWords);
+
+    return scoredSenses;
+
+  }
+
+  /**
+   * Adds the exponentially weighted overlaps of the related synsets to the scores.
+   *
+   * @param scoredSenses the senses scored by their own overlaps
+   * @param contextWords the relevant words of the context
+   */
+  private void extendExponential(List<WordSense> scoredSenses, ArrayList<WordPOS> contextWords) {
+    if (wordNetGraph != null) {
+      extendWithGraph(scoredSenses, contextWords, true);
+      return;
+    }
+
     for (WordSense wordSense : scoredSenses) {
 
       if (params.features[0]) {
@@ -372,9 +417,99 @@ public class Lesk extends WSDisambiguator {
       }
 
     }
+  }
 
-    return scoredSenses;
+  /**
+   * Adds the weighted overlaps of the related synsets to the scores, the relations
+   * and glosses are taken from the precomputed {@link WordNetGraph}.
+   *
+   * @param scoredSenses the senses scored by their own overlaps
+   * @param contextWords the relevant words of the context
+   * @param exponential true for exponential, false for linear weights
+   */
+  private void extendWithGraph(List<WordSense> scoredSenses, ArrayList<WordPOS> contextWords,
+      boolean exponential) {
+
+    int[][] contextStems = new int[contextWords.size()][];
+    for (int i = 0; i < contextStems.length; i++) {
+      contextStems[i] = wordNetGraph.getStemIds(contextWords.get(i));
+    }
+
+    OverlapScorer contextScorer = new OverlapScorer(contextStems);
+    OverlapScorer synonymScorer = params.features[0] ? new OverlapScorer(contextWords) : null;
+
+    for (WordSense wordSense : scoredSenses) {
+
+      if (synonymScorer != null) {
+        int synonymOverlaps = synonymScorer.count(
+            synonymScorer.getStemIds(wordSense.getNode().getSynonyms()));
+        wordSense.setScore(wordSense.getScore() + (exponential
+            ? Math.pow(synonymOverlaps, params.iexp)
+            : params.depth_weight * synonymOverlaps));
+      }
+
+      int synsetId = wordNetGraph.getSynsetId(wordSense.getNode().synset);
+
+      if (synsetId < 0) {
+        continue;
+      }
+
+      for (WordNetRelation relation : WordNetRelation.values()) {
+        if (params.features[relation.getFeatureIndex()]) {
+          wordSense.setScore(wordSense.getScore() + fathomGraph(synsetId, contextScorer,
+              relation, params.depth, params.depth, exponential));
+        }
+      }
+    }
+  }
+
+  /**
+   * Recursively scores a relation tree like the fathom methods do, the related
+   * synsets of the deeper levels are compared with the gloss of their parent.
+   *
+   * @param synsetId the id of the synset whose related synsets are scored
+   * @param relvScorer the scorer of the relevant words to compare with
+   * @param relation the relation to follow
+   * @param depth the remaining depth
+   * @param maxDepth the maximum depth
+   * @param exponential true for exponential, false for linear weights
+   * @return the score of the tree
+   */
+  private double fathomGraph(int synsetId, OverlapScorer relvScorer, WordNetRelation relation,
+      int depth, int maxDepth, boolean exponential) {
+    if (depth == 0)
+      return 0;
+
+    int[] related = wordNetGraph.getRelated(synsetId, relation);
+
+    int count = 0;
+    for (int relatedId : related) {
+      for (int glossWord : wordNetGraph.getGlossWords(relatedId)) {
+        count += relvScorer.count(wordNetGraph.getStems(glossWord));
+      }
+    }
+
+    double score;
+    if (exponential) {
+      score = Math.pow(count, params.iexp) / Math.pow(depth, params.dexp);
+    } else {
+      score = Math.pow(params.depth_weight, maxDepth - depth + 1) * count;
+    }
+
+    if (related.length > 0 && depth > 1) {
+      int[] glossWords = wordNetGraph.getGlossWords(synsetId);
+      int[][] glossStems = new int[glossWords.length][];
+      for (int i = 0; i < glossWords.length; i++) {
+        glossStems[i] = wordNetGraph.getStems(glossWords[i]);
+      }
+
+      OverlapScorer glossScorer = new OverlapScorer(glossStems);
+      for (int relatedId : related) {
+        score += fathomGraph(relatedId, glossScorer, relation, depth - 1, maxDepth, exponential);
+      }
+    }
 
+    return score;
   }
 
   /**
@@ -843,21 +978,20 @@ public class Lesk extends WSDisambiguator {
    * @return count of features to consider
    */
   private int assessFeature(ArrayList<Synset> featureSynsets, ArrayList<WordPOS> relevantWords) {
+    if (featureSynsets.isEmpty()) {
+      return 0;
+    }
+
     int count = 0;
     TokenizerME tokenizer = WSDHelper.getTokenizer();
+    OverlapScorer scorer = new OverlapScorer(relevantWords);
     for (Synset synset : featureSynsets) {
       SynNode subNode = new SynNode(synset, relevantWords);
 
       String[] tokenizedSense = tokenizer.tokenize(subNode.getGloss());
       List<WordPOS> relvSenseWords = WSDHelper.getAllRelevantWords(tokenizedSense);
 
-      for (WordPOS senseWord : relvSenseWords) {
-        for (WordPOS sentenceWord : relevantWords) {
-          if (sentenceWord.isStemEquivalent(senseWord)) {
-            count = count + 1;
-          }
-        }
-      }
+      count += scorer.count(scorer.getStemIds(relvSenseWords));
     }
     return count;
   }
@@ -871,16 +1005,12 @@ public class Lesk extends WSDisambiguator {
    */
   private int assessSynonyms(ArrayList<WordPOS> synonyms,
       ArrayList<WordPOS> relevantWords) {
-    int count = 0;
-
-    for (WordPOS synonym : synonyms) {
-      for (WordPOS sentenceWord : relevantWords) {
-        if (sentenceWord.isStemEquivalent(synonym)) {
-          count = count + 1;
-        }
-      }
+    if (synonyms.isEmpty()) {
+      return 0;
     }
-    return count;
+
+    OverlapScorer scorer = new OverlapScorer(relevantWords);
+    return scorer.count(scorer.getStemIds(synonyms));
   }
 
   @Override
@@ -920,6 +1050,60 @@ public class Lesk extends WSDisambiguator {
       break;
     }
 
+    return getBestSense(sample, wsenses);
+  }
+
+  /**
+   * Disambiguates a relevant word of a sentence. The relevant words of the sentence
+   * and their stems are shared by all words of the sentence, the context words
+   * of one word do not carry over to the next one.
+   */
+  @Override
+  protected String disambiguate(WSDSentence sentence, int index) {
+
+    WSDSample sample = sentence.getSample(index);
+
+    LeskParameters.LESK_TYPE leskType = params.leskType;
+
+    boolean extendedType = leskType != LeskParameters.LESK_TYPE.LESK_BASIC
+        && leskType != LeskParameters.LESK_TYPE.LESK_BASIC_CTXT;
+    boolean exponential = leskType != LeskParameters.LESK_TYPE.LESK_EXT
+        && leskType != LeskParameters.LESK_TYPE.LESK_EXT_CTXT;
+
+    // The variants without window consider the whole sentence
+    boolean contextual;
+    if (leskType == LeskParameters.LESK_TYPE.LESK_BASIC_CTXT) {
+      contextual = true;
+    } else if (leskType == LeskParameters.LESK_TYPE.LESK_BASIC
+        || leskType == LeskParameters.LESK_TYPE.LESK_EXT
+        || leskType == LeskParameters.LESK_TYPE.LESK_EXT_EXP) {
+      contextual = false;
+    } else {
+      contextual = params.getWin_b_size() != 0 || params.getWin_f_size() != 0;
+    }
+
+    ArrayList<WordPOS> sentenceContextWords = contextual
+        ? sentence.getRelevantWords(index, params.win_b_size, params.win_f_size)
+        : sentence.getRelevantWords();
+
+    List<Synset> synsets = new WordPOS(sample.getTargetWord(), sample.getTargetTag()).getSynsets();
+
+    List<WordSense> wsenses = synsets != null
+        ? scoreSenses(sample, synsets, sentenceContextWords)
+        : new ArrayList<>();
+
+    if (extendedType) {
+      if (exponential) {
+        extendExponential(wsenses, sentenceContextWords);
+      } else {
+        extend(wsenses, sentenceContextWords);
+      }
+    }
+
+    return getBestSense(sample, wsenses);
+  }
+
+  private String getBestSense(WSDSample sample, List<WordSense> wsenses) {
     Collections.sort(wsenses);
 
     String sense;
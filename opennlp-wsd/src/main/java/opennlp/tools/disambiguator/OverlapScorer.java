@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts the overlaps of words with the relevant words of a context, the
+ * engine behind all {@link Lesk} variants.
+ * <p>
+ * An overlap is a pair of a word and a context word which are stem equivalent,
+ * see {@link WordPOS#isStemEquivalent(WordPOS)}. The stems are interned to int ids
+ * once per distinct word. The scorer keeps the sorted distinct stem ids of the context
+ * and for every stem a bitset of the context words which have it, so the overlaps of a
+ * word are the size of the union of the bitsets of its stems, instead of a comparison
+ * with every context word.
+ * <p>
+ * The interned ids are shared by all threads. Like the stem cache of the {@link WSDHelper}
+ * they are bounded to {@link WSDHelper#getStemCacheSize()} words, when there are more
+ * words a new table is started. A scorer keeps the table it was created with, the stem
+ * ids of the words it counts must be retrieved from it with {@link #getStemIds(List)}.
+ * A scorer instance must only be used by one thread.
+ */
+class OverlapScorer {
+
+  /**
+   * The interned stem ids, the ids are only comparable within one table.
+   */
+  private static class StemIds {
+    private final ConcurrentMap<String, Integer> stemIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextStemId = new AtomicInteger();
+
+    private final ConcurrentMap<String, int[]> wordStemIds = new ConcurrentHashMap<>();
+
+    int[] get(WordPOS word) {
+      int[] ids = wordStemIds.get(word.getWord());
+
+      if (ids == null) {
+        List<String> wordStems = getNormalizedStems(word);
+
+        ids = new int[wordStems.size()];
+        for (int i = 0; i < ids.length; i++) {
+          ids[i] = stemIds.computeIfAbsent(wordStems.get(i), stem -> nextStemId.getAndIncrement());
+        }
+        Arrays.sort(ids);
+
+        wordStemIds.putIfAbsent(word.getWord(), ids);
+      }
+
+      return ids;
+    }
+  }
+
+  private static final AtomicReference<StemIds> STEM_IDS = new AtomicReference<>(new StemIds());
+
+  private static StemIds currentStemIds() {
+    StemIds current = STEM_IDS.get();
+
+    if (current.wordStemIds.size() >= WSDHelper.getStemCacheSize()
+        && STEM_IDS.compareAndSet(current, new StemIds())) {
+      return STEM_IDS.get();
+    }
+
+    return current;
+  }
+
+  private final StemIds stemIds;
+
+  private final int[] stems;
+  private final long[][] stemWords;
+
+  private final long[] union;
+
+  /**
+   * @param contextStems the sorted stem ids of every context word
+   */
+  OverlapScorer(int[][] contextStems) {
+    this(null, contextStems);
+  }
+
+  private OverlapScorer(StemIds stemIds, int[][] contextStems) {
+
+    this.stemIds = stemIds;
+
+    int total = 0;
+    for (int[] wordStems : contextStems) {
+      total += wordStems.length;
+    }
+
+    int[] allStems = new int[total];
+    int pos = 0;
+    for (int[] wordStems : contextStems) {
+      System.arraycopy(wordStems, 0, allStems, pos, wordStems.length);
+      pos += wordStems.length;
+    }
+
+    Arrays.sort(allStems);
+
+    int distinct = 0;
+    for (int i = 0; i < allStems.length; i++) {
+      if (i == 0 || allStems[i] != allStems[i - 1]) {
+        allStems[distinct++] = allStems[i];
+      }
+    }
+    stems = Arrays.copyOf(allStems, distinct);
+
+    int bitsetLength = (contextStems.length + 63) >>> 6;
+    stemWords = new long[stems.length][bitsetLength];
+    union = new long[bitsetLength];
+
+    for (int word = 0; word < contextStems.length; word++) {
+      for (int stem : contextStems[word]) {
+        stemWords[Arrays.binarySearch(stems, stem)][word >>> 6] |= 1L << word;
+      }
+    }
+  }
+
+  /**
+   * Creates a scorer for the context words, their stems are interned.
+   *
+   * @param contextWords the relevant words of the context
+   */
+  OverlapScorer(List<WordPOS> contextWords) {
+    this(currentStemIds(), contextWords);
+  }
+
+  private OverlapScorer(StemIds stemIds, List<WordPOS> contextWords) {
+    this(stemIds, getStemIds(stemIds, contextWords));
+  }
+
+  /**
+   * @param wordStems the sorted stem ids of a word
+   * @return the number of context words which are stem equivalent to the word
+   */
+  int count(int[] wordStems) {
+
+    if (wordStems.length == 1) {
+      int index = Arrays.binarySearch(stems, wordStems[0]);
+      return index >= 0 ? cardinality(stemWords[index]) : 0;
+    }
+
+    Arrays.fill(union, 0L);
+    boolean found = false;
+
+    for (int stem : wordStems) {
+      int index = Arrays.binarySearch(stems, stem);
+      if (index >= 0) {
+        long[] words = stemWords[index];
+        for (int i = 0; i < union.length; i++) {
+          union[i] |= words[i];
+        }
+        found = true;
+      }
+    }
+
+    return found ? cardinality(union) : 0;
+  }
+
+  /**
+   * @param words the sorted stem ids of every word of a bag
+   * @return the number of overlaps of the bag with the context
+   */
+  int count(int[][] words) {
+    int count = 0;
+    for (int[] wordStems : words) {
+      count += count(wordStems);
+    }
+    return count;
+  }
+
+  /**
+   * Scores all candidate senses in one pass over their bags.
+   *
+   * @param senseBags the bag of words of every sense
+   * @return the number of overlaps of every sense
+   */
+  int[] score(List<int[][]> senseBags) {
+    int[] scores = new int[senseBags.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = count(senseBags.get(i));
+    }
+    return scores;
+  }
+
+  private static int cardinality(long[] bitset) {
+    int count = 0;
+    for (long bits : bitset) {
+      count += Long.bitCount(bits);
+    }
+    return count;
+  }
+
+  private static int[][] getStemIds(StemIds stemIds, List<WordPOS> words) {
+    int[][] ids = new int[words.size()][];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = stemIds.get(words.get(i));
+    }
+    return ids;
+  }
+
+  /**
+   * Retrieves the interned ids of the stems of the words from the table of this scorer.
+   *
+   * @param words the words
+   * @return the sorted stem ids of every word
+   * @throws IllegalStateException if the scorer was created with stem ids
+   */
+  int[][] getStemIds(List<WordPOS> words) {
+    if (stemIds == null) {
+      throw new IllegalStateException("The scorer was created with stem ids");
+    }
+    return getStemIds(stemIds, words);
+  }
+
+  /**
+   * Retrieves the distinct lower cased stems of a word. A word which cannot be stemmed
+   * is its own stem, as it is in the stem cache after it was stemmed once; words with
+   * numbers have no stems.
+   *
+   * @param word the word
+   * @return the stems
+   */
+  static List<String> getNormalizedStems(WordPOS word) {
+    if (WSDHelper.containsNumbers(word.getWord())) {
+      return new ArrayList<>();
+    }
+
+    List<String> wordStems = word.getStems();
+    if (wordStems == null) {
+      wordStems = List.of(word.getWord());
+    }
+
+    List<String> normalized = new ArrayList<>(wordStems.size());
+    for (String stem : wordStems) {
+      String lowerCased = stem.toLowerCase();
+      if (!normalized.contains(lowerCased)) {
+        normalized.add(lowerCased);
+      }
+    }
+    return normalized;
+  }
+}
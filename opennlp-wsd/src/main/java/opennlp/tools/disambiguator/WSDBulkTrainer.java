@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import opennlp.tools.disambiguator.datareader.WSDSampleStore;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Trains the {@link WSDModel models} of many word tags at once and writes them into
+ * one {@link WSDModelArchive}.
+ * <p>
+ * The models are trained concurrently on a {@link ForkJoinPool}. Every training
+ * reserves its estimated memory from a budget before it starts, and waits while the
+ * budget is exhausted, so that large word tags do not run out of heap together. The
+ * largest word tags are started first. A training which fails is reported and skipped,
+ * the other models are still written.
+ */
+public class WSDBulkTrainer {
+
+  /**
+   * The estimated heap in bytes of the training events of one sample token.
+   */
+  static final long BYTES_PER_TOKEN = 512;
+
+  /**
+   * The estimated heap of a training in relation to the size of its samples
+   * in a {@link WSDSampleStore}.
+   */
+  static final long STORE_SIZE_FACTOR = 16;
+
+  private final String lang;
+  private final TrainingParameters mlParams;
+  private final WSDParameters params;
+
+  private final ForkJoinPool pool;
+  private final long memoryBudget;
+
+  /**
+   * A word tag whose model has to be trained.
+   */
+  private interface Job {
+
+    String getWordTag();
+
+    long getEstimatedMemory();
+
+    ObjectStream<WSDSample> getSamples();
+  }
+
+  /**
+   * The memory which can still be reserved by trainings.
+   */
+  private static final class MemoryBudget {
+
+    private long available;
+
+    private MemoryBudget(long available) {
+      this.available = available;
+    }
+
+    private synchronized boolean tryReserve(long bytes) {
+      if (available >= bytes) {
+        available -= bytes;
+        return true;
+      }
+      return false;
+    }
+
+    private void reserve(long bytes) throws InterruptedException {
+      // a managed block lets the pool compensate for the waiting worker
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+        @Override
+        public boolean block() throws InterruptedException {
+          synchronized (MemoryBudget.this) {
+            while (!tryReserve(bytes)) {
+              MemoryBudget.this.wait();
+            }
+          }
+          return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+          return tryReserve(bytes);
+        }
+      });
+    }
+
+    private synchronized void release(long bytes) {
+      available += bytes;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Trains on the common pool with half of the maximum heap as memory budget.
+   */
+  public WSDBulkTrainer(String lang, TrainingParameters mlParams, WSDParameters params) {
+    this(lang, mlParams, params, ForkJoinPool.commonPool(), Runtime.getRuntime().maxMemory() / 2);
+  }
+
+  /**
+   * @param lang the language of the models
+   * @param mlParams the training parameters
+   * @param params the WSD parameters, the window size and ngram are used
+   * @param pool the pool which trains the models
+   * @param memoryBudget the heap in bytes which the concurrent trainings may use together
+   */
+  public WSDBulkTrainer(String lang, TrainingParameters mlParams, WSDParameters params,
+      ForkJoinPool pool, long memoryBudget) {
+    if (memoryBudget <= 0) {
+      throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+    }
+
+    this.lang = lang;
+    this.mlParams = mlParams;
+    this.params = params;
+    this.pool = pool;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Groups the samples by their target word tag in one pass and trains a model
+   * for every word tag. The samples are held in memory.
+   *
+   * @param samples the samples of all word tags
+   * @param archive the archive file to write
+   * @return the word tags whose model was written
+   *
+   * @throws IOException if the samples cannot be read or the archive cannot be written,
+   *                     an {@link InterruptedIOException} if the training was interrupted
+   */
+  public Set<String> train(ObjectStream<WSDSample> samples, File archive) throws IOException {
+
+    Map<String, List<WSDSample>> groups = new TreeMap<>();
+
+    WSDSample sample;
+    while ((sample = samples.read()) != null) {
+      groups.computeIfAbsent(sample.getTargetWordTag(), wordTag -> new ArrayList<>()).add(sample);
+    }
+
+    List<Job> jobs = new ArrayList<>(groups.size());
+
+    for (Map.Entry<String, List<WSDSample>> group : groups.entrySet()) {
+      long tokens = 0;
+      for (WSDSample groupSample : group.getValue()) {
+        tokens += groupSample.getSentence().length;
+      }
+      long estimatedMemory = tokens * BYTES_PER_TOKEN;
+
+      jobs.add(new Job() {
+        @Override
+        public String getWordTag() {
+          return group.getKey();
+        }
+
+        @Override
+        public long getEstimatedMemory() {
+          return estimatedMemory;
+        }
+
+        @Override
+        public ObjectStream<WSDSample> getSamples() {
+          return ObjectStreamUtils.createObjectStream(group.getValue());
+        }
+      });
+    }
+
+    return train(jobs, archive);
+  }
+
+  /**
+   * Trains a model for every word tag of a sample store, every training reads only
+   * the samples of its word tag.
+   *
+   * @param store the sample store
+   * @param archive the archive file to write
+   * @return the word tags whose model was written
+   *
+   * @throws IOException if the archive cannot be written, an
+   *                     {@link InterruptedIOException} if the training was interrupted
+   */
+  public Set<String> train(WSDSampleStore store, File archive) throws IOException {
+
+    List<Job> jobs = new ArrayList<>();
+
+    for (String wordTag : store.getWordTags()) {
+      jobs.add(new Job() {
+        @Override
+        public String getWordTag() {
+          return wordTag;
+        }
+
+        @Override
+        public long getEstimatedMemory() {
+          return store.getSize(wordTag) * STORE_SIZE_FACTOR;
+        }
+
+        @Override
+        public ObjectStream<WSDSample> getSamples() {
+          return store.getSamples(wordTag);
+        }
+      });
+    }
+
+    return train(jobs, archive);
+  }
+
+  private Set<String> train(List<Job> jobs, File archive) throws IOException {
+
+    jobs.sort(Comparator.comparingLong(Job::getEstimatedMemory).reversed());
+
+    Set<String> trained = Collections.synchronizedSet(new TreeSet<>());
+    MemoryBudget budget = new MemoryBudget(memoryBudget);
+
+    try (WSDModelArchiveWriter writer = new WSDModelArchiveWriter(archive)) {
+      if (!jobs.isEmpty()) {
+        pool.invoke(new TrainTask(jobs, 0, jobs.size(), budget, writer, trained));
+      }
+    } catch (UncheckedIOException e) {
+      Files.deleteIfExists(archive.toPath());
+
+      if (e.getCause() instanceof InterruptedIOException) {
+        Thread.currentThread().interrupt();
+      }
+      throw e.getCause();
+    }
+
+    return trained;
+  }
+
+  private WSDModel train(Job job, MemoryBudget budget) throws InterruptedException {
+
+    // a training which needs more than the whole budget runs alone
+    long reserved = Math.min(job.getEstimatedMemory(), memoryBudget);
+    budget.reserve(reserved);
+
+    try {
+      return WSDisambiguatorME.train(lang, job.getSamples(), mlParams, params);
+    } catch (IOException | RuntimeException e) {
+      WSDHelper.print("Failed to train the model of " + job.getWordTag());
+      e.printStackTrace();
+      return null;
+    } finally {
+      budget.release(reserved);
+    }
+  }
+
+  /**
+   * Trains the jobs of a range, the range is split until it holds a single job.
+   */
+  private class TrainTask extends RecursiveAction {
+
+    private final List<Job> jobs;
+    private final int from;
+    private final int to;
+
+    private final MemoryBudget budget;
+    private final WSDModelArchiveWriter writer;
+    private final Set<String> trained;
+
+    private TrainTask(List<Job> jobs, int from, int to, MemoryBudget budget,
+        WSDModelArchiveWriter writer, Set<String> trained) {
+      this.jobs = jobs;
+      this.from = from;
+      this.to = to;
+      this.budget = budget;
+      this.writer = writer;
+      this.trained = trained;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new TrainTask(jobs, from, middle, budget, writer, trained),
+            new TrainTask(jobs, middle, to, budget, writer, trained));
+        return;
+      }
+
+      Job job = jobs.get(from);
+
+      WSDModel model;
+      try {
+        model = train(job, budget);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new UncheckedIOException(new InterruptedIOException(
+            "Interrupted before training the model of " + job.getWordTag()));
+      }
+
+      if (model != null) {
+        try {
+          writer.add(job.getWordTag(), model);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        trained.add(job.getWordTag());
+      }
+    }
+  }
+}
@@ -26,9 +26,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 
@@ -43,27 +47,60 @@ import opennlp.tools.postag.POSTaggerME;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 
+/**
+ * Provides the resources which are shared by all disambiguators.
+ * <p>
+ * The helper can be used by many disambiguator instances from several threads at once:
+ * <ul>
+ * <li>the stop word, relevant tag and tag definition lookups are immutable,</li>
+ * <li>the models, the lemmatizer dictionary and the WordNet dictionary are loaded once
+ * and shared,</li>
+ * <li>{@link #getTokenizer()} and {@link #getTagger()} return an instance per thread,
+ * because {@link TokenizerME} and {@link POSTaggerME} are not thread safe,</li>
+ * <li>the stems are cached per {@link POS} in concurrent maps which are bounded to
+ * {@link #getStemCacheSize()} entries each.</li>
+ * </ul>
+ */
 public class WSDHelper {
 
   protected static final Pattern NUMBERS_PATTERN = Pattern.compile(".*[0-9].*");
 
-  protected static TokenizerME tokenizer;
-  protected static POSTaggerME tagger;
-  protected static DictionaryLemmatizer lemmatizer;
-  protected static Dictionary dictionary;
-  protected static MorphologicalProcessor morph;
+  public static final int DFLT_STEM_CACHE_SIZE = 100000;
+
+  /**
+   * A tool of the current thread, together with the model it was created from.
+   */
+  private static final class ThreadTool<M, T> {
+
+    private final M model;
+    private final T tool;
+
+    private ThreadTool(M model, T tool) {
+      this.model = model;
+      this.tool = tool;
+    }
+  }
+
+  private static final ThreadLocal<ThreadTool<TokenizerModel, TokenizerME>> tokenizer =
+      new ThreadLocal<>();
+  private static final ThreadLocal<ThreadTool<POSModel, POSTaggerME>> tagger =
+      new ThreadLocal<>();
 
-  protected static String tokenizerModelPath;
-  protected static String taggerModelPath;
-  protected static String lemmatizerDictionaryPath;
+  private static volatile TokenizerModel tokenizerModel;
+  private static volatile POSModel taggerModel;
+  private static volatile DictionaryLemmatizer lemmatizer;
+  private static volatile Dictionary dictionary;
+  private static volatile MorphologicalProcessor morph;
+
+  protected static volatile String tokenizerModelPath;
+  protected static volatile String taggerModelPath;
+  protected static volatile String lemmatizerDictionaryPath;
 
   // local caches for faster lookup
-  private static Map<String, Map<String, Object>> stemCache;
-  private static Map<String, Object> stopCache;
-  private static Map<String, Object> relvCache;
+  private static final Map<String, Map<String, Object>> stemCache = createStemCache();
+  private static volatile int stemCacheSize = DFLT_STEM_CACHE_SIZE;
 
-  private static Map<String, Object> englishWords;
-  private static Map<String, Object> nonRelevWordsDef;
+  private static volatile Map<String, Object> englishWords;
 
   // List of all the PoS tags
   public static final String[] ALL_POS = { "CC", "CD", "DT", "EX", "FW", "IN", "JJ",
@@ -160,113 +197,160 @@ public class WSDHelper {
           "would", "wouldn't", "yes", "yet", "you", "you'd", "you'll", "your",
           "you're", "yours", "yourself", "yourselves", "you've", "zero");
 
-  public static Map<String, Object> getRelvCache() {
-    if (relvCache == null || relvCache.keySet().isEmpty()) {
-      relvCache = new HashMap<>();
-      for (String t : RELEVANT_POS) {
-        relvCache.put(t, null);
-      }
+  private static final Map<String, Object> stopCache = createKeySet(STOP_WORDS);
+  private static final Map<String, Object> relvCache = createKeySet(Arrays.asList(RELEVANT_POS));
+
+  private static final Map<String, Object> nonRelevWordsDef = createNonRelevWordsDef();
+
+  private static Map<String, Object> createKeySet(List<String> keys) {
+    Map<String, Object> keySet = new HashMap<>();
+    for (String key : keys) {
+      keySet.put(key, null);
     }
+    return Collections.unmodifiableMap(keySet);
+  }
+
+  private static Map<String, Object> createNonRelevWordsDef() {
+    Map<String, Object> definitions = new HashMap<>();
+
+    definitions.put("CC", "coordinating conjunction");
+    definitions.put("CD", "cardinal number");
+    definitions.put("DT", "determiner");
+    definitions.put("EX", "existential there");
+    definitions.put("FW", "foreign word");
+    definitions.put("IN", "preposition / subordinating conjunction");
+    definitions.put("JJ", "adjective");
+    definitions.put("JJR", "adjective, comparative");
+    definitions.put("JJS", "adjective, superlative");
+    definitions.put("LS", "list marker");
+    definitions.put("MD", "modal");
+    definitions.put("NN", "noun, singular or mass");
+    definitions.put("NNS", "noun plural");
+    definitions.put("NNP", "proper noun, singular");
+    definitions.put("NNPS", "proper noun, plural");
+    definitions.put("PDT", "predeterminer");
+    definitions.put("POS", "possessive ending");
+    definitions.put("PRP", "personal pronoun");
+    definitions.put("PRP$", "possessive pronoun");
+    definitions.put("RB", "adverb");
+    definitions.put("RBR", "adverb, comparative");
+    definitions.put("RBS", "adverb, superlative");
+    definitions.put("RP", "particle");
+    definitions.put("SYM", "Symbol");
+    definitions.put("TO", "to");
+    definitions.put("UH", "interjection");
+    definitions.put("VB", "verb, base form");
+    definitions.put("VBD", "verb, past tense");
+    definitions.put("VBG", "verb, gerund/present participle");
+    definitions.put("VBN", "verb, past participle");
+    definitions.put("VBP", "verb, sing. present, non-3d");
+    definitions.put("VBZ", "verb, 3rd person sing. present");
+    definitions.put("WDT", "wh-determiner");
+    definitions.put("WP", "wh-pronoun");
+    definitions.put("WP$", "possessive wh-pronoun");
+    definitions.put("WRB", "wh-adverb");
+
+    return Collections.unmodifiableMap(definitions);
+  }
+
+  private static Map<String, Map<String, Object>> createStemCache() {
+    Map<String, Map<String, Object>> cache = new HashMap<>();
+    for (POS pos : POS.getAllPOS()) {
+      cache.put(pos.getKey(), new ConcurrentHashMap<>());
+    }
+    return Collections.unmodifiableMap(cache);
+  }
+
+  public static Map<String, Object> getRelvCache() {
     return relvCache;
   }
 
   public static Map<String, Object> getStopCache() {
-    if (stopCache == null || stopCache.keySet().isEmpty()) {
-      stopCache = new HashMap<>();
-      for (String s : STOP_WORDS) {
-        stopCache.put(s, null);
-      }
-    }
     return stopCache;
   }
 
   public static Map<String, Map<String, Object>> getStemCache() {
-    if (stemCache == null || stemCache.keySet().isEmpty()) {
-      stemCache = new HashMap<>();
-      for (POS pos : POS.getAllPOS()) {
-        stemCache.put(pos.getKey(), new HashMap<>());
-      }
-    }
     return stemCache;
   }
 
+  /**
+   * @return the maximum number of cached words per {@link POS}
+   */
+  public static int getStemCacheSize() {
+    return stemCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of cached words per {@link POS}, when a cache grows
+   * beyond it arbitrary entries are evicted.
+   *
+   * @param size the maximum number of cached words per {@link POS}
+   */
+  public static void setStemCacheSize(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive: " + size);
+    }
+    stemCacheSize = size;
+  }
+
   public static Map<String, Object> getEnglishWords() {
-    if (englishWords == null || englishWords.keySet().isEmpty()) {
-      englishWords = getEnglishWords(lemmatizerDictionaryPath);
+    Map<String, Object> words = englishWords;
+    if (words == null) {
+      synchronized (WSDHelper.class) {
+        words = englishWords;
+        if (words == null) {
+          words = getEnglishWords(lemmatizerDictionaryPath);
+          if (words != null) {
+            englishWords = words = Collections.unmodifiableMap(words);
+          }
+        }
+      }
     }
-    return englishWords;
+    return words;
   }
 
   /**
-   * This initializes the Hashmap of irrelevant words definitions, and returns
-   * the definition of the irrelevant word based on its pos-tag
+   * Returns the definition of the irrelevant word based on its pos-tag
    * 
    * @param posTag
    *          the pos-tag of the irrelevant word
    * @return the definition of the word
    */
   public static String getNonRelevWordsDef(String posTag) {
-    if (nonRelevWordsDef == null || nonRelevWordsDef.keySet().isEmpty()) {
-      nonRelevWordsDef = new HashMap<>();
-
-      nonRelevWordsDef.put("CC", "coordinating conjunction");
-      nonRelevWordsDef.put("CD", "cardinal number");
-      nonRelevWordsDef.put("DT", "determiner");
-      nonRelevWordsDef.put("EX", "existential there");
-      nonRelevWordsDef.put("FW", "foreign word");
-      nonRelevWordsDef.put("IN", "preposition / subordinating conjunction");
-      nonRelevWordsDef.put("JJ", "adjective");
-      nonRelevWordsDef.put("JJR", "adjective, comparative");
-      nonRelevWordsDef.put("JJS", "adjective, superlative");
-      nonRelevWordsDef.put("LS", "list marker");
-      nonRelevWordsDef.put("MD", "modal");
-      nonRelevWordsDef.put("NN", "noun, singular or mass");
-      nonRelevWordsDef.put("NNS", "noun plural");
-      nonRelevWordsDef.put("NNP", "proper noun, singular");
-      nonRelevWordsDef.put("NNPS", "proper noun, plural");
-      nonRelevWordsDef.put("PDT", "predeterminer");
-      nonRelevWordsDef.put("POS", "possessive ending");
-      nonRelevWordsDef.put("PRP", "personal pronoun");
-      nonRelevWordsDef.put("PRP$", "possessive pronoun");
-      nonRelevWordsDef.put("RB", "adverb");
-      nonRelevWordsDef.put("RBR", "adverb, comparative");
-      nonRelevWordsDef.put("RBS", "adverb, superlative");
-      nonRelevWordsDef.put("RP", "particle");
-      nonRelevWordsDef.put("SYM", "Symbol");
-      nonRelevWordsDef.put("TO", "to");
-      nonRelevWordsDef.put("UH", "interjection");
-      nonRelevWordsDef.put("VB", "verb, base form");
-      nonRelevWordsDef.put("VBD", "verb, past tense");
-      nonRelevWordsDef.put("VBG", "verb, gerund/present participle");
-      nonRelevWordsDef.put("VBN", "verb, past participle");
-      nonRelevWordsDef.put("VBP", "verb, sing. present, non-3d");
-      nonRelevWordsDef.put("VBZ", "verb, 3rd person sing. present");
-      nonRelevWordsDef.put("WDT", "wh-determiner");
-      nonRelevWordsDef.put("WP", "wh-pronoun");
-      nonRelevWordsDef.put("WP$", "possessive wh-pronoun");
-      nonRelevWordsDef.put("WRB", "wh-adverb");
-
-    }
     return (String) nonRelevWordsDef.get(posTag);
   }
 
   public static MorphologicalProcessor getMorph() {
-    if (morph == null) {
-      getDictionary();
-      morph = dictionary.getMorphologicalProcessor();
+    MorphologicalProcessor processor = morph;
+    if (processor == null) {
+      synchronized (WSDHelper.class) {
+        processor = morph;
+        if (processor == null) {
+          Dictionary dict = getDictionary();
+          if (dict != null) {
+            morph = processor = dict.getMorphologicalProcessor();
+          }
+        }
+      }
     }
-    return morph;
+    return processor;
   }
 
   public static Dictionary getDictionary() {
-    if (dictionary == null) {
-      try {
-        dictionary = Dictionary.getDefaultResourceInstance();
-      } catch (JWNLException e) {
-        e.printStackTrace();
+    Dictionary dict = dictionary;
+    if (dict == null) {
+      synchronized (WSDHelper.class) {
+        dict = dictionary;
+        if (dict == null) {
+          try {
+            dictionary = dict = Dictionary.getDefaultResourceInstance();
+          } catch (JWNLException e) {
+            e.printStackTrace();
+          }
+        }
       }
     }
-    return dictionary;
+    return dict;
   }
 
   public static DictionaryLemmatizer getLemmatizer() {
@@ -274,59 +358,124 @@ public class WSDHelper {
       throw new IllegalStateException("Loading a Lemmatizer is not possible without setting the " +
               "corresponding model file!");
     }
-    if (lemmatizer == null) {
-      final InputStream resource;
-      try {
-        if (lemmatizerDictionaryPath.endsWith(".dict.gz")) {
-          resource = new GZIPInputStream(new FileInputStream(lemmatizerDictionaryPath));
-        } else {
-          resource = new FileInputStream(lemmatizerDictionaryPath);
-        }
-        try (InputStream in = new BufferedInputStream(resource)) {
-          lemmatizer = new DictionaryLemmatizer(in);
+    DictionaryLemmatizer dictLemmatizer = lemmatizer;
+    if (dictLemmatizer == null) {
+      synchronized (WSDHelper.class) {
+        dictLemmatizer = lemmatizer;
+        if (dictLemmatizer == null) {
+          final InputStream resource;
+          try {
+            if (lemmatizerDictionaryPath.endsWith(".dict.gz")) {
+              resource = new GZIPInputStream(new FileInputStream(lemmatizerDictionaryPath));
+            } else {
+              resource = new FileInputStream(lemmatizerDictionaryPath);
+            }
+            try (InputStream in = new BufferedInputStream(resource)) {
+              lemmatizer = dictLemmatizer = new DictionaryLemmatizer(in);
+            }
+          } catch (IOException e) {
+            throw new RuntimeException("Error opening or loading a Lemmatizer from specified resource file!", e);
+          }
         }
-      } catch (IOException e) {
-        throw new RuntimeException("Error opening or loading a Lemmatizer from specified resource file!", e);
       }
     }
-    return lemmatizer;
+    return dictLemmatizer;
   }
 
-  public static POSTaggerME getTagger() {
-    if (tagger == null) {
-      try {
-        tagger = new POSTaggerME(new POSModel(new File(taggerModelPath)));
-      } catch (IOException e) {
-        e.printStackTrace();
+  private static POSModel getTaggerModel() {
+    POSModel model = taggerModel;
+    if (model == null) {
+      synchronized (WSDHelper.class) {
+        model = taggerModel;
+        if (model == null) {
+          try {
+            taggerModel = model = new POSModel(new File(taggerModelPath));
+          } catch (IOException e) {
+            e.printStackTrace();
+          }
+        }
       }
     }
-    return tagger;
+    return model;
   }
 
-  public static TokenizerME getTokenizer() {
-    if (tokenizer == null) {
-      try {
-        tokenizer = new TokenizerME(new TokenizerModel(new FileInputStream(
-            tokenizerModelPath)));
-      } catch (IOException e) {
-        e.printStackTrace();
+  private static TokenizerModel getTokenizerModel() {
+    TokenizerModel model = tokenizerModel;
+    if (model == null) {
+      synchronized (WSDHelper.class) {
+        model = tokenizerModel;
+        if (model == null) {
+          try (InputStream in = new FileInputStream(tokenizerModelPath)) {
+            tokenizerModel = model = new TokenizerModel(in);
+          } catch (IOException e) {
+            e.printStackTrace();
+          }
+        }
       }
     }
-    return tokenizer;
+    return model;
+  }
+
+  /**
+   * Retrieves the tool of the current thread, it is created again when the model
+   * was loaded again since the thread created it.
+   */
+  private static <M, T> T getThreadTool(ThreadLocal<ThreadTool<M, T>> threadTool, M model,
+      Function<M, T> factory) {
+    if (model == null) {
+      return null;
+    }
+
+    ThreadTool<M, T> current = threadTool.get();
+    if (current == null || current.model != model) {
+      current = new ThreadTool<>(model, factory.apply(model));
+      threadTool.set(current);
+    }
+    return current.tool;
+  }
+
+  /**
+   * @return the tagger of the current thread
+   */
+  public static POSTaggerME getTagger() {
+    return getThreadTool(tagger, getTaggerModel(), POSTaggerME::new);
+  }
+
+  /**
+   * @return the tokenizer of the current thread
+   */
+  public static TokenizerME getTokenizer() {
+    return getThreadTool(tokenizer, getTokenizerModel(), TokenizerME::new);
   }
 
   public static TokenizerME loadTokenizer(String path) {
-    tokenizerModelPath = path;
+    synchronized (WSDHelper.class) {
+      if (!path.equals(tokenizerModelPath)) {
+        tokenizerModelPath = path;
+        tokenizerModel = null;
+      }
+    }
     return getTokenizer();
   }
 
   public static POSTaggerME loadTagger(String path) {
-    taggerModelPath = path;
+    synchronized (WSDHelper.class) {
+      if (!path.equals(taggerModelPath)) {
+        taggerModelPath = path;
+        taggerModel = null;
+      }
+    }
     return getTagger();
   }
 
   public static DictionaryLemmatizer loadLemmatizer(String path) {
-    lemmatizerDictionaryPath = path;
+    synchronized (WSDHelper.class) {
+      if (!path.equals(lemmatizerDictionaryPath)) {
+        lemmatizerDictionaryPath = path;
+        lemmatizer = null;
+        englishWords = null;
+      }
+    }
     return getLemmatizer();
   }
 
@@ -623,8 +772,12 @@ public class WSDHelper {
       return null;
     ArrayList<String> stems = new ArrayList<>();
     try {
-      for (POS pos : POS.getAllPOS()) {
-        stems.addAll(WSDHelper.getMorph().lookupAllBaseForms(pos, wordToStem.getWord()));
+      MorphologicalProcessor processor = WSDHelper.getMorph();
+      // the base form lookup of the morphological processor is cached but not thread safe
+      synchronized (processor) {
+        for (POS pos : POS.getAllPOS()) {
+          stems.addAll(processor.lookupAllBaseForms(pos, wordToStem.getWord()));
+        }
       }
 
       if (!stems.isEmpty())
@@ -652,9 +805,8 @@ public class WSDHelper {
       WSDHelper.print("the word is " + wordToStem.getWord());
     }
 
-    Map<String, Map<String, Object>> cache = WSDHelper.getStemCache();
     // check if we already cached the stem map
-    Map<String, Object> posMap = cache.get(wordToStem.getPOS().getKey());
+    Map<String, Object> posMap = stemCache.get(wordToStem.getPOS().getKey());
 
     // don't check words with digits in them
     if (WSDHelper.containsNumbers(wordToStem.getWord())) {
@@ -670,16 +822,28 @@ public class WSDHelper {
       if (stemList != null) {
         // word was recognized and stemmed with wordnet:
         // add it to cache and return the stemmed list
-        posMap.put(wordToStem.getWord(), stemList);
-        cache.put(wordToStem.getPOS().getKey(), posMap);
+        stemList = Collections.unmodifiableList(stemList);
+        putStems(posMap, wordToStem.getWord(), stemList);
         return stemList;
       } else { // could not be stemmed add it anyway (as it is)
-        stemList = new ArrayList<>();
-        stemList.add(wordToStem.getWord());
-        posMap.put(wordToStem.getWord(), stemList);
-        cache.put(wordToStem.getPOS().getKey(), posMap);
+        putStems(posMap, wordToStem.getWord(), List.of(wordToStem.getWord()));
         return null;
       }
     }
   }
+
+  /**
+   * Caches the stems of a word, if the cache is full arbitrary entries are evicted first.
+   * The cached lists are shared by all threads and must not be modified.
+   */
+  private static void putStems(Map<String, Object> posMap, String word, List<String> stems) {
+    if (posMap.size() >= stemCacheSize) {
+      Iterator<String> words = posMap.keySet().iterator();
+      for (int i = posMap.size() - stemCacheSize; i >= 0 && words.hasNext(); i--) {
+        words.next();
+        words.remove();
+      }
+    }
+    posMap.putIfAbsent(word, stems);
+  }
 }
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single file which holds the per word tag {@link WSDModel models}, it is written
+ * by the {@link WSDBulkTrainer}.
+ * <p>
+ * The archive starts with a header of the magic number, the version and the offset of
+ * the index. The serialized models follow each other, the index at the end maps every
+ * word tag to the offset and length of its model. Opening an archive only reads the
+ * index, a model is read when it is requested, usually through a {@link WSDModelCache}.
+ * The archive is safe to be shared between threads.
+ */
+public class WSDModelArchive implements Closeable {
+
+  /**
+   * The name of the archive in a training data directory, which
+   * {@link WSDisambiguatorME} opens by default.
+   */
+  public static final String FILE_NAME = "models.wsd.archive";
+
+  static final int MAGIC = 0x5753444D;
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 16;
+
+  private final FileChannel channel;
+
+  // word tag -> {offset, length}
+  private final Map<String, long[]> index;
+
+  private WSDModelArchive(FileChannel channel, Map<String, long[]> index) {
+    this.channel = channel;
+    this.index = index;
+  }
+
+  /**
+   * Opens a model archive.
+   *
+   * @param file the archive file
+   * @return the archive, it must be closed after use
+   *
+   * @throws IOException if the file cannot be read or is not a model archive
+   */
+  public static WSDModelArchive open(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      readFully(channel, header, 0);
+      header.flip();
+
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not a WSD model archive: " + file);
+      }
+
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported WSD model archive version: " + version);
+      }
+
+      long indexOffset = header.getLong();
+
+      Map<String, long[]> index = new LinkedHashMap<>();
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new EntryInputStream(channel, indexOffset, channel.size() - indexOffset)))) {
+        int models = in.readInt();
+        for (int i = 0; i < models; i++) {
+          index.put(in.readUTF(), new long[] {in.readLong(), in.readLong()});
+        }
+      }
+
+      return new WSDModelArchive(channel, Collections.unmodifiableMap(index));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the word tags which have a model
+   */
+  public Set<String> getWordTags() {
+    return index.keySet();
+  }
+
+  public boolean contains(String wordTag) {
+    return index.containsKey(wordTag);
+  }
+
+  /**
+   * @param wordTag the word tag, e.g. {@code please.v}
+   * @return the size in bytes of the serialized model, or 0 if the word tag has no model
+   */
+  public long getModelSize(String wordTag) {
+    long[] entry = index.get(wordTag);
+    return entry != null ? entry[1] : 0;
+  }
+
+  /**
+   * Reads the model of a word tag.
+   *
+   * @param wordTag the word tag, e.g. {@code please.v}
+   * @return the model or null if the word tag has no model
+   *
+   * @throws IOException if the model cannot be read
+   */
+  public WSDModel readModel(String wordTag) throws IOException {
+    long[] entry = index.get(wordTag);
+
+    if (entry == null) {
+      return null;
+    }
+
+    try (InputStream in = new BufferedInputStream(new EntryInputStream(channel, entry[0], entry[1]))) {
+      return new WSDModel(in);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position);
+      if (count < 0) {
+        throw new EOFException();
+      }
+      position += count;
+    }
+  }
+
+  /**
+   * Reads an entry of the archive with positional reads, so several
+   * models can be read at the same time.
+   */
+  private static class EntryInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private long position;
+    private final long end;
+
+    private EntryInputStream(FileChannel channel, long offset, long length) {
+      this.channel = channel;
+      this.position = offset;
+      this.end = offset + length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (position >= end) {
+        return -1;
+      }
+
+      len = (int) Math.min(len, end - position);
+      int count = channel.read(ByteBuffer.wrap(b, off, len), position);
+      if (count > 0) {
+        position += count;
+      }
+      return count;
+    }
+
+    @Override
+    public void close() {
+      // the channel belongs to the archive
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes a {@link WSDModelArchive}. Models can be added from several threads, each
+ * model is appended as soon as it is added, and the index is written on close.
+ */
+class WSDModelArchiveWriter implements Closeable {
+
+  private final FileChannel channel;
+
+  // word tag -> {offset, length}
+  private final Map<String, long[]> index = new TreeMap<>();
+  private long position = WSDModelArchive.HEADER_SIZE;
+
+  WSDModelArchiveWriter(File archive) throws IOException {
+    channel = FileChannel.open(archive.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Appends a model to the archive.
+   *
+   * @param wordTag the word tag of the model
+   * @param model the model
+   *
+   * @throws IOException if the model cannot be written
+   */
+  void add(String wordTag, WSDModel model) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    model.serialize(bytes);
+    ByteBuffer entry = ByteBuffer.wrap(bytes.toByteArray());
+
+    synchronized (this) {
+      if (index.containsKey(wordTag)) {
+        throw new IllegalArgumentException("The archive already contains a model for " + wordTag);
+      }
+
+      long offset = position;
+      while (entry.hasRemaining()) {
+        position += channel.write(entry, position);
+      }
+      index.put(wordTag, new long[] {offset, entry.limit()});
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      channel.position(position);
+
+      DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel)));
+      out.writeInt(index.size());
+      for (Map.Entry<String, long[]> entry : index.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue()[0]);
+        out.writeLong(entry.getValue()[1]);
+      }
+      out.flush();
+
+      ByteBuffer header = ByteBuffer.allocate(WSDModelArchive.HEADER_SIZE);
+      header.putInt(WSDModelArchive.MAGIC);
+      header.putInt(WSDModelArchive.VERSION);
+      header.putLong(position);
+      header.flip();
+
+      long headerPosition = 0;
+      while (header.hasRemaining()) {
+        headerPosition += channel.write(header, headerPosition);
+      }
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of the per word tag {@link WSDModel models} which are stored
+ * in a training data directory as {@code <wordTag>.wsd.model}, or in
+ * a {@link WSDModelArchive}.
+ * <p>
+ * The cache is safe to be shared between threads. The models are weighted
+ * by the size of their model file, when the total weight exceeds the maximum
+ * weight the least recently used models are evicted. Word tags without
+ * a model file are remembered, so the directory is not checked again
+ * for them until {@link #invalidate()} is called.
+ */
+public class WSDModelCache {
+
+  public static final String MODEL_FILE_EXTENSION = ".wsd.model";
+
+  /**
+   * The default maximum weight is 256 MB of model files.
+   */
+  public static final long DFLT_MAX_WEIGHT = 256L * 1024 * 1024;
+
+  private static class CachedModel {
+    private final WSDModel model;
+    private final long weight;
+
+    CachedModel(WSDModel model, long weight) {
+      this.model = model;
+      this.weight = weight;
+    }
+  }
+
+  private final String trainingDataDirectory;
+  private final WSDModelArchive archive;
+  private final long maxWeight;
+
+  // Guarded by this, iterates from the least to the most recently used model
+  private final LinkedHashMap<String, CachedModel> models = new LinkedHashMap<>(16, 0.75f, true);
+  private long weight;
+
+  private final Set<String> missingModels = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong negativeHitCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
+
+  /**
+   * @param trainingDataDirectory the directory containing the model files,
+   *                              must end with a separator
+   * @param maxWeight             the maximum total size in bytes of the model files
+   *                              of the cached models
+   */
+  public WSDModelCache(String trainingDataDirectory, long maxWeight) {
+    this.trainingDataDirectory = trainingDataDirectory;
+    this.archive = null;
+    this.maxWeight = maxWeight;
+  }
+
+  public WSDModelCache(String trainingDataDirectory) {
+    this(trainingDataDirectory, DFLT_MAX_WEIGHT);
+  }
+
+  /**
+   * @param archive   the archive containing the models, the models are weighted
+   *                  by their size in the archive
+   * @param maxWeight the maximum total size in bytes of the cached models
+   */
+  public WSDModelCache(WSDModelArchive archive, long maxWeight) {
+    this.trainingDataDirectory = null;
+    this.archive = archive;
+    this.maxWeight = maxWeight;
+  }
+
+  public WSDModelCache(WSDModelArchive archive) {
+    this(archive, DFLT_MAX_WEIGHT);
+  }
+
+  /**
+   * @return the training data directory or null if the models are read from an archive
+   */
+  public String getTrainingDataDirectory() {
+    return trainingDataDirectory;
+  }
+
+  /**
+   * @return the archive or null if the models are read from the training data directory
+   */
+  public WSDModelArchive getArchive() {
+    return archive;
+  }
+
+  private File getModelFile(String wordTag) {
+    return new File(trainingDataDirectory + wordTag + MODEL_FILE_EXTENSION);
+  }
+
+  /**
+   * Retrieves the model of a word tag, the model is loaded
+   * if it is not cached.
+   *
+   * @param wordTag the word tag, e.g. {@code please.v}
+   * @return the model or null if the word tag has no model
+   * @throws IOException if the model file cannot be read
+   */
+  public WSDModel getModel(String wordTag) throws IOException {
+
+    CachedModel cachedModel;
+    synchronized (this) {
+      cachedModel = models.get(wordTag);
+    }
+
+    if (cachedModel != null) {
+      hitCount.incrementAndGet();
+      return cachedModel.model;
+    }
+
+    if (missingModels.contains(wordTag)) {
+      negativeHitCount.incrementAndGet();
+      return null;
+    }
+
+    // Only one thread loads a model, the others wait for it
+    synchronized (loadLocks.computeIfAbsent(wordTag, k -> new Object())) {
+      try {
+        synchronized (this) {
+          cachedModel = models.get(wordTag);
+        }
+
+        if (cachedModel != null) {
+          hitCount.incrementAndGet();
+          return cachedModel.model;
+        }
+
+        // The thread which held the lock may have found no model
+        if (missingModels.contains(wordTag)) {
+          negativeHitCount.incrementAndGet();
+          return null;
+        }
+
+        missCount.incrementAndGet();
+
+        return load(wordTag);
+      } finally {
+        loadLocks.remove(wordTag);
+      }
+    }
+  }
+
+  private WSDModel load(String wordTag) throws IOException {
+
+    File file = null;
+    long modelWeight;
+
+    if (archive != null) {
+      modelWeight = archive.getModelSize(wordTag);
+    } else {
+      file = getModelFile(wordTag);
+      modelWeight = file.isFile() ? file.length() : 0;
+    }
+
+    if (modelWeight == 0) {
+      missingModels.add(wordTag);
+      return null;
+    }
+
+    long startTime = System.nanoTime();
+
+    WSDModel model = archive != null ? archive.readModel(wordTag) : new WSDModel(file);
+
+    totalLoadTime.addAndGet(System.nanoTime() - startTime);
+    loadCount.incrementAndGet();
+
+    synchronized (this) {
+      CachedModel oldModel = models.put(wordTag, new CachedModel(model, modelWeight));
+
+      if (oldModel != null) {
+        weight -= oldModel.weight;
+      }
+
+      weight += modelWeight;
+      evict();
+    }
+
+    return model;
+  }
+
+  // Must be called while holding the lock on this
+  private void evict() {
+
+    Iterator<CachedModel> it = models.values().iterator();
+
+    // The most recently used model is kept, even if it exceeds the weight alone
+    while (weight > maxWeight && models.size() > 1) {
+      weight -= it.next().weight;
+      it.remove();
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Loads the models in the training data directory, or in the archive, until
+   * the maximum weight is reached.
+   *
+   * @return the number of loaded models
+   * @throws IOException if a model file cannot be read
+   */
+  public int warmUp() throws IOException {
+
+    if (archive != null) {
+      int count = 0;
+      long totalWeight = 0;
+
+      for (String wordTag : archive.getWordTags()) {
+        totalWeight += archive.getModelSize(wordTag);
+
+        if (totalWeight > maxWeight) {
+          break;
+        }
+
+        if (getModel(wordTag) != null) {
+          count++;
+        }
+      }
+
+      return count;
+    }
+
+    File[] modelFiles = new File(trainingDataDirectory).listFiles(
+        (dir, name) -> name.endsWith(MODEL_FILE_EXTENSION));
+
+    int count = 0;
+
+    if (modelFiles != null) {
+      long totalWeight = 0;
+
+      for (File modelFile : modelFiles) {
+        totalWeight += modelFile.length();
+
+        if (totalWeight > maxWeight) {
+          break;
+        }
+
+        String name = modelFile.getName();
+        if (getModel(name.substring(0, name.length() - MODEL_FILE_EXTENSION.length())) != null) {
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Removes all cached models and forgets the word tags without a model,
+   * e.g. after new models were trained.
+   */
+  public synchronized void invalidate() {
+    models.clear();
+    weight = 0;
+    missingModels.clear();
+  }
+
+  public synchronized int getModelCount() {
+    return models.size();
+  }
+
+  /**
+   * @return the total size in bytes of the model files of the cached models
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * @return the number of requests for word tags which are known to have no model
+   */
+  public long getNegativeHitCount() {
+    return negativeHitCount.get();
+  }
+
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * @return the share of requests which were answered without reading a file
+   */
+  public double getHitRate() {
+    long hits = hitCount.get() + negativeHitCount.get();
+    long requests = hits + missCount.get();
+    return requests > 0 ? (double) hits / requests : 0;
+  }
+
+  /**
+   * @return the average time in milliseconds to load a model
+   */
+  public double getAverageLoadTime() {
+    long loads = loadCount.get();
+    return loads > 0 ? totalLoadTime.get() / 1e6 / loads : 0;
+  }
+
+  @Override
+  public String toString() {
+    return "WSDModelCache{models=" + getModelCount() + ", weight=" + getWeight()
+        + ", hitRate=" + getHitRate() + ", averageLoadTime=" + getAverageLoadTime() + "ms}";
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A sentence whose words are disambiguated together. The context features which
+ * do not depend on the target word are computed once and shared by all target words
+ * of the sentence:
+ * <ul>
+ * <li>the relevant words, i.e. the non stop words with a relevant POS tag, used by
+ * {@link Lesk}; their stems are looked up only once per sentence</li>
+ * <li>the surrounding words, i.e. the normalized lemmas of the non stop words, used by
+ * the {@link IMSWSDContextGenerator}</li>
+ * </ul>
+ */
+public class WSDSentence {
+
+  private static final Pattern NON_LEMMA_CHARS = Pattern.compile("[^a-z_]");
+
+  private final String[] tokens;
+  private final String[] tags;
+  private final String[] lemmas;
+
+  private final WordPOS[] relevantWords;
+
+  private final String[] surroundingWords;
+  private final Map<String, Integer> surroundingWordCounts = new HashMap<>();
+
+  public WSDSentence(String[] tokens, String[] tags, String[] lemmas) {
+    if (tokens.length != tags.length || (lemmas != null && tokens.length != lemmas.length)) {
+      throw new IllegalArgumentException("The tokens, tags and lemmas must have the same length!");
+    }
+
+    this.tokens = tokens;
+    this.tags = tags;
+    this.lemmas = lemmas;
+
+    relevantWords = new WordPOS[tokens.length];
+    surroundingWords = new String[tokens.length];
+
+    for (int i = 0; i < tokens.length; i++) {
+      if (!WSDHelper.getStopCache().containsKey(tokens[i])
+          && WSDHelper.getRelvCache().containsKey(tags[i])) {
+        relevantWords[i] = new WordPOS(tokens[i], tags[i]);
+      }
+
+      // Same normalization as IMSWSDContextGenerator.extractSurroundingContext
+      if (lemmas != null && !WSDHelper.STOP_WORDS.contains(tokens[i].toLowerCase())) {
+        String lemma = NON_LEMMA_CHARS.matcher(lemmas[i].toLowerCase()).replaceAll("").trim();
+
+        if (lemma.length() > 1) {
+          surroundingWords[i] = lemma;
+          surroundingWordCounts.merge(lemma, 1, Integer::sum);
+        }
+      }
+    }
+  }
+
+  public String[] getTokens() {
+    return tokens;
+  }
+
+  public String[] getTags() {
+    return tags;
+  }
+
+  public String[] getLemmas() {
+    return lemmas;
+  }
+
+  public int size() {
+    return tokens.length;
+  }
+
+  /**
+   * @param index the index of the target word
+   * @return a sample for the target word
+   */
+  public WSDSample getSample(int index) {
+    return new WSDSample(tokens, tags, lemmas, index);
+  }
+
+  /**
+   * @return the relevant words of the whole sentence, including the target word
+   */
+  public ArrayList<WordPOS> getRelevantWords() {
+    ArrayList<WordPOS> words = new ArrayList<>();
+
+    for (WordPOS word : relevantWords) {
+      if (word != null) {
+        words.add(word);
+      }
+    }
+
+    return words;
+  }
+
+  /**
+   * @param index the index of the target word
+   * @param before the number of words before the target word
+   * @param after the number of words after the target word
+   * @return the relevant words in the window around the target word, without the target word
+   */
+  public ArrayList<WordPOS> getRelevantWords(int index, int before, int after) {
+    ArrayList<WordPOS> words = new ArrayList<>();
+
+    for (int i = Math.max(0, index - before); i <= index + after && i < relevantWords.length; i++) {
+      if (i != index && relevantWords[i] != null) {
+        words.add(relevantWords[i]);
+      }
+    }
+
+    return words;
+  }
+
+  /**
+   * Checks if a word surrounds the target word, that is the normalized lemma of another
+   * word of the sentence equals it.
+   *
+   * @param index the index of the target word
+   * @param word the normalized lemma
+   * @return true if the word is in the surrounding context of the target word
+   */
+  public boolean isSurroundingWord(int index, String word) {
+    int count = surroundingWordCounts.getOrDefault(word, 0);
+
+    if (word.equals(surroundingWords[index])) {
+      count--;
+    }
+
+    return count > 0;
+  }
+}
@@ -22,6 +22,10 @@ package opennlp.tools.disambiguator;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
 import opennlp.tools.util.Span;
 
 /**
@@ -144,6 +148,92 @@ public abstract class WSDisambiguator {
     return senses;
   }
 
+  /**
+   * Disambiguates all the words of a sentence in one pass, the context features
+   * which are shared by the words are computed only once.
+   *
+   * @param tokens the tokens of the sentence
+   * @param tags the tags corresponding to the tokens
+   * @param lemmas the lemmas of the tokens
+   * @return the sense of every token, {@code null} for tokens without a sense
+   */
+  public List<String> disambiguateAll(String[] tokens, String[] tags, String[] lemmas) {
+    return disambiguateAll(new WSDSentence(tokens, tags, lemmas));
+  }
+
+  /**
+   * Disambiguates all the words of a sentence in one pass.
+   *
+   * @param sentence the sentence
+   * @return the sense of every token, {@code null} for tokens without a sense
+   */
+  public List<String> disambiguateAll(WSDSentence sentence) {
+
+    List<String> senses = new ArrayList<>(sentence.size());
+
+    for (int i = 0; i < sentence.size(); i++) {
+      String tag = sentence.getTags()[i];
+
+      if (WSDHelper.isRelevantPOSTag(tag)) {
+        senses.add(disambiguate(sentence, i));
+      } else {
+        if (WSDHelper.getNonRelevWordsDef(tag) != null) {
+          senses.add(WSDParameters.SenseSource.WSDHELPER.name() + " "
+              + WSDHelper.getNonRelevWordsDef(tag));
+        } else {
+          senses.add(null);
+        }
+      }
+    }
+
+    return senses;
+  }
+
+  /**
+   * Disambiguates the sentences in parallel, one task per sentence. The
+   * disambiguator must be safe to be used by several threads at once.
+   *
+   * @param sentences the sentences
+   * @param executor runs the tasks
+   * @return the senses of every sentence in the order of the sentences
+   */
+  public List<List<String>> disambiguateAll(List<WSDSentence> sentences,
+      ExecutorService executor) {
+
+    List<CompletableFuture<List<String>>> futures = new ArrayList<>(sentences.size());
+
+    for (WSDSentence sentence : sentences) {
+      futures.add(CompletableFuture.supplyAsync(() -> disambiguateAll(sentence), executor));
+    }
+
+    List<List<String>> senses = new ArrayList<>(sentences.size());
+
+    try {
+      for (CompletableFuture<List<String>> future : futures) {
+        senses.add(future.join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+
+    return senses;
+  }
+
+  /**
+   * Disambiguates one relevant word of a sentence. Implementations should use the
+   * shared context of the sentence, by default a sample is created for the word.
+   *
+   * @param sentence the sentence
+   * @param index the index of the word to disambiguate
+   * @return result as an array of WordNet IDs
+   */
+  protected String disambiguate(WSDSentence sentence, int index) {
+    return disambiguate(sentence.getSample(index));
+  }
+
   /**
    * @param sample
    * @return result as an array of WordNet IDs
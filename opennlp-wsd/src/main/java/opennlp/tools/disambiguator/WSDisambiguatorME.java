@@ -25,6 +25,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.ObjectStreamUtils;
 import opennlp.tools.util.TrainingParameters;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -32,11 +33,16 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
-public class WSDisambiguatorME extends WSDisambiguator {
+public class WSDisambiguatorME extends WSDisambiguator implements Closeable {
 
   protected WSDModel model;
 
-  protected static final WSDContextGenerator CONTEXT_GENERATOR = new IMSWSDContextGenerator();
+  private volatile WSDModelCache modelCache;
+
+  // The archive which was opened for the default model cache, guarded by this
+  private WSDModelArchive openedArchive;
+
+  protected static final IMSWSDContextGenerator CONTEXT_GENERATOR = new IMSWSDContextGenerator();
 
   public WSDisambiguatorME(WSDParameters params) {
     this.params = params;
@@ -115,72 +121,99 @@ public class WSDisambiguatorME extends WSDisambiguator {
     return surroundingWordsModel;
   }
 
-  @Override
-  public String disambiguate(WSDSample sample) {
-    if (WSDHelper.isRelevantPOSTag(sample.getTargetTag())) {
-      String wordTag = sample.getTargetWordTag();
-
-      if (model == null || !model.getWordTag()
-        .equals(sample.getTargetWordTag())) {
-
-        String trainingFile =
-          ((WSDDefaultParameters) this.getParams()).getTrainingDataDirectory()
-            + sample.getTargetWordTag();
+  /**
+   * Retrieves the model cache, by default a cache of the training data
+   * directory of the parameters is created on first use. If the directory
+   * contains a {@link WSDModelArchive#FILE_NAME model archive} the models
+   * are read from the archive, it stays open until {@link #close()} is called.
+   */
+  public WSDModelCache getModelCache() {
+    WSDModelCache cache = modelCache;
+
+    if (cache == null) {
+      synchronized (this) {
+        if (modelCache == null) {
+          String trainingDataDirectory =
+            ((WSDDefaultParameters) this.getParams()).getTrainingDataDirectory();
+          File archiveFile = new File(trainingDataDirectory + WSDModelArchive.FILE_NAME);
+
+          if (archiveFile.isFile()) {
+            try {
+              openedArchive = WSDModelArchive.open(archiveFile);
+              modelCache = new WSDModelCache(openedArchive);
+            } catch (IOException e) {
+              e.printStackTrace();
+            }
+          }
 
-        File file = new File(trainingFile + ".wsd.model");
-        if (file.exists() && !file.isDirectory()) {
-          try {
-            setModel(new WSDModel(file));
-          } catch (IOException e) {
-            e.printStackTrace();
+          if (modelCache == null) {
+            modelCache = new WSDModelCache(trainingDataDirectory);
           }
+        }
+        cache = modelCache;
+      }
+    }
 
-          String outcome;
+    return cache;
+  }
 
-          String[] context = CONTEXT_GENERATOR
-            .getContext(sample, ((WSDDefaultParameters) this.params).ngram,
-              ((WSDDefaultParameters) this.params).windowSize,
-              this.model.getContextEntries());
+  /**
+   * Sets the model cache, a cache can be shared by several disambiguators
+   * which use the same training data directory.
+   */
+  public void setModelCache(WSDModelCache modelCache) {
+    this.modelCache = modelCache;
+  }
 
-          double[] outcomeProbs = model.getWSDMaxentModel().eval(context);
-          outcome = model.getWSDMaxentModel().getBestOutcome(outcomeProbs);
+  /**
+   * Closes the model archive which was opened for the default model cache,
+   * a cache which was set with {@link #setModelCache(WSDModelCache)} is not closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (openedArchive != null) {
+      try {
+        openedArchive.close();
+      } finally {
+        if (modelCache != null && modelCache.getArchive() == openedArchive) {
+          modelCache = null;
+        }
+        openedArchive = null;
+      }
+    }
+  }
 
-          if (outcome != null && !outcome.isEmpty()) {
+  private WSDModel getModel(String wordTag) {
+    WSDModel wordModel = this.model;
 
-            return this.getParams().getSenseSource().name() + " " + wordTag
-              .split("\\.")[0] + "%" + outcome;
+    if (wordModel != null && wordModel.getWordTag().equals(wordTag)) {
+      return wordModel;
+    }
 
-          } else {
-            MFS mfs = new MFS();
-            return mfs.disambiguate(wordTag);
-          }
+    try {
+      return getModelCache().getModel(wordTag);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
 
-        } else {
+  @Override
+  public String disambiguate(WSDSample sample) {
+    if (WSDHelper.isRelevantPOSTag(sample.getTargetTag())) {
+      String wordTag = sample.getTargetWordTag();
 
-          MFS mfs = new MFS();
-          return mfs.disambiguate(wordTag);
-        }
-      } else {
-        String outcome;
+      WSDModel wordModel = getModel(wordTag);
 
-        String[] context = CONTEXT_GENERATOR
+      String[] context = null;
+      if (wordModel != null) {
+        context = CONTEXT_GENERATOR
           .getContext(sample, ((WSDDefaultParameters) this.params).ngram,
             ((WSDDefaultParameters) this.params).windowSize,
-            this.model.getContextEntries());
-
-        double[] outcomeProbs = model.getWSDMaxentModel().eval(context);
-        outcome = model.getWSDMaxentModel().getBestOutcome(outcomeProbs);
-
-        if (outcome != null && !outcome.isEmpty()) {
-
-          return this.getParams().getSenseSource().name() + " " + wordTag
-            .split("\\.")[0] + "%" + outcome;
-        } else {
-
-          MFS mfs = new MFS();
-          return mfs.disambiguate(wordTag);
-        }
+            wordModel.getContextEntries());
       }
+
+      return disambiguate(wordTag, wordModel, context);
     } else {
 
       if (WSDHelper.getNonRelevWordsDef(sample.getTargetTag()) != null) {
@@ -194,6 +227,44 @@ public class WSDisambiguatorME extends WSDisambiguator {
 
   }
 
+  /**
+   * Disambiguates a relevant word of a sentence, the surrounding words
+   * are taken from the shared context of the sentence.
+   */
+  @Override
+  protected String disambiguate(WSDSentence sentence, int index) {
+    String wordTag = sentence.getSample(index).getTargetWordTag();
+
+    WSDModel wordModel = getModel(wordTag);
+
+    String[] context = null;
+    if (wordModel != null) {
+      context = CONTEXT_GENERATOR
+        .getContext(sentence, index, ((WSDDefaultParameters) this.params).ngram,
+          ((WSDDefaultParameters) this.params).windowSize,
+          wordModel.getContextEntries());
+    }
+
+    return disambiguate(wordTag, wordModel, context);
+  }
+
+  private String disambiguate(String wordTag, WSDModel wordModel, String[] context) {
+
+    if (wordModel != null) {
+      double[] outcomeProbs = wordModel.getWSDMaxentModel().eval(context);
+      String outcome = wordModel.getWSDMaxentModel().getBestOutcome(outcomeProbs);
+
+      if (outcome != null && !outcome.isEmpty()) {
+
+        return this.getParams().getSenseSource().name() + " " + wordTag
+          .split("\\.")[0] + "%" + outcome;
+      }
+    }
+
+    MFS mfs = new MFS();
+    return mfs.disambiguate(wordTag);
+  }
+
   /**
    * The IMS disambiguation method for a single word
    *
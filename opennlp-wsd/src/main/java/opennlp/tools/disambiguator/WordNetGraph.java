@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Synset;
+
+/**
+ * A precomputed, read only graph of the WordNet synsets which is memory mapped
+ * from a file written by the {@link WordNetGraphBuilder}.
+ * <p>
+ * The synsets are identified by int ids. For every {@link WordNetRelation} the
+ * related synsets are stored as adjacency arrays in compressed sparse row layout.
+ * The relevant words of every gloss are stored as word ids, and every word has the
+ * sorted ids of its lower cased stems. Two words are stem equivalent if their stem
+ * ids intersect, which is how {@link WordPOS#isStemEquivalent(WordPOS)} compares them.
+ * <p>
+ * The graph is immutable and can be shared by several threads.
+ */
+public class WordNetGraph {
+
+  static final int MAGIC = 0x574E4731;
+  static final int VERSION = 1;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final int synsetCount;
+
+  private final IntBuffer synsetPos;
+  private final LongBuffer synsetOffsets;
+
+  // The first synset id of every POS, the synsets are ordered by POS and offset
+  private final int[] posStart;
+
+  private final IntBuffer[] relationOffsets = new IntBuffer[WordNetRelation.values().length];
+  private final IntBuffer[] relationTargets = new IntBuffer[WordNetRelation.values().length];
+
+  private final IntBuffer glossOffsets;
+  private final IntBuffer glossWords;
+
+  private final IntBuffer stemOffsets;
+  private final IntBuffer stems;
+
+  private final Map<String, Integer> stemIds;
+
+  private WordNetGraph(MappedByteBuffer buffer, File graphFile) throws IOException {
+
+    if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      throw new IOException("Not a WordNet graph: " + graphFile);
+    }
+
+    synsetCount = buffer.getInt();
+    int wordCount = buffer.getInt();
+    int stemCount = buffer.getInt();
+
+    synsetPos = sliceInts(buffer, synsetCount);
+    synsetOffsets = sliceLongs(buffer, synsetCount);
+
+    List<POS> allPos = POS.getAllPOS();
+    posStart = new int[allPos.size() + 1];
+    for (int pos = 0, id = 0; pos <= allPos.size(); pos++) {
+      while (id < synsetCount && synsetPos.get(id) < pos) {
+        id++;
+      }
+      posStart[pos] = id;
+    }
+
+    for (WordNetRelation relation : WordNetRelation.values()) {
+      relationOffsets[relation.ordinal()] = sliceInts(buffer, synsetCount + 1);
+      relationTargets[relation.ordinal()] = sliceInts(buffer,
+          relationOffsets[relation.ordinal()].get(synsetCount));
+    }
+
+    glossOffsets = sliceInts(buffer, synsetCount + 1);
+    glossWords = sliceInts(buffer, glossOffsets.get(synsetCount));
+
+    stemOffsets = sliceInts(buffer, wordCount + 1);
+    stems = sliceInts(buffer, stemOffsets.get(wordCount));
+
+    // The stem strings are only read once to look up the stems of the context words
+    stemIds = new HashMap<>(stemCount * 2);
+    try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer))) {
+      for (int i = 0; i < stemCount; i++) {
+        stemIds.put(in.readUTF(), i);
+      }
+    }
+  }
+
+  /**
+   * Reads the remaining bytes of a buffer without copying them first.
+   */
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+  }
+
+  private static IntBuffer sliceInts(ByteBuffer buffer, int count) {
+    IntBuffer ints = buffer.slice().limit(count * Integer.BYTES).asIntBuffer();
+    buffer.position(buffer.position() + count * Integer.BYTES);
+    return ints;
+  }
+
+  private static LongBuffer sliceLongs(ByteBuffer buffer, int count) {
+    LongBuffer longs = buffer.slice().limit(count * Long.BYTES).asLongBuffer();
+    buffer.position(buffer.position() + count * Long.BYTES);
+    return longs;
+  }
+
+  /**
+   * Memory maps a graph file.
+   *
+   * @param graphFile the file written by the {@link WordNetGraphBuilder}
+   * @return the graph
+   * @throws IOException if the file cannot be mapped or is not a graph
+   */
+  public static WordNetGraph open(File graphFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(graphFile.toPath(), StandardOpenOption.READ)) {
+      return new WordNetGraph(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+          graphFile);
+    }
+  }
+
+  public int getSynsetCount() {
+    return synsetCount;
+  }
+
+  /**
+   * @param synset the synset
+   * @return the id of the synset or -1 if it is not in the graph
+   */
+  public int getSynsetId(Synset synset) {
+    int pos = POS.getAllPOS().indexOf(synset.getPOS());
+
+    if (pos < 0) {
+      return -1;
+    }
+
+    long offset = synset.getOffset();
+
+    int low = posStart[pos];
+    int high = posStart[pos + 1] - 1;
+
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midOffset = synsetOffsets.get(mid);
+
+      if (midOffset < offset) {
+        low = mid + 1;
+      } else if (midOffset > offset) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+
+    return -1;
+  }
+
+  private static int[] get(IntBuffer offsets, IntBuffer values, int index) {
+    int start = offsets.get(index);
+    int end = offsets.get(index + 1);
+
+    if (start == end) {
+      return EMPTY;
+    }
+
+    int[] result = new int[end - start];
+    values.get(start, result);
+    return result;
+  }
+
+  /**
+   * @param synsetId the id of the synset
+   * @param relation the relation
+   * @return the ids of the related synsets
+   */
+  public int[] getRelated(int synsetId, WordNetRelation relation) {
+    return get(relationOffsets[relation.ordinal()], relationTargets[relation.ordinal()], synsetId);
+  }
+
+  /**
+   * @param synsetId the id of the synset
+   * @return the word ids of the relevant words of the gloss
+   */
+  public int[] getGlossWords(int synsetId) {
+    return get(glossOffsets, glossWords, synsetId);
+  }
+
+  /**
+   * @param wordId the id of a gloss word
+   * @return the sorted stem ids of the word
+   */
+  public int[] getStems(int wordId) {
+    return get(stemOffsets, stems, wordId);
+  }
+
+  /**
+   * Looks up the stems of a word which is not part of the graph, e.g. a context word.
+   * Stems which do not occur in any gloss are left out, they cannot overlap.
+   *
+   * @param word the word
+   * @return the sorted stem ids of the word
+   */
+  public int[] getStemIds(WordPOS word) {
+    List<String> wordStems = OverlapScorer.getNormalizedStems(word);
+
+    int[] ids = new int[wordStems.size()];
+    int count = 0;
+
+    for (String stem : wordStems) {
+      Integer id = stemIds.get(stem);
+      if (id != null) {
+        ids[count++] = id;
+      }
+    }
+
+    ids = Arrays.copyOf(ids, count);
+    Arrays.sort(ids);
+    return ids;
+  }
+}
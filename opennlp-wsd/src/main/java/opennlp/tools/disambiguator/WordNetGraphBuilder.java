@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Synset;
+import net.sf.extjwnl.dictionary.Dictionary;
+
+import opennlp.tools.tokenize.Tokenizer;
+
+/**
+ * Compiles the WordNet synsets, their relations and the stems of the relevant words
+ * of their glosses into a {@link WordNetGraph} file.
+ * <p>
+ * The relations are retrieved like {@link SynNode} does, the gloss words are
+ * tokenized and filtered like {@link WSDHelper#getAllRelevantWords(String[])} does,
+ * so the graph gives the same overlaps as the JWNL based scoring. The tokenizer
+ * and the tagger of the {@link WSDHelper} must be loaded.
+ * <p>
+ * The graph file has this layout, all numbers are big endian:
+ * <pre>
+ * int magic, int version, int synsetCount, int wordCount, int stemCount
+ * int[synsetCount] POS index, long[synsetCount] offset
+ * for every relation: int[synsetCount + 1] offsets, int[] related synset ids
+ * int[synsetCount + 1] offsets, int[] gloss word ids
+ * int[wordCount + 1] offsets, int[] stem ids
+ * stemCount modified UTF-8 stems
+ * </pre>
+ */
+public class WordNetGraphBuilder {
+
+  private final Dictionary dictionary;
+  private final Tokenizer tokenizer;
+
+  private final Map<String, Integer> wordIds = new HashMap<>();
+  private final List<int[]> wordStems = new ArrayList<>();
+
+  private final Map<String, Integer> stemIds = new HashMap<>();
+  private final List<String> stems = new ArrayList<>();
+
+  public WordNetGraphBuilder(Dictionary dictionary, Tokenizer tokenizer) {
+    this.dictionary = dictionary;
+    this.tokenizer = tokenizer;
+  }
+
+  public WordNetGraphBuilder() {
+    this(WSDHelper.getDictionary(), WSDHelper.getTokenizer());
+  }
+
+  private static long getKey(int pos, long offset) {
+    return ((long) pos << 40) | offset;
+  }
+
+  private int getWordId(WordPOS word) {
+    Integer id = wordIds.get(word.getWord());
+
+    if (id == null) {
+      List<String> normalizedStems = OverlapScorer.getNormalizedStems(word);
+
+      int[] ids = new int[normalizedStems.size()];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = stemIds.computeIfAbsent(normalizedStems.get(i), stem -> {
+          stems.add(stem);
+          return stems.size() - 1;
+        });
+      }
+      Arrays.sort(ids);
+
+      id = wordStems.size();
+      wordStems.add(ids);
+      wordIds.put(word.getWord(), id);
+    }
+
+    return id;
+  }
+
+  private static void writeAdjacency(DataOutputStream out, List<int[]> rows) throws IOException {
+    int offset = 0;
+
+    out.writeInt(offset);
+    for (int[] row : rows) {
+      offset += row.length;
+      out.writeInt(offset);
+    }
+
+    for (int[] row : rows) {
+      for (int value : row) {
+        out.writeInt(value);
+      }
+    }
+  }
+
+  /**
+   * Builds the graph and writes it to a file.
+   *
+   * @param graphFile the file to write
+   * @throws IOException if the file cannot be written
+   * @throws JWNLException if the synsets cannot be read
+   */
+  public void build(File graphFile) throws IOException, JWNLException {
+
+    List<Synset> synsets = new ArrayList<>();
+    for (POS pos : POS.getAllPOS()) {
+      for (Iterator<Synset> it = dictionary.getSynsetIterator(pos); it.hasNext(); ) {
+        synsets.add(it.next());
+      }
+    }
+
+    build(graphFile, synsets);
+  }
+
+  /**
+   * Builds the graph of a subset of the synsets and writes it to a file. The
+   * relations to synsets outside of the subset are left out.
+   *
+   * @param graphFile the file to write
+   * @param selectedSynsets the synsets of the graph
+   * @throws IOException if the file cannot be written
+   */
+  void build(File graphFile, Collection<Synset> selectedSynsets) throws IOException {
+
+    List<POS> allPos = POS.getAllPOS();
+
+    // Order the synsets by POS and offset, the graph looks them up by binary search
+    List<Synset> synsets = new ArrayList<>(selectedSynsets);
+    synsets.sort(Comparator.<Synset>comparingInt(synset -> allPos.indexOf(synset.getPOS()))
+        .thenComparingLong(Synset::getOffset));
+
+    Map<Long, Integer> synsetIds = new HashMap<>();
+    for (int i = 0; i < synsets.size(); i++) {
+      Synset synset = synsets.get(i);
+      synsetIds.put(getKey(allPos.indexOf(synset.getPOS()), synset.getOffset()), i);
+    }
+
+    List<List<int[]>> relations = new ArrayList<>();
+    for (int i = 0; i < WordNetRelation.values().length; i++) {
+      relations.add(new ArrayList<>(synsets.size()));
+    }
+
+    List<int[]> glosses = new ArrayList<>(synsets.size());
+
+    for (Synset synset : synsets) {
+      for (WordNetRelation relation : WordNetRelation.values()) {
+        List<Synset> related = relation.getSynsets(new SynNode(synset, null));
+
+        int[] ids = new int[related.size()];
+        int count = 0;
+        for (Synset relatedSynset : related) {
+          Integer id = synsetIds.get(getKey(allPos.indexOf(relatedSynset.getPOS()),
+              relatedSynset.getOffset()));
+          if (id != null) {
+            ids[count++] = id;
+          }
+        }
+
+        relations.get(relation.ordinal()).add(Arrays.copyOf(ids, count));
+      }
+
+      List<WordPOS> glossWords = WSDHelper.getAllRelevantWords(tokenizer.tokenize(synset.getGloss()));
+
+      int[] gloss = new int[glossWords.size()];
+      for (int i = 0; i < gloss.length; i++) {
+        gloss[i] = getWordId(glossWords.get(i));
+      }
+      glosses.add(gloss);
+    }
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(graphFile)))) {
+      out.writeInt(WordNetGraph.MAGIC);
+      out.writeInt(WordNetGraph.VERSION);
+      out.writeInt(synsets.size());
+      out.writeInt(wordStems.size());
+      out.writeInt(stems.size());
+
+      for (Synset synset : synsets) {
+        out.writeInt(allPos.indexOf(synset.getPOS()));
+      }
+      for (Synset synset : synsets) {
+        out.writeLong(synset.getOffset());
+      }
+
+      for (List<int[]> relation : relations) {
+        writeAdjacency(out, relation);
+      }
+
+      writeAdjacency(out, glosses);
+      writeAdjacency(out, wordStems);
+
+      for (String stem : stems) {
+        out.writeUTF(stem);
+      }
+    }
+  }
+}
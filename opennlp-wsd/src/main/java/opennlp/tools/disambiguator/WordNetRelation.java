@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.ArrayList;
+
+import net.sf.extjwnl.data.Synset;
+
+/**
+ * The semantic relations between synsets which are used by the
+ * extended {@link Lesk} variants. The order matches the order of the
+ * relation features in {@link LeskParameters#getFeatures()}, which
+ * start with the synonyms.
+ */
+public enum WordNetRelation {
+  HYPERNYM, HYPONYM, MERONYM, HOLONYM, ENTAILMENT, COORDINATE_TERM, CAUSE, ATTRIBUTE, PERTAINYM;
+
+  /**
+   * @return the index of the feature which enables this relation
+   */
+  public int getFeatureIndex() {
+    return ordinal() + 1;
+  }
+
+  /**
+   * Retrieves the related synsets from a node.
+   *
+   * @param node the node whose relations were set
+   * @return the related synsets
+   */
+  ArrayList<Synset> getSynsets(SynNode node) {
+    switch (this) {
+      case HYPERNYM:
+        node.setHypernyms();
+        return node.getHypernyms();
+      case HYPONYM:
+        node.setHyponyms();
+        return node.getHyponyms();
+      case MERONYM:
+        node.setMeronyms();
+        return node.getMeronyms();
+      case HOLONYM:
+        node.setHolonyms();
+        return node.getHolonyms();
+      case ENTAILMENT:
+        node.setEntailements();
+        return node.getEntailments();
+      case COORDINATE_TERM:
+        node.setCoordinateTerms();
+        return node.getCoordinateTerms();
+      case CAUSE:
+        node.setCauses();
+        return node.getCauses();
+      case ATTRIBUTE:
+        node.setAttributes();
+        return node.getAttributes();
+      case PERTAINYM:
+        node.setPertainyms();
+        return node.getPertainyms();
+      default:
+        throw new IllegalStateException("Unknown relation " + this);
+    }
+  }
+}
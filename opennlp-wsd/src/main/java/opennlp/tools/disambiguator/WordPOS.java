@@ -100,13 +100,11 @@ public class WordPOS {
   // uses Stemming to check if two words are equivalent
   public boolean isStemEquivalent(WordPOS wordToCompare) {
     // check if there is intersection in the stems;
-    List<String> listToCompare = wordToCompare.getStems();
-
-    if (this.getStems() == null || listToCompare == null) {
+    // the stem lists are shared through the stem cache, compare the lower cased copies
+    if (this.getStems() == null || wordToCompare.getStems() == null) {
       return false;
     } else {
-      listToCompare.replaceAll(String::toLowerCase);
-      return !Collections.disjoint(stemsLowerCased, listToCompare);
+      return !Collections.disjoint(stemsLowerCased, wordToCompare.stemsLowerCased);
     }
   }
 
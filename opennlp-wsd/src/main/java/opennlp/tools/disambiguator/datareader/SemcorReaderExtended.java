@@ -22,13 +22,19 @@ package opennlp.tools.disambiguator.datareader;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 
 import opennlp.tools.disambiguator.WSDHelper;
 import opennlp.tools.disambiguator.WSDSample;
@@ -43,6 +49,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 /**
  * This class reads Semcor data.
@@ -87,8 +94,10 @@ public class SemcorReaderExtended {
 
   /**
    * This serves to read one Semcor XML file
+   *
+   * @throws IOException if the file cannot be read or parsed
    */
-  private ArrayList<Sentence> readFile(String file) {
+  private ArrayList<Sentence> readFile(String file) throws IOException {
     ArrayList<Sentence> result = new ArrayList<>();
     final EntityResolver noop = (publicId, systemId) -> new InputSource(new StringReader(""));
     try (InputStream xmlFile = new BufferedInputStream(new FileInputStream(file))) {
@@ -177,9 +186,8 @@ public class SemcorReaderExtended {
           }
         }
       }
-    } catch (Exception e) {
-      WSDHelper.print("Reading " + file);
-      e.printStackTrace();
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new IOException("Failed to parse " + file, e);
     }
 
     return result;
@@ -201,68 +209,117 @@ public class SemcorReaderExtended {
     ArrayList<WSDSample> setInstances = new ArrayList<>();
 
     try {
+      readSamples(file, iword -> iword.isInstanceOf(wordTag),
+          (instanceWordTag, sample) -> setInstances.add(sample));
+    } catch (Exception e) {
+      WSDHelper.print("Reading " + file);
+      e.printStackTrace();
+    }
 
-      ArrayList<Sentence> isentences = readFile(file);
-      for (int j = 0; j < isentences.size(); j++) {
-        Sentence isentence = isentences.get(j);
-        ArrayList<Word> iwords = isentence.getIwords();
-        for (int k = 0; k < iwords.size(); k++) {
-          Word iword = iwords.get(k);
-          if (iword.isInstanceOf(wordTag)) {
-
-            String sentence;
-            int index;
-
-            if (j == 0) {
-              // case of the first sentence, we consider the current sentence
-              // and the next two ones
-              sentence = isentences.get(j).toString() + " "
-                  + isentences.get(j + 1).toString() + " "
-                  + isentences.get(j + 2).toString();
-              index = k;
-            } else if (j == isentences.size() - 1) {
-              // case of the last sentence, we consider the current sentence and
-              // the previous two ones
-              sentence = isentences.get(j - 2).toString() + " "
-                  + isentences.get(j - 1).toString() + " "
-                  + isentences.get(j).toString();
-              index = isentences.get(j - 2).getIwords().size()
-                  + isentences.get(j - 1).getIwords().size() + k;
-            } else {
-              // case of a sentence in the middle, we consider the previous
-              // sentence + the current one + the next one
-              sentence = isentences.get(j - 1).toString() + " "
-                  + isentences.get(j).toString() + " "
-                  + isentences.get(j + 1).toString();
-              index = isentences.get(j - 1).getIwords().size() + k;
-            }
-            ArrayList<String> senses = new ArrayList<>();
-            String sense = iword.getLexsn();
-            if (sense != null) {
-              senses.add(sense);
-            }
+    return setInstances;
+  }
 
-            if (!senses.isEmpty()) {
-              final Lemmatizer lemmatizer = WSDHelper.getLemmatizer();
-              final POSTagger tagger = WSDHelper.getTagger();
+  /**
+   * Checks if a word is a disambiguated instance of any word tag.
+   */
+  static boolean isInstance(Word iword) {
+    return iword.getLemma() != null && iword.getLexsn() != null
+        && WSDHelper.getPOSabbreviation(iword.getPos()) != null;
+  }
 
-              final String[] words = sentence.split("\\s");
-              final String[] tags = tagger.tag(words);
-              String[] lemmas = lemmatizer.lemmatize(words, tags);
+  /**
+   * Reads one Semcor file and passes the {@link WSDSample} of every
+   * accepted instance with its word tag to the consumer. The samples are
+   * tagged and lemmatized with the tools of the calling thread, so several
+   * files can be read in parallel.
+   *
+   * @param file
+   *          the name of the file to read
+   * @param filter
+   *          accepts the words to create samples for
+   * @param consumer
+   *          receives the word tag and the sample of every instance
+   *
+   * @throws IOException if the file cannot be read or parsed
+   */
+  void readSamples(String file, Predicate<Word> filter,
+      BiConsumer<String, WSDSample> consumer) throws IOException {
+
+    ArrayList<Sentence> isentences = readFile(file);
+    for (int j = 0; j < isentences.size(); j++) {
+      Sentence isentence = isentences.get(j);
+      ArrayList<Word> iwords = isentence.getIwords();
+      for (int k = 0; k < iwords.size(); k++) {
+        Word iword = iwords.get(k);
+        if (filter.test(iword)) {
+
+          String sentence;
+          int index;
+
+          if (j == 0) {
+            // case of the first sentence, we consider the current sentence
+            // and the next two ones
+            sentence = isentences.get(j).toString() + " "
+                + isentences.get(j + 1).toString() + " "
+                + isentences.get(j + 2).toString();
+            index = k;
+          } else if (j == isentences.size() - 1) {
+            // case of the last sentence, we consider the current sentence and
+            // the previous two ones
+            sentence = isentences.get(j - 2).toString() + " "
+                + isentences.get(j - 1).toString() + " "
+                + isentences.get(j).toString();
+            index = isentences.get(j - 2).getIwords().size()
+                + isentences.get(j - 1).getIwords().size() + k;
+          } else {
+            // case of a sentence in the middle, we consider the previous
+            // sentence + the current one + the next one
+            sentence = isentences.get(j - 1).toString() + " "
+                + isentences.get(j).toString() + " "
+                + isentences.get(j + 1).toString();
+            index = isentences.get(j - 1).getIwords().size() + k;
+          }
+          ArrayList<String> senses = new ArrayList<>();
+          String sense = iword.getLexsn();
+          if (sense != null) {
+            senses.add(sense);
+          }
 
-              WSDSample wtd = new WSDSample(words, tags, lemmas, index, senses.toArray(new String[0]));
-              setInstances.add(wtd);
-            }
+          if (!senses.isEmpty()) {
+            final Lemmatizer lemmatizer = WSDHelper.getLemmatizer();
+            final POSTagger tagger = WSDHelper.getTagger();
+
+            final String[] words = sentence.split("\\s");
+            final String[] tags = tagger.tag(words);
+            String[] lemmas = lemmatizer.lemmatize(words, tags);
+
+            WSDSample wtd = new WSDSample(words, tags, lemmas, index, senses.toArray(new String[0]));
+            consumer.accept(iword.getLemma() + "."
+                + WSDHelper.getPOSabbreviation(iword.getPos()), wtd);
           }
         }
       }
-
-    } catch (Exception e) {
-      e.printStackTrace();
     }
+  }
 
-    return setInstances;
+  /**
+   * @return all the tagged files of the three Semcor folders, in the
+   *         order of their names
+   */
+  List<File> getSemcorFiles() {
+    List<File> files = new ArrayList<>();
+
+    for (String folder : folders) {
+      File[] listOfFiles = new File(semcorDirectory + folder + tagfiles).listFiles();
+      if (listOfFiles != null) {
+        Arrays.sort(listOfFiles);
+        for (File file : listOfFiles) {
+          files.add(file);
+        }
+      }
+    }
 
+    return files;
   }
 
   /**
@@ -287,6 +344,7 @@ public class SemcorReaderExtended {
 
     if (tempFolder.isDirectory()) {
       listOfFiles = tempFolder.listFiles();
+      Arrays.sort(listOfFiles);
       for (File file : listOfFiles) {
 
         ArrayList<WSDSample> list = getSemcorOneFileData(
@@ -203,6 +203,62 @@ public class SensevalReader {
 
     List<WSDSample> setInstances = new ArrayList<>();
 
+    for (Instance instance : getInstances(wordTag)) {
+      setInstances.add(instance.toSample());
+    }
+
+    return setInstances;
+
+  }
+
+  /**
+   * An instance of the training data before it is tagged and lemmatized.
+   */
+  static final class Instance {
+
+    private final String wordTag;
+    private final String[] words;
+    private final int index;
+    private final String[] senseIDs;
+
+    private Instance(String wordTag, String[] words, int index, String[] senseIDs) {
+      this.wordTag = wordTag;
+      this.words = words;
+      this.index = index;
+      this.senseIDs = senseIDs;
+    }
+
+    String getWordTag() {
+      return wordTag;
+    }
+
+    /**
+     * Tags and lemmatizes the instance with the tools of the calling thread.
+     */
+    WSDSample toSample() {
+      final Lemmatizer lemmatizer = WSDHelper.getLemmatizer();
+      final POSTagger tagger = WSDHelper.getTagger();
+
+      final String[] tags = tagger.tag(words);
+      String[] lemmas = lemmatizer.lemmatize(words, tags);
+
+      return new WSDSample(words, tags, lemmas, index, senseIDs);
+    }
+  }
+
+  /**
+   * Extracts the instances of a word from the training document, which is
+   * not thread safe and only read by one thread at a time.
+   *
+   * @param wordTag
+   *          The word, of which we are looking for the instances, or
+   *          {@code null} for the instances of all words
+   * @return the instances in document order
+   */
+  synchronized List<Instance> getInstances(String wordTag) {
+
+    List<Instance> instances = new ArrayList<>();
+
     NodeList lexelts = trainDoc.getElementsByTagName("lexelt");
 
     for (int i = 0; i < lexelts.getLength(); i++) {
@@ -211,8 +267,9 @@ public class SensevalReader {
 
       if (nLexelt.getNodeType() == Node.ELEMENT_NODE) {
         Element eLexelt = (Element) nLexelt;
+        String item = eLexelt.getAttribute("item");
 
-        if (eLexelt.getAttribute("item").equals(wordTag)) {
+        if (wordTag == null || item.equals(wordTag)) {
 
           NodeList nInstances = nLexelt.getChildNodes();
 
@@ -277,15 +334,8 @@ public class SensevalReader {
                 }
 
               }
-              final Lemmatizer lemmatizer = WSDHelper.getLemmatizer();
-              final POSTagger tagger = WSDHelper.getTagger();
-
-              final String[] words = finalText;
-              final String[] tags = tagger.tag(finalText);
-              String[] lemmas = lemmatizer.lemmatize(words, tags);
-
-              WSDSample wtd = new WSDSample(words, tags, lemmas, index, senseIDs.toArray(new String[0]));
-              setInstances.add(wtd);
+              instances.add(new Instance(item, finalText, index,
+                  senseIDs.toArray(new String[0])));
 
             }
           }
@@ -293,7 +343,7 @@ public class SensevalReader {
       }
     }
 
-    return setInstances;
+    return instances;
 
   }
 
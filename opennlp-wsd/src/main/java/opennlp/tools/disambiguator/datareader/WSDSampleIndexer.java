@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator.datareader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import opennlp.tools.disambiguator.WSDSample;
+
+/**
+ * Parses Semcor or Senseval once into a {@link WSDSampleStore}, so that the training
+ * of a model per word reads only the samples of its word tag instead of parsing the
+ * whole corpus again.
+ * <p>
+ * The Semcor files, and the Senseval instances after they were extracted from the
+ * training document, are tagged and lemmatized in parallel. The samples are written to
+ * the store in the order of the files and instances, so the store does not depend on
+ * the scheduling of the threads. Only the samples of the files which are in progress are
+ * held in memory, never the whole corpus.
+ */
+public class WSDSampleIndexer {
+
+  /**
+   * Produces the samples of one file or instance.
+   */
+  private interface SampleTask {
+    void run(BiConsumer<String, WSDSample> consumer) throws IOException;
+  }
+
+  private final int threads;
+
+  public WSDSampleIndexer() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param threads the number of threads which parse and tag the corpus
+   */
+  public WSDSampleIndexer(int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Writes the samples of all disambiguated words of Semcor to a store.
+   *
+   * @param reader the Semcor reader
+   * @param store the store file to write
+   *
+   * @throws IOException if a file cannot be read or the store cannot be written,
+   *                     the store is deleted then
+   */
+  public void indexSemcor(SemcorReaderExtended reader, File store) throws IOException {
+    List<SampleTask> tasks = new ArrayList<>();
+
+    for (File file : reader.getSemcorFiles()) {
+      tasks.add(consumer -> reader.readSamples(file.getPath(), SemcorReaderExtended::isInstance,
+          consumer));
+    }
+
+    index(tasks, store);
+  }
+
+  /**
+   * Writes the samples of all words of the Senseval training data to a store.
+   *
+   * @param reader the Senseval reader
+   * @param store the store file to write
+   *
+   * @throws IOException if the store cannot be written, it is deleted then
+   */
+  public void indexSenseval(SensevalReader reader, File store) throws IOException {
+    List<SampleTask> tasks = new ArrayList<>();
+
+    for (SensevalReader.Instance instance : reader.getInstances(null)) {
+      tasks.add(consumer -> consumer.accept(instance.getWordTag(), instance.toSample()));
+    }
+
+    index(tasks, store);
+  }
+
+  private void index(List<SampleTask> tasks, File store) throws IOException {
+    try (WSDSampleStoreWriter writer = new WSDSampleStoreWriter(store)) {
+      run(tasks, writer);
+    } catch (IOException e) {
+      Files.deleteIfExists(store.toPath());
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the tasks in parallel and writes their samples in the order of the tasks.
+   * At most twice as many tasks as threads are in progress, the samples of a task
+   * are held in memory until the tasks before it are written.
+   */
+  private void run(List<SampleTask> tasks, WSDSampleStoreWriter writer) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      Deque<Future<List<Map.Entry<String, WSDSample>>>> pending = new ArrayDeque<>();
+      Iterator<SampleTask> it = tasks.iterator();
+
+      while (it.hasNext() || !pending.isEmpty()) {
+        while (it.hasNext() && pending.size() < 2 * threads) {
+          SampleTask task = it.next();
+          pending.add(executor.submit(() -> {
+            List<Map.Entry<String, WSDSample>> samples = new ArrayList<>();
+            task.run((wordTag, sample) ->
+                samples.add(new AbstractMap.SimpleImmutableEntry<>(wordTag, sample)));
+            return samples;
+          }));
+        }
+
+        for (Map.Entry<String, WSDSample> sample : pending.remove().get()) {
+          writer.add(sample.getKey(), sample.getValue());
+        }
+      }
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to index the samples", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while indexing the samples");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
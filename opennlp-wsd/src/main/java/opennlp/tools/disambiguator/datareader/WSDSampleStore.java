@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator.datareader;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import opennlp.tools.disambiguator.WSDSample;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * A binary store of {@link WSDSample}s which are grouped by their word tag, it is
+ * written by the {@link WSDSampleIndexer}.
+ * <p>
+ * The store starts with a header of the magic number, the version and the offset of
+ * the index. The samples of every word tag follow each other, the index at the end
+ * maps every word tag to the offset, length and number of its samples. A
+ * {@link #getSamples(String)} stream reads only the slice of its word tag, with
+ * positional reads, so several streams can read from one store at the same time.
+ */
+public class WSDSampleStore implements Closeable {
+
+  static final int MAGIC = 0x57534453;
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 16;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The location of the samples of one word tag.
+   */
+  private static final class Slice {
+
+    private final long offset;
+    private final long length;
+    private final int count;
+
+    private Slice(long offset, long length, int count) {
+      this.offset = offset;
+      this.length = length;
+      this.count = count;
+    }
+  }
+
+  private final FileChannel channel;
+
+  private final Map<String, Slice> index;
+
+  private WSDSampleStore(FileChannel channel, Map<String, Slice> index) {
+    this.channel = channel;
+    this.index = index;
+  }
+
+  /**
+   * Opens a sample store.
+   *
+   * @param file the store file
+   * @return the store, it must be closed after use
+   *
+   * @throws IOException if the file cannot be read or is not a sample store
+   */
+  public static WSDSampleStore open(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      readFully(channel, header, 0);
+      header.flip();
+
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not a WSD sample store: " + file);
+      }
+
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported WSD sample store version: " + version);
+      }
+
+      long indexOffset = header.getLong();
+
+      Map<String, Slice> index = new LinkedHashMap<>();
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new SliceInputStream(channel, indexOffset, channel.size() - indexOffset)))) {
+        int wordTags = in.readInt();
+        for (int i = 0; i < wordTags; i++) {
+          index.put(in.readUTF(), new Slice(in.readLong(), in.readLong(), in.readInt()));
+        }
+      }
+
+      return new WSDSampleStore(channel, Collections.unmodifiableMap(index));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the word tags which have samples
+   */
+  public Set<String> getWordTags() {
+    return index.keySet();
+  }
+
+  /**
+   * @param wordTag the word tag, e.g. "bank.n"
+   * @return the number of samples of the word tag
+   */
+  public int getSampleCount(String wordTag) {
+    Slice slice = index.get(wordTag);
+    return slice != null ? slice.count : 0;
+  }
+
+  /**
+   * @param wordTag the word tag, e.g. "bank.n"
+   * @return the size in bytes of the encoded samples of the word tag
+   */
+  public long getSize(String wordTag) {
+    Slice slice = index.get(wordTag);
+    return slice != null ? slice.length : 0;
+  }
+
+  /**
+   * Creates a stream over the samples of one word tag.
+   *
+   * @param wordTag the word tag, e.g. "bank.n"
+   * @return the stream, it is empty if the store has no samples of the word tag
+   */
+  public ObjectStream<WSDSample> getSamples(String wordTag) {
+    Slice slice = index.get(wordTag);
+    return slice != null ? new SampleStream(slice) : new SampleStream(new Slice(0, 0, 0));
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private class SampleStream implements ObjectStream<WSDSample> {
+
+    private final Slice slice;
+
+    private DataInputStream in;
+    private int read;
+
+    private SampleStream(Slice slice) {
+      this.slice = slice;
+      reset();
+    }
+
+    @Override
+    public WSDSample read() throws IOException {
+      if (read == slice.count) {
+        return null;
+      }
+
+      read++;
+      return readSample(in);
+    }
+
+    @Override
+    public void reset() {
+      in = new DataInputStream(new BufferedInputStream(
+          new SliceInputStream(channel, slice.offset, slice.length), BUFFER_SIZE));
+      read = 0;
+    }
+  }
+
+  static void writeSample(DataOutputStream out, WSDSample sample) throws IOException {
+    String[] sentence = sample.getSentence();
+    String[] tags = sample.getTags();
+    String[] lemmas = sample.getLemmas();
+
+    out.writeInt(sentence.length);
+    for (int i = 0; i < sentence.length; i++) {
+      writeString(out, sentence[i]);
+      writeString(out, tags[i]);
+      writeString(out, lemmas[i]);
+    }
+    out.writeInt(sample.getTargetPosition());
+
+    String[] senseIDs = sample.getSenseIDs();
+    if (senseIDs != null) {
+      out.writeInt(senseIDs.length);
+      for (String senseID : senseIDs) {
+        writeString(out, senseID);
+      }
+    } else {
+      out.writeInt(-1);
+      out.writeInt(sample.getSenseID());
+    }
+  }
+
+  static WSDSample readSample(DataInputStream in) throws IOException {
+    int length = in.readInt();
+
+    String[] sentence = new String[length];
+    String[] tags = new String[length];
+    String[] lemmas = new String[length];
+
+    for (int i = 0; i < length; i++) {
+      sentence[i] = readString(in);
+      tags[i] = readString(in);
+      lemmas[i] = readString(in);
+    }
+    int targetPosition = in.readInt();
+
+    int senses = in.readInt();
+    if (senses < 0) {
+      return new WSDSample(sentence, tags, lemmas, targetPosition, in.readInt());
+    }
+
+    String[] senseIDs = new String[senses];
+    for (int i = 0; i < senses; i++) {
+      senseIDs[i] = readString(in);
+    }
+    return new WSDSample(sentence, tags, lemmas, targetPosition, senseIDs);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position);
+      if (count < 0) {
+        throw new EOFException();
+      }
+      position += count;
+    }
+  }
+
+  /**
+   * Reads a slice of a file channel with positional reads, the position of
+   * the channel is not changed.
+   */
+  private static class SliceInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private long position;
+    private final long end;
+
+    private SliceInputStream(FileChannel channel, long offset, long length) {
+      this.channel = channel;
+      this.position = offset;
+      this.end = offset + length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (position >= end) {
+        return -1;
+      }
+
+      len = (int) Math.min(len, end - position);
+      int count = channel.read(ByteBuffer.wrap(b, off, len), position);
+      if (count > 0) {
+        position += count;
+      }
+      return count;
+    }
+  }
+}
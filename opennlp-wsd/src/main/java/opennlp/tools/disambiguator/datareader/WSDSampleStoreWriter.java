@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator.datareader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import opennlp.tools.disambiguator.WSDSample;
+
+/**
+ * Writes a {@link WSDSampleStore}. Samples can be added from several threads, they
+ * are appended to a temporary file as they arrive and are grouped by their word tag
+ * when the writer is closed, so only the offsets of the samples are held in memory.
+ */
+class WSDSampleStoreWriter implements Closeable {
+
+  private final File store;
+  private final File temp;
+
+  private final FileChannel tempChannel;
+
+  private final Map<String, List<long[]>> records = new TreeMap<>();
+  private long tempSize;
+
+  private IOException failure;
+
+  WSDSampleStoreWriter(File store) throws IOException {
+    this.store = store;
+    this.temp = File.createTempFile("wsd-samples", ".tmp", store.getAbsoluteFile().getParentFile());
+    this.tempChannel = FileChannel.open(temp.toPath(), StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Adds a sample, a write failure is reported by {@link #close()}.
+   *
+   * @param wordTag the word tag of the sample
+   * @param sample the sample
+   */
+  void add(String wordTag, WSDSample sample) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      WSDSampleStore.writeSample(out, sample);
+    } catch (IOException e) {
+      fail(e);
+      return;
+    }
+
+    ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+
+    synchronized (this) {
+      if (failure != null) {
+        return;
+      }
+
+      try {
+        long offset = tempSize;
+        while (record.hasRemaining()) {
+          tempSize += tempChannel.write(record, tempSize);
+        }
+        records.computeIfAbsent(wordTag, tag -> new ArrayList<>())
+            .add(new long[] {offset, record.limit()});
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+  }
+
+  private synchronized void fail(IOException e) {
+    if (failure == null) {
+      failure = e;
+    }
+  }
+
+  /**
+   * Writes the store and deletes the temporary file.
+   *
+   * @throws IOException if a sample could not be written or the store cannot be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try (FileChannel tempIn = tempChannel) {
+      if (failure != null) {
+        throw failure;
+      }
+
+      try (FileChannel out = FileChannel.open(store.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+        long position = WSDSampleStore.HEADER_SIZE;
+        out.position(position);
+
+        Map<String, long[]> index = new TreeMap<>();
+
+        for (Map.Entry<String, List<long[]>> wordTag : records.entrySet()) {
+          long offset = position;
+          for (long[] record : wordTag.getValue()) {
+            long transferred = 0;
+            while (transferred < record[1]) {
+              transferred += tempIn.transferTo(record[0] + transferred, record[1] - transferred, out);
+            }
+            position += record[1];
+          }
+          index.put(wordTag.getKey(), new long[] {offset, position - offset, wordTag.getValue().size()});
+        }
+
+        DataOutputStream indexData = new DataOutputStream(
+            new BufferedOutputStream(Channels.newOutputStream(out)));
+        indexData.writeInt(index.size());
+        for (Map.Entry<String, long[]> entry : index.entrySet()) {
+          indexData.writeUTF(entry.getKey());
+          indexData.writeLong(entry.getValue()[0]);
+          indexData.writeLong(entry.getValue()[1]);
+          indexData.writeInt((int) entry.getValue()[2]);
+        }
+        indexData.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(WSDSampleStore.HEADER_SIZE);
+        header.putInt(WSDSampleStore.MAGIC);
+        header.putInt(WSDSampleStore.VERSION);
+        header.putLong(position);
+        header.flip();
+        long headerPosition = 0;
+        while (header.hasRemaining()) {
+          headerPosition += out.write(header, headerPosition);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * This is the test class for {@link IMSWSDContextGenerator}.
+ */
+class IMSWSDContextGeneratorTest extends AbstractWSDTest {
+
+  private static final int NGRAM = 2;
+  private static final int WINDOW_SIZE = 3;
+
+  /*
+   * Tests that the context taken from the shared surrounding words of a sentence
+   * is the same as the context extracted for each word
+   */
+  @Test
+  void testSentenceContext() {
+    IMSWSDContextGenerator generator = new IMSWSDContextGenerator();
+
+    for (String[][] sentence : new String[][][] {
+        {sentence1, tags1, lemmas1}, {sentence2, tags2, lemmas2}, {sentence3, tags3, lemmas3}}) {
+      String[] tokens = sentence[0];
+      String[] tags = sentence[1];
+      String[] lemmas = sentence[2];
+
+      // the unigrams of the model, some of them surround the words of the sentence
+      List<String> model = new ArrayList<>();
+      for (String lemma : lemmas) {
+        model.add(lemma.toLowerCase());
+      }
+      model.add("water");
+      model.add("beach");
+
+      WSDSentence wsdSentence = new WSDSentence(tokens, tags, lemmas);
+
+      for (int i = 0; i < tokens.length; i++) {
+        if (WSDHelper.isRelevantPOSTag(tags[i])) {
+          assertArrayEquals(
+              generator.getContext(i, tokens, tags, lemmas, NGRAM, WINDOW_SIZE, model),
+              generator.getContext(wsdSentence, i, NGRAM, WINDOW_SIZE, model),
+              "Check context of '" + tokens[i] + "'");
+        }
+      }
+    }
+  }
+}
@@ -92,4 +92,32 @@ class LeskTest extends AbstractWSDTest {
     assertEquals("WSDHELPER personal pronoun", senses.get(6), "Check preposition");
   }
 
+  private static Lesk createLesk(LESK_TYPE leskType) {
+    LeskParameters params = new LeskParameters();
+    params.setLeskType(leskType);
+    boolean[] a = {true, true, true, true, true, true, true, true, true, true};
+    params.setFeatures(a);
+    return new Lesk(params);
+  }
+
+  /*
+   * Tests that disambiguating a whole sentence in one pass gives the same senses
+   * as disambiguating its words one by one, for every type of Lesk
+   */
+  @Test
+  void testSentenceDisambiguation() {
+    for (LESK_TYPE leskType : LESK_TYPE.values()) {
+      List<String> senses = createLesk(leskType).disambiguateAll(sentence2, tags2, lemmas2);
+
+      assertEquals(sentence2.length, senses.size(), "Check number of returned words");
+      for (int i = 0; i < sentence2.length; i++) {
+        if (WSDHelper.isRelevantPOSTag(tags2[i])) {
+          // A new disambiguator for every word, its context words are not reset between calls
+          String sense = createLesk(leskType).disambiguate(sentence2, tags2, lemmas2, i);
+          assertEquals(sense, senses.get(i), "Check " + leskType + " sense of '" + sentence2[i] + "'");
+        }
+      }
+    }
+  }
+
 }
\ No newline at end of file
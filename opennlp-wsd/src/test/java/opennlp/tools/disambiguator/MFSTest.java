@@ -91,4 +91,14 @@ class MFSTest extends AbstractWSDTest {
     assertNotNull(sensePosSix);
     assertEquals("WSDHELPER personal pronoun", sensePosSix, "Check preposition");
   }
-}
\ No newline at end of file
+
+  /*
+   * Tests that disambiguating a whole sentence in one pass gives the same senses
+   */
+  @Test
+  void testDisambiguateAll() {
+    List<String> senses = mfs.disambiguateAll(sentence3, tags3, lemmas3);
+
+    assertEquals(mfs.disambiguate(sentence3, tags3, lemmas3), senses);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.List;
+
+import net.sf.extjwnl.data.POS;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This is the test class for {@link OverlapScorer}.
+ */
+class OverlapScorerTest {
+
+  private final OverlapScorer scorer = new OverlapScorer(new int[][] {
+      {1}, {2, 4}, {4}, {}, {9}});
+
+  @Test
+  void testCountWord() {
+    assertEquals(1, scorer.count(new int[] {1}));
+    assertEquals(2, scorer.count(new int[] {4}));
+    // a context word with two of the stems is counted once
+    assertEquals(2, scorer.count(new int[] {2, 4}));
+    assertEquals(3, scorer.count(new int[] {1, 2, 4}));
+    assertEquals(0, scorer.count(new int[] {3, 5}));
+    assertEquals(0, scorer.count(new int[0]));
+  }
+
+  @Test
+  void testScoreSenses() {
+    int[] scores = scorer.score(List.of(
+        new int[][] {{1}, {9}, {9}},
+        new int[][] {{2, 4}, {7}},
+        new int[0][]));
+
+    assertArrayEquals(new int[] {3, 2, 0}, scores);
+  }
+
+  @Test
+  void testLargeContext() {
+    int[][] context = new int[130][];
+    for (int i = 0; i < context.length; i++) {
+      context[i] = new int[] {i % 2};
+    }
+
+    OverlapScorer largeScorer = new OverlapScorer(context);
+
+    assertEquals(65, largeScorer.count(new int[] {0}));
+    assertEquals(130, largeScorer.count(new int[] {0, 1}));
+  }
+
+  @Test
+  void testStemIdsOfNewTable() {
+    int stemCacheSize = WSDHelper.getStemCacheSize();
+    WSDHelper.setStemCacheSize(1);
+
+    try {
+      OverlapScorer wordScorer = new OverlapScorer(List.of(
+          new WordPOS("dogs", POS.NOUN), new WordPOS("cat", POS.NOUN)));
+
+      // the table is full, the next scorer starts a new one
+      new OverlapScorer(List.of(new WordPOS("houses", POS.NOUN)));
+
+      assertEquals(1, wordScorer.count(wordScorer.getStemIds(List.of(new WordPOS("dog", POS.NOUN)))));
+      assertEquals(0, wordScorer.count(wordScorer.getStemIds(List.of(new WordPOS("house", POS.NOUN)))));
+    }
+    finally {
+      WSDHelper.setStemCacheSize(stemCacheSize);
+    }
+  }
+
+  @Test
+  void testStemIdsOfIdScorer() {
+    assertThrows(IllegalStateException.class,
+        () -> scorer.getStemIds(List.of(new WordPOS("dog", POS.NOUN))));
+  }
+}
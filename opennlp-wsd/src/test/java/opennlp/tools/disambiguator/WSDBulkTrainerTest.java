@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.disambiguator.datareader.SemcorReaderExtended;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.TrainingParameters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This is the test class for {@link WSDBulkTrainer} and {@link WSDModelArchive}.
+ */
+class WSDBulkTrainerTest extends AbstractTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testTrainArchive() throws IOException {
+    SemcorReaderExtended sr = new SemcorReaderExtended(SEMCOR_DIR);
+
+    List<WSDSample> samples = new ArrayList<>();
+    samples.addAll(sr.getSemcorData("please.v"));
+    samples.addAll(sr.getSemcorData("write.v"));
+
+    WSDParameters params = new WSDDefaultParameters(tempDir.toString() + File.separatorChar);
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    File archiveFile = tempDir.resolve(WSDModelArchive.FILE_NAME).toFile();
+
+    Set<String> trained;
+    try {
+      // a small budget makes the trainings wait for each other
+      trained = new WSDBulkTrainer("en", new TrainingParameters(), params, pool, 1)
+          .train(ObjectStreamUtils.createObjectStream(samples), archiveFile);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(Set.of("please.v", "write.v"), trained);
+
+    try (WSDModelArchive archive = WSDModelArchive.open(archiveFile)) {
+      assertEquals(trained, archive.getWordTags());
+
+      for (String wordTag : trained) {
+        WSDModel model = archive.readModel(wordTag);
+        assertNotNull(model);
+        assertEquals(wordTag, model.getWordTag());
+      }
+
+      assertNull(archive.readModel("unknown.n"));
+
+      WSDModelCache cache = new WSDModelCache(archive);
+      String wordTag = trained.iterator().next();
+      WSDModel model = cache.getModel(wordTag);
+      assertNotNull(model);
+      assertSame(model, cache.getModel(wordTag));
+      assertNull(cache.getModel("unknown.n"));
+    }
+
+    // the disambiguator opens the archive of the training data directory
+    WSDisambiguatorME disambiguator = new WSDisambiguatorME(params);
+    WSDModelArchive openedArchive = disambiguator.getModelCache().getArchive();
+    assertNotNull(openedArchive);
+    assertNotNull(openedArchive.readModel("please.v"));
+
+    disambiguator.close();
+    assertThrows(IOException.class, () -> openedArchive.readModel("please.v"));
+  }
+}
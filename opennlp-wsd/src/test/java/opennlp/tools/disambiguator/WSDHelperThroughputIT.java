@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.disambiguator.LeskParameters.LESK_TYPE;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the throughput of {@link Lesk} instances which share the {@link WSDHelper}
+ * resources from several threads, and checks that every thread gets the results
+ * of a single threaded run.
+ * <p>
+ * Every task tokenizes, tags and lemmatizes its sentence with the tools of its thread
+ * before the sentence is disambiguated.
+ */
+class WSDHelperThroughputIT extends AbstractWSDTest {
+
+  private static final String[] TEXTS = {test1, test2, test3};
+
+  private static final int ROUNDS = 20;
+
+  private static List<List<String>> expected;
+
+  @BeforeAll
+  static void computeExpected() throws Exception {
+    expected = disambiguate(createLesk());
+  }
+
+  private static Lesk createLesk() {
+    Lesk lesk = new Lesk();
+    LeskParameters params = new LeskParameters();
+    params.setLeskType(LESK_TYPE.LESK_EXT);
+    params.setFeatures(new boolean[] {true, true, true, true, true, true, true, true, true, true});
+    lesk.setParams(params);
+    return lesk;
+  }
+
+  private static List<List<String>> disambiguate(Lesk lesk) {
+    List<List<String>> results = new ArrayList<>();
+    for (String text : TEXTS) {
+      String[] tokens = WSDHelper.getTokenizer().tokenize(text);
+      String[] tags = WSDHelper.getTagger().tag(tokens);
+      String[] lemmas = WSDHelper.getLemmatizer().lemmatize(tokens, tags);
+      results.add(lesk.disambiguateAll(tokens, tags, lemmas));
+    }
+    return results;
+  }
+
+  private static void measure(int threads) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      List<Callable<List<List<String>>>> tasks = new ArrayList<>();
+      for (int i = 0; i < threads * ROUNDS; i++) {
+        tasks.add(() -> disambiguate(createLesk()));
+      }
+
+      long start = System.nanoTime();
+      List<Future<List<List<String>>>> results = executor.invokeAll(tasks);
+      long duration = System.nanoTime() - start;
+
+      for (Future<List<List<String>>> result : results) {
+        assertEquals(expected, result.get());
+      }
+
+      double sentencesPerSecond = tasks.size() * TEXTS.length / (duration / 1e9);
+      WSDHelper.print(String.format("%2d threads: %8.1f sentences/s", threads, sentencesPerSecond));
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testThroughput() throws Exception {
+    int maxThreads = Runtime.getRuntime().availableProcessors();
+
+    // warm up the stem cache and the JIT
+    measure(1);
+
+    for (int threads = 1; threads < maxThreads; threads *= 2) {
+      measure(threads);
+    }
+    measure(maxThreads);
+  }
+}
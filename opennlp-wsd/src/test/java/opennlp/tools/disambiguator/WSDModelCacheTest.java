@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.disambiguator.datareader.SemcorReaderExtended;
+import opennlp.tools.util.TrainingParameters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * This is the test class for {@link WSDModelCache}.
+ */
+class WSDModelCacheTest extends AbstractTest {
+
+  private static final int THREADS = 8;
+
+  // a serialized model, which is written under several word tags
+  private static byte[] modelBytes;
+
+  @TempDir
+  Path modelDir;
+
+  @BeforeAll
+  static void trainModel() throws IOException {
+    SemcorReaderExtended sr = new SemcorReaderExtended(SEMCOR_DIR);
+    WSDModel model = WSDisambiguatorME.train("en", sr.getSemcorDataStream("please.v"),
+        new TrainingParameters(), new WSDDefaultParameters(""));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    model.serialize(bytes);
+    modelBytes = bytes.toByteArray();
+  }
+
+  private void writeModel(String wordTag) throws IOException {
+    Files.write(modelDir.resolve(wordTag + WSDModelCache.MODEL_FILE_EXTENSION), modelBytes);
+  }
+
+  private WSDModelCache createCache(long maxWeight) {
+    return new WSDModelCache(modelDir.toString() + File.separatorChar, maxWeight);
+  }
+
+  /**
+   * Calls the task from several threads at the same time.
+   *
+   * @return the results of the threads
+   */
+  private static <T> List<T> callConcurrently(Callable<T> task)
+      throws InterruptedException, ExecutionException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<T>> futures = new ArrayList<>(THREADS);
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+
+      List<T> results = new ArrayList<>(THREADS);
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testMissingModelIsCached() throws IOException {
+    WSDModelCache cache = new WSDModelCache(modelDir.toString() + File.separatorChar);
+
+    assertNull(cache.getModel("please.v"));
+    assertNull(cache.getModel("please.v"));
+
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getNegativeHitCount());
+    assertEquals(0, cache.getLoadCount());
+    assertEquals(0.5, cache.getHitRate());
+  }
+
+  @Test
+  void testLoadModel() throws IOException {
+    writeModel("please.v");
+    WSDModelCache cache = createCache(WSDModelCache.DFLT_MAX_WEIGHT);
+
+    WSDModel model = cache.getModel("please.v");
+    assertNotNull(model);
+    assertEquals("please.v", model.getWordTag());
+    assertSame(model, cache.getModel("please.v"));
+
+    assertEquals(1, cache.getModelCount());
+    assertEquals(modelBytes.length, cache.getWeight());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getLoadCount());
+  }
+
+  @Test
+  void testEvictLeastRecentlyUsed() throws IOException {
+    writeModel("please.v");
+    writeModel("write.v");
+    writeModel("find.v");
+    // there is room for two models
+    WSDModelCache cache = createCache(2L * modelBytes.length);
+
+    WSDModel please = cache.getModel("please.v");
+    WSDModel write = cache.getModel("write.v");
+    assertSame(please, cache.getModel("please.v"));
+    assertNotNull(cache.getModel("find.v"));
+
+    assertEquals(2, cache.getModelCount());
+    assertEquals(2L * modelBytes.length, cache.getWeight());
+    assertEquals(1, cache.getEvictionCount());
+
+    // write.v was the least recently used model
+    assertSame(please, cache.getModel("please.v"));
+    assertNotSame(write, cache.getModel("write.v"));
+    assertEquals(4, cache.getLoadCount());
+  }
+
+  @Test
+  void testConcurrentLoadOnce() throws Exception {
+    writeModel("please.v");
+    WSDModelCache cache = createCache(WSDModelCache.DFLT_MAX_WEIGHT);
+
+    List<WSDModel> models = callConcurrently(() -> cache.getModel("please.v"));
+
+    for (WSDModel model : models) {
+      assertNotNull(model);
+      assertSame(models.get(0), model);
+    }
+    assertEquals(1, cache.getLoadCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  void testConcurrentMissingModel() throws Exception {
+    WSDModelCache cache = createCache(WSDModelCache.DFLT_MAX_WEIGHT);
+
+    for (WSDModel model : callConcurrently(() -> cache.getModel("please.v"))) {
+      assertNull(model);
+    }
+    assertEquals(1, cache.getMissCount());
+    assertEquals(THREADS - 1, cache.getNegativeHitCount());
+  }
+
+  @Test
+  void testInvalidate() throws IOException {
+    WSDModelCache cache = new WSDModelCache(modelDir.toString() + File.separatorChar);
+
+    assertNull(cache.getModel("please.v"));
+    cache.invalidate();
+    assertNull(cache.getModel("please.v"));
+
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getNegativeHitCount());
+    assertEquals(0, cache.getModelCount());
+  }
+
+  @Test
+  void testWarmUpEmptyDirectory() throws IOException {
+    WSDModelCache cache = new WSDModelCache(modelDir.toString() + File.separatorChar);
+
+    assertEquals(0, cache.warmUp());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.disambiguator.datareader.SemcorReaderExtended;
+import opennlp.tools.disambiguator.datareader.WSDSampleIndexer;
+import opennlp.tools.disambiguator.datareader.WSDSampleStore;
+import opennlp.tools.util.ObjectStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This is the test class for {@link WSDSampleStore} and {@link WSDSampleIndexer}.
+ */
+class WSDSampleStoreTest extends AbstractTest {
+
+  @TempDir
+  Path tempDir;
+
+  private static List<WSDSample> readAll(ObjectStream<WSDSample> stream) throws IOException {
+    List<WSDSample> samples = new ArrayList<>();
+    WSDSample sample;
+    while ((sample = stream.read()) != null) {
+      samples.add(sample);
+    }
+    return samples;
+  }
+
+  @Test
+  void testIndexSemcor() throws IOException {
+    final String wordTag = "please.v";
+
+    SemcorReaderExtended sr = new SemcorReaderExtended(SEMCOR_DIR);
+    List<WSDSample> expected = sr.getSemcorData(wordTag);
+
+    File storeFile = tempDir.resolve("semcor.samples").toFile();
+    new WSDSampleIndexer(2).indexSemcor(sr, storeFile);
+
+    try (WSDSampleStore store = WSDSampleStore.open(storeFile)) {
+      assertTrue(store.getWordTags().contains(wordTag));
+      assertEquals(expected.size(), store.getSampleCount(wordTag));
+
+      ObjectStream<WSDSample> stream = store.getSamples(wordTag);
+      List<WSDSample> samples = readAll(stream);
+
+      // the files are indexed in parallel, the samples are still in file order
+      assertEquals(expected, samples);
+
+      for (int i = 0; i < samples.size(); i++) {
+        assertArrayEquals(expected.get(i).getLemmas(), samples.get(i).getLemmas());
+        assertArrayEquals(expected.get(i).getSenseIDs(), samples.get(i).getSenseIDs());
+      }
+
+      stream.reset();
+      assertEquals(samples, readAll(stream));
+
+      assertNull(store.getSamples("unknown.n").read());
+      assertFalse(store.getWordTags().contains("unknown.n"));
+    }
+  }
+
+  @Test
+  void testIndexInvalidSemcor() throws IOException {
+    Path tagfiles = Files.createDirectories(tempDir.resolve("semcor/brown1/tagfiles"));
+    Files.write(tagfiles.resolve("br-a01"), "<contextfile".getBytes(StandardCharsets.UTF_8));
+
+    SemcorReaderExtended sr = new SemcorReaderExtended(tempDir.resolve("semcor") + "/");
+
+    File storeFile = tempDir.resolve("invalid.samples").toFile();
+    assertThrows(IOException.class, () -> new WSDSampleIndexer(2).indexSemcor(sr, storeFile));
+    assertFalse(storeFile.exists());
+  }
+}
@@ -134,4 +134,19 @@ class WSDTest extends AbstractWSDTest {
     assertEquals("WSDHELPER personal pronoun", senses.get(6), "Check preposition");
   }
 
+  /*
+   * Tests that disambiguating a whole sentence in one pass, with the shared
+   * surrounding words of the sentence, gives the same senses as the word by word
+   * disambiguation
+   */
+  @Test
+  void testSentenceDisambiguation() {
+    for (String[][] sentence : new String[][][] {
+        {sentence1, tags1, lemmas1}, {sentence2, tags2, lemmas2}, {sentence3, tags3, lemmas3}}) {
+      List<String> senses = wsdME.disambiguateAll(sentence[0], sentence[1], sentence[2]);
+
+      assertEquals(wsdME.disambiguate(sentence[0], sentence[1], sentence[2]), senses);
+    }
+  }
+
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.disambiguator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.extjwnl.data.Synset;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.disambiguator.LeskParameters.LESK_TYPE;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This is the test class for {@link WordNetGraph}.
+ */
+class WordNetGraphTest extends AbstractWSDTest {
+
+  private static final int DEPTH = 2;
+
+  @TempDir
+  static Path graphDir;
+
+  private static List<WSDSample> samples;
+
+  private static List<Synset> synsets;
+
+  private static WordNetGraph graph;
+
+  @TempDir
+  Path tempDir;
+
+  /*
+   * Builds a graph of the senses of the sample words and the synsets
+   * which are related to them up to the depth the Lesk tests use
+   */
+  @BeforeAll
+  static void buildGraph() throws IOException {
+    samples = List.of(
+        new WSDSample(sentence1, tags1, lemmas1, 8),
+        new WSDSample(sentence2, tags2, lemmas2, 4),
+        new WSDSample(sentence3, tags3, lemmas3, 1),
+        new WSDSample(sentence3, tags3, lemmas3, 12));
+
+    Map<String, Synset> selected = new LinkedHashMap<>();
+    List<Synset> level = new ArrayList<>();
+    for (WSDSample sample : samples) {
+      level.addAll(new WordPOS(sample.getTargetWord(), sample.getTargetTag()).getSynsets());
+    }
+
+    for (int depth = 0; depth <= DEPTH && !level.isEmpty(); depth++) {
+      List<Synset> nextLevel = new ArrayList<>();
+      for (Synset synset : level) {
+        if (selected.putIfAbsent(synset.getPOS() + ":" + synset.getOffset(), synset) == null) {
+          for (WordNetRelation relation : WordNetRelation.values()) {
+            nextLevel.addAll(relation.getSynsets(new SynNode(synset, null)));
+          }
+        }
+      }
+      level = nextLevel;
+    }
+
+    synsets = new ArrayList<>(selected.values());
+
+    File graphFile = graphDir.resolve("wordnet.graph").toFile();
+    new WordNetGraphBuilder().build(graphFile, synsets);
+    graph = WordNetGraph.open(graphFile);
+  }
+
+  @Test
+  void testReopenGraph() {
+    assertEquals(synsets.size(), graph.getSynsetCount());
+
+    for (Synset synset : synsets) {
+      int synsetId = graph.getSynsetId(synset);
+      assertTrue(synsetId >= 0, "Check synset " + synset.getOffset() + " is in the graph");
+
+      for (WordNetRelation relation : WordNetRelation.values()) {
+        int[] expected = relation.getSynsets(new SynNode(synset, null)).stream()
+            .mapToInt(graph::getSynsetId)
+            .filter(id -> id >= 0)
+            .toArray();
+
+        assertArrayEquals(expected, graph.getRelated(synsetId, relation),
+            "Check " + relation + " of synset " + synset.getOffset());
+      }
+
+      List<WordPOS> glossWords = WSDHelper.getAllRelevantWords(
+          WSDHelper.getTokenizer().tokenize(synset.getGloss()));
+      assertEquals(glossWords.size(), graph.getGlossWords(synsetId).length);
+    }
+  }
+
+  private static double[] score(WSDSample sample, LESK_TYPE type, WordNetGraph wordNetGraph) {
+    LeskParameters params = new LeskParameters();
+    params.setLeskType(type);
+    params.setDepth(DEPTH);
+
+    // The context words are collected per instance
+    Lesk lesk = new Lesk(params);
+    lesk.setWordNetGraph(wordNetGraph);
+
+    List<WordSense> senses = type == LESK_TYPE.LESK_EXT
+        ? lesk.extended(sample)
+        : lesk.extendedExponential(sample);
+
+    return senses.stream().mapToDouble(WordSense::getScore).toArray();
+  }
+
+  @Test
+  void testLeskScoresWithGraph() {
+    for (WSDSample sample : samples) {
+      for (LESK_TYPE type : Arrays.asList(LESK_TYPE.LESK_EXT, LESK_TYPE.LESK_EXT_EXP)) {
+        double[] expected = score(sample, type, null);
+
+        assertTrue(expected.length > 0);
+        assertArrayEquals(expected, score(sample, type, graph), 1e-9,
+            "Check " + type + " scores of " + sample.getTargetWord());
+      }
+    }
+  }
+
+  @Test
+  void testOpenInvalidFile() throws IOException {
+    File file = Files.write(tempDir.resolve("invalid.graph"), new byte[64]).toFile();
+
+    assertThrows(IOException.class, () -> WordNetGraph.open(file));
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+/**
+ * Processes the documents of a batch request in parallel on a shared
+ * worker pool.
+ * <p>
+ * The results are either returned together in the order of the documents,
+ * or streamed as newline delimited JSON, one {@link BatchResult} per line
+ * in the order in which the documents were finished.
+ */
+public class BatchProcessor {
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  /**
+   * The result of one document in a streamed batch.
+   */
+  public static class BatchResult {
+    public int index;
+    public Object result;
+    public String error;
+  }
+
+  private static ExecutorService workers;
+
+  private BatchProcessor() {
+  }
+
+  private static synchronized ExecutorService getWorkers() {
+
+    // The workers are created again when the bundle is restarted
+    if (workers == null || workers.isShutdown()) {
+      AtomicInteger threadCount = new AtomicInteger();
+      workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+        Thread thread = new Thread(r, "tagging-server-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    return workers;
+  }
+
+  /**
+   * Processes all documents and waits until they are finished.
+   *
+   * @param documents the documents to process
+   * @param task processes one document
+   *
+   * @return the results in the order of the documents
+   */
+  public static <D, R> List<R> process(D[] documents, Function<D, R> task) {
+
+    ExecutorService executor = getWorkers();
+
+    List<CompletableFuture<R>> futures = new ArrayList<>(documents.length);
+
+    for (D document : documents) {
+      futures.add(CompletableFuture.supplyAsync(() -> task.apply(document), executor));
+    }
+
+    List<R> results = new ArrayList<>(documents.length);
+
+    try {
+      for (CompletableFuture<R> future : futures) {
+        results.add(future.join());
+      }
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+
+      throw e;
+    }
+
+    return results;
+  }
+
+  /**
+   * Processes all documents and writes the result of every document as soon as it is
+   * finished. A document which fails is reported with an error message.
+   *
+   * @param documents the documents to process
+   * @param task processes one document
+   * @param providers the providers to look up the JSON writer
+   *
+   * @return the streamed response
+   */
+  public static <D, R> StreamingOutput stream(D[] documents, Function<D, R> task,
+      Providers providers) {
+
+    return out -> {
+      CompletionService<BatchResult> completionService = new ExecutorCompletionService<>(getWorkers());
+
+      for (int i = 0; i < documents.length; i++) {
+        final int index = i;
+        completionService.submit(() -> {
+          BatchResult result = new BatchResult();
+          result.index = index;
+
+          try {
+            result.result = task.apply(documents[index]);
+          }
+          catch (RuntimeException e) {
+            result.error = e.getMessage() != null ? e.getMessage() : e.toString();
+          }
+
+          return result;
+        });
+      }
+
+      @SuppressWarnings("unchecked")
+      MessageBodyWriter<BatchResult> writer = (MessageBodyWriter<BatchResult>) providers
+          .getMessageBodyWriter(BatchResult.class, BatchResult.class, new Annotation[0],
+              MediaType.APPLICATION_JSON_TYPE);
+
+      // The JSON writer must not close the response stream
+      OutputStream lineOut = new FilterOutputStream(out) {
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      };
+
+      for (int i = 0; i < documents.length; i++) {
+        BatchResult result;
+        try {
+          result = completionService.take().get();
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for batch results!");
+        }
+        catch (ExecutionException e) {
+          throw new IOException(e.getCause());
+        }
+
+        writer.writeTo(result, BatchResult.class, BatchResult.class, new Annotation[0],
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), lineOut);
+        out.write('\n');
+        out.flush();
+      }
+    };
+  }
+
+  /**
+   * Stops the worker threads.
+   */
+  public static synchronized void shutdown() {
+    if (workers != null) {
+      workers.shutdownNow();
+      workers = null;
+    }
+  }
+}
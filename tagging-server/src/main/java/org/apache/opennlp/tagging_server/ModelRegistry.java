@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.TokenizerModel;
+
+/**
+ * Loads models from a model directory when they are first used.
+ * <p>
+ * Every model type has its own sub directory, a model is requested by its file
+ * name without the {@code .bin} extension, e.g. the model {@code en-pos-maxent}
+ * is loaded from {@code postag/en-pos-maxent.bin}. The loaded models are cached,
+ * when their estimated size exceeds the heap budget the least recently used
+ * models are evicted. A model is used when it is loaded or retrieved with
+ * {@link #getModel(Class, String)}, or when a tagger pool checks it with
+ * {@link #isLoaded(Class, String, Object)}, the uses are recorded without
+ * locking. The models of the warm set are loaded at startup and are never evicted.
+ * <p>
+ * The registry is configured with these system properties:
+ * <ul>
+ * <li>{@code org.apache.opennlp.tagging_server.modelDirectory} the model directory,
+ * the registry is disabled when it is not set</li>
+ * <li>{@code org.apache.opennlp.tagging_server.modelHeapBudget} the heap budget in bytes,
+ * defaults to half of the maximum heap</li>
+ * <li>{@code org.apache.opennlp.tagging_server.memoryMapModels} true to memory map
+ * the model files while loading, defaults to true</li>
+ * <li>{@code org.apache.opennlp.tagging_server.warmModels} comma separated list of
+ * models to load at startup, e.g. {@code postag/en-pos-maxent,namefind/en-ner-person}</li>
+ * </ul>
+ */
+public class ModelRegistry implements ModelRegistryMBean {
+
+  private final static Logger LOGGER = Logger.getLogger(ModelRegistry.class.getName());
+
+  private static final String PROPERTY_PREFIX = "org.apache.opennlp.tagging_server.";
+
+  private static final String MODEL_EXTENSION = ".bin";
+
+  private static final Map<Class<?>, String> MODEL_TYPES = Map.of(
+      SentenceModel.class, "sentdetect",
+      TokenizerModel.class, "tokenize",
+      POSModel.class, "postag",
+      TokenNameFinderModel.class, "namefind");
+
+  private static class LoadedModel {
+    private final Object model;
+    private final long size;
+    private final AtomicLong lastUse = new AtomicLong();
+
+    LoadedModel(Object model, long size) {
+      this.model = model;
+      this.size = size;
+    }
+  }
+
+  private static final ModelRegistry INSTANCE = new ModelRegistry(
+      System.getProperty(PROPERTY_PREFIX + "modelDirectory"),
+      Long.getLong(PROPERTY_PREFIX + "modelHeapBudget", Runtime.getRuntime().maxMemory() / 2),
+      Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "memoryMapModels", "true")));
+
+  private final Path modelDirectory;
+  private final long heapBudget;
+  private final boolean memoryMap;
+  private final Map<Class<?>, String> modelTypes;
+
+  // Written while holding the lock on this, read without locking
+  private final ConcurrentMap<String, LoadedModel> models = new ConcurrentHashMap<>();
+
+  // Guarded by this
+  private final Set<String> pinnedModels = new HashSet<>();
+  private long usedHeap;
+
+  private final ConcurrentMap<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+  // Orders the uses of the models
+  private final AtomicLong useClock = new AtomicLong();
+
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  ModelRegistry(String modelDirectory, long heapBudget, boolean memoryMap) {
+    this(modelDirectory, heapBudget, memoryMap, MODEL_TYPES);
+  }
+
+  /**
+   * @param modelTypes the sub directory of each model class
+   */
+  ModelRegistry(String modelDirectory, long heapBudget, boolean memoryMap,
+      Map<Class<?>, String> modelTypes) {
+    this.modelDirectory = modelDirectory != null ? Paths.get(modelDirectory).toAbsolutePath().normalize() : null;
+    this.heapBudget = heapBudget;
+    this.memoryMap = memoryMap;
+    this.modelTypes = modelTypes;
+  }
+
+  public static ModelRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  private String getKey(Class<?> modelClazz, String modelName) {
+    return modelTypes.get(modelClazz) + "/" + modelName;
+  }
+
+  private Path getModelFile(Class<?> modelClazz, String modelName) {
+    if (modelDirectory == null || modelName == null || !modelTypes.containsKey(modelClazz)) {
+      return null;
+    }
+
+    Path modelFile = modelDirectory.resolve(modelTypes.get(modelClazz))
+        .resolve(modelName + MODEL_EXTENSION).normalize();
+
+    // The model name must not point outside of the model directory
+    if (!modelFile.startsWith(modelDirectory) || !Files.isRegularFile(modelFile)) {
+      return null;
+    }
+
+    return modelFile;
+  }
+
+  /**
+   * Checks if the model can be loaded by this registry.
+   *
+   * @param modelClazz the class of the model
+   * @param modelName the name of the model
+   *
+   * @return true if a model file exists for the model
+   */
+  public boolean contains(Class<?> modelClazz, String modelName) {
+    return getModelFile(modelClazz, modelName) != null;
+  }
+
+  /**
+   * Retrieves a model, the model is loaded if it is not cached.
+   *
+   * @param modelClazz the class of the model
+   * @param modelName the name of the model
+   *
+   * @return the model or null if the registry does not contain it
+   *
+   * @throws IOException if the model cannot be loaded
+   */
+  public <M> M getModel(Class<M> modelClazz, String modelName) throws IOException {
+
+    String key = getKey(modelClazz, modelName);
+
+    LoadedModel loadedModel = models.get(key);
+
+    if (loadedModel != null) {
+      loadedModel.lastUse.set(useClock.incrementAndGet());
+      return modelClazz.cast(loadedModel.model);
+    }
+
+    Path modelFile = getModelFile(modelClazz, modelName);
+
+    if (modelFile == null) {
+      return null;
+    }
+
+    // Only one thread loads a model, the others wait for it
+    synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+
+      loadedModel = models.get(key);
+
+      if (loadedModel != null) {
+        loadedModel.lastUse.set(useClock.incrementAndGet());
+      }
+      else {
+        long startTime = System.currentTimeMillis();
+
+        loadedModel = new LoadedModel(ModelUtil.loadModel(modelClazz, modelFile, memoryMap),
+            ModelUtil.estimateHeapSize(modelFile));
+        loadedModel.lastUse.set(useClock.incrementAndGet());
+        loadCount.incrementAndGet();
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+          LOGGER.info("Loaded model " + key + " in "
+              + (System.currentTimeMillis() - startTime) + "ms");
+        }
+
+        synchronized (this) {
+          models.put(key, loadedModel);
+          usedHeap += loadedModel.size;
+          evict();
+        }
+      }
+    }
+
+    return modelClazz.cast(loadedModel.model);
+  }
+
+  /**
+   * Checks that the model instance is still loaded and records the use of it.
+   * The check does not lock.
+   *
+   * @param modelClazz the class of the model
+   * @param modelName the name of the model
+   * @param model the model instance
+   *
+   * @return true if the model was not evicted
+   */
+  public boolean isLoaded(Class<?> modelClazz, String modelName, Object model) {
+    LoadedModel loadedModel = models.get(getKey(modelClazz, modelName));
+
+    if (loadedModel == null || loadedModel.model != model) {
+      return false;
+    }
+
+    loadedModel.lastUse.set(useClock.incrementAndGet());
+    return true;
+  }
+
+  // Must be called while holding the lock on this, the uses are taken
+  // at once because they change concurrently
+  private TreeMap<Long, String> getModelsByLastUse() {
+    TreeMap<Long, String> modelsByLastUse = new TreeMap<>();
+
+    // Every use has its own clock value
+    for (Map.Entry<String, LoadedModel> entry : models.entrySet()) {
+      modelsByLastUse.put(entry.getValue().lastUse.get(), entry.getKey());
+    }
+
+    return modelsByLastUse;
+  }
+
+  // Must be called while holding the lock on this
+  private void evict() {
+
+    if (usedHeap <= heapBudget) {
+      return;
+    }
+
+    TreeMap<Long, String> modelsByLastUse = getModelsByLastUse();
+
+    // The most recently used model is kept, even if it exceeds the budget alone
+    modelsByLastUse.pollLastEntry();
+
+    for (String key : modelsByLastUse.values()) {
+      if (usedHeap <= heapBudget) {
+        break;
+      }
+
+      if (!pinnedModels.contains(key)) {
+        usedHeap -= models.remove(key).size;
+        evictionCount.incrementAndGet();
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+          LOGGER.info("Evicted model " + key);
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads the models of the warm set, a model which cannot be
+   * loaded is skipped.
+   */
+  public void loadWarmModels() {
+
+    String warmModels = System.getProperty(PROPERTY_PREFIX + "warmModels");
+
+    if (warmModels == null || modelDirectory == null) {
+      return;
+    }
+
+    for (String warmModel : warmModels.split(",")) {
+      String[] typeAndName = warmModel.trim().split("/", 2);
+
+      Class<?> modelClazz = null;
+      for (Map.Entry<Class<?>, String> type : modelTypes.entrySet()) {
+        if (type.getValue().equals(typeAndName[0])) {
+          modelClazz = type.getKey();
+        }
+      }
+
+      if (modelClazz == null || typeAndName.length != 2) {
+        LOGGER.warning("Invalid warm model " + warmModel);
+        continue;
+      }
+
+      try {
+        synchronized (this) {
+          pinnedModels.add(getKey(modelClazz, typeAndName[1]));
+        }
+
+        if (getModel(modelClazz, typeAndName[1]) == null) {
+          LOGGER.warning("Warm model " + warmModel + " does not exist!");
+        }
+      } catch (IOException e) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.log(Level.WARNING, "Failed to load warm model " + warmModel, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all loaded models.
+   */
+  public synchronized void clear() {
+    models.clear();
+    pinnedModels.clear();
+    usedHeap = 0;
+  }
+
+  @Override
+  public synchronized int getLoadedModelCount() {
+    return models.size();
+  }
+
+  @Override
+  public synchronized long getUsedHeap() {
+    return usedHeap;
+  }
+
+  @Override
+  public long getHeapBudget() {
+    return heapBudget;
+  }
+
+  @Override
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @Override
+  public synchronized String[] getLoadedModels() {
+    return getModelsByLastUse().values().toArray(new String[0]);
+  }
+}
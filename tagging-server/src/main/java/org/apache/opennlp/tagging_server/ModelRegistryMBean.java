@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+/**
+ * Management interface of the {@link ModelRegistry}, the attributes
+ * can be monitored via JMX.
+ */
+public interface ModelRegistryMBean {
+
+  /**
+   * @return the number of models which are currently loaded
+   */
+  int getLoadedModelCount();
+
+  /**
+   * @return the estimated heap size in bytes of all loaded models
+   */
+  long getUsedHeap();
+
+  /**
+   * @return the heap budget in bytes for the loaded models
+   */
+  long getHeapBudget();
+
+  /**
+   * @return the number of models which were loaded
+   */
+  long getLoadCount();
+
+  /**
+   * @return the number of models which were evicted
+   */
+  long getEvictionCount();
+
+  /**
+   * @return the names of the loaded models, the least recently used first
+   */
+  String[] getLoadedModels();
+}
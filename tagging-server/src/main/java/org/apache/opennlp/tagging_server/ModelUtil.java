@@ -17,6 +17,19 @@
 
 package org.apache.opennlp.tagging_server;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
@@ -55,4 +68,105 @@ public class ModelUtil {
       context.ungetService(service);
     }
   }
+
+  /**
+   * Reads a model from a mapped byte buffer, the bytes are not copied
+   * into an intermediate heap buffer.
+   */
+  private static class MappedInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    MappedInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+  /**
+   * Loads a model from a file, the model class must have a constructor
+   * which reads the model from an {@link InputStream}.
+   *
+   * @param modelClazz the class of the model, e.g. {@code POSModel}
+   * @param modelFile the model file
+   * @param memoryMap true if the file should be memory mapped instead of read
+   *
+   * @return the model
+   *
+   * @throws IOException if the model cannot be read
+   */
+  public static <M> M loadModel(Class<M> modelClazz, Path modelFile, boolean memoryMap)
+      throws IOException {
+
+    try (FileChannel channel = FileChannel.open(modelFile, StandardOpenOption.READ)) {
+
+      InputStream in;
+
+      // A buffer can only map up to 2 GB
+      if (memoryMap && channel.size() <= Integer.MAX_VALUE) {
+        in = new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+      else {
+        in = new BufferedInputStream(Files.newInputStream(modelFile));
+      }
+
+      try (InputStream modelIn = in) {
+        return modelClazz.getConstructor(InputStream.class).newInstance(modelIn);
+      }
+      catch (InvocationTargetException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+
+        throw new IOException("Failed to load model " + modelFile, e.getCause());
+      }
+      catch (ReflectiveOperationException e) {
+        throw new IOException(modelClazz.getName() + " cannot be loaded from a stream!", e);
+      }
+    }
+  }
+
+  /**
+   * Estimates the heap a loaded model needs by the uncompressed size
+   * of the model package.
+   *
+   * @param modelFile the model file
+   *
+   * @return the estimated size in bytes
+   *
+   * @throws IOException if the model file cannot be read
+   */
+  public static long estimateHeapSize(Path modelFile) throws IOException {
+
+    long size = 0;
+
+    try (ZipFile zip = new ZipFile(modelFile.toFile())) {
+      for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+        long entrySize = entries.nextElement().getSize();
+        size += entrySize > 0 ? entrySize : 0;
+      }
+    }
+
+    return Math.max(size, Files.size(modelFile));
+  }
 }
@@ -21,14 +21,9 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
-import opennlp.tools.postag.POSModel;
-import opennlp.tools.postag.POSTagger;
-import opennlp.tools.postag.POSTaggerME;
-
-import org.osgi.framework.ServiceReference;
-
 @Path("/postagger")
 public class POSTaggerResource {
 
@@ -37,23 +32,16 @@ public class POSTaggerResource {
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_tag")
   // @QueryParam("lang") String lang,
-  // @QueryParam("model") String modelName
-  public String[][] tag(String[][] document) {
-    
-    ServiceReference modelService = ModelUtil.getService(POSModel.class);
+  public String[][] tag(@QueryParam("model") String modelName, String[][] document) {
     
-    try {
+    return TaggerPools.POS_TAGGERS.execute(modelName, tagger -> {
       String[][] tags = new String[document.length][];
       
-      POSTagger tagger = new POSTaggerME(ModelUtil.getModel(modelService, POSModel.class));
       for (int i = 0; i < document.length; i++) {
         tags[i] = tagger.tag(document[i]);
       }
       
       return tags;
-    }
-    finally {
-      ModelUtil.releaseService(modelService);
-    }
+    });
   }
 }
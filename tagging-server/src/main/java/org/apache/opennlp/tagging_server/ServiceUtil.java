@@ -61,22 +61,31 @@ public class ServiceUtil {
   @SuppressWarnings("unchecked")
   public static <T> T getService(ServiceReference modelService, Class<T> modelClazz) {
     
-    T model;
-    if (modelService != null) {
+    T model = null;
+    // The bundle is null after the service was unregistered
+    if (modelService != null && modelService.getBundle() != null) {
       BundleContext context = modelService.getBundle().getBundleContext();
       model = (T) context.getService(modelService);
     }
-    else {
+
+    if (model == null) {
       throw new RuntimeException("Model does not exist!");
     }
     
     return model;
   }
 
+  /**
+   * Releases a service, a service which was unregistered in the meantime
+   * was already released by the framework and is skipped.
+   */
   public static void releaseService(ServiceReference service) {
     if (service != null) {
-      BundleContext context = service.getBundle().getBundleContext();
-      context.ungetService(service);
+      Bundle bundle = service.getBundle();
+
+      if (bundle != null) {
+        bundle.getBundleContext().ungetService(service);
+      }
     }
   }
 }
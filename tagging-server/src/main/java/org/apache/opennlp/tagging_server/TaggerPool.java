@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.osgi.framework.ServiceReference;
+
+/**
+ * A pool of tagger instances keyed by model name.
+ * <p>
+ * A named model is taken from the {@link ModelRegistry} if its model directory
+ * contains the model, otherwise from the model services. The model service
+ * reference is looked up once and kept until the service is unregistered, a
+ * registry model is kept until the registry evicts it.
+ * The taggers, e.g. a {@code POSTaggerME}, are not thread safe,
+ * a request borrows an instance for its exclusive use and returns it afterwards.
+ * At most {@code maxIdle} instances per model are kept for reuse.
+ *
+ * @param <M> the type of the model
+ * @param <T> the type of the tagger
+ */
+public class TaggerPool<M, T> implements TaggerPoolMBean {
+
+  private static final String DEFAULT_MODEL = "";
+
+  /**
+   * Looks up the model services, by default through the bundle of the tagging server.
+   */
+  interface ModelServices {
+
+    /**
+     * @param modelName the name of the model or null for the default model
+     * @return the reference or null if there is no such service
+     */
+    ServiceReference getReference(Class<?> modelClazz, String modelName);
+
+    <M> M getService(ServiceReference reference, Class<M> modelClazz);
+
+    void release(ServiceReference reference);
+  }
+
+  private static final ModelServices OSGI_SERVICES = new ModelServices() {
+    @Override
+    public ServiceReference getReference(Class<?> modelClazz, String modelName) {
+      return modelName != null
+          ? ServiceUtil.getModelServiceReference(modelClazz, modelName)
+          : ServiceUtil.getServiceReference(modelClazz);
+    }
+
+    @Override
+    public <M> M getService(ServiceReference reference, Class<M> modelClazz) {
+      return ServiceUtil.getService(reference, modelClazz);
+    }
+
+    @Override
+    public void release(ServiceReference reference) {
+      ServiceUtil.releaseService(reference);
+    }
+  };
+
+  private class PoolEntry {
+    private final String modelName;
+    private final ServiceReference reference;
+    private final M model;
+    private final Queue<T> idleTaggers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    PoolEntry(String modelName, ServiceReference reference, M model) {
+      this.modelName = modelName;
+      this.reference = reference;
+      this.model = model;
+    }
+
+    boolean isValid() {
+      if (reference == null) {
+        return ModelRegistry.getInstance().isLoaded(modelClazz, modelName, model);
+      }
+
+      // The bundle is null after the service was unregistered
+      return reference.getBundle() != null;
+    }
+  }
+
+  private final String name;
+  private final Class<M> modelClazz;
+  private final Function<M, T> taggerFactory;
+  private final Consumer<T> taggerReset;
+  private final int maxIdle;
+  private final ModelServices services;
+
+  private final ConcurrentMap<String, PoolEntry> entries = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong totalLatency = new AtomicLong();
+
+  /**
+   * Initializes the pool.
+   *
+   * @param name the name of the pool
+   * @param modelClazz the class the model services are registered with
+   * @param taggerFactory creates a new tagger for a model
+   * @param taggerReset resets the state of a tagger before it is reused
+   * @param maxIdle the maximum number of instances per model kept for reuse
+   */
+  public TaggerPool(String name, Class<M> modelClazz, Function<M, T> taggerFactory,
+      Consumer<T> taggerReset, int maxIdle) {
+    this(name, modelClazz, taggerFactory, taggerReset, maxIdle, OSGI_SERVICES);
+  }
+
+  TaggerPool(String name, Class<M> modelClazz, Function<M, T> taggerFactory,
+      Consumer<T> taggerReset, int maxIdle, ModelServices services) {
+    this.name = name;
+    this.modelClazz = modelClazz;
+    this.taggerFactory = taggerFactory;
+    this.taggerReset = taggerReset;
+    this.maxIdle = maxIdle;
+    this.services = services;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private PoolEntry getEntry(String modelName) {
+
+    String key = modelName != null ? modelName : DEFAULT_MODEL;
+
+    PoolEntry entry = entries.get(key);
+
+    if (entry == null || !entry.isValid()) {
+      entry = entries.compute(key, (k, oldEntry) -> {
+        if (oldEntry != null) {
+          if (oldEntry.isValid()) {
+            return oldEntry;
+          }
+
+          services.release(oldEntry.reference);
+        }
+
+        ModelRegistry registry = ModelRegistry.getInstance();
+
+        M registryModel;
+        try {
+          registryModel = registry.getModel(modelClazz, modelName);
+        } catch (IOException e) {
+          throw new RuntimeException("Failed to load model " + modelName, e);
+        }
+
+        if (registryModel != null) {
+          return new PoolEntry(modelName, null, registryModel);
+        }
+
+        ServiceReference reference = services.getReference(modelClazz, modelName);
+
+        return new PoolEntry(modelName, reference, services.getService(reference, modelClazz));
+      });
+    }
+
+    return entry;
+  }
+
+  /**
+   * Retrieves the model, the service reference is cached.
+   *
+   * @param modelName the name of the model or null for the default model
+   *
+   * @return the model
+   */
+  public M getModel(String modelName) {
+    return getEntry(modelName).model;
+  }
+
+  /**
+   * Executes the task with a tagger for the given model.
+   *
+   * @param modelName the name of the model or null for the default model
+   * @param task the task which uses the tagger
+   *
+   * @return the result of the task
+   */
+  public <R> R execute(String modelName, Function<T, R> task) {
+
+    PoolEntry entry = getEntry(modelName);
+
+    T tagger = entry.idleTaggers.poll();
+
+    if (tagger != null) {
+      entry.idleCount.decrementAndGet();
+      hitCount.incrementAndGet();
+    }
+    else {
+      tagger = taggerFactory.apply(entry.model);
+      missCount.incrementAndGet();
+    }
+
+    long startTime = System.nanoTime();
+
+    try {
+      return task.apply(tagger);
+    }
+    finally {
+      totalLatency.addAndGet(System.nanoTime() - startTime);
+      requestCount.incrementAndGet();
+
+      taggerReset.accept(tagger);
+
+      if (entry.idleCount.incrementAndGet() <= maxIdle) {
+        entry.idleTaggers.offer(tagger);
+      }
+      else {
+        entry.idleCount.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Releases all cached service references.
+   */
+  public void close() {
+    for (PoolEntry entry : entries.values()) {
+      services.release(entry.reference);
+    }
+
+    entries.clear();
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  @Override
+  public double getAverageLatency() {
+    long requests = requestCount.get();
+    return requests > 0 ? totalLatency.get() / 1e6 / requests : 0;
+  }
+
+  @Override
+  public int getModelCount() {
+    return entries.size();
+  }
+}
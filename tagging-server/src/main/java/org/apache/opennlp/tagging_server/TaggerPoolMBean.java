@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+/**
+ * Management interface of a {@link TaggerPool}, the attributes
+ * can be monitored via JMX.
+ */
+public interface TaggerPoolMBean {
+
+  /**
+   * @return the number of requests which reused a pooled instance
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of requests which had to create a new instance
+   */
+  long getMissCount();
+
+  /**
+   * @return the number of processed requests
+   */
+  long getRequestCount();
+
+  /**
+   * @return the average time in milliseconds the tagger needed per request
+   */
+  double getAverageLatency();
+
+  /**
+   * @return the number of models which are currently cached
+   */
+  int getModelCount();
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.opennlp.tagging_server.namefind.RawTextNameFinderFactory;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinder;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTagger;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.sentdetect.SentenceDetector;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+
+/**
+ * The tagger pools which are shared by all resources of the tagging server.
+ */
+public class TaggerPools {
+
+  private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors() * 2;
+
+  public static final TaggerPool<SentenceModel, SentenceDetector> SENTENCE_DETECTORS =
+      new TaggerPool<>("SentenceDetector", SentenceModel.class, SentenceDetectorME::new,
+          sentDetector -> { }, MAX_IDLE);
+
+  public static final TaggerPool<TokenizerModel, Tokenizer> TOKENIZERS =
+      new TaggerPool<>("Tokenizer", TokenizerModel.class, TokenizerME::new,
+          tokenizer -> { }, MAX_IDLE);
+
+  public static final TaggerPool<POSModel, POSTagger> POS_TAGGERS =
+      new TaggerPool<>("POSTagger", POSModel.class, POSTaggerME::new,
+          tagger -> { }, MAX_IDLE);
+
+  public static final TaggerPool<TokenNameFinderModel, TokenNameFinder> NAME_FINDERS =
+      new TaggerPool<>("NameFinder", TokenNameFinderModel.class, NameFinderME::new,
+          TokenNameFinder::clearAdaptiveData, MAX_IDLE);
+
+  /**
+   * The factories create thread confined instances themselves,
+   * only the service references are cached.
+   */
+  public static final TaggerPool<RawTextNameFinderFactory, RawTextNameFinderFactory> RAW_TEXT_NAME_FINDERS =
+      new TaggerPool<>("RawTextNameFinder", RawTextNameFinderFactory.class, factory -> factory,
+          factory -> { }, 0);
+
+  private TaggerPools() {
+  }
+
+  public static List<TaggerPool<?, ?>> getPools() {
+    return Arrays.asList(SENTENCE_DETECTORS, TOKENIZERS, POS_TAGGERS, NAME_FINDERS,
+        RAW_TEXT_NAME_FINDERS);
+  }
+}
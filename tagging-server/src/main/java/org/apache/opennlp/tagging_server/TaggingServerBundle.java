@@ -17,9 +17,14 @@
 
 package org.apache.opennlp.tagging_server;
 
+import java.lang.management.ManagementFactory;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.servlet.ServletException;
 
 import org.osgi.framework.BundleActivator;
@@ -33,6 +38,8 @@ import org.glassfish.jersey.servlet.ServletContainer;
 
 public class TaggingServerBundle implements BundleActivator {
 
+  private final static Logger LOGGER = Logger.getLogger(TaggingServerBundle.class.getName());
+
   private BundleContext context;
   
   private ServiceTracker tracker;
@@ -76,11 +83,58 @@ public class TaggingServerBundle implements BundleActivator {
     };
 
     this.tracker.open();
+    
+    ModelRegistry.getInstance().loadWarmModels();
+    
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(ModelRegistry.getInstance(),
+          getRegistryObjectName());
+    } catch (JMException e) {
+      LOGGER.log(Level.WARNING, "Failed to register metrics of model registry!", e);
+    }
+    
+    for (TaggerPool<?, ?> pool : TaggerPools.getPools()) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(pool,
+            getPoolObjectName(pool));
+      } catch (JMException e) {
+        LOGGER.log(Level.WARNING, "Failed to register metrics of " + pool.getName() + " pool!", e);
+      }
+    }
+  }
+  
+  private static ObjectName getRegistryObjectName() throws JMException {
+    return new ObjectName("org.apache.opennlp.tagging_server:type=ModelRegistry");
+  }
+  
+  private static ObjectName getPoolObjectName(TaggerPool<?, ?> pool) throws JMException {
+    return new ObjectName("org.apache.opennlp.tagging_server:type=TaggerPool,name="
+        + pool.getName());
   }
 
   @Override
   public void stop(BundleContext context) throws Exception {
     this.context = null;
     tracker.close();
+    
+    BatchProcessor.shutdown();
+    
+    for (TaggerPool<?, ?> pool : TaggerPools.getPools()) {
+      pool.close();
+      
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(getPoolObjectName(pool));
+      } catch (JMException e) {
+        LOGGER.log(Level.WARNING, "Failed to unregister metrics of " + pool.getName() + " pool!", e);
+      }
+    }
+    
+    ModelRegistry.getInstance().clear();
+    
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(getRegistryObjectName());
+    } catch (JMException e) {
+      LOGGER.log(Level.WARNING, "Failed to unregister metrics of model registry!", e);
+    }
   }
 }
@@ -31,8 +31,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
-import org.apache.opennlp.tagging_server.ServiceUtil;
-import org.osgi.framework.ServiceReference;
+import org.apache.opennlp.tagging_server.TaggerPools;
 
 import opennlp.tools.namefind.TokenNameFinder;
 import opennlp.tools.sentdetect.SentenceDetector;
@@ -64,17 +63,15 @@ public class BratNameFinderResource {
   @Produces(MediaType.APPLICATION_JSON)
   public Map<String, NameAnn> findNames(@QueryParam("model") String modelName, String text) {
     
-    ServiceReference nerService = ServiceUtil
-        .getModelServiceReference(RawTextNameFinderFactory.class, modelName);
-    
-    try {
+    RawTextNameFinderFactory nameFinderFactory =
+        TaggerPools.RAW_TEXT_NAME_FINDERS.getModel(modelName);
 
-      RawTextNameFinderFactory nameFinderFactory = ServiceUtil.getService(
-          nerService, RawTextNameFinderFactory.class);
+    TokenNameFinder[] nameFinders = nameFinderFactory.createNameFinders();
+
+    try {
 
       SentenceDetector sentDetect = nameFinderFactory.createSentenceDetector();
       Tokenizer tokenizer = nameFinderFactory.createTokenizer();
-      TokenNameFinder[] nameFinders = nameFinderFactory.createNameFinders();
 
       Span[] sentenceSpans = sentDetect.sentPosDetect(text);
 
@@ -151,7 +148,9 @@ public class BratNameFinderResource {
       return map;
     
     } finally {
-      ServiceUtil.releaseService(nerService);
+      for (TokenNameFinder nameFinder : nameFinders) {
+        nameFinder.clearAdaptiveData();
+      }
     }
   }
 }
@@ -27,11 +27,20 @@ import opennlp.tools.tokenize.Tokenizer;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 
+/**
+ * Creates the components from the models. The components are not thread safe,
+ * each thread gets its own instances which are reused by later calls
+ * of the same thread.
+ */
 public class DefaultRawTextNameFinderFactory implements RawTextNameFinderFactory {
   
   private final SentenceModel sentModel;
   private final TokenizerModel tokenModel;
   private final TokenNameFinderModel[] nameModels;
+  
+  private final ThreadLocal<SentenceDetector> sentenceDetectors;
+  private final ThreadLocal<Tokenizer> tokenizers;
+  private final ThreadLocal<TokenNameFinder[]> nameFinders;
 
   // TODO: How can this be an array of models with blueprint?!
   
@@ -40,27 +49,39 @@ public class DefaultRawTextNameFinderFactory implements RawTextNameFinderFactory
     this.sentModel = sentModel;
     this.tokenModel = tokenModel;
     this.nameModels = nameModels;
+    
+    sentenceDetectors = ThreadLocal.withInitial(() -> new SentenceDetectorME(sentModel));
+    tokenizers = ThreadLocal.withInitial(() -> new TokenizerME(tokenModel));
+    nameFinders = ThreadLocal.withInitial(this::newNameFinders);
+  }
+  
+  private TokenNameFinder[] newNameFinders() {
+    
+    TokenNameFinder[] nameFinders = new TokenNameFinder[nameModels.length];
+    
+    for (int i = 0; i < nameFinders.length; i++) {
+      nameFinders[i] = new NameFinderME(nameModels[i]);
+    }
+    
+    return nameFinders;
   }
 
   @Override
   public SentenceDetector createSentenceDetector() {
-    return new SentenceDetectorME(sentModel);
+    return sentenceDetectors.get();
   }
 
   @Override
   public Tokenizer createTokenizer() {
-    return new TokenizerME(tokenModel);
+    return tokenizers.get();
   }
 
+  /**
+   * Retrieves the name finders of the calling thread, the caller must
+   * clear their adaptive data after a document was processed.
+   */
   @Override
   public TokenNameFinder[] createNameFinders() {
-    
-    TokenNameFinder[] nameFinders = new TokenNameFinder[nameModels.length];
-    
-    for (int i = 0; i < nameFinders.length; i++) {
-      nameFinders[i] = new NameFinderME(nameModels[i]);
-    }
-    
-    return nameFinders;
+    return nameFinders.get();
   }
 }
@@ -24,21 +24,24 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
 
-import org.apache.opennlp.tagging_server.ServiceUtil;
-import org.osgi.framework.ServiceReference;
+import org.apache.opennlp.tagging_server.BatchProcessor;
+import org.apache.opennlp.tagging_server.TaggerPools;
 
-import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.TokenNameFinder;
-import opennlp.tools.namefind.TokenNameFinderModel;
-import opennlp.tools.sentdetect.SentenceDetector;
-import opennlp.tools.tokenize.Tokenizer;
 import opennlp.tools.util.Span;
 
 @Path("/namefinder")
 public class NameFinderResource {
 
+  @Context
+  private Providers providers;
+
   public static class NameFinderDocument {
     private final List<Span[]> document;
     private final List<Span[]> names;
@@ -57,31 +60,13 @@ public class NameFinderResource {
     }
   }
   
-  private List<Span[]> find(TokenNameFinder[] nameFinders, String[][] document) {
-
-    List<Span[]> names = new ArrayList<>();
-
-    for (String[] sentence : document) {
-      for (TokenNameFinder nameFinder : nameFinders) {
-        names.add(nameFinder.find(sentence));
-      }
-    }
-
-    return names;
-  }
-  
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_find")
-  public List<Span[]> find(String[][] document) {
+  public List<Span[]> find(@QueryParam("model") String modelName, String[][] document) {
     
-    ServiceReference modelService = ServiceUtil.getServiceReference(TokenNameFinderModel.class);
-    
-    try {
-      NameFinderME nameFinder = new NameFinderME(
-          ServiceUtil.getService(modelService, TokenNameFinderModel.class));
-      
+    return TaggerPools.NAME_FINDERS.execute(modelName, nameFinder -> {
       List<Span[]> names = new ArrayList<>();
       
       for (String[] sentence : document) {
@@ -89,70 +74,116 @@ public class NameFinderResource {
       }
       
       return names;
-    }
-    finally {
-      ServiceUtil.releaseService(modelService);
-    }
+    });
   }
 
-  // TODO:
-  // User should pass a key for the models (e.g. default_eng)
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
-  @Path("   ")
-  public NameFinderDocument findRawText(String document) {
+  @Path("_findBatch")
+  public List<List<Span[]>> findBatch(@QueryParam("model") String modelName, String[][][] documents) {
+    return BatchProcessor.process(documents, document -> find(modelName, document));
+  }
 
-    ServiceReference preprocessFactoryService = ServiceUtil.getServiceReference(RawTextNameFinderFactory.class);
-    
-    try {
-      // TODO: Pass a key here!
-      RawTextNameFinderFactory factory =
-              ServiceUtil.getService(preprocessFactoryService, RawTextNameFinderFactory.class);
-      
-      SentenceDetector sentDetect = factory.createSentenceDetector();
-      Tokenizer tokenizer = factory.createTokenizer();
-      
-      Span[] sentenceSpans = sentDetect.sentPosDetect(document);
-      
-      List<Span[]> tokenizedSentencesSpan = new ArrayList<>();
-      String[][] tokenizedSentences = new String[sentenceSpans.length][];
-      
-      for (int i = 0; i < sentenceSpans.length; i++) {
-        // offset of sentence gets lost here!
-        Span[] tokenSpans = tokenizer.tokenizePos(sentenceSpans[i].getCoveredText(document).toString());
-        // all spans need to be sentence offset adjusted!
-        tokenSpans = offsetSpans(tokenSpans, sentenceSpans[i].getStart());
-        
-        tokenizedSentencesSpan.add(tokenSpans);
-        
-        String[] tokens = new String[tokenSpans.length];
-        for (int ti = 0; ti < tokenSpans.length; ti++) {
-          tokens[ti] = tokenSpans[ti].getCoveredText(document).toString();
-        }
-        
-        tokenizedSentences[i] = tokens;
-      }
-      
-      TokenNameFinder[] nameFinders = factory.createNameFinders();
-      
-      return new NameFinderDocument(tokenizedSentencesSpan, find(nameFinders, tokenizedSentences));
-    }
-    finally {
-      ServiceUtil.releaseService(preprocessFactoryService);
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(BatchProcessor.APPLICATION_NDJSON)
+  @Path("_findStream")
+  public StreamingOutput findStream(@QueryParam("model") String modelName, String[][][] documents) {
+    return BatchProcessor.stream(documents, document -> find(modelName, document), providers);
+  }
+
+  /**
+   * The tokens of one sentence.
+   */
+  private static class TokenizedSentence {
+    private final Span[] tokenSpans;
+    private final String[] tokens;
+
+    TokenizedSentence(Span[] tokenSpans, String[] tokens) {
+      this.tokenSpans = tokenSpans;
+      this.tokens = tokens;
     }
   }
 
-  private Span[] offsetSpans(
-      Span[] tokenSpans, int offset) {
-    
-    Span[] spans = new Span[tokenSpans.length];
-    
+  /**
+   * Tokenizes a sentence, the tokenizer is retrieved from the factory
+   * by the calling worker thread.
+   */
+  private static TokenizedSentence tokenizeSentence(RawTextNameFinderFactory factory,
+      String document, Span sentenceSpan) {
+
+    // The tokenizer only accepts a String, the sentence is copied once
+    // and the tokens are taken from that copy
+    String sentence = document.substring(sentenceSpan.getStart(), sentenceSpan.getEnd());
+
+    Span[] tokenSpans = factory.createTokenizer().tokenizePos(sentence);
+    String[] tokens = Span.spansToStrings(tokenSpans, sentence);
+
+    // Move the token spans to document offsets in place
+    int offset = sentenceSpan.getStart();
     for (int i = 0; i < tokenSpans.length; i++) {
-      spans[i] = new Span(tokenSpans[i].getStart() + offset,
+      tokenSpans[i] = new Span(tokenSpans[i].getStart() + offset,
           tokenSpans[i].getEnd() + offset);
     }
-    
-    return spans;
+
+    return new TokenizedSentence(tokenSpans, tokens);
+  }
+
+  /**
+   * Detects the sentences of a raw text document and tokenizes them in parallel,
+   * then runs the name finders in parallel.
+   * <p>
+   * Every name finder sees the sentences in document order, and its adaptive data
+   * is cleared at the end of the document.
+   *
+   * @param modelName the key of the raw text name finder or null for the default
+   * @param document the raw text
+   *
+   * @return the token spans and the names per sentence and name finder
+   */
+  @POST
+  @Consumes({MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON})
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("_findRawText")
+  public NameFinderDocument findRawText(@QueryParam("model") String modelName, String document) {
+
+    RawTextNameFinderFactory factory = TaggerPools.RAW_TEXT_NAME_FINDERS.getModel(modelName);
+
+    Span[] sentenceSpans = factory.createSentenceDetector().sentPosDetect(document);
+
+    List<TokenizedSentence> sentences = BatchProcessor.process(sentenceSpans,
+        sentenceSpan -> tokenizeSentence(factory, document, sentenceSpan));
+
+    TokenNameFinder[] nameFinders = factory.createNameFinders();
+
+    // Each task owns one name finder, and walks the sentences in document order
+    List<Span[][]> namesPerFinder = BatchProcessor.process(nameFinders, nameFinder -> {
+      try {
+        Span[][] found = new Span[sentences.size()][];
+
+        for (int i = 0; i < found.length; i++) {
+          found[i] = nameFinder.find(sentences.get(i).tokens);
+        }
+
+        return found;
+      }
+      finally {
+        nameFinder.clearAdaptiveData();
+      }
+    });
+
+    List<Span[]> tokenizedSentencesSpan = new ArrayList<>(sentences.size());
+    List<Span[]> names = new ArrayList<>(sentences.size() * nameFinders.length);
+
+    for (int i = 0; i < sentences.size(); i++) {
+      tokenizedSentencesSpan.add(sentences.get(i).tokenSpans);
+
+      for (Span[][] finderNames : namesPerFinder) {
+        names.add(finderNames[i]);
+      }
+    }
+
+    return new NameFinderDocument(tokenizedSentencesSpan, names);
   }
 }
@@ -24,6 +24,9 @@ import opennlp.tools.tokenize.Tokenizer;
 /**
  * The raw text name finder factory supports the creation of all
  * components which are needed to process raw text with the name finder.
+ * <p>
+ * The components might be reused by the factory, they must only be used
+ * by the calling thread.
  */
 public interface RawTextNameFinderFactory {
   SentenceDetector createSentenceDetector();
@@ -17,35 +17,35 @@
 
 package org.apache.opennlp.tagging_server.postag;
 
+import java.util.List;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
 
-import org.apache.opennlp.tagging_server.ServiceUtil;
-import org.osgi.framework.ServiceReference;
-
-import opennlp.tools.postag.POSModel;
-import opennlp.tools.postag.POSTagger;
-import opennlp.tools.postag.POSTaggerME;
+import org.apache.opennlp.tagging_server.BatchProcessor;
+import org.apache.opennlp.tagging_server.TaggerPools;
 
 @Path("/postagger")
 public class POSTaggerResource {
 
+  @Context
+  private Providers providers;
+
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_tag")
   // @QueryParam("lang") String lang,
-  // @QueryParam("model") String modelName
-  public String[][] tag(String[][] document) {
-    
-    ServiceReference modelService = ServiceUtil.getServiceReference(POSModel.class);
+  public String[][] tag(@QueryParam("model") String modelName, String[][] document) {
     
-    try {
-      POSTagger tagger = new POSTaggerME(ServiceUtil.getService(modelService, POSModel.class));
-      
+    return TaggerPools.POS_TAGGERS.execute(modelName, tagger -> {
       String[][] tags = new String[document.length][];
       
       for (int i = 0; i < document.length; i++) {
@@ -53,9 +53,22 @@ public class POSTaggerResource {
       }
       
       return tags;
-    }
-    finally {
-      ServiceUtil.releaseService(modelService);
-    }
+    });
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("_tagBatch")
+  public List<String[][]> tagBatch(@QueryParam("model") String modelName, String[][][] documents) {
+    return BatchProcessor.process(documents, document -> tag(modelName, document));
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(BatchProcessor.APPLICATION_NDJSON)
+  @Path("_tagStream")
+  public StreamingOutput tagStream(@QueryParam("model") String modelName, String[][][] documents) {
+    return BatchProcessor.stream(documents, document -> tag(modelName, document), providers);
   }
 }
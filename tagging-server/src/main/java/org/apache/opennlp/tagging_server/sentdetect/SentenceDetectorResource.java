@@ -24,35 +24,46 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
 
-import org.apache.opennlp.tagging_server.ServiceUtil;
-import org.osgi.framework.ServiceReference;
+import org.apache.opennlp.tagging_server.BatchProcessor;
+import org.apache.opennlp.tagging_server.TaggerPools;
 
-import opennlp.tools.sentdetect.SentenceDetector;
-import opennlp.tools.sentdetect.SentenceDetectorME;
-import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.util.Span;
 
 @Path("/sentdetect")
 public class SentenceDetectorResource {
 
+  @Context
+  private Providers providers;
+
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_sentPosDetect")
-  public List<Span> sentPosDetect(String document) {
+  public List<Span> sentPosDetect(@QueryParam("model") String modelName, String document) {
     
-    ServiceReference modelService = ServiceUtil.getServiceReference(SentenceModel.class);
-      
-    try {
-      SentenceDetector sentDetector = new SentenceDetectorME(
-              ServiceUtil.getService(modelService, SentenceModel.class));
-      
-      return Arrays.asList(sentDetector.sentPosDetect(document));
-    }
-    finally {
-      ServiceUtil.releaseService(modelService);
-    }
+    return TaggerPools.SENTENCE_DETECTORS.execute(modelName,
+        sentDetector -> Arrays.asList(sentDetector.sentPosDetect(document)));
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("_sentPosDetectBatch")
+  public List<List<Span>> sentPosDetectBatch(@QueryParam("model") String modelName, String[] documents) {
+    return BatchProcessor.process(documents, document -> sentPosDetect(modelName, document));
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(BatchProcessor.APPLICATION_NDJSON)
+  @Path("_sentPosDetectStream")
+  public StreamingOutput sentPosDetectStream(@QueryParam("model") String modelName, String[] documents) {
+    return BatchProcessor.stream(documents, document -> sentPosDetect(modelName, document), providers);
   }
 }
@@ -24,29 +24,30 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
 
-import org.apache.opennlp.tagging_server.ServiceUtil;
-import org.osgi.framework.ServiceReference;
+import org.apache.opennlp.tagging_server.BatchProcessor;
+import org.apache.opennlp.tagging_server.TaggerPools;
 
-import opennlp.tools.tokenize.TokenizerME;
-import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.Span;
 
 @Path("/tokenize")
 public class TokenizerResource {
 
+  @Context
+  private Providers providers;
+
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_tokenize")
-  public List<String[]> tokenize(String[] document) {
-    ServiceReference modelService = ServiceUtil.getServiceReference(TokenizerModel.class);
+  public List<String[]> tokenize(@QueryParam("model") String modelName, String[] document) {
     
-    try {
-      TokenizerME tokenizer = new TokenizerME(
-          ServiceUtil.getService(modelService, TokenizerModel.class));
-      
+    return TaggerPools.TOKENIZERS.execute(modelName, tokenizer -> {
       List<String[]> tokenizedSentences = new ArrayList<>();
       
       for (String sentence : document) {
@@ -54,23 +55,16 @@ public class TokenizerResource {
       }
       
       return tokenizedSentences;
-    }
-    finally {
-      ServiceUtil.releaseService(modelService);
-    }
+    });
   }
   
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   @Path("_tokenizePos")
-  public List<Span[]> tokenizePos(String[] document) {
-    ServiceReference modelService = ServiceUtil.getServiceReference(TokenizerModel.class);
+  public List<Span[]> tokenizePos(@QueryParam("model") String modelName, String[] document) {
     
-    try {
-      TokenizerME tokenizer = new TokenizerME(
-              ServiceUtil.getService(modelService, TokenizerModel.class));
-
+    return TaggerPools.TOKENIZERS.execute(modelName, tokenizer -> {
       List<Span[]> tokenizedSentences = new ArrayList<>();
       
       for (String sentence : document) {
@@ -78,9 +72,22 @@ public class TokenizerResource {
       }
       
       return tokenizedSentences;
-    }
-    finally {
-      ServiceUtil.releaseService(modelService);
-    }
+    });
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("_tokenizeBatch")
+  public List<List<String[]>> tokenizeBatch(@QueryParam("model") String modelName, String[][] documents) {
+    return BatchProcessor.process(documents, document -> tokenize(modelName, document));
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(BatchProcessor.APPLICATION_NDJSON)
+  @Path("_tokenizeStream")
+  public StreamingOutput tokenizeStream(@QueryParam("model") String modelName, String[][] documents) {
+    return BatchProcessor.stream(documents, document -> tokenize(modelName, document), providers);
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelRegistryTest {
+
+  // the estimated heap size of a test model
+  private static final int MODEL_SIZE = 1000;
+
+  public static class TestModel {
+    public TestModel(InputStream in) throws IOException {
+      in.readAllBytes();
+    }
+  }
+
+  @TempDir
+  File tempDir;
+
+  private ModelRegistry registry;
+
+  @BeforeEach
+  void setup() throws IOException {
+    Path typeDir = Files.createDirectory(tempDir.toPath().resolve("test"));
+    for (String modelName : new String[] {"a", "b", "c", "d", "e"}) {
+      try (ZipOutputStream zip = new ZipOutputStream(
+          Files.newOutputStream(typeDir.resolve(modelName + ".bin")))) {
+        zip.putNextEntry(new ZipEntry("model"));
+        zip.write(new byte[MODEL_SIZE]);
+        zip.closeEntry();
+      }
+    }
+
+    // two models fit into the budget
+    registry = new ModelRegistry(tempDir.getPath(), MODEL_SIZE * 5 / 2, false,
+        Map.of(TestModel.class, "test"));
+  }
+
+  @Test
+  void testEvictLeastRecentlyUsed() throws IOException {
+    TestModel a = registry.getModel(TestModel.class, "a");
+    TestModel b = registry.getModel(TestModel.class, "b");
+    assertSame(a, registry.getModel(TestModel.class, "a"));
+
+    assertNotNull(registry.getModel(TestModel.class, "c"));
+    assertArrayEquals(new String[] {"test/a", "test/c"}, registry.getLoadedModels());
+    assertFalse(registry.isLoaded(TestModel.class, "b", b));
+    assertEquals(2 * MODEL_SIZE, registry.getUsedHeap());
+    assertEquals(1, registry.getEvictionCount());
+  }
+
+  @Test
+  void testUsedModelSurvivesEviction() throws IOException {
+    TestModel a = registry.getModel(TestModel.class, "a");
+
+    // the pools only check their model, they don't retrieve it again
+    for (String modelName : new String[] {"b", "c", "d", "e"}) {
+      assertTrue(registry.isLoaded(TestModel.class, "a", a));
+      assertNotNull(registry.getModel(TestModel.class, modelName));
+      assertArrayEquals(new String[] {"test/a", "test/" + modelName}, registry.getLoadedModels());
+    }
+
+    assertTrue(registry.isLoaded(TestModel.class, "a", a));
+    assertEquals(5, registry.getLoadCount());
+    assertEquals(3, registry.getEvictionCount());
+  }
+}
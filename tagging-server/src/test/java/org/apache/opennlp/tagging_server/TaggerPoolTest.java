@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.opennlp.tagging_server;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaggerPoolTest {
+
+  /**
+   * A model service, the bundle of its reference is null after it was unregistered.
+   */
+  private static class ModelService {
+    private final ServiceReference reference;
+    private volatile boolean registered = true;
+    private int gets;
+    private int ungets;
+
+    ModelService(String model) {
+      BundleContext context = proxy(BundleContext.class, (method, args) -> {
+        switch (method) {
+          case "getService":
+            gets++;
+            return model;
+          case "ungetService":
+            ungets++;
+            return true;
+          default:
+            return null;
+        }
+      });
+      Bundle bundle = proxy(Bundle.class,
+          (method, args) -> "getBundleContext".equals(method) ? context : null);
+      reference = proxy(ServiceReference.class,
+          (method, args) -> "getBundle".equals(method) && registered ? bundle : null);
+    }
+  }
+
+  private final Map<String, ModelService> services = new ConcurrentHashMap<>();
+
+  // the tagger of a model holds the model
+  private final TaggerPool<String, StringBuilder> pool = new TaggerPool<>("test", String.class,
+      StringBuilder::new, tagger -> { }, 2, new TaggerPool.ModelServices() {
+        @Override
+        public ServiceReference getReference(Class<?> modelClazz, String modelName) {
+          ModelService service = services.get(modelName);
+          return service != null ? service.reference : null;
+        }
+
+        @Override
+        public <M> M getService(ServiceReference reference, Class<M> modelClazz) {
+          return ServiceUtil.getService(reference, modelClazz);
+        }
+
+        @Override
+        public void release(ServiceReference reference) {
+          ServiceUtil.releaseService(reference);
+        }
+      });
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> clazz, BiFunction<String, Object[], Object> handler) {
+    return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[] {clazz},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "toString":
+              return clazz.getSimpleName();
+            default:
+              return handler.apply(method.getName(), args);
+          }
+        });
+  }
+
+  private ModelService register(String modelName, String model) {
+    ModelService service = new ModelService(model);
+    services.put(modelName, service);
+    return service;
+  }
+
+  @AfterEach
+  void close() {
+    pool.close();
+  }
+
+  @Test
+  void testServiceIsCached() {
+    ModelService service = register("en-pos", "model");
+
+    assertEquals("model", pool.getModel("en-pos"));
+    assertEquals("model", pool.getModel("en-pos"));
+    assertEquals(1, service.gets);
+
+    pool.close();
+    assertEquals(1, service.ungets);
+  }
+
+  @Test
+  void testUnregisteredService() {
+    ModelService first = register("en-pos", "first");
+    assertEquals("first", pool.getModel("en-pos"));
+
+    first.registered = false;
+    ModelService second = register("en-pos", "second");
+
+    assertEquals("second", pool.getModel("en-pos"));
+    assertEquals("second", pool.execute("en-pos", StringBuilder::toString));
+    assertEquals(1, second.gets);
+    // the framework released the unregistered service
+    assertEquals(0, first.ungets);
+
+    second.registered = false;
+    pool.close();
+    assertEquals(0, second.ungets);
+  }
+}